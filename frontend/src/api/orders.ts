@@ -7,10 +7,20 @@ import type { PageResponse } from './types'
 
 const BASE = '/api/v1/orders'
 
+/** 注文一覧の1行（顧客名・明細数・合計金額を含む読み取りモデル） */
+export type OrderSummary = Order & {
+  customerNumber: string
+  customerName: string
+  itemCount: number
+  totalAmount: number
+}
+
 /** 注文検索クエリパラメータ */
 export type OrderSearchParams = {
   orderId?: string
   customerId?: string
+  customerNumber?: string
+  customerName?: string
   orderDateFrom?: string
   orderDateTo?: string
   status?: number
@@ -22,10 +32,12 @@ export type OrderSearchParams = {
 }
 
 /** 注文一覧検索（ページング・ソート対応） */
-export function searchOrders(params: OrderSearchParams = {}): Promise<PageResponse<Order>> {
-  return apiGet<PageResponse<Order>>(`${BASE}/search`, {
+export function searchOrders(params: OrderSearchParams = {}): Promise<PageResponse<OrderSummary>> {
+  return apiGet<PageResponse<OrderSummary>>(`${BASE}/search`, {
     orderId: params.orderId,
     customerId: params.customerId || undefined,
+    customerNumber: params.customerNumber || undefined,
+    customerName: params.customerName || undefined,
     orderDateFrom: params.orderDateFrom,
     orderDateTo: params.orderDateTo,
     status: params.status,
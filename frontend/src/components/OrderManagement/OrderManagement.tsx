@@ -1,7 +1,7 @@
 /**
  * 注文管理画面
  * - 顧客一覧は API で取得し検索フォームのドロップダウンに使用
- * - 注文一覧は searchOrders で取得（検索・ページ送りで再取得）
+ * - 注文一覧は searchOrders で取得（検索・ページ送りで再取得、顧客名・明細数・合計金額を含む）
  * - 確定: confirmOrder / キャンセル: cancelOrder を呼び出し
  */
 import { useState, useEffect, useCallback } from 'react'
@@ -10,9 +10,9 @@ import { OrderSearchForm } from '../OrderSearchForm'
 import { Pagination } from '../Pagination'
 import { Table, type TableColumn } from '../Table'
 import { Title } from '../Title'
-import { searchOrders, confirmOrder, cancelOrder } from '../../api/orders'
+import { searchOrders, confirmOrder, cancelOrder, type OrderSummary } from '../../api/orders'
 import { searchCustomers } from '../../api/customers'
-import type { Order, OrderSearchValues, Customer } from '../../types/entity'
+import type { OrderSearchValues, Customer } from '../../types/entity'
 
 /** 注文ステータス表示用ラベル */
 const ORDER_STATUS_LABELS: Record<number, string> = {
@@ -25,8 +25,8 @@ const ORDER_STATUS_LABELS: Record<number, string> = {
   6: 'キャンセル済み',
 }
 
-/** 一覧表示用（顧客名は API に含まれない場合は customerId を表示） */
-type OrderRow = Order & { customerNumber?: string; customerName?: string }
+/** 一覧表示用（顧客名・明細数・合計金額は注文一覧 API に含まれる） */
+type OrderRow = OrderSummary
 
 function OrderStatusBadge({ status }: { status: number }) {
   const label = ORDER_STATUS_LABELS[status] ?? '不明'
@@ -44,6 +44,8 @@ const ORDER_COLUMNS: readonly TableColumn<OrderRow>[] = [
   { key: 'orderId', header: '注文ID' },
   { key: 'customer', header: '顧客' },
   { key: 'orderDate', header: '注文日時' },
+  { key: 'itemCount', header: '明細数' },
+  { key: 'totalAmount', header: '合計金額' },
   { key: 'status', header: 'ステータス' },
   { key: 'actions', header: '操作' },
 ]
@@ -80,7 +82,7 @@ export function OrderManagement() {
         sortBy: 'orderDate',
         sortOrder: 'desc',
       })
-      setOrders((res.records ?? []) as OrderRow[])
+      setOrders(res.records ?? [])
       setTotalPages(Math.max(1, res.pages ?? 1))
       setPage(pageNum)
     } catch (e) {
@@ -169,6 +171,10 @@ export function OrderManagement() {
                     return order.customerName != null ? `${order.customerNumber} ${order.customerName}`.trim() : order.customerId
                   case 'orderDate':
                     return typeof order.orderDate === 'string' ? order.orderDate : String(order.orderDate)
+                  case 'itemCount':
+                    return order.itemCount
+                  case 'totalAmount':
+                    return `${order.totalAmount.toLocaleString()}円`
                   case 'status':
                     return <OrderStatusBadge status={order.status} />
                   case 'actions':
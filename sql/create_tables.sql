@@ -51,6 +51,7 @@ CREATE INDEX idx_customer_name ON m_customer(customer_name);
 CREATE INDEX idx_customer_address ON m_customer(address);
 CREATE INDEX idx_customer_phone ON m_customer(phone_number);
 CREATE INDEX idx_customer_email ON m_customer(email);
+CREATE INDEX idx_customer_create_date ON m_customer(create_date);
 
 -- 顧客マスタのコメント
 COMMENT ON TABLE m_customer IS '顧客マスタ';
@@ -82,6 +83,7 @@ CREATE TABLE m_product (
 -- 商品マスタのインデックス
 CREATE INDEX idx_product_name ON m_product(product_name);
 CREATE INDEX idx_product_price ON m_product(price);
+CREATE INDEX idx_product_update_date ON m_product(update_date);
 
 -- 商品マスタのコメント
 COMMENT ON TABLE m_product IS '商品マスタ';
@@ -137,7 +139,8 @@ CREATE TABLE t_order (
 
 -- 注文トランザクションのインデックス
 CREATE INDEX idx_order_customer ON t_order(customer_id);
-CREATE INDEX idx_order_date ON t_order(order_date);
+-- 注文日時の範囲検索とカーソル方式の検索（注文日時＋注文ID順）で使用
+CREATE INDEX idx_order_date ON t_order(order_date, order_id);
 
 -- 注文トランザクションのコメント
 COMMENT ON TABLE t_order IS '注文トランザクション';
@@ -171,3 +174,72 @@ COMMENT ON COLUMN t_order_item.order_id IS '注文ID';
 COMMENT ON COLUMN t_order_item.product_id IS '商品ID';
 COMMENT ON COLUMN t_order_item.quantity IS '数量';
 COMMENT ON COLUMN t_order_item.unit_price IS '単価';
+
+
+-- 注文一覧の読み取りモデル（注文・顧客・注文明細を非正規化したもの）
+-- 注文の作成・確定・キャンセル、顧客の更新と同じトランザクションで更新する（OrderSummaryProjector）
+CREATE TABLE t_order_summary (
+    order_id        UUID PRIMARY KEY,
+    customer_id     UUID NOT NULL,
+    customer_number VARCHAR(10) NOT NULL,
+    customer_name   VARCHAR(50) NOT NULL,
+    order_date      TIMESTAMP NOT NULL,
+    status          SMALLINT NOT NULL,
+    item_count      INT NOT NULL,
+    total_amount    BIGINT NOT NULL,
+    delete_flag     BOOLEAN NOT NULL DEFAULT FALSE,
+    create_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT fk_order_summary_order FOREIGN KEY (order_id) REFERENCES t_order(order_id)
+);
+
+-- 注文一覧の読み取りモデルのインデックス（ソート対象＋注文ID、カーソル方式の検索の順序と一致させる）
+-- 既定のソート（注文日時）と顧客での絞り込みは一覧の項目を INCLUDE し、テーブルを読まずに返す
+CREATE INDEX idx_order_summary_order_date ON t_order_summary(order_date, order_id)
+    INCLUDE (customer_id, customer_number, customer_name, status, item_count, total_amount);
+CREATE INDEX idx_order_summary_customer ON t_order_summary(customer_id, order_date, order_id)
+    INCLUDE (customer_number, customer_name, status, item_count, total_amount);
+CREATE INDEX idx_order_summary_customer_number ON t_order_summary(customer_number, order_id);
+CREATE INDEX idx_order_summary_customer_name ON t_order_summary(customer_name, order_id);
+CREATE INDEX idx_order_summary_status ON t_order_summary(status, order_id);
+CREATE INDEX idx_order_summary_item_count ON t_order_summary(item_count, order_id);
+CREATE INDEX idx_order_summary_total_amount ON t_order_summary(total_amount, order_id);
+CREATE INDEX idx_order_summary_create_date ON t_order_summary(create_date, order_id);
+CREATE INDEX idx_order_summary_update_date ON t_order_summary(update_date, order_id);
+
+-- 注文一覧の読み取りモデルのコメント
+COMMENT ON TABLE t_order_summary IS '注文一覧の読み取りモデル';
+COMMENT ON COLUMN t_order_summary.order_id IS '注文ID';
+COMMENT ON COLUMN t_order_summary.customer_id IS '顧客ID';
+COMMENT ON COLUMN t_order_summary.customer_number IS '顧客番号（m_customer から複写）';
+COMMENT ON COLUMN t_order_summary.customer_name IS '顧客名（m_customer から複写）';
+COMMENT ON COLUMN t_order_summary.order_date IS '注文日時';
+COMMENT ON COLUMN t_order_summary.status IS 'ステータス';
+COMMENT ON COLUMN t_order_summary.item_count IS '明細数';
+COMMENT ON COLUMN t_order_summary.total_amount IS '合計金額（数量×単価の合計）';
+
+
+-- 在庫台帳チェックポイント
+CREATE TABLE t_stock_ledger_checkpoint (
+    ledger_id       VARCHAR(64) PRIMARY KEY,
+    last_sequence   BIGINT NOT NULL,
+    update_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 在庫台帳チェックポイントのコメント
+COMMENT ON TABLE t_stock_ledger_checkpoint IS '在庫台帳チェックポイント';
+COMMENT ON COLUMN t_stock_ledger_checkpoint.ledger_id IS '台帳ID';
+COMMENT ON COLUMN t_stock_ledger_checkpoint.last_sequence IS '反映済みジャーナル連番';
+
+-- 採番カウンタ
+CREATE TABLE t_number_counter (
+    counter_name    VARCHAR(64) PRIMARY KEY,
+    next_value      BIGINT NOT NULL,
+    update_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 採番カウンタのコメント
+COMMENT ON TABLE t_number_counter IS '採番カウンタ';
+COMMENT ON COLUMN t_number_counter.counter_name IS 'カウンタ名';
+COMMENT ON COLUMN t_number_counter.next_value IS '次に払い出す値（払い出し済みブロックの終端）';
@@ -0,0 +1,36 @@
+-- 顧客番号の採番カウンタ（t_number_counter）を追加する
+-- create_tables.sql と同じ定義で作成し、登録済みの最大の顧客番号の次の連番から採番を始める。
+-- 以前の方式（ランダム生成）で登録済みの顧客番号と、CustomerNumberAllocator が払い出す番号が重ならないようにする。
+-- アプリケーションを停止した状態で、顧客登録を再開する前に実行すること。
+
+BEGIN;
+
+-- 採番カウンタ
+CREATE TABLE IF NOT EXISTS t_number_counter (
+    counter_name    VARCHAR(64) PRIMARY KEY,
+    next_value      BIGINT NOT NULL,
+    update_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE t_number_counter IS '採番カウンタ';
+COMMENT ON COLUMN t_number_counter.counter_name IS 'カウンタ名';
+COMMENT ON COLUMN t_number_counter.next_value IS '次に払い出す値（払い出し済みブロックの終端）';
+
+-- 顧客番号（英字4文字＋数字6桁）を連番に戻して最大値の次を初期値にする（CustomerNumberGenerator.format の逆変換）
+-- 顧客番号は固定長のため、文字列の最大値が連番の最大値になる。論理削除済みの顧客も一意制約の対象のため含める。
+-- 顧客が未登録の場合は 1（AAAA000001）から採番する。
+INSERT INTO t_number_counter (counter_name, next_value)
+SELECT 'customer_number',
+       COALESCE((
+           ((ASCII(SUBSTRING(max_number, 1, 1)) - 65) * 17576
+            + (ASCII(SUBSTRING(max_number, 2, 1)) - 65) * 676
+            + (ASCII(SUBSTRING(max_number, 3, 1)) - 65) * 26
+            + (ASCII(SUBSTRING(max_number, 4, 1)) - 65))::BIGINT * 1000000
+           + SUBSTRING(max_number, 5, 6)::BIGINT
+       ) + 1, 1)
+FROM (SELECT MAX(customer_number) AS max_number FROM m_customer) latest
+ON CONFLICT (counter_name) DO UPDATE
+    SET next_value = GREATEST(t_number_counter.next_value, EXCLUDED.next_value),
+        update_date = CURRENT_TIMESTAMP;
+
+COMMIT;
@@ -0,0 +1,62 @@
+-- 注文一覧の読み取りモデル（t_order_summary）を追加する
+-- create_tables.sql と同じ定義で作成し、既存の注文から行を作成する。
+-- 以降はアプリケーション（OrderSummaryProjector）が注文・顧客の更新と同じトランザクションで更新する。
+
+BEGIN;
+
+-- 注文一覧の読み取りモデル（注文・顧客・注文明細を非正規化したもの）
+CREATE TABLE t_order_summary (
+    order_id        UUID PRIMARY KEY,
+    customer_id     UUID NOT NULL,
+    customer_number VARCHAR(10) NOT NULL,
+    customer_name   VARCHAR(50) NOT NULL,
+    order_date      TIMESTAMP NOT NULL,
+    status          SMALLINT NOT NULL,
+    item_count      INT NOT NULL,
+    total_amount    BIGINT NOT NULL,
+    delete_flag     BOOLEAN NOT NULL DEFAULT FALSE,
+    create_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_date     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT fk_order_summary_order FOREIGN KEY (order_id) REFERENCES t_order(order_id)
+);
+
+-- 注文一覧の読み取りモデルのインデックス（ソート対象＋注文ID、カーソル方式の検索の順序と一致させる）
+-- 既定のソート（注文日時）と顧客での絞り込みは一覧の項目を INCLUDE し、テーブルを読まずに返す
+CREATE INDEX idx_order_summary_order_date ON t_order_summary(order_date, order_id)
+    INCLUDE (customer_id, customer_number, customer_name, status, item_count, total_amount);
+CREATE INDEX idx_order_summary_customer ON t_order_summary(customer_id, order_date, order_id)
+    INCLUDE (customer_number, customer_name, status, item_count, total_amount);
+CREATE INDEX idx_order_summary_customer_number ON t_order_summary(customer_number, order_id);
+CREATE INDEX idx_order_summary_customer_name ON t_order_summary(customer_name, order_id);
+CREATE INDEX idx_order_summary_status ON t_order_summary(status, order_id);
+CREATE INDEX idx_order_summary_item_count ON t_order_summary(item_count, order_id);
+CREATE INDEX idx_order_summary_total_amount ON t_order_summary(total_amount, order_id);
+CREATE INDEX idx_order_summary_create_date ON t_order_summary(create_date, order_id);
+CREATE INDEX idx_order_summary_update_date ON t_order_summary(update_date, order_id);
+
+COMMENT ON TABLE t_order_summary IS '注文一覧の読み取りモデル';
+COMMENT ON COLUMN t_order_summary.order_id IS '注文ID';
+COMMENT ON COLUMN t_order_summary.customer_id IS '顧客ID';
+COMMENT ON COLUMN t_order_summary.customer_number IS '顧客番号（m_customer から複写）';
+COMMENT ON COLUMN t_order_summary.customer_name IS '顧客名（m_customer から複写）';
+COMMENT ON COLUMN t_order_summary.order_date IS '注文日時';
+COMMENT ON COLUMN t_order_summary.status IS 'ステータス';
+COMMENT ON COLUMN t_order_summary.item_count IS '明細数';
+COMMENT ON COLUMN t_order_summary.total_amount IS '合計金額（数量×単価の合計）';
+
+-- 既存の注文から作成する（TOrderSummaryMapper.insertFromOrder と同じ集計）
+INSERT INTO t_order_summary (order_id, customer_id, customer_number, customer_name, order_date, status,
+    item_count, total_amount, delete_flag, create_date, update_date)
+SELECT o.order_id, o.customer_id, c.customer_number, c.customer_name, o.order_date, o.status,
+    COUNT(i.order_item_id), COALESCE(SUM(CAST(i.quantity AS BIGINT) * i.unit_price), 0),
+    o.delete_flag, o.create_date, o.update_date
+FROM t_order o
+JOIN m_customer c ON c.customer_id = o.customer_id
+LEFT JOIN t_order_item i ON i.order_id = o.order_id
+GROUP BY o.order_id, o.customer_id, c.customer_number, c.customer_name, o.order_date, o.status,
+    o.delete_flag, o.create_date, o.update_date;
+
+COMMIT;
+
+ANALYZE t_order_summary;
@@ -0,0 +1,171 @@
+package com.playjava.frameworks.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.playjava.usecase.dto.CreateOrderRequest;
+import com.playjava.usecase.dto.OrderItemRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注文作成1リクエストあたりのログ出力のオーバーヘッドのベンチマーク
+ * logback-spring.xml の dev / prod と同じ構成の Logger を組み立て、出力先のみ破棄するストリームに置き換えて計測する
+ * （標準出力・fluent-bit 側の遅延は含まない）。
+ *
+ * statements:
+ * <ul>
+ *   <li>before: 変更前のログ出力（明細の一覧を INFO、FillMetaObjectHandler の INSERT ごとに2件の INFO）</li>
+ *   <li>after: 現在のログ出力（INFO は件数のみ、明細の一覧と自動設定は DEBUG）</li>
+ * </ul>
+ * config:
+ * <ul>
+ *   <li>dev: DEBUG・テキスト形式・同期出力</li>
+ *   <li>prod: INFO・JSON 形式・非同期出力（キューが満杯の場合は破棄）＋ロガーごとのサンプリング</li>
+ *   <li>prod-unsampled: prod からサンプリングを除いたもの（非同期化のみの効果）</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class LoggingOverheadBenchmark {
+
+    @Param({"before", "after"})
+    private String statements;
+
+    @Param({"dev", "prod", "prod-unsampled"})
+    private String config;
+
+    /** 注文明細数（1リクエストあたりの INSERT 回数は明細数＋1） */
+    @Param({"5"})
+    private int itemCount;
+
+    private LoggerContext context;
+
+    private Logger controllerLog;
+
+    private Logger handlerLog;
+
+    private CreateOrderRequest request;
+
+    private UUID orderId;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        boolean prod = config.startsWith("prod");
+        Appender<ILoggingEvent> appender = prod ? asyncJsonAppender() : textAppender();
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(prod ? Level.INFO : Level.DEBUG);
+        root.addAppender(appender);
+        if ("prod".equals(config)) {
+            LogRateSamplingFilter sampling = new LogRateSamplingFilter();
+            sampling.setContext(context);
+            sampling.setLoggerPrefix("com.playjava");
+            sampling.setMaxPerSecond(100);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+        context.start();
+
+        controllerLog = context.getLogger("com.playjava.application.controller.OrderController");
+        handlerLog = context.getLogger("com.playjava.usecase.handler.FillMetaObjectHandler");
+
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(UUID.randomUUID());
+            item.setQuantity(i + 1);
+            items.add(item);
+        }
+        request = new CreateOrderRequest();
+        request.setCustomerId(UUID.randomUUID());
+        request.setItems(items);
+        orderId = UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void createOrderRequest() {
+        if ("before".equals(statements)) {
+            controllerLog.info("createStorePurchaseOrder: customerId={}, items={}", request.getCustomerId(), request.getItems());
+            for (int i = 0; i <= itemCount; i++) {
+                handlerLog.info("新規登録 メタオブジェクト設定開始");
+                handlerLog.info("現在のユーザーID: {}", "test-user-id");
+            }
+        } else {
+            controllerLog.info("createStorePurchaseOrder: customerId={}, itemCount={}", request.getCustomerId(), request.getItems().size());
+            controllerLog.debug("createStorePurchaseOrder: items={}", request.getItems());
+            for (int i = 0; i <= itemCount; i++) {
+                handlerLog.debug("新規登録 メタオブジェクト設定: userId={}", "test-user-id");
+            }
+        }
+        controllerLog.info("注文作成成功: orderId={}", orderId);
+    }
+
+    private Appender<ILoggingEvent> textAppender() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %r --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return discardingAppender("CONSOLE", encoder);
+    }
+
+    private Appender<ILoggingEvent> asyncJsonAppender() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_JSON");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(819);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(discardingAppender("JSON_CONSOLE", encoder));
+        async.start();
+        return async;
+    }
+
+    private OutputStreamAppender<ILoggingEvent> discardingAppender(String name, Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,100 @@
+package com.playjava.usecase.dto;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.playjava.enterprise.entity.TOrder;
+import com.playjava.enterprise.entity.TOrderItem;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.usecase.handler.UuidFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注文APIのレスポンス（IPage<TOrder>・OrderDetailResponse）のJSONシリアライズのベンチマーク
+ * Spring MVC と同じく Jackson 3 の JsonMapper でバイト列に書き出すまでを計測する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderJsonBenchmark {
+
+    /** 注文検索の1ページの件数 */
+    @Param({"20", "100"})
+    private int pageSize;
+
+    /** 注文詳細の明細数 */
+    @Param({"10"})
+    private int itemCount;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private IPage<TOrder> orderPage;
+
+    private OrderDetailResponse orderDetail;
+
+    @Setup
+    public void setUp() {
+        Page<TOrder> page = new Page<>(1, pageSize, 10_000);
+        List<TOrder> orders = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            orders.add(createOrder());
+        }
+        page.setRecords(orders);
+        orderPage = page;
+
+        TOrder order = createOrder();
+        List<TOrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            TOrderItem item = new TOrderItem();
+            item.setOrderItemId(UuidFactory.newUuid());
+            item.setOrderId(order.getOrderId());
+            item.setProductId(UuidFactory.newUuid());
+            item.setQuantity(i + 1);
+            item.setUnitPrice(1_000 * (i + 1));
+            item.setCreateDate(order.getCreateDate());
+            item.setUpdateDate(order.getUpdateDate());
+            items.add(item);
+        }
+        orderDetail = new OrderDetailResponse();
+        orderDetail.setOrder(order);
+        orderDetail.setItems(items);
+    }
+
+    @Benchmark
+    public byte[] orderPage() {
+        return jsonMapper.writeValueAsBytes(orderPage);
+    }
+
+    @Benchmark
+    public byte[] orderDetail() {
+        return jsonMapper.writeValueAsBytes(orderDetail);
+    }
+
+    private TOrder createOrder() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TOrder order = new TOrder();
+        order.setOrderId(UuidFactory.newUuid());
+        order.setCustomerId(UuidFactory.newUuid());
+        order.setOrderDate(now);
+        order.setStatus(1);
+        order.setDeleteFlag(false);
+        order.setCreateUser(SystemUser.BOOTSTRAP);
+        order.setCreateDate(now);
+        order.setUpdateUser(SystemUser.BOOTSTRAP);
+        order.setUpdateDate(now);
+        return order;
+    }
+}
@@ -0,0 +1,28 @@
+package com.playjava.usecase.handler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 顧客番号の生成のベンチマーク
+ * 採番（CustomerNumberAllocator）はDBのブロック予約を含むため、メモリ上で行う連番から顧客番号への変換のみを計測する。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerNumberGeneratorBenchmark {
+
+    private long sequence = 12_345_678L;
+
+    @Benchmark
+    public String format() {
+        sequence = (sequence + 1) % CustomerNumberGenerator.CAPACITY;
+        return CustomerNumberGenerator.format(sequence);
+    }
+}
@@ -0,0 +1,58 @@
+package com.playjava.usecase.handler;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.playjava.enterprise.entity.TOrder;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.context.UserContext;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FillMetaObjectHandler（作成・更新日時とユーザーの自動設定）のベンチマーク
+ * strictInsertFill/strictUpdateFill が参照する TableInfo は Spring を起動せずに初期化する。
+ * ユーザーIDはリクエストと同じく UserContext に束縛した状態で呼び出す（束縛のコストを含む）。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FillMetaObjectHandlerBenchmark {
+
+    private final FillMetaObjectHandler handler = new FillMetaObjectHandler();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TOrder.class);
+    }
+
+    @Benchmark
+    public TOrder insertFill() {
+        return UserContext.callAs(SystemUser.BOOTSTRAP, () -> {
+            TOrder order = new TOrder();
+            MetaObject metaObject = SystemMetaObject.forObject(order);
+            handler.insertFill(metaObject);
+            return order;
+        });
+    }
+
+    @Benchmark
+    public TOrder updateFill() {
+        return UserContext.callAs(SystemUser.BOOTSTRAP, () -> {
+            TOrder order = new TOrder();
+            MetaObject metaObject = SystemMetaObject.forObject(order);
+            handler.updateFill(metaObject);
+            return order;
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException.StockInsufficientItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GlobalExceptionHandler のエラーレスポンス生成のベンチマーク
+ * 例外の生成（スタックトレースの取得）は含めず、例外からレスポンスを組み立てる処理のみを計測する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private MethodArgumentNotValidException validationException;
+
+    private StockInsufficientException stockInsufficientException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        // 顧客登録で5項目がバリデーションエラーになった場合を想定する
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new MCustomer(), "customer");
+        for (String field : List.of("customerName", "address", "mobileNumber", "email", "customerNumber")) {
+            bindingResult.addError(new FieldError("customer", field, field + "は必須です"));
+        }
+        MethodParameter parameter = new MethodParameter(
+            GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("validationTarget", MCustomer.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        // 10商品が在庫不足になった場合を想定する
+        List<StockInsufficientItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new StockInsufficientItem(UUID.randomUUID(), i, i + 5));
+        }
+        stockInsufficientException = new StockInsufficientException("在庫が不足しています", items);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handleValidationExceptions() {
+        return handler.handleValidationExceptions(validationException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handleStockInsufficientException() {
+        return handler.handleStockInsufficientException(stockInsufficientException);
+    }
+
+    /**
+     * バリデーション例外の MethodParameter 用（呼び出さない）
+     */
+    @SuppressWarnings("unused")
+    private void validationTarget(MCustomer customer) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.playjava.usecase.handler;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UUIDv7 生成のベンチマーク
+ * 従来の共有ジェネレータ（内部で synchronized）と、ストライプ化した UuidV7Generator を単一スレッド・多スレッドで比較する。
+ * uuidFactory_8threads はアプリケーションが実際に呼び出す UuidFactory.newUuid を計測する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UuidFactoryBenchmark {
+
+    private final TimeBasedEpochGenerator lockedGenerator = Generators.timeBasedEpochGenerator();
+
+    private final UuidV7Generator stripedGenerator = new UuidV7Generator(1);
+
+    @Benchmark
+    @Threads(8)
+    public UUID uuidFactory_8threads() {
+        return UuidFactory.newUuid();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID locked_1thread() {
+        return lockedGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID striped_1thread() {
+        return stripedGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID locked_8threads() {
+        return lockedGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID striped_8threads() {
+        return stripedGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID[] striped_8threads_batch100() {
+        return stripedGenerator.generate(100);
+    }
+}
@@ -0,0 +1,110 @@
+package com.playjava.usecase.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.entity.MUser;
+import com.playjava.enterprise.entity.TOrder;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 検索条件（buildSearchWrapper）の組み立てのベンチマーク
+ * *_build は Wrapper の生成のみ、*_sql はラムダから列名を解決してSQL断片を生成するまでを計測する。
+ * 列名の解決に使う TableInfo は Spring を起動せずに初期化する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SearchWrapperBenchmark {
+
+    private static final OffsetDateTime ORDER_DATE_FROM = OffsetDateTime.parse("2025-01-01T00:00:00+09:00");
+    private static final OffsetDateTime ORDER_DATE_TO = OffsetDateTime.parse("2025-12-31T23:59:59+09:00");
+    private static final UUID SEARCH_ID = UUID.fromString("0190a4b2-3c4d-7e5f-8a9b-0c1d2e3f4a5b");
+
+    // buildSearchWrapper はDBを使わないため、Mapper を注入せずに生成する
+    private final OrderServiceImpl orderService = new OrderServiceImpl();
+    private final MCustomerServiceImpl customerService = new MCustomerServiceImpl();
+    private final MStockServiceImpl stockService = new MStockServiceImpl();
+    private final MUserServiceImpl userService = new MUserServiceImpl(null, null);
+
+    @Setup
+    public void setUp() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, TOrder.class);
+        TableInfoHelper.initTableInfo(assistant, MCustomer.class);
+        TableInfoHelper.initTableInfo(assistant, MStock.class);
+        TableInfoHelper.initTableInfo(assistant, MUser.class);
+    }
+
+    @Benchmark
+    public LambdaQueryWrapper<TOrder> order_build() {
+        return buildOrderWrapper();
+    }
+
+    @Benchmark
+    public String order_sql() {
+        return buildOrderWrapper().getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public LambdaQueryWrapper<MCustomer> customer_build() {
+        return buildCustomerWrapper();
+    }
+
+    @Benchmark
+    public String customer_sql() {
+        return buildCustomerWrapper().getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public LambdaQueryWrapper<MStock> stock_build() {
+        return buildStockWrapper();
+    }
+
+    @Benchmark
+    public String stock_sql() {
+        return buildStockWrapper().getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public String user_sql() {
+        return userService.buildSearchWrapper("山田").getCustomSqlSegment();
+    }
+
+    /**
+     * 注文検索の全条件を指定した場合
+     */
+    private LambdaQueryWrapper<TOrder> buildOrderWrapper() {
+        return orderService.buildSearchWrapper(
+            null, SEARCH_ID, ORDER_DATE_FROM, ORDER_DATE_TO, 1, null);
+    }
+
+    /**
+     * 顧客検索で名前・住所の部分一致とメールアドレスを指定した場合
+     */
+    private LambdaQueryWrapper<MCustomer> buildCustomerWrapper() {
+        return customerService.buildSearchWrapper(
+            null, "山田", "東京都", null, "yamada@example.com", null);
+    }
+
+    /**
+     * 在庫検索で商品ID・数量の範囲・ステータスを指定した場合
+     */
+    private LambdaQueryWrapper<MStock> buildStockWrapper() {
+        return stockService.buildSearchWrapper(
+            SEARCH_ID, null, 1, 100, 0, null);
+    }
+}
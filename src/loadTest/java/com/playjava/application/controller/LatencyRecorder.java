@@ -0,0 +1,46 @@
+package com.playjava.application.controller;
+
+import java.util.Arrays;
+
+/**
+ * レイテンシ（ナノ秒）を記録し、パーセンタイルを求める
+ * 記録はスレッドセーフで、集計は計測の終了後に行う（他パッケージの負荷テストからも使う）。
+ */
+public class LatencyRecorder {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /**
+     * 記録した値を昇順に並べた配列を返す
+     */
+    public synchronized long[] sorted() {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * パーセンタイル値（ミリ秒）を求める（最近傍法）
+     * @param sorted 昇順に並べた値
+     * @param percentile 0より大きく100以下
+     */
+    public static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,416 @@
+package com.playjava.application.controller;
+
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.adapter.product.ProductCatalogSnapshot;
+import com.playjava.frameworks.context.UserContext;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.usecase.service.impl.MCustomerServiceImpl;
+import com.playjava.usecase.handler.UuidFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 注文フローの負荷テスト
+ * アプリケーションを H2 上で起動して商品・在庫・顧客を投入し、仮想スレッドのクライアントから OrderController の
+ * 店舗購入・取り寄せ注文＋確定・キャンセルを並行して呼び出す。
+ * エンドポイントごとのスループット・レイテンシ（p50/p99/p999）・1リクエストあたりのSQL件数と、在庫の売り越しを報告する。
+ *
+ * 実行: ./gradlew loadTest -Dloadtest.clients=128 -Dloadtest.requests-per-client=200
+ * PostgreSQL で実行する場合は -Dspring.datasource.url=... などを指定する（スキーマは作成済みであること）。
+ * 報告は標準出力と build/reports/loadtest/order-flow.json に出力する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@DisplayName("注文フロー 負荷テスト")
+class OrderFlowLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderFlowLoadTest.class);
+
+    private static final String STORE_PURCHASE = "POST /api/v1/orders/store-purchase";
+    private static final String CANCELLED_ORDER = "POST /api/v1/orders/cancel";
+    private static final String SPECIAL_ORDER = "POST /api/v1/orders/special-order";
+    private static final String CONFIRM = "PUT /api/v1/orders/{orderId}/confirm";
+    private static final String CANCEL = "PUT /api/v1/orders/{orderId}/cancel";
+    private static final List<String> ENDPOINTS = List.of(STORE_PURCHASE, CANCELLED_ORDER, SPECIAL_ORDER, CONFIRM, CANCEL);
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+        @Bean
+        RequestStatementCounter requestStatementCounter() {
+            return new RequestStatementCounter();
+        }
+    }
+
+    @Value("${local.server.port}")
+    private int port;
+
+    /** 商品数（少ないほど同じ商品の在庫行に更新が集中する） */
+    @Value("${loadtest.products:20}")
+    private int productCount;
+
+    /** 商品ごとの初期在庫数 */
+    @Value("${loadtest.initial-stock:200}")
+    private int initialStock;
+
+    @Value("${loadtest.customers:50}")
+    private int customerCount;
+
+    /** 同時に実行するクライアント（仮想スレッド）の数 */
+    @Value("${loadtest.clients:64}")
+    private int clientCount;
+
+    /** クライアントごとのフロー実行回数 */
+    @Value("${loadtest.requests-per-client:100}")
+    private int flowsPerClient;
+
+    /** 計測前のウォームアップとして実行するクライアントごとのフロー実行回数 */
+    @Value("${loadtest.warmup-requests-per-client:10}")
+    private int warmupFlowsPerClient;
+
+    /** 1注文あたりの商品数 */
+    @Value("${loadtest.items-per-order:3}")
+    private int itemsPerOrder;
+
+    /** フローの比率（店舗購入：取り寄せ注文＋確定：既存注文のキャンセル） */
+    @Value("${loadtest.mix.store-purchase:50}")
+    private int storePurchaseWeight;
+
+    @Value("${loadtest.mix.special-order:30}")
+    private int specialOrderWeight;
+
+    @Value("${loadtest.mix.cancel:20}")
+    private int cancelWeight;
+
+    @Value("${loadtest.report-dir:build/reports/loadtest}")
+    private String reportDir;
+
+    @Autowired
+    private MProductMapper productMapper;
+
+    @Autowired
+    private MStockMapper stockMapper;
+
+    @Autowired
+    private MCustomerServiceImpl customerService;
+
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Autowired
+    private StockOperationPort stockOperationPort;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RequestStatementCounter statementCounter;
+
+    private final List<UUID> productIds = new ArrayList<>();
+    private final List<UUID> customerIds = new ArrayList<>();
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+
+    @Test
+    @DisplayName("並行した注文フローで在庫の売り越しやサーバーエラーが発生しないこと")
+    void testOrderFlows() throws Exception {
+        // Given: 商品・在庫・顧客を投入
+        seedCatalogue();
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        // When: ウォームアップ後、計測を初期化してクライアントを並行実行
+        runClients(warmupFlowsPerClient);
+        stats.clear();
+        statementCounter.reset();
+        long startedNanos = System.nanoTime();
+        runClients(flowsPerClient);
+        double elapsedSeconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+
+        // Then: 報告を出力し、売り越しとサーバーエラーがないことを確認
+        List<String> oversold = findOversoldProducts();
+        Map<String, Object> report = buildReport(elapsedSeconds, oversold);
+        writeReport(report);
+
+        assertTrue(oversold.isEmpty(), "在庫の売り越しが発生しないこと: " + oversold);
+        for (String endpoint : ENDPOINTS) {
+            assertEquals(0, endpointStats(endpoint).serverError.sum(), "サーバーエラーが発生しないこと: " + endpoint);
+        }
+    }
+
+    /**
+     * 商品・在庫・顧客を投入する
+     */
+    private void seedCatalogue() {
+        UserContext.runAs(SystemUser.BOOTSTRAP, () -> {
+            for (int i = 0; i < productCount; i++) {
+                MProduct product = new MProduct();
+                product.setProductId(UuidFactory.newUuid());
+                product.setProductNumber(String.format("LT%06d", i));
+                product.setProductName("負荷テスト商品" + i);
+                product.setPrice(100 * (i % 50 + 1));
+                product.setCategory(1);
+                product.setDeleteFlag(false);
+                productMapper.insert(product);
+                productIds.add(product.getProductId());
+
+                MStock stock = new MStock();
+                stock.setStockId(UuidFactory.newUuid());
+                stock.setProductId(product.getProductId());
+                stock.setQuantity(initialStock);
+                stock.setStatus(0);
+                stock.setDeleteFlag(false);
+                stockMapper.insert(stock);
+            }
+
+            List<MCustomer> customers = new ArrayList<>();
+            for (int i = 0; i < customerCount; i++) {
+                MCustomer customer = new MCustomer();
+                customer.setCustomerName("負荷テスト顧客" + i);
+                customer.setAddress("東京都");
+                customers.add(customer);
+            }
+            customerService.createCustomersImpl(customers);
+            customers.forEach(customer -> customerIds.add(customer.getCustomerId()));
+        });
+        // 投入した商品をスナップショットに取り込む（本番と同じくメモリから応答させる）
+        productCatalogSnapshot.reload();
+        log.info("負荷テストのデータを投入しました: products={}, initialStock={}, customers={}", productCount, initialStock, customerCount);
+    }
+
+    /**
+     * クライアントを仮想スレッドで並行実行し、全クライアントの終了を待つ
+     */
+    private void runClients(int flowsPerClient) throws Exception {
+        if (flowsPerClient <= 0) {
+            return;
+        }
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clientCount; c++) {
+                futures.add(clients.submit(() -> {
+                    runClient(flowsPerClient);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    /**
+     * 1クライアント分のフローを実行する
+     * 確定した注文はクライアントごとに保持し、キャンセルのフローで取り消す。
+     */
+    private void runClient(int flows) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> confirmedOrderIds = new ArrayList<>();
+        int totalWeight = storePurchaseWeight + specialOrderWeight + cancelWeight;
+        for (int i = 0; i < flows; i++) {
+            int pick = random.nextInt(totalWeight);
+            if (pick < storePurchaseWeight || (pick >= storePurchaseWeight + specialOrderWeight && confirmedOrderIds.isEmpty())) {
+                storePurchaseFlow(confirmedOrderIds);
+            } else if (pick < storePurchaseWeight + specialOrderWeight) {
+                specialOrderFlow(confirmedOrderIds);
+            } else {
+                String orderId = confirmedOrderIds.remove(random.nextInt(confirmedOrderIds.size()));
+                send(CANCEL, "PUT", "/api/v1/orders/" + orderId + "/cancel", null);
+            }
+        }
+    }
+
+    /**
+     * 店舗購入（在庫不足の場合は画面でキャンセルを選択した想定でキャンセル済みの注文を登録する）
+     */
+    private void storePurchaseFlow(List<String> confirmedOrderIds) throws Exception {
+        String body = randomOrderRequest();
+        HttpResponse<String> response = send(STORE_PURCHASE, "POST", "/api/v1/orders/store-purchase", body);
+        if (response.statusCode() == 200) {
+            confirmedOrderIds.add(response.body());
+        } else if (response.statusCode() == 400) {
+            send(CANCELLED_ORDER, "POST", "/api/v1/orders/cancel", body);
+        }
+    }
+
+    /**
+     * 取り寄せ注文を登録し、入荷した想定で確定する（在庫不足の場合は取り寄せ中のまま残す）
+     */
+    private void specialOrderFlow(List<String> confirmedOrderIds) throws Exception {
+        HttpResponse<String> created = send(SPECIAL_ORDER, "POST", "/api/v1/orders/special-order", randomOrderRequest());
+        if (created.statusCode() != 200) {
+            return;
+        }
+        String orderId = created.body();
+        HttpResponse<String> confirmed = send(CONFIRM, "PUT", "/api/v1/orders/" + orderId + "/confirm", null);
+        if (confirmed.statusCode() == 200) {
+            confirmedOrderIds.add(orderId);
+        }
+    }
+
+    private String randomOrderRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID customerId = customerIds.get(random.nextInt(customerIds.size()));
+        Set<UUID> products = new LinkedHashSet<>();
+        while (products.size() < Math.min(itemsPerOrder, productIds.size())) {
+            products.add(productIds.get(random.nextInt(productIds.size())));
+        }
+        StringBuilder body = new StringBuilder("{\"customerId\":\"").append(customerId).append("\",\"items\":[");
+        String separator = "";
+        for (UUID productId : products) {
+            body.append(separator)
+                .append("{\"productId\":\"").append(productId).append("\",\"quantity\":").append(random.nextInt(1, 4)).append('}');
+            separator = ",";
+        }
+        return body.append("]}").toString();
+    }
+
+    private HttpResponse<String> send(String endpoint, String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+            request.method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        long startedNanos = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        endpointStats(endpoint).record(response.statusCode(), System.nanoTime() - startedNanos);
+        return response;
+    }
+
+    /**
+     * 在庫数と確定済み注文の数量の合計が初期在庫と一致しない、または在庫がマイナスの商品を返す
+     */
+    private List<String> findOversoldProducts() {
+        List<String> oversold = new ArrayList<>();
+        for (UUID productId : productIds) {
+            int quantity = stockOperationPort.getStockQuantity(productId);
+            Integer sold = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(i.quantity), 0) FROM t_order_item i JOIN t_order o ON o.order_id = i.order_id "
+                    + "WHERE i.product_id = ? AND o.status = 1", Integer.class, productId);
+            if (quantity < 0 || quantity + sold != initialStock) {
+                oversold.add(productId + "(stock=" + quantity + ", sold=" + sold + ", initial=" + initialStock + ")");
+            }
+        }
+        return oversold;
+    }
+
+    private Map<String, Object> buildReport(double elapsedSeconds, List<String> oversold) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalRequests = 0;
+        StringBuilder table = new StringBuilder(String.format("%n%-40s %8s %10s %8s %8s %8s %6s %6s %10s%n",
+            "endpoint", "requests", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "4xx", "5xx", "sql/req"));
+        for (String endpoint : ENDPOINTS) {
+            EndpointStats endpointStats = endpointStats(endpoint);
+            long[] sorted = endpointStats.latency.sorted();
+            double statementsPerRequest = sorted.length > 0 ? (double) statementCounter.count(endpoint) / sorted.length : 0;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", sorted.length);
+            entry.put("throughputPerSecond", sorted.length / elapsedSeconds);
+            entry.put("p50Millis", LatencyRecorder.percentileMillis(sorted, 50));
+            entry.put("p99Millis", LatencyRecorder.percentileMillis(sorted, 99));
+            entry.put("p999Millis", LatencyRecorder.percentileMillis(sorted, 99.9));
+            entry.put("clientErrors", endpointStats.clientError.sum());
+            entry.put("serverErrors", endpointStats.serverError.sum());
+            entry.put("statementsPerRequest", statementsPerRequest);
+            endpoints.put(endpoint, entry);
+            totalRequests += sorted.length;
+            table.append(String.format("%-40s %8d %10.1f %8.2f %8.2f %8.2f %6d %6d %10.2f%n",
+                endpoint, sorted.length, sorted.length / elapsedSeconds,
+                entry.get("p50Millis"), entry.get("p99Millis"), entry.get("p999Millis"),
+                endpointStats.clientError.sum(), endpointStats.serverError.sum(), statementsPerRequest));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("products", productCount);
+        settings.put("initialStock", initialStock);
+        settings.put("customers", customerCount);
+        settings.put("clients", clientCount);
+        settings.put("flowsPerClient", flowsPerClient);
+        settings.put("itemsPerOrder", itemsPerOrder);
+        report.put("settings", settings);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("totalRequests", totalRequests);
+        report.put("throughputPerSecond", totalRequests / elapsedSeconds);
+        report.put("endpoints", endpoints);
+        report.put("oversoldProducts", oversold);
+
+        log.info("注文フロー負荷テストの結果: elapsed={}s, requests={}, throughput={}/s, oversold={}{}",
+            String.format("%.1f", elapsedSeconds), totalRequests, String.format("%.1f", totalRequests / elapsedSeconds),
+            oversold.size(), table);
+        return report;
+    }
+
+    private void writeReport(Map<String, Object> report) {
+        File file = new File(reportDir, "order-flow.json");
+        file.getParentFile().mkdirs();
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        log.info("負荷テストの結果を出力しました: {}", file.getAbsolutePath());
+    }
+
+    private EndpointStats endpointStats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    /**
+     * エンドポイントごとの計測結果
+     */
+    private static final class EndpointStats {
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private final LongAdder clientError = new LongAdder();
+        private final LongAdder serverError = new LongAdder();
+
+        private void record(int statusCode, long nanos) {
+            latency.record(nanos);
+            if (statusCode >= 500) {
+                serverError.increment();
+            } else if (statusCode >= 400) {
+                clientError.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.playjava.application.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTPリクエストの処理中に実行されたSQLの件数をエンドポイントごとに数えるインターセプター
+ * バックグラウンドのスレッド（商品カタログ・顧客インデックスの更新など）の発行分は数えない。
+ * エンドポイントは「HTTPメソッド + マッピングのパターン」（例: PUT /api/v1/orders/{orderId}/confirm）で表す。
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+class RequestStatementCounter implements Interceptor {
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            counts.computeIfAbsent(endpoint(servletAttributes.getRequest()), key -> new LongAdder()).increment();
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * エンドポイントごとの実行件数
+     */
+    long count(String endpoint) {
+        LongAdder count = counts.get(endpoint);
+        return count != null ? count.sum() : 0;
+    }
+
+    void reset() {
+        counts.clear();
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
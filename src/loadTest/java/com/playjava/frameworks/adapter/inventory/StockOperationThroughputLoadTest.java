@@ -0,0 +1,211 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.context.UserContext;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.handler.UuidFactory;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在庫操作の実装ごとのスループット比較（負荷テスト）
+ * 同じ商品を共有する注文（複数商品の一括減算）を並行に実行し、行ロック方式（StockOperationAdapter）と
+ * シーケンサ方式（StockSequencerAdapter）の処理件数/秒を比較する。
+ *
+ * 実行: ./gradlew loadTest --tests '*StockOperationThroughputLoadTest' -Dloadtest.stock.threads=32
+ * 報告は標準出力と build/reports/loadtest/stock-operation-throughput.json に出力する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "playjava.inventory.engine=sequencer"
+})
+@ActiveProfiles("loadtest")
+@DisplayName("在庫操作スループット比較 負荷テスト")
+class StockOperationThroughputLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockOperationThroughputLoadTest.class);
+
+    /** 商品数（少ないほど同じ商品の在庫行に更新が集中する） */
+    @Value("${loadtest.stock.products:20}")
+    private int productCount;
+
+    /** 1注文あたりの商品数 */
+    @Value("${loadtest.stock.items-per-order:3}")
+    private int itemsPerOrder;
+
+    /** 同時に注文するスレッド数 */
+    @Value("${loadtest.stock.threads:32}")
+    private int threads;
+
+    /** スレッドごとの注文数 */
+    @Value("${loadtest.stock.orders-per-thread:200}")
+    private int ordersPerThread;
+
+    @Value("${loadtest.report-dir:build/reports/loadtest}")
+    private String reportDir;
+
+    @Autowired
+    private StockSequencerAdapter stockSequencerAdapter;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<MProduct> products = new ArrayList<>();
+    private final List<MStock> stocks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        UserContext.runAs(SystemUser.BOOTSTRAP, () -> {
+            for (int i = 0; i < productCount; i++) {
+                MProduct product = new MProduct();
+                product.setProductId(UuidFactory.newUuid());
+                product.setProductNumber(String.format("BNC%04d", i));
+                product.setProductName("スループット比較商品");
+                product.setPrice(1000);
+                product.setCategory(1);
+                mProductMapper.insert(product);
+                products.add(product);
+
+                MStock stock = new MStock();
+                stock.setStockId(UuidFactory.newUuid());
+                stock.setProductId(product.getProductId());
+                stock.setQuantity(1_000_000);
+                stock.setStatus(0);
+                stock.setDeleteFlag(false);
+                mStockMapper.insert(stock);
+                stocks.add(stock);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (MProduct product : products) {
+            jdbcTemplate.update("DELETE FROM m_stock WHERE product_id = ?", product.getProductId());
+            jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", product.getProductId());
+        }
+        products.clear();
+        stocks.clear();
+    }
+
+    @Test
+    @DisplayName("行ロック方式とシーケンサ方式で同じ負荷を処理し、いずれも減算結果が在庫に正しく反映されること")
+    void compareThroughput() throws Exception {
+        StockOperationPort rowLock = beanFactory.createBean(StockOperationAdapter.class);
+
+        // ウォームアップ（JIT・コネクションプール）
+        run(rowLock, ordersPerThread / 4);
+        run(stockSequencerAdapter, ordersPerThread / 4);
+
+        double rowLockOps = run(rowLock, ordersPerThread);
+        double sequencerOps = run(stockSequencerAdapter, ordersPerThread);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("products", productCount);
+        settings.put("itemsPerOrder", itemsPerOrder);
+        settings.put("threads", threads);
+        settings.put("ordersPerThread", ordersPerThread);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("rowLockOrdersPerSecond", rowLockOps);
+        report.put("sequencerOrdersPerSecond", sequencerOps);
+        log.info("在庫操作スループット: 行ロック方式={} 件/秒, シーケンサ方式={} 件/秒 (threads={}, products={})",
+            String.format("%.0f", rowLockOps), String.format("%.0f", sequencerOps), threads, productCount);
+        writeReport(report);
+    }
+
+    /**
+     * 全スレッドで注文ごとに一括減算を行い、処理件数/秒を返す（減算結果が在庫に正しく反映されていることも検証する）
+     */
+    private double run(StockOperationPort port, int orders) throws Exception {
+        Map<UUID, Integer> before = currentQuantities();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<UUID, Integer>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                Map<UUID, Integer> deducted = new HashMap<>();
+                for (int i = 0; i < orders; i++) {
+                    Map<UUID, Integer> order = randomOrder();
+                    port.deductStockBatch(order);
+                    order.forEach((productId, quantity) -> deducted.merge(productId, quantity, Integer::sum));
+                }
+                return deducted;
+            }));
+        }
+        Map<UUID, Integer> deducted = new HashMap<>();
+        for (Future<Map<UUID, Integer>> future : futures) {
+            future.get().forEach((productId, quantity) -> deducted.merge(productId, quantity, Integer::sum));
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Map<UUID, Integer> after = currentQuantities();
+        before.forEach((productId, quantity) ->
+            assertEquals(quantity - deducted.getOrDefault(productId, 0), after.get(productId), "減算数量が在庫に反映されていること"));
+        return (double) threads * orders / (elapsed / 1_000_000_000.0);
+    }
+
+    private Map<UUID, Integer> randomOrder() {
+        Map<UUID, Integer> order = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (order.size() < itemsPerOrder) {
+            order.put(products.get(random.nextInt(productCount)).getProductId(), 1 + random.nextInt(3));
+        }
+        return order;
+    }
+
+    private Map<UUID, Integer> currentQuantities() {
+        Map<UUID, Integer> quantities = new HashMap<>();
+        for (MStock stock : stocks) {
+            quantities.put(stock.getProductId(), mStockMapper.selectById(stock.getStockId()).getQuantity());
+        }
+        return quantities;
+    }
+
+    private void writeReport(Map<String, Object> report) {
+        File file = new File(reportDir, "stock-operation-throughput.json");
+        file.getParentFile().mkdirs();
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        log.info("負荷テストの結果を出力しました: {}", file.getAbsolutePath());
+    }
+}
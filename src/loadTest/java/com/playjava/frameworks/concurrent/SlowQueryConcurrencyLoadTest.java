@@ -0,0 +1,275 @@
+package com.playjava.frameworks.concurrent;
+
+import com.playjava.application.controller.LatencyRecorder;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 低速クエリ発生時の実行モード比較（負荷テスト）
+ * 一定の到着率でリクエストを発生させ、一部のリクエストだけが低速クエリ（DB接続を保持したままスリープ）を実行する状況で、
+ * 次の3つの実行モードの同時実行数・レイテンシ（p50/p99/p999）・失敗数を比較する。
+ * <ul>
+ *   <li>platform: 固定数のプラットフォームスレッド（Tomcat の既定の最大スレッド数相当）</li>
+ *   <li>virtual: リクエストごとの仮想スレッド（バルクヘッドなし）</li>
+ *   <li>virtual-bulkhead: リクエストごとの仮想スレッド＋BulkheadDataSource（許可数＝プールサイズ）</li>
+ * </ul>
+ * レイテンシは予定した到着時刻から計測する（処理待ちで到着が遅れた分も含める）。
+ * DBを使わないリクエストのレイテンシが、低速クエリに巻き込まれずに保たれるかどうかが主な観点となる。
+ *
+ * 実行: ./gradlew loadTest --tests '*SlowQueryConcurrencyLoadTest' -Dloadtest.slow-query.rate=800 -Dloadtest.slow-query.query-ms=200
+ * 報告は標準出力と build/reports/loadtest/slow-query-concurrency.json に出力する。
+ */
+@DisplayName("低速クエリ時の実行モード比較 負荷テスト")
+class SlowQueryConcurrencyLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryConcurrencyLoadTest.class);
+
+    private static final String PREFIX = "loadtest.slow-query.";
+
+    /** 1秒あたりの到着数 */
+    private final int rate = Integer.getInteger(PREFIX + "rate", 800);
+    /** 到着を発生させる時間（秒） */
+    private final int durationSeconds = Integer.getInteger(PREFIX + "duration-seconds", 10);
+    /** DBを使うリクエストの割合（%） */
+    private final int dbPercent = Integer.getInteger(PREFIX + "db-percent", 20);
+    /** 低速クエリの実行時間（ミリ秒） */
+    private final int queryMillis = Integer.getInteger(PREFIX + "query-ms", 200);
+    /** DBを使わないリクエストの処理時間（ミリ秒、外部呼び出しなどの待ちを想定） */
+    private final int fastMillis = Integer.getInteger(PREFIX + "fast-ms", 1);
+    /** コネクションプールの最大サイズ */
+    private final int poolSize = Integer.getInteger(PREFIX + "pool-size", 10);
+    /** platform モードのスレッド数 */
+    private final int platformThreads = Integer.getInteger(PREFIX + "platform-threads", 200);
+    /** 接続取得の待機上限（ミリ秒） */
+    private final int connectionTimeoutMs = Integer.getInteger(PREFIX + "connection-timeout-ms", 2000);
+    private final String reportDir = System.getProperty("loadtest.report-dir", "build/reports/loadtest");
+
+    enum Mode {
+        PLATFORM("platform"),
+        VIRTUAL("virtual"),
+        VIRTUAL_BULKHEAD("virtual-bulkhead");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+
+    @Test
+    @DisplayName("各実行モードで到着したリクエストがすべて完了し、バルクヘッドがプールの待ち行列を抑えること")
+    void compareExecutionModes() throws Exception {
+        Map<String, Object> modes = new LinkedHashMap<>();
+        StringBuilder table = new StringBuilder(String.format("%n%-18s %-5s %8s %8s %8s %8s %9s %8s %8s %8s%n",
+            "mode", "kind", "requests", "p50(ms)", "p99(ms)", "p999(ms)", "failures", "inFlight", "poolWait", "req/s"));
+        ModeResult bulkheadResult = null;
+        for (Mode mode : Mode.values()) {
+            ModeResult result = run(mode);
+            modes.put(mode.label, result.toReport());
+            result.appendTo(table, mode.label);
+            if (mode == Mode.VIRTUAL_BULKHEAD) {
+                bulkheadResult = result;
+            }
+
+            // Then: 到着したリクエストはすべて成功または失敗として完了していること
+            assertEquals(result.submitted, result.db.completed() + result.fast.completed(),
+                mode.label + ": 到着したリクエストがすべて完了していること");
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", rate);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("dbPercent", dbPercent);
+        settings.put("queryMillis", queryMillis);
+        settings.put("fastMillis", fastMillis);
+        settings.put("poolSize", poolSize);
+        settings.put("platformThreads", platformThreads);
+        settings.put("connectionTimeoutMs", connectionTimeoutMs);
+        report.put("settings", settings);
+        report.put("modes", modes);
+        log.info("低速クエリ時の実行モード比較の結果: rate={}/s, dbPercent={}%, queryMs={}, poolSize={}{}",
+            rate, dbPercent, queryMillis, poolSize, table);
+        writeReport(report);
+
+        // Then: バルクヘッドありの場合、プールで接続を待つスレッド数は許可数（＝プールサイズ）を超えないこと
+        assertTrue(bulkheadResult.maxPoolWaiting <= poolSize,
+            "バルクヘッドによりプールの待ち行列が抑えられること: maxPoolWaiting=" + bulkheadResult.maxPoolWaiting);
+    }
+
+    private ModeResult run(Mode mode) throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:slow-query-" + mode.label + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setPoolName("slow-query-" + mode.label);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+
+        ModeResult result = new ModeResult();
+        try (HikariDataSource hikari = new HikariDataSource(config)) {
+            try (Connection connection = hikari.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP_MS FOR \"java.lang.Thread.sleep(long)\"");
+            }
+            DataSource dataSource = mode == Mode.VIRTUAL_BULKHEAD
+                ? new BulkheadDataSource(hikari, poolSize, connectionTimeoutMs)
+                : hikari;
+            ExecutorService executor = mode == Mode.PLATFORM
+                ? Executors.newFixedThreadPool(platformThreads, Thread.ofPlatform().name("request-", 0).daemon(true).factory())
+                : Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory());
+
+            // 同時実行数とプールの待ち行列を定期的に記録する
+            AtomicInteger inFlight = new AtomicInteger();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> {
+                result.maxInFlight = Math.max(result.maxInFlight, inFlight.get());
+                result.maxPoolWaiting = Math.max(result.maxPoolWaiting, hikari.getHikariPoolMXBean().getThreadsAwaitingConnection());
+            }, 0, 10, TimeUnit.MILLISECONDS);
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            long total = (long) rate * durationSeconds;
+            long start = System.nanoTime();
+            try {
+                for (long i = 0; i < total; i++) {
+                    long intended = start + i * intervalNanos;
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    boolean usesDb = ThreadLocalRandom.current().nextInt(100) < dbPercent;
+                    Kind kind = usesDb ? result.db : result.fast;
+                    result.submitted++;
+                    executor.execute(() -> {
+                        inFlight.incrementAndGet();
+                        try {
+                            if (usesDb) {
+                                slowQuery(dataSource);
+                            } else {
+                                Thread.sleep(fastMillis);
+                            }
+                            kind.latency.record(System.nanoTime() - intended);
+                        } catch (SQLException e) {
+                            kind.failures.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            kind.failures.increment();
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(durationSeconds * 10L + 60, TimeUnit.SECONDS),
+                    mode.label + ": 到着したリクエストの処理が完了すること");
+            } finally {
+                executor.shutdownNow();
+                sampler.shutdownNow();
+            }
+            result.elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        }
+        return result;
+    }
+
+    private void slowQuery(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("CALL SLEEP_MS(?)")) {
+            statement.setLong(1, queryMillis);
+            statement.execute();
+        }
+    }
+
+    private void writeReport(Map<String, Object> report) {
+        File file = new File(reportDir, "slow-query-concurrency.json");
+        file.getParentFile().mkdirs();
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        log.info("負荷テストの結果を出力しました: {}", file.getAbsolutePath());
+    }
+
+    /**
+     * リクエストの種類（DBを使う／使わない）ごとの計測結果
+     */
+    private static final class Kind {
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private final LongAdder failures = new LongAdder();
+
+        private long completed() {
+            return latency.count() + failures.sum();
+        }
+
+        private Map<String, Object> toReport() {
+            long[] sorted = latency.sorted();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("succeeded", sorted.length);
+            entry.put("failures", failures.sum());
+            entry.put("p50Millis", LatencyRecorder.percentileMillis(sorted, 50));
+            entry.put("p99Millis", LatencyRecorder.percentileMillis(sorted, 99));
+            entry.put("p999Millis", LatencyRecorder.percentileMillis(sorted, 99.9));
+            return entry;
+        }
+    }
+
+    /**
+     * 実行モードごとの計測結果
+     */
+    private static final class ModeResult {
+        private final Kind db = new Kind();
+        private final Kind fast = new Kind();
+        private long submitted;
+        private volatile int maxInFlight;
+        private volatile int maxPoolWaiting;
+        private double elapsedSeconds;
+
+        private Map<String, Object> toReport() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("submitted", submitted);
+            entry.put("elapsedSeconds", elapsedSeconds);
+            entry.put("throughputPerSecond", (db.latency.count() + fast.latency.count()) / elapsedSeconds);
+            entry.put("maxInFlight", maxInFlight);
+            entry.put("maxPoolWaiting", maxPoolWaiting);
+            entry.put("db", db.toReport());
+            entry.put("fast", fast.toReport());
+            return entry;
+        }
+
+        private void appendTo(StringBuilder table, String label) {
+            double throughput = (db.latency.count() + fast.latency.count()) / elapsedSeconds;
+            appendKind(table, label, "db", db, throughput);
+            appendKind(table, label, "fast", fast, throughput);
+        }
+
+        private void appendKind(StringBuilder table, String label, String kindName, Kind kind, double throughput) {
+            long[] sorted = kind.latency.sorted();
+            table.append(String.format("%-18s %-5s %8d %8.2f %8.2f %8.2f %9d %8d %8d %8.1f%n",
+                label, kindName, sorted.length,
+                LatencyRecorder.percentileMillis(sorted, 50),
+                LatencyRecorder.percentileMillis(sorted, 99),
+                LatencyRecorder.percentileMillis(sorted, 99.9),
+                kind.failures.sum(), maxInFlight, maxPoolWaiting, throughput));
+        }
+    }
+}
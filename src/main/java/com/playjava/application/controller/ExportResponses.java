@@ -0,0 +1,38 @@
+package com.playjava.application.controller;
+
+import com.playjava.usecase.dto.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * エクスポートAPIのレスポンス生成
+ * 本文は StreamingResponseBody としてリクエスト処理のスレッドとは別に書き出す
+ * （書き出しの上限時間は spring.mvc.async.request-timeout）。
+ */
+final class ExportResponses {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private ExportResponses() {}
+
+    /**
+     * ダウンロード用のヘッダーを付けたレスポンスを作成する
+     * @param name ファイル名の接頭辞（例: orders → orders-20250101120000.ndjson）
+     * @param format 出力形式
+     * @param body 本文を書き出す処理
+     * @return レスポンス
+     */
+    static ResponseEntity<StreamingResponseBody> of(String name, ExportFormat format, StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getMediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+            .body(body);
+    }
+}
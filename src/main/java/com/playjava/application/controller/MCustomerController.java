@@ -15,10 +15,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.playjava.enterprise.entity.MCustomer;
-import com.playjava.frameworks.context.UserContext;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.CustomerSummary;
+import com.playjava.usecase.dto.ExportFormat;
+import java.util.UUID;
 
 
 @RestController
@@ -35,13 +41,8 @@ public class MCustomerController {
     public void createCustomer(@Valid @RequestBody MCustomer customer) {
         log.info("createCustomer: customer={}", customer);
         
-        try {
-            // 顧客作成処理（内部でUserContextが設定される）
-            mCustomerService.createCustomerImpl(customer);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 顧客作成処理（内部でUserContextが設定される）
+        mCustomerService.createCustomerImpl(customer);
     }
 
     // 顧客更新
@@ -49,32 +50,22 @@ public class MCustomerController {
     public void updateCustomer(@Valid @RequestBody MCustomer customer) {
         log.info("updateCustomer: customer={}", customer);
         
-        try {
-            // 顧客更新処理（UserContextからログインユーザーIDを取得してupdateUserに設定される）
-            mCustomerService.updateCustomerImpl(customer);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 顧客更新処理（UserContextからログインユーザーIDを取得してupdateUserに設定される）
+        mCustomerService.updateCustomerImpl(customer);
     }
 
     // 顧客論理削除
     @DeleteMapping("/{customerId}")
-    public void deleteCustomer(@PathVariable String customerId) {
+    public void deleteCustomer(@PathVariable UUID customerId) {
         log.info("deleteCustomer: customerId={}", customerId);
         
-        try {
-            // 顧客論理削除処理
-            mCustomerService.deleteCustomerImpl(customerId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 顧客論理削除処理
+        mCustomerService.deleteCustomerImpl(customerId);
     }
 
     // 顧客検索（ページング・ソート対応）
     @GetMapping("/search")
-    public IPage<MCustomer> searchCustomer(
+    public IPage<CustomerSummary> searchCustomer(
             @RequestParam(required = false) String customerNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) String address,
@@ -84,13 +75,60 @@ public class MCustomerController {
             @RequestParam(defaultValue = "1") int pageNum,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "updateDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortOrder) {
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
 
-        log.info("searchCustomer: customerNumber={}, customerName={}, address={}, mobileNumber={}, email={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}",
-                customerNumber, customerName, address, mobileNumber, email, deleteFlag, pageNum, pageSize, sortBy, sortOrder);
+        log.info("searchCustomer: customerNumber={}, customerName={}, address={}, mobileNumber={}, email={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}, countMode={}, fields={}",
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag, pageNum, pageSize, sortBy, sortOrder, countMode, fields);
 
-        return mCustomerService.searchCustomerImpl(
+        return mCustomerService.searchCustomerSummaryImpl(
                 customerNumber, customerName, address, mobileNumber, email, deleteFlag,
-                pageNum, pageSize, sortBy, sortOrder);
+                pageNum, pageSize, sortBy, sortOrder, CountMode.from(countMode), fields);
+    }
+
+    // 顧客検索（カーソル方式、総件数なし）
+    @GetMapping("/search/cursor")
+    public CursorPage<CustomerSummary> searchCustomerByCursor(
+            @RequestParam(required = false) String customerNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) String mobileNumber,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Boolean deleteFlag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "updateDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String fields) {
+
+        log.info("searchCustomerByCursor: customerNumber={}, customerName={}, address={}, mobileNumber={}, email={}, deleteFlag={}, cursor={}, pageSize={}, sortBy={}, sortOrder={}, fields={}",
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag, cursor, pageSize, sortBy, sortOrder, fields);
+
+        return mCustomerService.searchCustomerSummaryByCursorImpl(
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag,
+                cursor, pageSize, sortBy, sortOrder, fields);
+    }
+
+    // 顧客エクスポート（NDJSON/CSV で全件をストリーミング出力）
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(required = false) String customerNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) String mobileNumber,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Boolean deleteFlag,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("exportCustomers: customerNumber={}, customerName={}, address={}, mobileNumber={}, email={}, deleteFlag={}, format={}",
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag, format);
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.of("customers", exportFormat, out -> {
+            long rows = mCustomerService.exportCustomersImpl(
+                    customerNumber, customerName, address, mobileNumber, email, deleteFlag, exportFormat, out);
+            log.info("exportCustomers 完了: rows={}", rows);
+        });
     }
 }
@@ -15,10 +15,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.playjava.enterprise.entity.MStock;
 import com.playjava.frameworks.context.UserContext;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.StockSummary;
+import com.playjava.usecase.dto.ExportFormat;
+import java.util.Objects;
+import java.util.UUID;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -53,13 +61,8 @@ public class MStockController {
             @Valid @RequestBody MStock stock) {
         log.info("createStock: stock={}", stock);
         
-        try {
-            // 在庫登録処理（内部でUserContextが設定される）
-            mStockService.createStockImpl(stock);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 在庫登録処理（内部でUserContextが設定される）
+        mStockService.createStockImpl(stock);
     }
 
     // 在庫更新
@@ -78,16 +81,8 @@ public class MStockController {
             @Valid @RequestBody MStock stock) {
         log.info("updateStock: stock={}", stock);
         
-        try {
-            // 更新者をコンテキストに設定
-            UserContext.setCurrentUserId(stock.getStockId());
-            
-            // 在庫更新処理
-            mStockService.updateStockImpl(stock);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 更新者をコンテキストに束縛して更新
+        UserContext.runAs(Objects.toString(stock.getStockId(), null), () -> mStockService.updateStockImpl(stock));
     }
 
     // 在庫論理削除
@@ -102,19 +97,11 @@ public class MStockController {
     @DeleteMapping("/deleteStock/{stockId}")
     public void deleteStock(
             @Parameter(description = "削除する在庫のID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable String stockId) {
+            @PathVariable UUID stockId) {
         log.info("deleteStock: stockId={}", stockId);
         
-        try {
-            // 削除者をコンテキストに設定
-            UserContext.setCurrentUserId(stockId);
-            
-            // 在庫論理削除処理
-            mStockService.deleteStockImpl(stockId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 削除者をコンテキストに束縛して論理削除
+        UserContext.runAs(stockId.toString(), () -> mStockService.deleteStockImpl(stockId));
     }
 
     // 在庫一覧（ページング・ソート対応）
@@ -126,9 +113,9 @@ public class MStockController {
         @ApiResponse(responseCode = "200", description = "検索成功")
     })
     @GetMapping("/search")
-    public IPage<MStock> searchStock(
+    public IPage<StockSummary> searchStock(
             @Parameter(description = "商品ID（完全一致）", example = "550e8400-e29b-41d4-a716-446655440000")
-            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) UUID productId,
             @Parameter(description = "商品名（部分一致）", example = "商品名")
             @RequestParam(required = false) String productName,
             @Parameter(description = "在庫数量最小値（以上）", example = "0")
@@ -146,14 +133,93 @@ public class MStockController {
             @Parameter(description = "ソート対象フィールド", example = "updateDate")
             @RequestParam(defaultValue = "updateDate") String sortBy,
             @Parameter(description = "ソート順序（asc/desc）", example = "desc")
-            @RequestParam(defaultValue = "desc") String sortOrder) {
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @Parameter(description = "総件数の取得方法（exact=正確な件数、none=取得しない、estimated=10000件で打ち切り）", example = "exact")
+            @RequestParam(defaultValue = "exact") String countMode,
+            @Parameter(description = "返す項目（カンマ区切り、未指定時はすべて）", example = "stockId,quantity")
+            @RequestParam(required = false) String fields) {
 
-        log.info("searchStock: productId={}, productName={}, quantityMin={}, quantityMax={}, status={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}",
-                productId, productName, quantityMin, quantityMax, status, deleteFlag, pageNum, pageSize, sortBy, sortOrder);
+        log.info("searchStock: productId={}, productName={}, quantityMin={}, quantityMax={}, status={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}, countMode={}, fields={}",
+                productId, productName, quantityMin, quantityMax, status, deleteFlag, pageNum, pageSize, sortBy, sortOrder, countMode, fields);
 
-        return mStockService.searchStockImpl(
+        return mStockService.searchStockSummaryImpl(
                 productId, productName, quantityMin, quantityMax, status, deleteFlag,
-                pageNum, pageSize, sortBy, sortOrder);
+                pageNum, pageSize, sortBy, sortOrder, CountMode.from(countMode), fields);
+    }
+
+    // 在庫一覧（カーソル方式）
+    @Operation(
+        summary = "在庫検索（カーソル方式）",
+        description = "在庫を条件で検索し、前ページの nextCursor の続きを返します。総件数は返しません。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "検索成功")
+    })
+    @GetMapping("/search/cursor")
+    public CursorPage<StockSummary> searchStockByCursor(
+            @Parameter(description = "商品ID（完全一致）", example = "550e8400-e29b-41d4-a716-446655440000")
+            @RequestParam(required = false) UUID productId,
+            @Parameter(description = "商品名（部分一致）", example = "商品名")
+            @RequestParam(required = false) String productName,
+            @Parameter(description = "在庫数量最小値（以上）", example = "0")
+            @RequestParam(required = false) Integer quantityMin,
+            @Parameter(description = "在庫数量最大値（以下）", example = "100")
+            @RequestParam(required = false) Integer quantityMax,
+            @Parameter(description = "在庫ステータス（0=在庫あり、1=在庫なし、2=発注済み）", example = "0")
+            @RequestParam(required = false) Integer status,
+            @Parameter(description = "削除フラグ", example = "false")
+            @RequestParam(required = false) Boolean deleteFlag,
+            @Parameter(description = "前ページの nextCursor（先頭ページは指定なし）")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "1ページあたりの件数", example = "10")
+            @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "ソート対象フィールド", example = "updateDate")
+            @RequestParam(defaultValue = "updateDate") String sortBy,
+            @Parameter(description = "ソート順序（asc/desc）", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @Parameter(description = "返す項目（カンマ区切り、未指定時はすべて）", example = "stockId,quantity")
+            @RequestParam(required = false) String fields) {
+
+        log.info("searchStockByCursor: productId={}, productName={}, quantityMin={}, quantityMax={}, status={}, deleteFlag={}, cursor={}, pageSize={}, sortBy={}, sortOrder={}, fields={}",
+                productId, productName, quantityMin, quantityMax, status, deleteFlag, cursor, pageSize, sortBy, sortOrder, fields);
+
+        return mStockService.searchStockSummaryByCursorImpl(
+                productId, productName, quantityMin, quantityMax, status, deleteFlag,
+                cursor, pageSize, sortBy, sortOrder, fields);
+    }
+
+    // 在庫エクスポート
+    @Operation(
+        summary = "在庫エクスポート",
+        description = "条件に一致する在庫を全件、NDJSON（1行に1件のJSON）または CSV でストリーミング出力します。件数の上限はありません。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "出力成功")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStocks(
+            @Parameter(description = "商品ID（完全一致）", example = "550e8400-e29b-41d4-a716-446655440000")
+            @RequestParam(required = false) UUID productId,
+            @Parameter(description = "在庫数量最小値（以上）", example = "0")
+            @RequestParam(required = false) Integer quantityMin,
+            @Parameter(description = "在庫数量最大値（以下）", example = "100")
+            @RequestParam(required = false) Integer quantityMax,
+            @Parameter(description = "在庫ステータス（0=在庫あり、1=在庫なし、2=発注済み）", example = "0")
+            @RequestParam(required = false) Integer status,
+            @Parameter(description = "削除フラグ", example = "false")
+            @RequestParam(required = false) Boolean deleteFlag,
+            @Parameter(description = "出力形式（ndjson/csv）", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("exportStocks: productId={}, quantityMin={}, quantityMax={}, status={}, deleteFlag={}, format={}",
+                productId, quantityMin, quantityMax, status, deleteFlag, format);
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.of("stocks", exportFormat, out -> {
+            long rows = mStockService.exportStocksImpl(
+                    productId, quantityMin, quantityMax, status, deleteFlag, exportFormat, out);
+            log.info("exportStocks 完了: rows={}", rows);
+        });
     }
 
     // 在庫照会（商品ID指定）
@@ -168,15 +234,10 @@ public class MStockController {
     @GetMapping("/products/{productId}")
     public MStock getStockByProductId(
             @Parameter(description = "照会する商品ID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable String productId) {
+            @PathVariable UUID productId) {
         log.info("getStockByProductId: productId={}", productId);
         
-        try {
-            // 在庫照会処理
-            return mStockService.getStockByProductIdImpl(productId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 在庫照会処理
+        return mStockService.getStockByProductIdImpl(productId);
     }
 }
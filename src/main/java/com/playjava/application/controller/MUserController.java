@@ -15,11 +15,19 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.playjava.enterprise.entity.MUser;
 import com.playjava.frameworks.context.UserContext;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.UserSummary;
+import com.playjava.usecase.dto.ExportFormat;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -55,13 +63,8 @@ public class MUserController {
             @Valid @RequestBody MUser user) {
         log.info("createUser: user={}", user);
         
-        try {
-            // ユーザー作成処理（内部でUserContextが設定される）
-            mUserService.createUserImpl(user);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // ユーザー作成処理（内部でUserContextが設定される）
+        mUserService.createUserImpl(user);
     }
 
     // ユーザー更新
@@ -80,16 +83,8 @@ public class MUserController {
             @Valid @RequestBody MUser user) {
         log.info("updateUser: user={}", user);
         
-        try {
-            // ユーザーIDをコンテキストに設定（更新者として記録）
-            UserContext.setCurrentUserId(user.getUserId());
-            
-            // ユーザー更新処理
-            mUserService.updateUserImpl(user);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // ユーザーIDをコンテキストに束縛して更新（更新者として記録）
+        UserContext.runAs(Objects.toString(user.getUserId(), null), () -> mUserService.updateUserImpl(user));
     }
 
     // ユーザー論理削除
@@ -104,19 +99,11 @@ public class MUserController {
     @DeleteMapping("/deleteUser/{userId}")
     public void deleteUser(
             @Parameter(description = "削除するユーザーのID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable String userId) {
+            @PathVariable UUID userId) {
         log.info("deleteUser: userId={}", userId);
         
-        try {
-            // 削除者をコンテキストに設定
-            UserContext.setCurrentUserId(userId);
-            
-            // ユーザー論理削除処理
-            mUserService.deleteUserImpl(userId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 削除者をコンテキストに束縛して論理削除
+        UserContext.runAs(userId.toString(), () -> mUserService.deleteUserImpl(userId));
     }
 
     // ユーザー検索（ページング・ソート対応）
@@ -128,7 +115,7 @@ public class MUserController {
         @ApiResponse(responseCode = "200", description = "検索成功")
     })
     @GetMapping("/searchUser")
-    public IPage<MUser> searchUser(
+    public IPage<UserSummary> searchUser(
             @Parameter(description = "ユーザー名（部分一致）", example = "yamada")
             @RequestParam(required = false) String userName,
             @Parameter(description = "ページ番号（1から開始）", example = "1")
@@ -138,11 +125,43 @@ public class MUserController {
             @Parameter(description = "ソート対象フィールド", example = "createDate")
             @RequestParam(defaultValue = "createDate") String sortBy,
             @Parameter(description = "ソート順序（asc/desc）", example = "desc")
-            @RequestParam(defaultValue = "desc") String sortOrder) {
-        log.info("searchUser: userName={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}", 
-            userName, pageNum, pageSize, sortBy, sortOrder);
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @Parameter(description = "総件数の取得方法（exact=正確な件数、none=取得しない、estimated=10000件で打ち切り）", example = "exact")
+            @RequestParam(defaultValue = "exact") String countMode,
+            @Parameter(description = "返す項目（カンマ区切り、未指定時はすべて）", example = "userId,userName")
+            @RequestParam(required = false) String fields) {
+        log.info("searchUser: userName={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}, countMode={}, fields={}", 
+            userName, pageNum, pageSize, sortBy, sortOrder, countMode, fields);
         
-        return mUserService.searchUserImpl(userName, pageNum, pageSize, sortBy, sortOrder);
+        return mUserService.searchUserSummaryImpl(userName, pageNum, pageSize, sortBy, sortOrder, CountMode.from(countMode), fields);
+    }
+
+    // ユーザー検索（カーソル方式）
+    @Operation(
+        summary = "ユーザー検索（カーソル方式）",
+        description = "ユーザー名で検索し、前ページの nextCursor の続きを返します。総件数は返しません。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "検索成功")
+    })
+    @GetMapping("/searchUser/cursor")
+    public CursorPage<UserSummary> searchUserByCursor(
+            @Parameter(description = "ユーザー名（部分一致）", example = "yamada")
+            @RequestParam(required = false) String userName,
+            @Parameter(description = "前ページの nextCursor（先頭ページは指定なし）")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "1ページあたりの件数", example = "10")
+            @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "ソート対象フィールド", example = "createDate")
+            @RequestParam(defaultValue = "createDate") String sortBy,
+            @Parameter(description = "ソート順序（asc/desc）", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @Parameter(description = "返す項目（カンマ区切り、未指定時はすべて）", example = "userId,userName")
+            @RequestParam(required = false) String fields) {
+        log.info("searchUserByCursor: userName={}, cursor={}, pageSize={}, sortBy={}, sortOrder={}, fields={}",
+            userName, cursor, pageSize, sortBy, sortOrder, fields);
+
+        return mUserService.searchUserSummaryByCursorImpl(userName, cursor, pageSize, sortBy, sortOrder, fields);
     }
 
     // ユーザー検索（シンプル版）
@@ -154,12 +173,38 @@ public class MUserController {
         @ApiResponse(responseCode = "200", description = "検索成功")
     })
     @PostMapping("/searchUserSimple")
-    public List<MUser> searchUserSimple(
+    public List<UserSummary> searchUserSimple(
             @Parameter(description = "検索条件となるユーザー情報", required = true)
-            @RequestBody MUser user) {
-        log.info("searchUserSimple: user={}", user);
+            @RequestBody MUser user,
+            @Parameter(description = "返す項目（カンマ区切り、未指定時はすべて）", example = "userId,userName")
+            @RequestParam(required = false) String fields) {
+        log.info("searchUserSimple: userName={}, fields={}", user.getUserName(), fields);
         
-        return mUserService.searchUserImpl(user);
+        return mUserService.searchUserSummaryImpl(user, fields);
+    }
+
+    // ユーザーエクスポート
+    @Operation(
+        summary = "ユーザーエクスポート",
+        description = "条件に一致するユーザーを全件、NDJSON（1行に1件のJSON）または CSV でストリーミング出力します。件数の上限はありません。パスワードは出力しません。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "出力成功")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "ユーザー名（部分一致）", example = "yamada")
+            @RequestParam(required = false) String userName,
+            @Parameter(description = "出力形式（ndjson/csv）", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("exportUsers: userName={}, format={}", userName, format);
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.of("users", exportFormat, out -> {
+            long rows = mUserService.exportUsersImpl(userName, exportFormat, out);
+            log.info("exportUsers 完了: rows={}", rows);
+        });
     }
 
     // ユーザー名重複チェック
@@ -175,7 +220,7 @@ public class MUserController {
             @Parameter(description = "チェックするユーザー名", required = true, example = "yamada_taro")
             @PathVariable String userName,
             @Parameter(description = "除外するユーザーID（更新時に自分を除外）", example = "550e8400-e29b-41d4-a716-446655440000")
-            @RequestParam(required = false) String excludeUserId) {
+            @RequestParam(required = false) UUID excludeUserId) {
         log.info("existsByUserName: userName={}, excludeUserId={}", userName, excludeUserId);
         
         return mUserService.existsByUserName(userName, excludeUserId);
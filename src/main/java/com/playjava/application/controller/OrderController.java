@@ -14,14 +14,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.playjava.usecase.dto.CreateOrderRequest;
 import com.playjava.usecase.dto.OrderDetailResponse;
-import com.playjava.frameworks.context.UserContext;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.OrderSummary;
+import com.playjava.usecase.dto.ExportFormat;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.enterprise.entity.TOrder;
 
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -35,87 +45,68 @@ public class OrderController {
     // 店舗購入の注文作成
     @PostMapping("/store-purchase")
     public String createStorePurchaseOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("createStorePurchaseOrder: customerId={}, items={}", request.getCustomerId(), request.getItems());
+        log.info("createStorePurchaseOrder: customerId={}, itemCount={}", request.getCustomerId(), request.getItems().size());
+        log.debug("createStorePurchaseOrder: items={}", request.getItems());
         
-        try {
-            // 注文作成処理
-            String orderId = orderService.createStorePurchaseOrderImpl(request);
-            log.info("注文作成成功: orderId={}", orderId);
-            return orderId;
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 注文作成処理
+        UUID orderId = orderService.createStorePurchaseOrderImpl(request);
+        log.info("注文作成成功: orderId={}", orderId);
+        return orderId.toString();
     }
 
     // 注文キャンセル（在庫不足時にキャンセルを選択した場合）
     @PostMapping("/cancel")
     public String createCancelledOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("createCancelledOrder: customerId={}, items={}", request.getCustomerId(), request.getItems());
+        log.info("createCancelledOrder: customerId={}, itemCount={}", request.getCustomerId(), request.getItems().size());
+        log.debug("createCancelledOrder: items={}", request.getItems());
         
-        try {
-            // 注文キャンセル処理（注文履歴は残す）
-            String orderId = orderService.createCancelledOrderImpl(request);
-            log.info("注文キャンセル成功: orderId={}", orderId);
-            return orderId;
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 注文キャンセル処理（注文履歴は残す）
+        UUID orderId = orderService.createCancelledOrderImpl(request);
+        log.info("注文キャンセル成功: orderId={}", orderId);
+        return orderId.toString();
     }
 
     // 取り寄せ注文の作成
     @PostMapping("/special-order")
     public String createSpecialOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("createSpecialOrder: customerId={}, items={}", request.getCustomerId(), request.getItems());
+        log.info("createSpecialOrder: customerId={}, itemCount={}", request.getCustomerId(), request.getItems().size());
+        log.debug("createSpecialOrder: items={}", request.getItems());
         
-        try {
-            // 取り寄せ注文作成処理
-            String orderId = orderService.createSpecialOrderImpl(request);
-            log.info("取り寄せ注文作成成功: orderId={}", orderId);
-            return orderId;
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 取り寄せ注文作成処理
+        UUID orderId = orderService.createSpecialOrderImpl(request);
+        log.info("取り寄せ注文作成成功: orderId={}", orderId);
+        return orderId.toString();
     }
 
     // カスタマイズオーダーの作成
     @PostMapping("/custom-order")
     public String createCustomOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("createCustomOrder: customerId={}, items={}", request.getCustomerId(), request.getItems());
+        log.info("createCustomOrder: customerId={}, itemCount={}", request.getCustomerId(), request.getItems().size());
+        log.debug("createCustomOrder: items={}", request.getItems());
         
-        try {
-            // カスタマイズオーダー作成処理
-            String orderId = orderService.createCustomOrderImpl(request);
-            log.info("カスタマイズオーダー作成成功: orderId={}", orderId);
-            return orderId;
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // カスタマイズオーダー作成処理
+        UUID orderId = orderService.createCustomOrderImpl(request);
+        log.info("カスタマイズオーダー作成成功: orderId={}", orderId);
+        return orderId.toString();
     }
 
     // 注文確定
     @PutMapping("/{orderId}/confirm")
-    public void confirmOrder(@PathVariable String orderId) {
+    public void confirmOrder(@PathVariable UUID orderId) {
         log.info("confirmOrder: orderId={}", orderId);
         
-        try {
-            // 注文確定処理
-            orderService.confirmOrderImpl(orderId);
-            log.info("注文確定成功: orderId={}", orderId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 注文確定処理
+        orderService.confirmOrderImpl(orderId);
+        log.info("注文確定成功: orderId={}", orderId);
     }
 
     // 注文一覧（検索、ページング、ソート対応）
     @GetMapping("/search")
-    public IPage<TOrder> searchOrder(
-            @RequestParam(required = false) String orderId,
-            @RequestParam(required = false) String customerId,
+    public IPage<OrderSummary> searchOrder(
+            @RequestParam(required = false) UUID orderId,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) String customerNumber,
+            @RequestParam(required = false) String customerName,
             @RequestParam(required = false) OffsetDateTime orderDateFrom,
             @RequestParam(required = false) OffsetDateTime orderDateTo,
             @RequestParam(required = false) Integer status,
@@ -123,36 +114,103 @@ public class OrderController {
             @RequestParam(defaultValue = "1") int pageNum,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "orderDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortOrder) {
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
+
+        log.info("searchOrder: orderId={}, customerId={}, customerNumber={}, customerName={}, orderDateFrom={}, orderDateTo={}, status={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}, countMode={}, fields={}",
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag, pageNum, pageSize, sortBy, sortOrder, countMode, fields);
+
+        return orderService.searchOrderSummaryImpl(
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, CountMode.from(countMode), fields);
+    }
+
+    // 注文一覧（カーソル方式、総件数なし）
+    @GetMapping("/search/cursor")
+    public CursorPage<OrderSummary> searchOrderByCursor(
+            @RequestParam(required = false) UUID orderId,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) String customerNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) OffsetDateTime orderDateFrom,
+            @RequestParam(required = false) OffsetDateTime orderDateTo,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Boolean deleteFlag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "orderDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String fields) {
 
-        log.info("searchOrder: orderId={}, customerId={}, orderDateFrom={}, orderDateTo={}, status={}, deleteFlag={}, pageNum={}, pageSize={}, sortBy={}, sortOrder={}",
-                orderId, customerId, orderDateFrom, orderDateTo, status, deleteFlag, pageNum, pageSize, sortBy, sortOrder);
+        log.info("searchOrderByCursor: orderId={}, customerId={}, customerNumber={}, customerName={}, orderDateFrom={}, orderDateTo={}, status={}, deleteFlag={}, cursor={}, pageSize={}, sortBy={}, sortOrder={}, fields={}",
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag, cursor, pageSize, sortBy, sortOrder, fields);
 
-        return orderService.searchOrderImpl(
-                orderId, customerId, orderDateFrom, orderDateTo, status, deleteFlag,
-                pageNum, pageSize, sortBy, sortOrder);
+        return orderService.searchOrderSummaryByCursorImpl(
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag,
+                cursor, pageSize, sortBy, sortOrder, fields);
     }
 
-    // 注文詳細
+    // 注文エクスポート（明細を含む、NDJSON/CSV で全件をストリーミング出力）
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) OffsetDateTime orderDateFrom,
+            @RequestParam(required = false) OffsetDateTime orderDateTo,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Boolean deleteFlag,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("exportOrders: customerId={}, orderDateFrom={}, orderDateTo={}, status={}, deleteFlag={}, format={}",
+                customerId, orderDateFrom, orderDateTo, status, deleteFlag, format);
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.of("orders", exportFormat, out -> {
+            long rows = orderService.exportOrdersImpl(
+                    customerId, orderDateFrom, orderDateTo, status, deleteFlag, exportFormat, out);
+            log.info("exportOrders 完了: rows={}", rows);
+        });
+    }
+
+    // 注文詳細（ETag 付き、If-None-Match が一致する場合は 304）
     @GetMapping("/{orderId}")
-    public OrderDetailResponse getOrderDetail(@PathVariable String orderId) {
-        log.info("getOrderDetail: orderId={}", orderId);
-        
-        return orderService.getOrderDetailImpl(orderId);
+    public ResponseEntity<OrderDetailResponse> getOrderDetail(
+            @PathVariable UUID orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("getOrderDetail: orderId={}, ifNoneMatch={}", orderId, ifNoneMatch);
+
+        // 前回の表示から変更がない場合は、DBを参照せずに 304 を返す
+        String knownETag = orderService.getOrderDetailETagImpl(orderId);
+        if (knownETag != null && notModified(ifNoneMatch, knownETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownETag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        OrderDetailResponse detail = orderService.getOrderDetailImpl(orderId);
+        String etag = detail.etag();
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(detail);
+    }
+
+    /**
+     * If-None-Match のいずれかが ETag と一致するか（弱い比較）
+     */
+    private static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
     }
 
     // 注文キャンセル（既存注文のキャンセル）
     @PutMapping("/{orderId}/cancel")
-    public void cancelOrder(@PathVariable String orderId) {
+    public void cancelOrder(@PathVariable UUID orderId) {
         log.info("cancelOrder: orderId={}", orderId);
         
-        try {
-            // 注文キャンセル処理
-            orderService.cancelOrderImpl(orderId);
-            log.info("注文キャンセル成功: orderId={}", orderId);
-        } finally {
-            // リクエスト完了後、コンテキストをクリア
-            UserContext.clear();
-        }
+        // 注文キャンセル処理
+        orderService.cancelOrderImpl(orderId);
+        log.info("注文キャンセル成功: orderId={}", orderId);
     }
 }
@@ -4,12 +4,13 @@ import com.baomidou.mybatisplus.annotation.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Data
 @TableName("m_customer")
 public class MCustomer {
-    @TableId(type = IdType.ASSIGN_UUID)
-    private String customerId;
+    @TableId(type = IdType.INPUT)
+    private UUID customerId;
     private String customerNumber;
     
     @NotBlank(message = "顧客名は必須です")
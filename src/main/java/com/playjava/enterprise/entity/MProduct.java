@@ -3,12 +3,13 @@ package com.playjava.enterprise.entity;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Data
 @TableName("m_product")
 public class MProduct {
-    @TableId(type = IdType.ASSIGN_UUID)
-    private String productId;
+    @TableId(type = IdType.INPUT)
+    private UUID productId;
     private String productNumber;
     private String productName;
     private String description;
@@ -3,13 +3,14 @@ package com.playjava.enterprise.entity;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Data
 @TableName("m_stock")
 public class MStock {
-    @TableId(type = IdType.ASSIGN_UUID)
-    private String stockId;
-    private String productId;
+    @TableId(type = IdType.INPUT)
+    private UUID stockId;
+    private UUID productId;
     private Integer quantity;
     private Integer status;
 
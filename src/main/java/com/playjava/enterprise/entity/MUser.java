@@ -5,14 +5,15 @@ import jakarta.validation.constraints.*;
 import lombok.Data;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Data
 @TableName("m_user")
 @Schema(description = "ユーザーマスタ")
 public class MUser {
     @Schema(description = "ユーザーID（UUID自動生成）", example = "550e8400-e29b-41d4-a716-446655440000", accessMode = Schema.AccessMode.READ_ONLY)
-    @TableId(type = IdType.ASSIGN_UUID)
-    private String userId;
+    @TableId(type = IdType.INPUT)
+    private UUID userId;
     
     @Schema(description = "ユーザー名", example = "yamada_taro", minLength = 3, maxLength = 50)
     @NotBlank(message = "ユーザー名は必須です")
@@ -3,14 +3,15 @@ package com.playjava.enterprise.entity;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Data
 @TableName("t_order_item")
 public class TOrderItem {
-    @TableId(type = IdType.ASSIGN_UUID)
-    private String orderItemId;
-    private String orderId;
-    private String productId;
+    @TableId(type = IdType.INPUT)
+    private UUID orderItemId;
+    private UUID orderId;
+    private UUID productId;
     private Integer quantity;
     private Integer unitPrice;
 
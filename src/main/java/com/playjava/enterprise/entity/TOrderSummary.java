@@ -0,0 +1,35 @@
+package com.playjava.enterprise.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 注文一覧の読み取りモデル（注文1件につき1行）
+ * t_order に顧客名・明細数・合計金額を非正規化したもので、注文の作成・ステータス変更・顧客の更新と
+ * 同じトランザクションで OrderSummaryProjector が更新する（直接 INSERT・UPDATE しないこと）。
+ */
+@Data
+@TableName("t_order_summary")
+public class TOrderSummary {
+    @TableId(type = IdType.INPUT)
+    private UUID orderId;
+    private UUID customerId;
+    private String customerNumber;
+    private String customerName;
+    private OffsetDateTime orderDate;
+    private Integer status;
+    /** 明細数 */
+    private Integer itemCount;
+    /** 合計金額（数量 × 単価の合計） */
+    private Long totalAmount;
+
+    // 論理削除の設定（t_order と同じ値を保持する）
+    @TableLogic(value = "false", delval = "true")
+    private Boolean deleteFlag;
+
+    // t_order の登録日時、読み取りモデルの更新日時
+    private OffsetDateTime createDate;
+    private OffsetDateTime updateDate;
+}
@@ -0,0 +1,123 @@
+package com.playjava.frameworks.adapter.customer;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 顧客IDのブルームフィルタ
+ * 顧客IDそのものは保持せず、UUIDを2つのlong（上位・下位64ビット）として混ぜたハッシュ値からビット位置を求める。
+ * 「含まれない」と判定した顧客IDは確実に登録されていない（偽陰性なし）。「含まれる」は偽陽性の可能性がある。
+ * 登録はスレッドセーフで、削除はできない（削除された顧客は再構築まで「含まれる」と判定される）。
+ */
+class CustomerBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * @param capacity 想定する登録件数（この件数までは偽陽性率が fpp 以下になるようにビット数を決める）
+     * @param fpp 想定する偽陽性率（0より大きく1未満）
+     */
+    CustomerBloomFilter(long capacity, double fpp) {
+        long size = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (size + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    /**
+     * 顧客IDを登録する
+     */
+    void put(UUID customerId) {
+        long[] hashes = hashes(customerId);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * 顧客IDが登録されている可能性があるかどうかを返す
+     * @return 登録されている可能性がある場合true（falseの場合は確実に登録されていない）
+     */
+    boolean mightContain(UUID customerId) {
+        long[] hashes = hashes(customerId);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 立っているビットの割合から、現在の偽陽性率の推定値を返す
+     */
+    double expectedFpp() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashCount);
+    }
+
+    /**
+     * ビット配列のメモリ使用量（バイト）
+     */
+    long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    private long index(long[] hashes, int i) {
+        // ダブルハッシュ法で hashCount 個のビット位置を求める
+        return Math.floorMod(hashes[0] + i * hashes[1], bitSize);
+    }
+
+    /**
+     * 顧客IDから2つの64ビットハッシュ値を求める（UUIDの上位・下位64ビットを元にする）
+     */
+    private static long[] hashes(UUID customerId) {
+        long high = customerId.getMostSignificantBits();
+        long low = customerId.getLeastSignificantBits();
+        long h1 = mix(high ^ Long.rotateLeft(low, 32));
+        long h2 = mix(low + 0x9e3779b97f4a7c15L * high) | 1L;
+        return new long[] {h1, h2};
+    }
+
+    /**
+     * 64ビット値のビットを攪拌する（SplitMix64 の最終段）
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.playjava.usecase.port.customer.CustomerExistencePort;
 import com.playjava.frameworks.mapper.MCustomerMapper;
-import com.playjava.enterprise.entity.MCustomer;
+
+import java.util.UUID;
 
 /**
  * CustomerExistencePort の実装。
- * 顧客マスタ（MCustomerMapper）に問い合わせ、注文サービスからは Port 経由でのみ利用される。
+ * 顧客の存在インデックス（CustomerExistenceIndex）で確実に存在しないと判定できる顧客IDはDBに問い合わせずに否定し、
+ * それ以外は顧客マスタ（MCustomerMapper）に主キーの EXISTS で問い合わせる。注文サービスからは Port 経由でのみ利用される。
  */
 @Component
 public class CustomerExistenceAdapter implements CustomerExistencePort {
@@ -17,12 +19,19 @@ public class CustomerExistenceAdapter implements CustomerExistencePort {
     @Autowired
     private MCustomerMapper mCustomerMapper;
 
+    @Autowired
+    private CustomerExistenceIndex customerExistenceIndex;
+
     @Override
-    public boolean existsActiveCustomer(String customerId) {
-        if (customerId == null || customerId.isEmpty()) {
+    public boolean existsActiveCustomer(UUID customerId) {
+        if (customerId == null) {
+            return false;
+        }
+        if (!customerExistenceIndex.mightContain(customerId)) {
             return false;
         }
-        MCustomer customer = mCustomerMapper.selectById(customerId);
-        return customer != null && !Boolean.TRUE.equals(customer.getDeleteFlag());
+        boolean exists = mCustomerMapper.existsActiveById(customerId);
+        customerExistenceIndex.recordConfirmation(exists);
+        return exists;
     }
 }
@@ -0,0 +1,254 @@
+package com.playjava.frameworks.adapter.customer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.playjava.frameworks.concurrent.BackgroundThreads;
+import com.playjava.frameworks.mapper.MCustomerMapper;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 顧客の存在インデックス
+ * 有効な顧客IDをブルームフィルタ（CustomerBloomFilter）に保持し、存在しない顧客IDをDBに問い合わせずに判定する。
+ * 起動時に全件から構築し、顧客登録時に追加する。他のインスタンスで登録された顧客は一定間隔で create_date の差分を取り込む。
+ * 取り込み前の顧客をフィルタが知らないまま否定しないよう、顧客IDがUUIDv7で、その時刻が取り込み済みの範囲より新しい場合は「含まれる可能性あり」とする。
+ * 顧客の削除はフィルタから取り除けないため件数のみ記録し、削除数や登録数が増えた場合・一定時間ごとにフィルタを作り直す。
+ *
+ * 「含まれる可能性あり」の判定は偽陽性・削除済み・未コミットを含むため、呼び出し側はDBで確認すること。
+ * 想定偽陽性率・メモリ使用量・判定結果の件数は Micrometer に customer.existence.index.* として出力する。
+ */
+@Slf4j
+@Component
+public class CustomerExistenceIndex implements InitializingBean, DisposableBean {
+
+    private static final String METRIC_PREFIX = "customer.existence.index";
+
+    @Autowired
+    private MCustomerMapper mCustomerMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${playjava.customer.existence-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${playjava.customer.existence-index.fpp:0.01}")
+    private double fpp;
+
+    @Value("${playjava.customer.existence-index.minimum-capacity:100000}")
+    private long minimumCapacity;
+
+    @Value("${playjava.customer.existence-index.refresh-interval-ms:1000}")
+    private long refreshIntervalMs;
+
+    @Value("${playjava.customer.existence-index.lookback-ms:60000}")
+    private long lookbackMs;
+
+    @Value("${playjava.customer.existence-index.rebuild-interval-ms:3600000}")
+    private long rebuildIntervalMs;
+
+    private volatile CustomerBloomFilter filter;
+
+    /** この時刻（エポックミリ秒）より前に作成された顧客は、コミット済みであればフィルタに登録済み */
+    private volatile long coveredUntilMillis;
+
+    /** 再構築中に登録された顧客ID（再構築中でない場合はnull） */
+    private volatile Set<UUID> addedDuringRebuild;
+
+    /** フィルタへの登録と、再構築したフィルタへの差し替えを排他する */
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private long lastBuildMillis;
+
+    private Counter negativeCounter;
+    private Counter confirmedCounter;
+    private Counter falsePositiveCounter;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        negativeCounter = lookupCounter("negative");
+        confirmedCounter = lookupCounter("confirmed");
+        falsePositiveCounter = lookupCounter("false_positive");
+        Gauge.builder(METRIC_PREFIX + ".expected.fpp", this, index -> index.filter != null ? index.filter.expectedFpp() : 0)
+            .description("ビットの充填率から推定した偽陽性率")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".memory", this, index -> index.filter != null ? index.filter.memoryBytes() : 0)
+            .description("ブルームフィルタのメモリ使用量")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".insertions", this, index -> index.filter != null ? index.filter.insertions() : 0)
+            .description("ブルームフィルタへの登録件数")
+            .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+
+        rebuild();
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("customer-existence-index-refresh"));
+        refreshExecutor.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 顧客が存在する可能性があるかどうかを返す
+     * @param customerId 顧客ID
+     * @return 存在する可能性がある場合true（falseの場合は確実に存在しない）
+     */
+    public boolean mightContain(UUID customerId) {
+        CustomerBloomFilter current = filter;
+        if (current == null || current.mightContain(customerId) || isNewerThanCovered(customerId)) {
+            return true;
+        }
+        negativeCounter.increment();
+        return false;
+    }
+
+    /**
+     * mightContain が true を返した顧客について、DBで確認した結果を記録する
+     * @param exists DBで存在を確認できた場合true
+     */
+    public void recordConfirmation(boolean exists) {
+        (exists ? confirmedCounter : falsePositiveCounter).increment();
+    }
+
+    /**
+     * 登録した顧客をインデックスに追加する
+     * @param customerId 顧客ID
+     */
+    public void add(UUID customerId) {
+        swapLock.readLock().lock();
+        try {
+            CustomerBloomFilter current = filter;
+            if (current == null) {
+                return;
+            }
+            current.put(customerId);
+            Set<UUID> added = addedDuringRebuild;
+            if (added != null) {
+                added.add(customerId);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 削除した顧客を記録する（フィルタからは取り除けないため、再構築の判断に使用する）
+     * @param customerId 顧客ID
+     */
+    public void remove(UUID customerId) {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    /**
+     * 有効な顧客の全件からフィルタを作り直して差し替える
+     */
+    public synchronized void rebuild() {
+        long startedMillis = System.currentTimeMillis();
+        long activeCount = mCustomerMapper.selectCount(null);
+        CustomerBloomFilter rebuilt = new CustomerBloomFilter(Math.max(minimumCapacity, activeCount * 2), fpp);
+        addedDuringRebuild = ConcurrentHashMap.newKeySet();
+        try {
+            // PostgreSQL でフェッチサイズ単位に読み込むため、トランザクション内で走査する
+            transactionTemplate.executeWithoutResult(status ->
+                mCustomerMapper.scanActiveCustomerIds(context -> rebuilt.put(context.getResultObject())));
+
+            swapLock.writeLock().lock();
+            try {
+                addedDuringRebuild.forEach(rebuilt::put);
+                filter = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            addedDuringRebuild = null;
+        }
+        deletedSinceBuild.set(0);
+        lastBuildMillis = startedMillis;
+        coveredUntilMillis = startedMillis - lookbackMs;
+        log.info("顧客の存在インデックスを構築しました: customers={}, capacity={}, memoryBytes={}, hashCount={}",
+            rebuilt.insertions(), rebuilt.capacity(), rebuilt.memoryBytes(), rebuilt.hashCount());
+    }
+
+    /**
+     * 前回以降に登録された顧客を取り込む（削除・登録が増えた場合や一定時間経過した場合は作り直す）
+     */
+    public synchronized void refresh() {
+        CustomerBloomFilter current = filter;
+        long startedMillis = System.currentTimeMillis();
+        if (current == null
+                || startedMillis - lastBuildMillis >= rebuildIntervalMs
+                || current.insertions() > current.capacity()
+                || deletedSinceBuild.get() * 10 > current.insertions()) {
+            rebuild();
+            return;
+        }
+        // 前回の取り込み範囲の終端から取得する（取り込みに失敗した期間があっても取りこぼさない）
+        OffsetDateTime since = OffsetDateTime.ofInstant(Instant.ofEpochMilli(coveredUntilMillis), ZoneOffset.UTC);
+        for (UUID customerId : mCustomerMapper.selectActiveCustomerIdsCreatedSince(since)) {
+            add(customerId);
+        }
+        coveredUntilMillis = startedMillis - lookbackMs;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("顧客の存在インデックスの更新に失敗しました。次回の更新で再試行します", e);
+        }
+    }
+
+    /**
+     * 顧客IDがUUIDv7で、その時刻が取り込み済みの範囲より新しいかどうか
+     */
+    private boolean isNewerThanCovered(UUID customerId) {
+        if (customerId.version() != 7) {
+            return false;
+        }
+        long createdMillis = customerId.getMostSignificantBits() >>> 16;
+        return createdMillis >= coveredUntilMillis;
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder(METRIC_PREFIX + ".lookups")
+            .description("顧客の存在インデックスによる判定件数（negative: DBに問い合わせず否定、confirmed: DBで確認、false_positive: DBで否定）")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
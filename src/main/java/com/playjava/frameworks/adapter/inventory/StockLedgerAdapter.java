@@ -0,0 +1,513 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.playjava.frameworks.concurrent.BackgroundThreads;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.frameworks.mapper.StockLedgerCheckpointMapper;
+import com.playjava.frameworks.cache.StockCache;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StockOperationPort のインメモリ台帳実装（playjava.inventory.engine=ledger の場合のみ有効）。
+ * 商品ごとの在庫数量をメモリ上で正として保持し、減算・戻しを行ロックなしで即時に判定する。
+ * 数量の変更はローカルジャーナルに追記したうえで差分として集約し、一定間隔で m_stock にまとめて反映する（ライトビハインド）。
+ * 起動時には m_stock へ未反映のジャーナルを再適用してから受付を開始する。
+ *
+ * 注意: 台帳は単一インスタンスでの運用を前提とする。m_stock の数量は必ずこの Port を経由して更新し
+ * （在庫管理画面での数量修正は setStockQuantity）、論理削除や商品の付け替えの後は reloadStock を呼び出すこと。
+ * 呼び出し元のDBトランザクション内での変更は、台帳の数量には即時に反映する（以降の判定で二重に引き当てないため）が、
+ * ジャーナルと未反映の差分にはコミット後に記録する。ロールバックされた場合はジャーナルに何も残さず、台帳の数量だけを元に戻す。
+ * ジャーナルにはコミット済み（またはトランザクション外）の差分のみが残るため、コミット前にプロセスが停止しても
+ * 起動時の再適用で減算されることはない。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "playjava.inventory.engine", havingValue = "ledger")
+public class StockLedgerAdapter implements StockOperationPort, InitializingBean, DisposableBean {
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private StockLedgerCheckpointMapper stockLedgerCheckpointMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${playjava.inventory.ledger.id:default}")
+    private String ledgerId;
+
+    @Value("${playjava.inventory.ledger.stripes:64}")
+    private int stripeCount;
+
+    @Value("${playjava.inventory.ledger.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${playjava.inventory.ledger.journal-dir:./data/stock-ledger}")
+    private String journalDir;
+
+    @Value("${playjava.inventory.ledger.journal-fsync:true}")
+    private boolean journalFsync;
+
+    /** 商品ごとの在庫数量（台帳に読み込み済みの商品のみ） */
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    /** m_stock へ未反映の差分数量 */
+    private final Map<UUID, Integer> pendingDeltas = new ConcurrentHashMap<>();
+
+    /** 差分の記録（共有）と反映対象の切り出し（排他）を分離するロック */
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private ReentrantLock[] stripes;
+    private StockLedgerJournal journal;
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 商品ごとの在庫数量
+     * 更新はストライプロックを取得したうえで行い、参照はロックなしで行う。
+     */
+    private static final class Counter {
+        private volatile int quantity;
+
+        private Counter(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        // 1. m_stock へ未反映のジャーナルを再適用
+        journal = new StockLedgerJournal(Paths.get(journalDir), journalFsync);
+        long lastSequence = recover();
+
+        // 2. 新しいジャーナルで受付を開始し、ライトビハインドを定期実行
+        journal.open(lastSequence);
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("stock-ledger-flush"));
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("在庫台帳を開始しました: ledgerId={}, lastSequence={}", ledgerId, lastSequence);
+    }
+
+    @Override
+    public void destroy() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 停止前に未反映の差分を反映する（失敗してもジャーナルから次回起動時に復旧される）
+        flushQuietly();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    public int getStockQuantity(UUID productId) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            return counter.quantity;
+        }
+        ReentrantLock stripe = stripeFor(productId);
+        stripe.lock();
+        try {
+            return loadCounter(productId).quantity;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void deductStock(UUID productId, int quantity) {
+        ReentrantLock stripe = stripeFor(productId);
+        stripe.lock();
+        try {
+            Counter counter = loadCounter(productId);
+            if (counter.quantity < quantity) {
+                throw new StockInsufficientException(
+                    "在庫不足です: productId=" + productId +
+                        ", 在庫数量=" + counter.quantity + ", 要求数量=" + quantity,
+                    List.of(new StockInsufficientException.StockInsufficientItem(productId, counter.quantity, quantity)));
+            }
+            counter.quantity -= quantity;
+            commitOrDefer(new TreeMap<>(Map.of(productId, -quantity)), Map.of(productId, counter));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void returnStock(UUID productId, int quantity) {
+        ReentrantLock stripe = stripeFor(productId);
+        stripe.lock();
+        try {
+            Counter counter = loadCounter(productId);
+            counter.quantity += quantity;
+            commitOrDefer(new TreeMap<>(Map.of(productId, quantity)), Map.of(productId, counter));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void deductStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        SortedMap<UUID, Integer> sorted = new TreeMap<>(quantities);
+        List<ReentrantLock> locked = lockStripes(sorted);
+        try {
+            // 1. 数量不足の商品をまとめて収集（1件でも不足があれば何も変更しない）
+            Map<UUID, Counter> loaded = new LinkedHashMap<>();
+            List<StockInsufficientException.StockInsufficientItem> insufficientItems = new ArrayList<>();
+            sorted.forEach((productId, quantity) -> {
+                Counter counter = loadCounter(productId);
+                loaded.put(productId, counter);
+                if (counter.quantity < quantity) {
+                    insufficientItems.add(new StockInsufficientException.StockInsufficientItem(
+                        productId, counter.quantity, quantity));
+                }
+            });
+            if (!insufficientItems.isEmpty()) {
+                throw new StockInsufficientException("在庫不足の商品があります", insufficientItems);
+            }
+
+            // 2. 台帳を減算し、ジャーナルに記録（トランザクション内の場合はコミット後）
+            sorted.forEach((productId, quantity) -> loaded.get(productId).quantity -= quantity);
+            commitOrDefer(negate(sorted), loaded);
+        } finally {
+            unlockStripes(locked);
+        }
+    }
+
+    @Override
+    public void returnStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        SortedMap<UUID, Integer> sorted = new TreeMap<>(quantities);
+        List<ReentrantLock> locked = lockStripes(sorted);
+        try {
+            Map<UUID, Counter> loaded = new LinkedHashMap<>();
+            sorted.forEach((productId, quantity) -> loaded.put(productId, loadCounter(productId)));
+            sorted.forEach((productId, quantity) -> loaded.get(productId).quantity += quantity);
+            commitOrDefer(sorted, loaded);
+        } finally {
+            unlockStripes(locked);
+        }
+    }
+
+    /**
+     * 現在の数量との差分をジャーナルに記録し、減算・戻しと同じく書き込みは後でまとめて反映する
+     */
+    @Override
+    public void setStockQuantity(UUID productId, int quantity) {
+        int delta;
+        ReentrantLock stripe = stripeFor(productId);
+        stripe.lock();
+        try {
+            Counter counter = loadCounter(productId);
+            delta = quantity - counter.quantity;
+            if (delta == 0) {
+                return;
+            }
+            counter.quantity = quantity;
+            commitOrDefer(new TreeMap<>(Map.of(productId, delta)), Map.of(productId, counter));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void reloadStock(UUID productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            discardCounter(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                discardCounter(productId);
+            }
+        });
+    }
+
+    /**
+     * 台帳に読み込み済みの数量を破棄する
+     * 未反映の差分は書き換え前の在庫レコードに対するものであるため、打ち消しの差分をジャーナルに記録して取り消す。
+     */
+    private void discardCounter(UUID productId) {
+        ReentrantLock stripe = stripeFor(productId);
+        stripe.lock();
+        try {
+            flushLock.readLock().lock();
+            try {
+                Integer pending = pendingDeltas.get(productId);
+                if (pending != null && pending != 0) {
+                    record(Map.of(productId, -pending));
+                }
+            } finally {
+                flushLock.readLock().unlock();
+            }
+            counters.remove(productId);
+        } finally {
+            stripe.unlock();
+        }
+        stockCache.invalidate(productId);
+        log.info("在庫台帳の数量を破棄しました: productId={}", productId);
+    }
+
+    /**
+     * 台帳の数量に加えた差分を確定する
+     * トランザクション外では即時にジャーナルと未反映の差分に記録する。
+     * トランザクション内ではコミット後に記録し（ジャーナル上のコミットの記録を兼ねる）、ロールバックされた場合は
+     * ジャーナルに記録せずに台帳の数量だけを元に戻す。在庫の減算後に注文の登録などが失敗した場合に、
+     * 減算した在庫が失われず、コミット前に停止した場合も復旧時に減算が再適用されないようにする。
+     * 呼び出し側で対象商品のストライプロックを取得しておくこと。
+     * @param deltas 台帳に加えた差分数量
+     * @param applied 差分を加えた台帳の数量（ロールバック時は、破棄・再読み込みされていない同じ数量のみ元に戻す）
+     */
+    private void commitOrDefer(SortedMap<UUID, Integer> deltas, Map<UUID, Counter> applied) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(deltas);
+            return;
+        }
+        Map<UUID, Counter> counterSnapshot = new LinkedHashMap<>(applied);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                List<ReentrantLock> locked = lockStripes(deltas);
+                try {
+                    record(deltas);
+                } finally {
+                    unlockStripes(locked);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    revertCounters(deltas, counterSnapshot);
+                    log.info("トランザクションのロールバックにより在庫台帳の変更を取り消しました: deltas={}", deltas);
+                } else if (status == STATUS_UNKNOWN) {
+                    log.warn("トランザクションの結果が不明のため、在庫台帳の変更をジャーナルに記録していません: deltas={}", deltas);
+                }
+            }
+        });
+    }
+
+    /**
+     * ロールバックされた変更を台帳の数量から取り除く（ジャーナル・未反映の差分には記録されていないため数量のみ戻す）
+     * 変更後に破棄・再読み込みされた数量は m_stock から読み直した値のため、戻さない。
+     */
+    private void revertCounters(SortedMap<UUID, Integer> deltas, Map<UUID, Counter> applied) {
+        List<ReentrantLock> locked = lockStripes(deltas);
+        try {
+            deltas.forEach((productId, delta) -> {
+                Counter counter = applied.get(productId);
+                if (counter != null && counters.get(productId) == counter) {
+                    counter.quantity -= delta;
+                }
+            });
+        } finally {
+            unlockStripes(locked);
+        }
+    }
+
+    private static SortedMap<UUID, Integer> negate(Map<UUID, Integer> deltas) {
+        SortedMap<UUID, Integer> negated = new TreeMap<>();
+        deltas.forEach((productId, delta) -> negated.put(productId, -delta));
+        return negated;
+    }
+
+    /**
+     * 未反映の差分を m_stock にまとめて反映する
+     * 反映対象を切り出す間だけ差分の記録を止め、DBへの書き込み中は受付を継続する。
+     * 反映に失敗した差分は未反映の差分に戻し、次回の反映で再試行する。
+     */
+    public synchronized void flush() {
+        SortedMap<UUID, Integer> snapshot;
+        long sequence;
+        flushLock.writeLock().lock();
+        try {
+            if (pendingDeltas.isEmpty()) {
+                return;
+            }
+            snapshot = new TreeMap<>(pendingDeltas);
+            pendingDeltas.clear();
+            sequence = journal.rotate();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        try {
+            snapshot.values().removeIf(delta -> delta == 0);
+            applyDeltas(snapshot, sequence);
+            journal.deleteClosedSegments();
+        } catch (RuntimeException e) {
+            snapshot.forEach((productId, delta) -> pendingDeltas.merge(productId, delta, Integer::sum));
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("在庫台帳の反映に失敗しました。次回の反映で再試行します", e);
+        }
+    }
+
+    /**
+     * m_stock へ未反映のジャーナルを再適用する
+     * @return 採番済みの最後の連番
+     */
+    private long recover() {
+        long checkpoint = currentCheckpoint();
+        long lastSequence = checkpoint;
+        SortedMap<UUID, Integer> deltas = new TreeMap<>();
+        for (StockLedgerJournal.Entry entry : journal.readAll()) {
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+            if (entry.getSequence() > checkpoint) {
+                deltas.merge(entry.getProductId(), entry.getDelta(), Integer::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (lastSequence > checkpoint) {
+            log.info("在庫台帳の未反映ジャーナルを再適用します: checkpoint={}, lastSequence={}, products={}",
+                checkpoint, lastSequence, deltas.size());
+            applyDeltas(deltas, lastSequence);
+        }
+        return lastSequence;
+    }
+
+    /**
+     * 差分数量と反映済みの連番を同一トランザクションで m_stock に書き込む
+     * 書き込み後、m_stock の在庫レコードをキャッシュしている StockCache の該当エントリを無効化する。
+     */
+    private void applyDeltas(SortedMap<UUID, Integer> deltas, long sequence) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deltas.isEmpty()) {
+                mStockMapper.applyQuantityDeltas(deltas, SystemUser.SYSTEM, OffsetDateTime.now());
+            }
+            if (stockLedgerCheckpointMapper.updateLastSequence(ledgerId, sequence) == 0) {
+                stockLedgerCheckpointMapper.insertLastSequence(ledgerId, sequence);
+            }
+        });
+        stockCache.invalidateAll(deltas.keySet());
+    }
+
+    private long currentCheckpoint() {
+        Long lastSequence = stockLedgerCheckpointMapper.selectLastSequence(ledgerId);
+        return lastSequence != null ? lastSequence : 0L;
+    }
+
+    /**
+     * 差分数量をジャーナルに追記し、未反映の差分に加える
+     * 呼び出し側で対象商品のストライプロックを取得しておくこと。
+     */
+    private void record(Map<UUID, Integer> deltas) {
+        flushLock.readLock().lock();
+        try {
+            journal.append(deltas);
+            deltas.forEach((productId, delta) -> pendingDeltas.merge(productId, delta, Integer::sum));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 台帳に読み込み済みの在庫数量を返す（未読み込みの場合は m_stock から読み込む）
+     * 呼び出し側で対象商品のストライプロックを取得しておくこと。
+     */
+    private Counter loadCounter(UUID productId) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(MStock::getProductId, productId);
+        MStock stock = mStockMapper.selectOne(wrapper);
+        if (stock == null || Boolean.TRUE.equals(stock.getDeleteFlag())) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + productId);
+        }
+        counter = new Counter(stock.getQuantity());
+        counters.put(productId, counter);
+        return counter;
+    }
+
+    private ReentrantLock stripeFor(UUID productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    private int stripeIndex(UUID productId) {
+        return (productId.hashCode() & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    /**
+     * 対象商品のストライプロックをインデックス順に取得する（デッドロック防止）
+     */
+    private List<ReentrantLock> lockStripes(SortedMap<UUID, Integer> quantities) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (UUID productId : quantities.keySet()) {
+            indexes.add(stripeIndex(productId));
+        }
+        List<ReentrantLock> locked = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            locked.add(stripes[index]);
+        }
+        return locked;
+    }
+
+    private void unlockStripes(List<ReentrantLock> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 在庫台帳のローカルジャーナル（追記専用）
+ * 在庫数量の差分を連番付きでファイルに追記し、m_stock へ反映される前にプロセスが停止した場合の復旧に使用する。
+ * ジャーナルはセグメントファイルに分割し、ライトビハインドの反映時にセグメントを切り替え、反映済みのセグメントを削除する。
+ * 1行の形式: 連番,商品ID,差分数量
+ */
+public class StockLedgerJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "stock-ledger-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> closedSegments = new ArrayList<>();
+
+    private FileChannel channel;
+    private long sequence;
+    private long segmentStartSequence;
+
+    /**
+     * @param directory ジャーナルの保存先ディレクトリ
+     * @param fsync 追記ごとにディスクへ同期する場合true
+     */
+    public StockLedgerJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * ジャーナルの記録
+     */
+    @Value
+    public static class Entry {
+        /** 連番 */
+        long sequence;
+        /** 商品ID */
+        UUID productId;
+        /** 差分数量（減算はマイナス） */
+        int delta;
+    }
+
+    /**
+     * 保存先ディレクトリ内の全セグメントを連番順に読み込む
+     * 書き込み途中で停止した末尾の不完全な行は無視する。
+     * @return ジャーナルの記録（連番順）
+     */
+    public List<Entry> readAll() {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : listSegments()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split(",");
+                    if (fields.length != 3) {
+                        continue;
+                    }
+                    try {
+                        entries.add(new Entry(Long.parseLong(fields[0]), UUID.fromString(fields[1]), Integer.parseInt(fields[2])));
+                    } catch (IllegalArgumentException e) {
+                        // 書き込み途中の行は反映されていないものとして扱う
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("在庫台帳ジャーナルの読み込みに失敗しました: " + segment, e);
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::getSequence));
+        return entries;
+    }
+
+    /**
+     * 既存のセグメントを全て削除し、新しいセグメントで書き込みを開始する
+     * @param lastSequence 最後に採番済みの連番（次の記録はこの値+1から採番する）
+     */
+    public synchronized void open(long lastSequence) {
+        try {
+            Files.createDirectories(directory);
+            for (Path segment : listSegments()) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルの初期化に失敗しました: " + directory, e);
+        }
+        this.sequence = lastSequence;
+        this.closedSegments.clear();
+        openSegment();
+    }
+
+    /**
+     * 差分数量を追記する
+     * @param deltas 商品IDごとの差分数量
+     * @return 最後に採番した連番
+     */
+    public synchronized long append(Map<UUID, Integer> deltas) {
+        StringBuilder sb = new StringBuilder();
+        long next = sequence;
+        for (Map.Entry<UUID, Integer> delta : deltas.entrySet()) {
+            next++;
+            sb.append(next).append(',').append(delta.getKey()).append(',').append(delta.getValue()).append('\n');
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルへの書き込みに失敗しました", e);
+        }
+        sequence = next;
+        return next;
+    }
+
+    /**
+     * 現在のセグメントを閉じて新しいセグメントに切り替える
+     * @return 閉じたセグメントに記録された最後の連番
+     */
+    public synchronized long rotate() {
+        if (sequence == segmentStartSequence) {
+            // 前回の切り替え以降に追記がない場合はそのまま使い続ける
+            return sequence;
+        }
+        closeChannel();
+        closedSegments.add(segmentPath(sequence));
+        openSegment();
+        return sequence;
+    }
+
+    /**
+     * 閉じたセグメントを削除する（m_stock への反映が完了した後に呼び出す）
+     */
+    public synchronized void deleteClosedSegments() {
+        try {
+            for (Path segment : closedSegments) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルの削除に失敗しました", e);
+        }
+        closedSegments.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    private void openSegment() {
+        try {
+            // 書き込み中のセグメントは固定名とし、閉じる際に最後の連番を含む名前に改名する
+            channel = FileChannel.open(currentSegmentPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentStartSequence = sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルのオープンに失敗しました: " + directory, e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+            if (sequence == segmentStartSequence) {
+                Files.deleteIfExists(currentSegmentPath());
+            } else {
+                Files.move(currentSegmentPath(), segmentPath(sequence));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルのクローズに失敗しました", e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private Path currentSegmentPath() {
+        return directory.resolve(SEGMENT_PREFIX + "current" + SEGMENT_SUFFIX);
+    }
+
+    private Path segmentPath(long lastSequence) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, lastSequence, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("在庫台帳ジャーナルの一覧取得に失敗しました: " + directory, e);
+        }
+        segments.sort(Comparator.naturalOrder());
+        return segments;
+    }
+}
@@ -2,53 +2,162 @@ package com.playjava.frameworks.adapter.inventory;
 
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
 import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.frameworks.cache.StockCache;
+import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.entity.MStock;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * StockOperationPort の実装。
  * 在庫マスタ（MStockMapper）に問い合わせ・更新し、注文サービスからは Port 経由でのみ利用される。
+ * 減算・戻しは条件付きUPDATE 1文で行い、読み取りと更新の間に他のトランザクションが割り込まないようにする。
+ * playjava.inventory.engine が未指定または database の場合に有効（ledger の場合は StockLedgerAdapter を使用する）。
+ * 在庫数量の照会は StockCache を経由し、減算・戻しを行った商品のエントリは無効化する。
  */
 @Component
+@ConditionalOnProperty(name = "playjava.inventory.engine", havingValue = "database", matchIfMissing = true)
 public class StockOperationAdapter implements StockOperationPort {
 
     @Autowired
     private MStockMapper mStockMapper;
 
+    @Autowired
+    private StockCache stockCache;
+
     @Override
-    public int getStockQuantity(String productId) {
-        MStock stock = findStockByProductId(productId);
+    public int getStockQuantity(UUID productId) {
+        MStock stock = stockCache.get(productId, this::findStockByProductId);
         return stock.getQuantity();
     }
 
     @Override
-    public void deductStock(String productId, int quantity) {
-        MStock stock = findStockByProductId(productId);
-        if (stock.getQuantity() < quantity) {
-            throw new RuntimeException("在庫不足です: productId=" + productId +
-                ", 在庫数量=" + stock.getQuantity() + ", 要求数量=" + quantity);
+    public void deductStock(UUID productId, int quantity) {
+        int updated = mStockMapper.deductQuantity(
+            productId, quantity, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidate(productId);
+        if (updated == 0) {
+            // 更新されなかった場合のみ、原因（レコードなし／数量不足）を確認する
+            MStock stock = findStockByProductId(productId);
+            throw new StockInsufficientException(
+                "在庫不足です: productId=" + productId +
+                    ", 在庫数量=" + stock.getQuantity() + ", 要求数量=" + quantity,
+                List.of(new StockInsufficientException.StockInsufficientItem(productId, stock.getQuantity(), quantity)));
+        }
+    }
+
+    @Override
+    public void returnStock(UUID productId, int quantity) {
+        int updated = mStockMapper.returnQuantity(
+            productId, quantity, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidate(productId);
+        if (updated == 0) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + productId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deductStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        SortedMap<UUID, Integer> sorted = new TreeMap<>(quantities);
+
+        // 1. 商品ID順に行ロックして在庫を取得
+        Map<UUID, MStock> stocks = lockStocks(sorted);
+
+        // 2. 数量不足の商品をまとめて収集
+        List<StockInsufficientException.StockInsufficientItem> insufficientItems = new ArrayList<>();
+        sorted.forEach((productId, quantity) -> {
+            MStock stock = stocks.get(productId);
+            if (stock.getQuantity() < quantity) {
+                insufficientItems.add(new StockInsufficientException.StockInsufficientItem(
+                    productId, stock.getQuantity(), quantity));
+            }
+        });
+        if (!insufficientItems.isEmpty()) {
+            throw new StockInsufficientException("在庫不足の商品があります", insufficientItems);
+        }
+
+        // 3. 1文でまとめて減算
+        int updated = mStockMapper.deductQuantities(sorted, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidateAll(sorted.keySet());
+        if (updated != sorted.size()) {
+            throw new IllegalStateException("在庫の一括減算件数が一致しません: 期待件数=" + sorted.size() + ", 更新件数=" + updated);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void returnStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
         }
-        stock.setQuantity(stock.getQuantity() - quantity);
-        if (stock.getQuantity() == 0) {
-            stock.setStatus(1); // 在庫なし
+        SortedMap<UUID, Integer> sorted = new TreeMap<>(quantities);
+
+        // 1. 商品ID順に行ロック（在庫レコードの存在確認を兼ねる）
+        lockStocks(sorted);
+
+        // 2. 1文でまとめて加算
+        int updated = mStockMapper.returnQuantities(sorted, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidateAll(sorted.keySet());
+        if (updated != sorted.size()) {
+            throw new IllegalStateException("在庫の一括戻し件数が一致しません: 期待件数=" + sorted.size() + ", 更新件数=" + updated);
         }
-        mStockMapper.updateById(stock);
     }
 
     @Override
-    public void returnStock(String productId, int quantity) {
-        MStock stock = findStockByProductId(productId);
-        stock.setQuantity(stock.getQuantity() + quantity);
-        if (stock.getQuantity() > 0 && Integer.valueOf(1).equals(stock.getStatus())) {
-            stock.setStatus(0); // 在庫あり
+    public void setStockQuantity(UUID productId, int quantity) {
+        int updated = mStockMapper.updateQuantity(
+            productId, quantity, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidate(productId);
+        if (updated == 0) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + productId);
+        }
+    }
+
+    @Override
+    public void reloadStock(UUID productId) {
+        // 在庫数量は保持していないため、キャッシュの無効化のみ行う
+        stockCache.invalidate(productId);
+    }
+
+    /**
+     * 対象商品の在庫を商品ID順に行ロックして取得する
+     * @param quantities 商品IDごとの数量（商品ID順）
+     * @return 商品IDごとの在庫情報
+     * @throws RuntimeException 在庫レコードが存在しない商品がある場合
+     */
+    private Map<UUID, MStock> lockStocks(SortedMap<UUID, Integer> quantities) {
+        Map<UUID, MStock> stocks = mStockMapper.selectForUpdateByProductIds(quantities.keySet()).stream()
+            .collect(Collectors.toMap(MStock::getProductId, Function.identity()));
+        List<String> missingProductIds = quantities.keySet().stream()
+            .filter(productId -> !stocks.containsKey(productId))
+            .map(UUID::toString)
+            .collect(Collectors.toList());
+        if (!missingProductIds.isEmpty()) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + String.join(",", missingProductIds));
         }
-        mStockMapper.updateById(stock);
+        return stocks;
     }
 
-    private MStock findStockByProductId(String productId) {
+    private MStock findStockByProductId(UUID productId) {
         LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(MStock::getProductId, productId);
         MStock stock = mStockMapper.selectOne(wrapper);
@@ -0,0 +1,315 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.frameworks.cache.StockCache;
+import com.playjava.frameworks.concurrent.BackgroundThreads;
+import com.playjava.frameworks.context.UserContext;
+import com.playjava.enterprise.entity.MStock;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * StockOperationPort のシーケンサ実装（playjava.inventory.engine=sequencer の場合のみ有効）。
+ * 減算・戻しを商品IDのハッシュで固定本数のレーンに振り分け、レーンごとの単一スレッドが受付順に処理する。
+ * 同じ商品への書き込みは常に同じレーンで直列化されるため、注文スレッド同士が行ロックを奪い合うことがなく、
+ * レーンはキューに溜まったコマンドを1トランザクションにまとめて書き込む。
+ * 呼び出し側はコミット完了まで待機するため、Port の同期的な振る舞いは変わらない。
+ *
+ * 複数レーンにまたがる一括減算は、レーンごとの減算が1件でも失敗した場合に成功分を戻すことで全件成功／全件失敗とする。
+ * そのため戻しが完了するまでの間、他の注文からは一時的に減算後の数量が見えることがある。
+ * レーンの書き込みは呼び出し元のDBトランザクションには参加しないため、呼び出し元のトランザクションがロールバックされた場合は、
+ * トランザクション終了後に打ち消しのコマンドをレーンに登録し、コミットまで待って元の数量に戻す。
+ * このため既定の StockOperationAdapter（呼び出し元のトランザクションで m_stock を更新する）と異なり、注文との原子性はない。
+ * レーンのコミットから打ち消しの完了までの間にプロセスが停止した場合や、打ち消しが失敗した場合は、
+ * ロールバックされた注文の減算が残る（ログに出力した数量をもとに在庫管理画面で修正する）。
+ * 呼び出し元は接続を保持したままレーンの完了を待つため、レーンは BulkheadDataSource の予約枠から接続を取得する
+ * （注文のトランザクションが接続を使い切っていてもレーンの書き込みが滞らない）。
+ * 在庫数量の照会は StockCache を経由し、レーンは書き込み後に対象商品のエントリを無効化する。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "playjava.inventory.engine", havingValue = "sequencer")
+public class StockSequencerAdapter implements StockOperationPort, InitializingBean, DisposableBean {
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${playjava.inventory.sequencer.lanes:8}")
+    private int laneCount;
+
+    @Value("${playjava.inventory.sequencer.ring-size:1024}")
+    private int ringSize;
+
+    @Value("${playjava.inventory.sequencer.batch-size:256}")
+    private int batchSize;
+
+    private StockSequencerLane[] lanes;
+    private Thread[] laneThreads;
+
+    @Override
+    public void afterPropertiesSet() {
+        lanes = new StockSequencerLane[laneCount];
+        laneThreads = new Thread[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new StockSequencerLane("stock-sequencer-" + i, ringSize, batchSize, mStockMapper, transactionTemplate, stockCache);
+            laneThreads[i] = backgroundThreads.start(lanes[i].name(), lanes[i]);
+        }
+        log.info("在庫シーケンサを開始しました: lanes={}, ringSize={}, batchSize={}, virtual={}", laneCount, ringSize, batchSize, backgroundThreads.isVirtual());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (lanes == null) {
+            return;
+        }
+        for (StockSequencerLane lane : lanes) {
+            lane.stop();
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            laneThreads[i].join();
+            lanes[i].failRemaining();
+        }
+    }
+
+    @Override
+    public int getStockQuantity(UUID productId) {
+        MStock stock = stockCache.get(productId, id -> {
+            LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(MStock::getProductId, id);
+            return mStockMapper.selectOne(wrapper);
+        });
+        if (stock == null || Boolean.TRUE.equals(stock.getDeleteFlag())) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + productId);
+        }
+        return stock.getQuantity();
+    }
+
+    @Override
+    public void deductStock(UUID productId, int quantity) {
+        await(laneFor(productId).submit(new StockSequencerLane.Command(new TreeMap<>(Map.of(productId, quantity)), true)));
+        compensateOnRollback(Map.of(productId, quantity), true);
+    }
+
+    @Override
+    public void returnStock(UUID productId, int quantity) {
+        await(laneFor(productId).submit(new StockSequencerLane.Command(new TreeMap<>(Map.of(productId, quantity)), false)));
+        compensateOnRollback(Map.of(productId, quantity), false);
+    }
+
+    @Override
+    public void deductStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Integer, SortedMap<UUID, Integer>> partitions = partition(quantities);
+        if (partitions.size() == 1) {
+            Map.Entry<Integer, SortedMap<UUID, Integer>> only = partitions.entrySet().iterator().next();
+            await(lanes[only.getKey()].submit(new StockSequencerLane.Command(only.getValue(), true)));
+            compensateOnRollback(quantities, true);
+            return;
+        }
+
+        // 1. レーンごとに減算を登録し、全レーンの完了を待つ
+        Map<Integer, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        partitions.forEach((lane, part) -> futures.put(lane, lanes[lane].submit(new StockSequencerLane.Command(part, true))));
+        List<SortedMap<UUID, Integer>> succeeded = new ArrayList<>();
+        List<StockInsufficientException.StockInsufficientItem> insufficientItems = new ArrayList<>();
+        RuntimeException otherFailure = null;
+        for (Map.Entry<Integer, CompletableFuture<Void>> entry : futures.entrySet()) {
+            try {
+                await(entry.getValue());
+                succeeded.add(partitions.get(entry.getKey()));
+            } catch (StockInsufficientException e) {
+                insufficientItems.addAll(e.getInsufficientItems());
+            } catch (StockSequencerLane.CommitOutcomeUnknownException e) {
+                // 反映済みの可能性があるが、戻すと未反映だった場合に在庫が増えるため打ち消さない
+                log.error("在庫の一括減算が反映されたか不明のため戻していません。在庫数量の確認が必要です: quantities={}",
+                    partitions.get(entry.getKey()), e);
+                if (otherFailure == null) {
+                    otherFailure = e;
+                }
+            } catch (RuntimeException e) {
+                // レーンが例外で完了したコマンドは反映されていないため、戻しは不要
+                if (otherFailure == null) {
+                    otherFailure = e;
+                }
+            }
+        }
+        if (insufficientItems.isEmpty() && otherFailure == null) {
+            compensateOnRollback(quantities, true);
+            return;
+        }
+
+        // 2. 1件でも失敗した場合は成功したレーンの減算を戻す（1レーンの戻しが失敗しても残りのレーンは戻す）
+        for (SortedMap<UUID, Integer> part : succeeded) {
+            try {
+                await(laneFor(part.firstKey()).submit(new StockSequencerLane.Command(part, false)));
+            } catch (RuntimeException e) {
+                log.error("在庫の一括減算の取り消しに失敗しました: quantities={}", part, e);
+            }
+        }
+        if (otherFailure != null) {
+            throw otherFailure;
+        }
+        throw new StockInsufficientException("在庫不足の商品があります", insufficientItems);
+    }
+
+    @Override
+    public void returnStockBatch(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Integer, SortedMap<UUID, Integer>> partitions = partition(quantities);
+        Map<Integer, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        partitions.forEach((lane, part) -> futures.put(lane, lanes[lane].submit(new StockSequencerLane.Command(part, false))));
+        List<SortedMap<UUID, Integer>> succeeded = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Map.Entry<Integer, CompletableFuture<Void>> entry : futures.entrySet()) {
+            try {
+                await(entry.getValue());
+                succeeded.add(partitions.get(entry.getKey()));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure == null) {
+            compensateOnRollback(quantities, false);
+            return;
+        }
+
+        // 1件でも失敗した場合は成功したレーンの戻しを取り消す
+        for (SortedMap<UUID, Integer> part : succeeded) {
+            try {
+                await(laneFor(part.firstKey()).submit(new StockSequencerLane.Command(part, true)));
+            } catch (RuntimeException e) {
+                log.error("在庫の一括戻しの取り消しに失敗しました: quantities={}", part, e);
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * 在庫管理画面からの数量修正は頻度が低いため、レーンを経由せず呼び出し元のトランザクションで直接更新する
+     * （レーンの書き込みとは m_stock の行ロックで直列化される）。
+     */
+    @Override
+    public void setStockQuantity(UUID productId, int quantity) {
+        int updated = mStockMapper.updateQuantity(
+            productId, quantity, UserContext.getCurrentUserId(), OffsetDateTime.now());
+        stockCache.invalidate(productId);
+        if (updated == 0) {
+            throw new RuntimeException("在庫レコードが存在しません: productId=" + productId);
+        }
+    }
+
+    @Override
+    public void reloadStock(UUID productId) {
+        // 在庫数量は保持していないため、キャッシュの無効化のみ行う
+        stockCache.invalidate(productId);
+    }
+
+    /**
+     * 呼び出し元のDBトランザクションがロールバックされた場合に、レーンで確定した減算・戻しを打ち消すよう登録する
+     * 打ち消しはトランザクション終了後にレーンごとに登録し、コミットまで待機する（失敗した場合はレーンごとにログに出力する）。
+     * 打ち消しはレーンごとの別トランザクションのため、待機中にプロセスが停止した場合は打ち消されずに残る。
+     * トランザクション外で呼び出された場合は何もしない。
+     * @param quantities 商品IDごとの数量
+     * @param deducted 減算した場合true、戻した場合false
+     */
+    private void compensateOnRollback(Map<UUID, Integer> quantities, boolean deducted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    Map<Integer, SortedMap<UUID, Integer>> partitions = partition(quantities);
+                    Map<Integer, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+                    partitions.forEach((lane, part) -> {
+                        try {
+                            futures.put(lane, lanes[lane].submit(new StockSequencerLane.Command(part, !deducted)));
+                        } catch (RuntimeException e) {
+                            log.error("ロールバックに伴う在庫の打ち消しを登録できませんでした: quantities={}, deducted={}", part, deducted, e);
+                        }
+                    });
+                    futures.forEach((lane, future) -> {
+                        try {
+                            await(future);
+                        } catch (RuntimeException e) {
+                            log.error("ロールバックに伴う在庫の打ち消しに失敗しました: quantities={}, deducted={}", partitions.get(lane), deducted, e);
+                        }
+                    });
+                } else if (status == STATUS_UNKNOWN) {
+                    log.warn("トランザクションの結果が不明のため、在庫の変更を打ち消していません: quantities={}, deducted={}", quantities, deducted);
+                }
+            }
+        });
+    }
+
+    /**
+     * 商品IDごとの数量を担当レーンごとに振り分ける
+     */
+    private Map<Integer, SortedMap<UUID, Integer>> partition(Map<UUID, Integer> quantities) {
+        Map<Integer, SortedMap<UUID, Integer>> partitions = new TreeMap<>();
+        quantities.forEach((productId, quantity) ->
+            partitions.computeIfAbsent(laneIndex(productId), lane -> new TreeMap<>()).put(productId, quantity));
+        return partitions;
+    }
+
+    private StockSequencerLane laneFor(UUID productId) {
+        return lanes[laneIndex(productId)];
+    }
+
+    int laneIndex(UUID productId) {
+        return (productId.hashCode() & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * レーンでの処理完了（コミット）を待ち、失敗した場合はその例外をそのまま送出する
+     */
+    private void await(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.frameworks.cache.StockCache;
+import com.playjava.frameworks.concurrent.BulkheadDataSource;
+import com.playjava.enterprise.valueobject.SystemUser;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在庫シーケンサのレーン（単一書き込みスレッド）
+ * 担当する商品への減算・戻しコマンドを有界キューで受け付け、1本のスレッドが受付順に処理する。
+ * キューに溜まったコマンドはまとめて取り出し、1トランザクション（行ロック1文＋差分反映1文）で m_stock に書き込む。
+ * コマンドの完了は書き込みのコミット後（StockCache の該当エントリを無効化した後）に通知する。
+ * 例外で完了したコマンドは反映されていない（CommitOutcomeUnknownException の場合のみ反映済みの可能性がある）。
+ */
+@Slf4j
+class StockSequencerLane implements Runnable {
+
+    private final String name;
+    private final BlockingQueue<Command> ring;
+    private final int batchSize;
+    private final MStockMapper mStockMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final StockCache stockCache;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param name レーン名（スレッド名に使用）
+     * @param ringSize 受付キューの容量（満杯の場合、呼び出し側は空きが出るまで待機する）
+     * @param batchSize 1トランザクションで処理する最大コマンド数
+     */
+    StockSequencerLane(String name, int ringSize, int batchSize,
+                       MStockMapper mStockMapper, TransactionTemplate transactionTemplate, StockCache stockCache) {
+        this.name = name;
+        this.ring = new ArrayBlockingQueue<>(ringSize);
+        this.batchSize = batchSize;
+        this.mStockMapper = mStockMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.stockCache = stockCache;
+    }
+
+    /**
+     * 在庫操作コマンド
+     */
+    static final class Command {
+        /** 商品IDごとの数量（商品ID順） */
+        private final SortedMap<UUID, Integer> quantities;
+        /** 減算の場合true、戻しの場合false */
+        private final boolean deduct;
+        /** 書き込みのコミット後に完了する */
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        Command(SortedMap<UUID, Integer> quantities, boolean deduct) {
+            this.quantities = quantities;
+            this.deduct = deduct;
+        }
+
+        CompletableFuture<Void> completion() {
+            return completion;
+        }
+    }
+
+    /**
+     * 書き込みのコミット中に例外が発生し、反映されたかどうかを判定できなかった場合の例外
+     * 反映済みの可能性があるため、呼び出し側は打ち消しを行わず在庫数量の確認を促すこと。
+     */
+    static final class CommitOutcomeUnknownException extends IllegalStateException {
+        CommitOutcomeUnknownException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * コマンドを受け付ける
+     * @return 書き込みのコミット後に完了する Future（数量不足などは例外で完了する）
+     */
+    CompletableFuture<Void> submit(Command command) {
+        if (!running) {
+            throw new IllegalStateException("在庫シーケンサは停止しています: lane=" + name);
+        }
+        try {
+            ring.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("在庫シーケンサへの登録が中断されました: lane=" + name, e);
+        }
+        return command.completion();
+    }
+
+    /**
+     * 受付を停止する（受付済みのコマンドは処理してからスレッドを終了する）
+     */
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        // 注文のトランザクションは接続を保持したままレーンの完了を待つため、レーンは予約枠から接続を取得する
+        BulkheadDataSource.useReservedPermits();
+        List<Command> batch = new ArrayList<>(batchSize);
+        while (running || !ring.isEmpty()) {
+            try {
+                Command first = ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        failRemaining();
+    }
+
+    /**
+     * 処理されずに残ったコマンドを失敗として通知する（中断時・停止後の登録に備える）
+     */
+    void failRemaining() {
+        Command remaining;
+        while ((remaining = ring.poll()) != null) {
+            remaining.completion().completeExceptionally(
+                new IllegalStateException("在庫シーケンサが停止したため処理されませんでした: lane=" + name));
+        }
+    }
+
+    /**
+     * まとめて取り出したコマンドを受付順に判定し、差分を1トランザクションで書き込む
+     * 書き込みに失敗した場合は、取り出した全コマンドを失敗として通知する（何も反映されない）。
+     * コミット中に例外が発生した場合は反映されたかを確認し、反映済みであれば成功として通知する。
+     * 確認できない場合は CommitOutcomeUnknownException で通知する。
+     */
+    private void process(List<Command> batch) {
+        Map<Command, RuntimeException> failures = new HashMap<>();
+        SortedSet<UUID> productIds = new TreeSet<>();
+        batch.forEach(command -> productIds.addAll(command.quantities.keySet()));
+        Map<UUID, Integer> before = new HashMap<>();
+        Map<UUID, Integer> written = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                failures.clear();
+                before.clear();
+                written.clear();
+
+                // 1. 対象商品を商品ID順に行ロックして現在の数量を取得
+                mStockMapper.selectForUpdateByProductIds(productIds)
+                    .forEach(stock -> before.put(stock.getProductId(), stock.getQuantity()));
+                Map<UUID, Integer> available = new HashMap<>(before);
+
+                // 2. 受付順に判定し、成功したコマンドの差分を集約
+                SortedMap<UUID, Integer> deltas = new TreeMap<>();
+                for (Command command : batch) {
+                    RuntimeException failure = evaluate(command, available);
+                    if (failure != null) {
+                        failures.put(command, failure);
+                        continue;
+                    }
+                    command.quantities.forEach((productId, quantity) -> {
+                        int delta = command.deduct ? -quantity : quantity;
+                        available.merge(productId, delta, Integer::sum);
+                        deltas.merge(productId, delta, Integer::sum);
+                    });
+                }
+
+                // 3. 差分を1文で反映
+                deltas.values().removeIf(delta -> delta == 0);
+                if (!deltas.isEmpty()) {
+                    int updated = mStockMapper.applyQuantityDeltas(deltas, SystemUser.SYSTEM, OffsetDateTime.now());
+                    if (updated != deltas.size()) {
+                        throw new IllegalStateException("在庫の差分反映件数が一致しません: 期待件数=" + deltas.size() + ", 更新件数=" + updated);
+                    }
+                }
+                deltas.keySet().forEach(productId -> written.put(productId, available.get(productId)));
+            });
+        } catch (RuntimeException e) {
+            // 差分の反映まで終わっていなければロールバックされている（コミット中の例外のみ反映済みの可能性がある）
+            boolean committed;
+            try {
+                committed = !written.isEmpty() && verifyCommitted(before, written, e);
+            } catch (CommitOutcomeUnknownException unknown) {
+                log.error("在庫シーケンサの書き込みが反映されたか確認できませんでした: lane={}, written={}", name, written, unknown);
+                batch.forEach(command -> command.completion().completeExceptionally(unknown));
+                return;
+            }
+            if (!committed) {
+                log.warn("在庫シーケンサの書き込みに失敗しました: lane={}, commands={}", name, batch.size(), e);
+                batch.forEach(command -> command.completion().completeExceptionally(e));
+                return;
+            }
+            log.warn("在庫シーケンサのコミット中に例外が発生しましたが、書き込みは反映されていました: lane={}", name, e);
+        }
+        // コミット済みのため、キャッシュの無効化に失敗してもコマンドは成功として通知する（エントリは有効期限で破棄される）
+        try {
+            stockCache.invalidateAll(productIds);
+        } catch (RuntimeException e) {
+            log.error("在庫キャッシュの無効化に失敗しました: lane={}, productIds={}", name, productIds, e);
+        }
+        for (Command command : batch) {
+            RuntimeException failure = failures.get(command);
+            if (failure != null) {
+                command.completion().completeExceptionally(failure);
+            } else {
+                command.completion().complete(null);
+            }
+        }
+    }
+
+    /**
+     * コミット中に例外が発生した場合に、書き込みが反映されたかを現在の数量から判定する
+     * 担当商品へのレーン経由の書き込みはこのレーンだけが行うため、書き込み後の数量と一致すれば反映済み、
+     * 書き込み前の数量と一致すれば未反映とみなす。
+     * @param before 書き込み前の数量
+     * @param written 差分を反映した商品の書き込み後の数量
+     * @param cause コミット中に発生した例外
+     * @return 反映済みの場合true、未反映の場合false
+     * @throws CommitOutcomeUnknownException どちらとも判定できない場合
+     */
+    private boolean verifyCommitted(Map<UUID, Integer> before, Map<UUID, Integer> written, RuntimeException cause) {
+        Map<UUID, Integer> current = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> mStockMapper.selectForUpdateByProductIds(written.keySet())
+                .forEach(stock -> current.put(stock.getProductId(), stock.getQuantity())));
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+            throw new CommitOutcomeUnknownException("在庫の現在数量を取得できませんでした: lane=" + name, cause);
+        }
+        if (written.entrySet().stream().allMatch(entry -> entry.getValue().equals(current.get(entry.getKey())))) {
+            return true;
+        }
+        if (written.keySet().stream().allMatch(productId -> before.get(productId).equals(current.get(productId)))) {
+            return false;
+        }
+        throw new CommitOutcomeUnknownException("在庫の現在数量が書き込み前後のどちらとも一致しません: lane=" + name, cause);
+    }
+
+    /**
+     * コマンドを適用できるか判定する
+     * @return 適用できない理由（適用できる場合はnull）
+     */
+    private RuntimeException evaluate(Command command, Map<UUID, Integer> available) {
+        List<String> missingProductIds = new ArrayList<>();
+        List<StockInsufficientException.StockInsufficientItem> insufficientItems = new ArrayList<>();
+        command.quantities.forEach((productId, quantity) -> {
+            Integer current = available.get(productId);
+            if (current == null) {
+                missingProductIds.add(productId.toString());
+            } else if (command.deduct && current < quantity) {
+                insufficientItems.add(new StockInsufficientException.StockInsufficientItem(productId, current, quantity));
+            }
+        });
+        if (!missingProductIds.isEmpty()) {
+            return new RuntimeException("在庫レコードが存在しません: productId=" + String.join(",", missingProductIds));
+        }
+        if (insufficientItems.isEmpty()) {
+            return null;
+        }
+        if (command.quantities.size() == 1) {
+            StockInsufficientException.StockInsufficientItem item = insufficientItems.get(0);
+            return new StockInsufficientException(
+                "在庫不足です: productId=" + item.getProductId() +
+                    ", 在庫数量=" + item.getAvailableQuantity() + ", 要求数量=" + item.getRequestedQuantity(),
+                insufficientItems);
+        }
+        return new StockInsufficientException("在庫不足の商品があります", insufficientItems);
+    }
+}
@@ -0,0 +1,174 @@
+package com.playjava.frameworks.adapter.product;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import com.playjava.frameworks.concurrent.BackgroundThreads;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.enterprise.entity.MProduct;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.control.Option;
+
+/**
+ * 商品カタログのスナップショット
+ * 有効な（論理削除されていない）商品を商品IDをキーとする不変Mapとしてメモリに保持し、商品系 Adapter の問い合わせに答える。
+ * 起動時に全件を読み込み、以降は一定間隔で update_date が前回以降の商品だけを取得して新しいMapを作り、参照を差し替える。
+ * 読み取り側はロックなしで常に一貫したMapを参照する。
+ *
+ * 注意: 反映までの間（最大で更新間隔分）は変更前の商品が返される。
+ * また、未コミットのトランザクションで登録・更新された商品はスナップショットに載らないため、呼び出し側はヒットしない場合にDBへ問い合わせること。
+ * 物理削除は検出しない（商品の削除は論理削除で行う前提）。
+ */
+@Slf4j
+@Component
+public class ProductCatalogSnapshot implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${playjava.product.catalog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${playjava.product.catalog.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    @Value("${playjava.product.catalog.lookback-ms:60000}")
+    private long lookbackMs;
+
+    /** 商品IDごとの有効な商品（差し替えのみ行い、Map自体は変更しない） */
+    private volatile Map<UUID, MProduct> products = Map.of();
+
+    /** 取り込み済みの商品の最大更新日時 */
+    private OffsetDateTime watermark;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        log.info("商品カタログを読み込みました: products={}", products.size());
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("product-catalog-refresh"));
+        refreshExecutor.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 商品IDの商品を取得する
+     * @param productId 商品ID
+     * @return 有効な商品の複製（スナップショットにない場合はNone）
+     */
+    public Option<MProduct> find(UUID productId) {
+        if (productId == null) {
+            return Option.none();
+        }
+        return Option.of(products.get(productId)).map(ProductCatalogSnapshot::copy);
+    }
+
+    /**
+     * 複数の商品IDの商品をまとめて取得する
+     * @param productIds 商品ID
+     * @return スナップショットにある商品の複製（商品IDごと）
+     */
+    public Map<UUID, MProduct> findAll(Collection<UUID> productIds) {
+        Map<UUID, MProduct> snapshot = products;
+        Map<UUID, MProduct> found = new HashMap<>();
+        for (UUID productId : productIds) {
+            MProduct product = productId != null ? snapshot.get(productId) : null;
+            if (product != null) {
+                found.put(productId, copy(product));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 全件を読み込み直してスナップショットを差し替える
+     */
+    public synchronized void reload() {
+        List<MProduct> loaded = mProductMapper.selectList(null);
+        Map<UUID, MProduct> next = new HashMap<>();
+        OffsetDateTime latest = null;
+        for (MProduct product : loaded) {
+            next.put(product.getProductId(), product);
+            latest = later(latest, product.getUpdateDate());
+        }
+        products = Map.copyOf(next);
+        watermark = latest;
+    }
+
+    /**
+     * 前回以降に更新された商品を取り込み、スナップショットを差し替える
+     * コミットが遅れた更新を取りこぼさないよう、取り込み済みの最大更新日時から lookback-ms だけ遡って取得する。
+     */
+    public synchronized void refresh() {
+        if (watermark == null) {
+            reload();
+            return;
+        }
+        List<MProduct> updated = mProductMapper.selectUpdatedSince(watermark.minus(Duration.ofMillis(lookbackMs)));
+        if (updated.isEmpty()) {
+            return;
+        }
+        Map<UUID, MProduct> next = new HashMap<>(products);
+        OffsetDateTime latest = watermark;
+        for (MProduct product : updated) {
+            if (Boolean.TRUE.equals(product.getDeleteFlag())) {
+                next.remove(product.getProductId());
+            } else {
+                next.put(product.getProductId(), product);
+            }
+            latest = later(latest, product.getUpdateDate());
+        }
+        products = Map.copyOf(next);
+        watermark = latest;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("商品カタログの更新に失敗しました。次回の更新で再試行します", e);
+        }
+    }
+
+    private static OffsetDateTime later(OffsetDateTime current, OffsetDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static MProduct copy(MProduct product) {
+        MProduct copied = new MProduct();
+        BeanUtils.copyProperties(product, copied);
+        return copied;
+    }
+}
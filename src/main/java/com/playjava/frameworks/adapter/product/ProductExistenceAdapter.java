@@ -6,9 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.playjava.usecase.port.product.ProductExistencePort;
 import com.playjava.frameworks.mapper.MProductMapper;
 
+import java.util.UUID;
+
 /**
  * ProductExistencePort の実装。
- * 商品マスタ（MProductMapper）に問い合わせ、在庫サービスからは Port 経由でのみ利用される。
+ * 商品カタログのスナップショット（ProductCatalogSnapshot）に問い合わせ、載っていない場合のみ商品マスタ（MProductMapper）に問い合わせる。
+ * 在庫サービスからは Port 経由でのみ利用される。
  */
 @Component
 public class ProductExistenceAdapter implements ProductExistencePort {
@@ -16,11 +19,17 @@ public class ProductExistenceAdapter implements ProductExistencePort {
     @Autowired
     private MProductMapper mProductMapper;
 
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @Override
-    public boolean existsByProductId(String productId) {
-        if (productId == null || productId.isEmpty()) {
+    public boolean existsByProductId(UUID productId) {
+        if (productId == null) {
             return false;
         }
+        if (productCatalogSnapshot.find(productId).isDefined()) {
+            return true;
+        }
         return mProductMapper.selectById(productId) != null;
     }
 }
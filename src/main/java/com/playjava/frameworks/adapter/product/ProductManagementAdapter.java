@@ -7,9 +7,16 @@ import com.playjava.usecase.port.product.ProductManagementPort;
 import com.playjava.frameworks.mapper.MProductMapper;
 import com.playjava.enterprise.entity.MProduct;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * ProductManagementPort の実装。
- * 商品マスタ（MProductMapper）に問い合わせ、在庫サービスからは Port 経由でのみ利用される。
+ * 商品カタログのスナップショット（ProductCatalogSnapshot）に問い合わせ、載っていない場合のみ商品マスタ（MProductMapper）に問い合わせる。
+ * 在庫サービス・注文組み立て処理からは Port 経由でのみ利用される。
  */
 @Component
 public class ProductManagementAdapter implements ProductManagementPort {
@@ -17,9 +24,29 @@ public class ProductManagementAdapter implements ProductManagementPort {
     @Autowired
     private MProductMapper mProductMapper;
 
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @Override
-    public MProduct selectById(String productId) {
-        return mProductMapper.selectById(productId);
+    public MProduct selectById(UUID productId) {
+        return productCatalogSnapshot.find(productId)
+            .getOrElse(() -> mProductMapper.selectById(productId));
+    }
+
+    @Override
+    public List<MProduct> selectByIds(Collection<UUID> productIds) {
+        Map<UUID, MProduct> found = productCatalogSnapshot.findAll(productIds);
+        List<MProduct> products = new ArrayList<>(found.values());
+
+        // スナップショットに載っていない商品のみ1回のクエリでまとめて取得
+        List<UUID> missingProductIds = productIds.stream()
+            .filter(productId -> !found.containsKey(productId))
+            .distinct()
+            .toList();
+        if (!missingProductIds.isEmpty()) {
+            products.addAll(mProductMapper.selectByIds(missingProductIds));
+        }
+        return products;
     }
 
 }
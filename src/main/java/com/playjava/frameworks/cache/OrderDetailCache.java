@@ -0,0 +1,204 @@
+package com.playjava.frameworks.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.playjava.enterprise.entity.TOrder;
+import com.playjava.enterprise.entity.TOrderItem;
+import com.playjava.usecase.dto.OrderDetailResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * 注文IDごとの注文詳細のキャッシュ
+ * 完了状態（5: 配送完了、6: キャンセル済み）の注文は以後変更されないため、注文詳細をそのまま保持する（容量上限のみで追い出す）。
+ * それ以外の注文は注文詳細を保持せず、最後に読み込んだ時点の ETag のみを保持する。
+ * POS 端末が同じ注文詳細を繰り返し表示する場合に、If-None-Match が一致すればDBを参照せずに 304 を返すために使用する。
+ * ヒット・ミス・追い出しの件数は Micrometer に cache.* メトリクス（cache=order-detail, order-detail-etag）として出力する。
+ *
+ * 注文ステータスを更新する処理は対象の注文のエントリを無効化する。
+ * 他のインスタンスでの更新は ETag の有効期限内は反映されない（StockCache と同じく、期限で古さの上限を決める）。
+ * DBトランザクション内での照会はキャッシュを使わずに読み込む（未コミットの値をキャッシュしないため）。
+ *
+ * 読み込み中に無効化された場合に更新前の値を書き戻さないよう、無効化のたびに世代を進め、
+ * 読み込み開始時点から世代が進んでいれば読み込んだ値をキャッシュしない。
+ * 世代の確認と書き込みはキャッシュのエントリ単位の compute で行い、無効化（世代を進めてから削除）と直列化する。
+ */
+@Component
+public class OrderDetailCache implements InitializingBean {
+
+    /** Micrometer に出力するキャッシュ名（注文詳細） */
+    public static final String CACHE_NAME = "order-detail";
+
+    /** Micrometer に出力するキャッシュ名（ETag） */
+    public static final String ETAG_CACHE_NAME = "order-detail-etag";
+
+    /** 以後変更されない注文ステータス（5: 配送完了、6: キャンセル済み） */
+    private static final Set<Integer> TERMINAL_STATUSES = Set.of(5, 6);
+
+    /** 無効化の世代のストライプ数（注文IDのハッシュで分割。同じストライプの別の注文の無効化ではキャッシュを見送るだけで、古い値は残らない） */
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${playjava.order.detail-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${playjava.order.detail-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${playjava.order.detail-cache.etag-maximum-size:100000}")
+    private long etagMaximumSize;
+
+    @Value("${playjava.order.detail-cache.etag-expire-after-write-ms:30000}")
+    private long etagExpireAfterWriteMs;
+
+    private Cache<UUID, OrderDetailResponse> details;
+
+    private Cache<UUID, String> etags;
+
+    /** 注文IDごと（ストライプ単位）の無効化の世代 */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /** 全エントリの無効化の世代 */
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        details = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        etags = Caffeine.newBuilder()
+            .maximumSize(etagMaximumSize)
+            .expireAfterWrite(Duration.ofMillis(etagExpireAfterWriteMs))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, etags, ETAG_CACHE_NAME);
+    }
+
+    /**
+     * 注文詳細を取得する（完了状態の注文がキャッシュにない場合は loader で読み込む）
+     * 読み込んだ注文が完了状態の場合は注文詳細を、それ以外の場合は ETag をキャッシュする。
+     * loader が例外を送出した場合や、読み込み中に無効化された場合はキャッシュしない。
+     * @param orderId 注文ID
+     * @param loader キャッシュにない場合の読み込み処理
+     * @return 注文詳細の複製（呼び出し側で変更してもキャッシュには影響しない）
+     */
+    public OrderDetailResponse get(UUID orderId, Function<UUID, OrderDetailResponse> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.apply(orderId);
+        }
+        OrderDetailResponse cached = details.getIfPresent(orderId);
+        if (cached != null) {
+            return copy(cached);
+        }
+        long generation = generation(orderId);
+        OrderDetailResponse loaded = loader.apply(orderId);
+        if (TERMINAL_STATUSES.contains(loaded.getOrder().getStatus())) {
+            OrderDetailResponse copied = copy(loaded);
+            details.asMap().compute(orderId, (key, current) -> generation(key) == generation ? copied : current);
+            etags.invalidate(orderId);
+        } else {
+            String etag = loaded.etag();
+            etags.asMap().compute(orderId, (key, current) -> generation(key) == generation ? etag : current);
+        }
+        return loaded;
+    }
+
+    /**
+     * 最後に読み込んだ時点の注文詳細の ETag を取得する（DBは参照しない）
+     * @param orderId 注文ID
+     * @return ETag（キャッシュにない場合はnull）
+     */
+    public String etag(UUID orderId) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        OrderDetailResponse cached = details.getIfPresent(orderId);
+        if (cached != null) {
+            return cached.etag();
+        }
+        return etags.getIfPresent(orderId);
+    }
+
+    /**
+     * 注文IDのエントリを無効化する
+     * @param orderId 注文ID
+     */
+    public void invalidate(UUID orderId) {
+        evict(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // コミット前に他スレッドが読み込んだ値（更新前の値）を、トランザクション終了後に破棄する
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(orderId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 全エントリを無効化する
+     */
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        details.invalidateAll();
+        etags.invalidateAll();
+    }
+
+    /**
+     * 世代を進めてから注文IDのエントリを削除する（読み込み中の値の書き込みを見送らせるため、削除より先に世代を進める）
+     */
+    private void evict(UUID orderId) {
+        generations.incrementAndGet(stripe(orderId));
+        details.invalidate(orderId);
+        etags.invalidate(orderId);
+    }
+
+    /**
+     * 注文IDの現在の世代（全エントリの世代とストライプの世代の和。どちらも増加のみのため、無効化のたびに必ず変わる）
+     */
+    private long generation(UUID orderId) {
+        return globalGeneration.get() + generations.get(stripe(orderId));
+    }
+
+    private static int stripe(UUID orderId) {
+        return Math.floorMod(orderId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static OrderDetailResponse copy(OrderDetailResponse detail) {
+        TOrder order = new TOrder();
+        BeanUtils.copyProperties(detail.getOrder(), order);
+        List<TOrderItem> items = new ArrayList<>(detail.getItems().size());
+        for (TOrderItem item : detail.getItems()) {
+            TOrderItem copiedItem = new TOrderItem();
+            BeanUtils.copyProperties(item, copiedItem);
+            items.add(copiedItem);
+        }
+        OrderDetailResponse copied = new OrderDetailResponse();
+        copied.setOrder(order);
+        copied.setItems(items);
+        return copied;
+    }
+}
@@ -0,0 +1,125 @@
+package com.playjava.frameworks.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.playjava.enterprise.entity.MStock;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 商品IDごとの在庫レコードのキャッシュ（読み取りスルー）
+ * 在庫照会（MStockServiceImpl.getStockByProductIdImpl）と StockOperationPort.getStockQuantity の前段に置き、
+ * 同じ商品の在庫を繰り返し照会する端末からの問い合わせをDBに流さないようにする。
+ * 容量上限（W-TinyLFU による追い出し）と有効期限を持ち、在庫を更新する処理は対象商品のエントリを無効化する。
+ * ヒット・ミス・追い出しの件数は Micrometer に cache.* メトリクス（cache=stock）として出力する。
+ *
+ * DBトランザクション内での照会はキャッシュを使わずに読み込む（未コミットの値をキャッシュしないため）。
+ * トランザクション内で無効化した場合は、コミット（ロールバック）後にも再度無効化する。
+ */
+@Component
+public class StockCache implements InitializingBean {
+
+    /** Micrometer に出力するキャッシュ名 */
+    public static final String CACHE_NAME = "stock";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${playjava.stock.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${playjava.stock.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${playjava.stock.cache.expire-after-write-ms:30000}")
+    private long expireAfterWriteMs;
+
+    private Cache<UUID, MStock> cache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 商品IDの在庫レコードを取得する（キャッシュにない場合は loader で読み込んでキャッシュする）
+     * loader が null を返した場合や例外を送出した場合はキャッシュしない。
+     * @param productId 商品ID
+     * @param loader キャッシュにない場合の読み込み処理
+     * @return 在庫レコードの複製（呼び出し側で変更してもキャッシュには影響しない）
+     */
+    public MStock get(UUID productId, Function<UUID, MStock> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.apply(productId);
+        }
+        return copy(cache.get(productId, loader));
+    }
+
+    /**
+     * 商品IDのエントリを無効化する
+     * @param productId 商品ID（nullの場合は何もしない）
+     */
+    public void invalidate(UUID productId) {
+        if (productId == null) {
+            return;
+        }
+        invalidateAll(List.of(productId));
+    }
+
+    /**
+     * 複数の商品IDのエントリを無効化する
+     * @param productIds 商品ID
+     */
+    public void invalidateAll(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<UUID> keys = List.copyOf(productIds);
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // コミット前に他スレッドが読み込んだ値（更新前の値）を、トランザクション終了後に破棄する
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * 全エントリを無効化する
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static MStock copy(MStock stock) {
+        if (stock == null) {
+            return null;
+        }
+        MStock copied = new MStock();
+        BeanUtils.copyProperties(stock, copied);
+        return copied;
+    }
+}
@@ -0,0 +1,50 @@
+package com.playjava.frameworks.concurrent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * バックグラウンド処理用スレッドの生成
+ * spring.threads.virtual.enabled=true の場合は仮想スレッド、それ以外はデーモンのプラットフォームスレッドを生成する。
+ * 定期実行の取り込み・書き込みレーンなど、処理の大半をDBやキューの待ちで過ごすスレッドはこのクラスから生成し、
+ * リクエスト処理と同じ実行モードに揃える。
+ */
+@Component
+public class BackgroundThreads {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtual;
+
+    /**
+     * 仮想スレッドで実行するかどうか
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 指定した名前のスレッドを生成する ThreadFactory を返す（Executors に渡して使う）
+     * @param name スレッド名
+     * @return ThreadFactory
+     */
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name).factory();
+        }
+        return Thread.ofPlatform().name(name).daemon(true).factory();
+    }
+
+    /**
+     * 指定した名前のスレッドで処理を開始する
+     * @param name スレッド名
+     * @param task 実行する処理
+     * @return 開始したスレッド
+     */
+    public Thread start(String name, Runnable task) {
+        Thread thread = factory(name).newThread(task);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,206 @@
+package com.playjava.frameworks.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DB接続の同時取得数を制限するバルクヘッド
+ * 接続の取得時にセマフォの許可を取り、接続をクローズ（プールへ返却）した時点で許可を返す。
+ * 許可数をコネクションプールの最大サイズに合わせることで、仮想スレッドで大量のリクエストを受け付けても
+ * プールの待ち行列に殺到させず、待機はセマフォ（到着順）で行う。
+ * 待機が上限時間を超えた場合は SQLTransientConnectionException で接続の取得に失敗させる。
+ *
+ * 許可の一部は予約枠として、useReservedPermits() を呼び出したスレッド（在庫シーケンサのレーンなど、
+ * 接続を保持したスレッドから完了を待たれるスレッド）専用にできる。通常のスレッドは予約枠を除いた許可数までしか
+ * 接続を取得しないため、通常のスレッドが接続を使い切った状態でも予約枠のスレッドは接続を取得でき、待ち合わせによるデッドロックが起きない。
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "db.bulkhead";
+
+    /** 予約枠から接続を取得するスレッド */
+    private static final ThreadLocal<Boolean> RESERVED = ThreadLocal.withInitial(() -> false);
+
+    private final Semaphore permits;
+    private final Semaphore reservedPermits;
+    private final int maxConcurrent;
+    private final int reservedConcurrent;
+    private final long acquireTimeoutMs;
+
+    private Counter rejectedCounter;
+
+    /**
+     * @param delegate 接続を取得する DataSource（コネクションプール）
+     * @param maxConcurrent 同時に取得できる接続数
+     * @param acquireTimeoutMs 許可を待つ上限時間（ミリ秒）
+     */
+    public BulkheadDataSource(DataSource delegate, int maxConcurrent, long acquireTimeoutMs) {
+        this(delegate, maxConcurrent, 0, acquireTimeoutMs);
+    }
+
+    /**
+     * @param delegate 接続を取得する DataSource（コネクションプール）
+     * @param maxConcurrent 同時に取得できる接続数（予約枠を含む）
+     * @param reservedConcurrent うち useReservedPermits() を呼び出したスレッド専用の接続数
+     * @param acquireTimeoutMs 許可を待つ上限時間（ミリ秒）
+     */
+    public BulkheadDataSource(DataSource delegate, int maxConcurrent, int reservedConcurrent, long acquireTimeoutMs) {
+        super(delegate);
+        if (reservedConcurrent < 0 || maxConcurrent - reservedConcurrent <= 0) {
+            throw new IllegalArgumentException("予約枠を除いた同時取得数は1以上である必要があります: maxConcurrent="
+                + maxConcurrent + ", reservedConcurrent=" + reservedConcurrent);
+        }
+        this.permits = new Semaphore(maxConcurrent - reservedConcurrent, true);
+        this.reservedPermits = new Semaphore(reservedConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.reservedConcurrent = reservedConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * 現在のスレッドが以降の接続を予約枠から取得するようにする
+     * 接続を保持したスレッドから完了を待たれる専用スレッド（在庫シーケンサのレーン）の開始時に呼び出す。
+     * バルクヘッドが無効、または予約枠がない場合は通常の許可から取得する。
+     */
+    public static void useReservedPermits() {
+        RESERVED.set(true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Semaphore acquired = acquire();
+        try {
+            return guard(super.getConnection(), acquired);
+        } catch (SQLException | RuntimeException e) {
+            acquired.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Semaphore acquired = acquire();
+        try {
+            return guard(super.getConnection(username, password), acquired);
+        } catch (SQLException | RuntimeException e) {
+            acquired.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".available", permits, Semaphore::availablePermits)
+            .description("DB接続の取得に使える残りの許可数")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".waiting", permits, Semaphore::getQueueLength)
+            .description("DB接続の取得許可を待っているスレッド数（概算）")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".max", this, bulkhead -> bulkhead.maxConcurrent)
+            .description("DB接続の同時取得数の上限")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".reserved.available", reservedPermits, Semaphore::availablePermits)
+            .description("予約枠のDB接続の取得に使える残りの許可数")
+            .register(registry);
+        rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+            .description("待機の上限時間を超えて取得に失敗した回数")
+            .register(registry);
+    }
+
+    /**
+     * 同時取得数の上限
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 同時取得数の上限のうち予約枠の数
+     */
+    public int getReservedConcurrent() {
+        return reservedConcurrent;
+    }
+
+    /**
+     * 現在取得できる残りの許可数（予約枠を除く）
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * 許可を取得する
+     * @return 取得した許可のセマフォ（接続のクローズ時に返す）
+     */
+    private Semaphore acquire() throws SQLException {
+        Semaphore semaphore = RESERVED.get() && reservedConcurrent > 0 ? reservedPermits : permits;
+        try {
+            if (semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return semaphore;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("DB接続の取得待ちが中断されました", e);
+        }
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        throw new SQLTransientConnectionException(
+            "DB接続の同時取得数が上限に達しています: maxConcurrent=" + maxConcurrent
+                + ", reserved=" + (semaphore == reservedPermits) + ", timeoutMs=" + acquireTimeoutMs);
+    }
+
+    /**
+     * クローズ時に許可を1回だけ返す接続のプロキシを返す
+     */
+    private Connection guard(Connection connection, Semaphore acquired) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close" -> {
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            acquired.release();
+                        }
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    return invoke(connection, method, args);
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+            BulkheadDataSource.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.playjava.frameworks.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.playjava.frameworks.logging.LogRateSamplingFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+
+/**
+ * ログ出力の設定クラス
+ * 出力形式・非同期化・サンプリングは logback-spring.xml でプロファイルごとに切り替える
+ * （dev: 同期のテキスト出力、prod: リングバッファ経由の非同期 JSON 出力＋ロガーごとのサンプリング）。
+ * ここでは prod の非同期キューの滞留数と、サンプリングで破棄した件数をメトリクスとして出力する。
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * 非同期出力のキュー・サンプリングの状態をメトリクスとして出力する
+     * （Logback 以外の場合や、dev プロファイルで該当する設定がない場合は何も出力しない）
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            for (var turboFilter : context.getTurboFilterList()) {
+                if (turboFilter instanceof LogRateSamplingFilter sampling) {
+                    FunctionCounter.builder("logging.sampling.dropped", sampling, LogRateSamplingFilter::droppedCount)
+                        .description("サンプリングで破棄したログの件数")
+                        .register(registry);
+                }
+            }
+            Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof AsyncAppender async) {
+                    Gauge.builder("logging.async.queue.size", async, AsyncAppender::getNumberOfElementsInQueue)
+                        .description("非同期出力のキューに滞留しているログの件数")
+                        .tag("appender", async.getName())
+                        .register(registry);
+                    Gauge.builder("logging.async.queue.remaining", async, AsyncAppender::getRemainingCapacity)
+                        .description("非同期出力のキューの空き容量")
+                        .tag("appender", async.getName())
+                        .register(registry);
+                }
+            }
+        };
+    }
+}
@@ -3,6 +3,9 @@ package com.playjava.frameworks.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.playjava.frameworks.monitoring.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -36,4 +39,17 @@ public class MybatisPlusConfig {
         
         return interceptor;
     }
+
+    /**
+     * SQLの実行時間・件数の計測とスロークエリのログ出力
+     * @param meterRegistry 出力先
+     * @param slowQueryThresholdMs スロークエリとしてログに出力する実行時間（ミリ秒）
+     * @return SqlMetricsInterceptor
+     */
+    @Bean
+    public SqlMetricsInterceptor sqlMetricsInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${playjava.sql.slow-query-threshold-ms:500}") long slowQueryThresholdMs) {
+        return new SqlMetricsInterceptor(meterRegistry, slowQueryThresholdMs);
+    }
 }
@@ -0,0 +1,25 @@
+package com.playjava.frameworks.config;
+
+import com.playjava.usecase.handler.UuidFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * UUID生成の設定クラス
+ * 複数インスタンスで生成したUUIDv7が重複しないよう、設定したノード識別子を UuidFactory に反映する。
+ * 未設定（-1）の場合は起動ごとにランダムなノード識別子を使う。
+ */
+@Configuration
+public class UuidConfig implements InitializingBean {
+
+    @Value("${playjava.uuid.node-id:-1}")
+    private int nodeId;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (nodeId >= 0) {
+            UuidFactory.configure(nodeId);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.playjava.frameworks.config;
+
+import com.playjava.frameworks.concurrent.BulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 仮想スレッド実行モードの設定クラス
+ * リクエスト処理（Tomcat）と Spring のタスク実行は spring.threads.virtual.enabled で仮想スレッドに切り替わり、
+ * このアプリのバックグラウンド処理は BackgroundThreads が同じ設定に従う。
+ *
+ * 仮想スレッドではリクエストごとにスレッドが生成されるため、同時にDB接続を待つスレッド数に上限がなくなる。
+ * playjava.db.bulkhead.enabled（既定は仮想スレッドの有効／無効に従う）の場合、DataSource を BulkheadDataSource で包み、
+ * 接続の同時取得数をコネクションプールの最大サイズまでに制限する。
+ *
+ * 在庫シーケンサ（playjava.inventory.engine=sequencer）では、接続を保持した注文のトランザクションがレーンの書き込み完了を待つため、
+ * レーン数分の接続を予約枠としてレーン専用に確保する（このため仮想スレッドの設定にかかわらずバルクヘッドを有効にする）。
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadConfig {
+
+    /** HikariCP の maximum-pool-size の既定値 */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * DataSource をバルクヘッドで包む
+     * （BeanPostProcessor は他の Bean より先に生成されるため static で定義し、設定値は Environment から読む）
+     */
+    @Bean
+    static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean sequencer = "sequencer".equals(environment.getProperty("playjava.inventory.engine"));
+        boolean enabled = sequencer || environment.getProperty("playjava.db.bulkhead.enabled", Boolean.class, virtual);
+        int maxConcurrent = environment.getProperty("playjava.db.bulkhead.max-concurrent", Integer.class, 0);
+        int reserved = sequencer ? environment.getProperty("playjava.inventory.sequencer.lanes", Integer.class, 8) : 0;
+        long acquireTimeoutMs = environment.getProperty("playjava.db.bulkhead.acquire-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int permits = maxConcurrent > 0 ? maxConcurrent : poolSize(dataSource);
+                log.info("DB接続のバルクヘッドを有効にしました: dataSource={}, maxConcurrent={}, reserved={}, acquireTimeoutMs={}",
+                    beanName, permits, reserved, acquireTimeoutMs);
+                return new BulkheadDataSource(dataSource, permits, reserved, acquireTimeoutMs);
+            }
+        };
+    }
+
+    /**
+     * バルクヘッドの許可数・待機数・失敗回数をメトリクスとして出力する
+     * @param dataSource DataSource（バルクヘッドが無効の場合は何も出力しない）
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                bulkhead.bindTo(registry);
+            }
+        };
+    }
+
+    /**
+     * コネクションプールの最大サイズ（未設定の場合や HikariCP 以外の場合は HikariCP の既定値）
+     */
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -1,47 +1,47 @@
 package com.playjava.frameworks.context;
 
 import com.playjava.enterprise.valueobject.SystemUser;
-import lombok.extern.slf4j.Slf4j;
 
 /**
  * 現在のリクエストコンテキストでユーザーIDを管理するクラス
- * ThreadLocalを使用してスレッドごとに独立したユーザーIDを保持
+ * ScopedValue を使用し、runAs / callAs の処理中だけユーザーIDを束縛する。
+ * リクエストでは UserContextFilter が1回だけ束縛し、処理を抜けると自動的に元に戻るため、クリアは不要。
+ * 束縛は処理中のスレッドと、その中で StructuredTaskScope から分岐したサブタスクに引き継がれる
+ * （ExecutorService やバックグラウンドスレッドには引き継がれないため、必要な場合はユーザーIDを明示的に渡すこと）。
  */
-@Slf4j
-public class UserContext {
-    
-    private static final ThreadLocal<String> currentUserId = new ThreadLocal<>();
-    
-    /**
-     * 現在のユーザーIDを設定
-     * @param userId 設定するユーザーID
-     */
-    public static void setCurrentUserId(String userId) {
-        log.debug("UserContext: ユーザーID設定 - {}", userId);
-        currentUserId.set(userId);
-    }
-    
+public final class UserContext {
+
+    private static final ScopedValue<String> CURRENT_USER_ID = ScopedValue.newInstance();
+
+    private UserContext() {}
+
     /**
      * 現在のユーザーIDを取得
-     * 設定されていない場合はANONYMOUSを返す
+     * 束縛されていない場合はANONYMOUSを返す
      * @return 現在のユーザーID
      */
     public static String getCurrentUserId() {
-        String userId = currentUserId.get();
-        if (userId == null) {
-            log.debug("UserContext: ユーザーID未設定のため、ANONYMOUSを返却");
-            return SystemUser.ANONYMOUS;
-        }
-        return userId;
+        return CURRENT_USER_ID.orElse(SystemUser.ANONYMOUS);
     }
-    
+
+    /**
+     * ユーザーIDを束縛して処理を実行
+     * @param userId 処理中のユーザーID
+     * @param runnable 実行する処理
+     */
+    public static void runAs(String userId, Runnable runnable) {
+        ScopedValue.where(CURRENT_USER_ID, userId).run(runnable);
+    }
+
     /**
-     * 現在のユーザーIDをクリア
-     * リクエスト処理完了後に必ず呼び出すこと
+     * ユーザーIDを束縛して処理を実行し、結果を返す
+     * @param userId 処理中のユーザーID
+     * @param op 実行する処理
+     * @return 処理の結果
+     * @throws X 処理が送出した例外
      */
-    public static void clear() {
-        log.debug("UserContext: ユーザーIDクリア");
-        currentUserId.remove();
+    public static <T, X extends Throwable> T callAs(String userId, ScopedValue.CallableOp<? extends T, X> op) throws X {
+        return ScopedValue.where(CURRENT_USER_ID, userId).call(op);
     }
 
     /**
@@ -50,16 +50,6 @@ public class UserContext {
      * @param runnable 実行する処理
      */
     public static void runAsSystemUser(String userId, Runnable runnable) {
-        String previousUserId = currentUserId.get();
-        try {
-            setCurrentUserId(userId);
-            runnable.run();
-        } finally {
-            if (previousUserId != null) {
-                setCurrentUserId(previousUserId);
-            } else {
-                clear();
-            }
-        }
+        runAs(userId, runnable);
     }
 }
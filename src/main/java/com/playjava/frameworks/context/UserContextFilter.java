@@ -0,0 +1,119 @@
+package com.playjava.frameworks.context;
+
+import com.playjava.enterprise.valueobject.SystemUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * リクエストのユーザーIDを UserContext に束縛するフィルタ
+ * X-User-Id ヘッダーのユーザーIDを、リクエスト処理（コントローラー・サービス・SQLの自動設定）の間だけ束縛する。
+ * ヘッダーがない場合は束縛せず、UserContext は ANONYMOUS を返す（認証を導入するまでの暫定の識別方法）。
+ * ヘッダーは認証されていないため、playjava.user-context.header.enabled=true の場合のみ使用する（既定は無効で、ヘッダーを無視して ANONYMOUS として処理する）。
+ * playjava.user-context.header.trusted-proxies を指定した場合は、その接続元（認証済みのゲートウェイなど）からのヘッダーのみ使用する。
+ * ヘッダーの値は監査項目（create_user / update_user）にそのまま記録されるため、UUID 形式でない値や
+ * システムユーザーID（SYSTEM / ANONYMOUS / BOOTSTRAP）の場合は束縛せずに 400 を返す。
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class UserContextFilter extends OncePerRequestFilter {
+
+    /** ユーザーIDを受け取るリクエストヘッダー */
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    @Value("${playjava.user-context.header.enabled:false}")
+    private boolean headerEnabled;
+
+    @Value("${playjava.user-context.header.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId == null || userId.isBlank() || !isTrustedSource(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String normalized = normalize(userId);
+        if (normalized == null) {
+            rejectInvalidUserId(response);
+            return;
+        }
+        try {
+            UserContext.callAs(normalized, () -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * ヘッダーのユーザーIDを使用してよい接続元か
+     * @param request リクエスト
+     * @return ヘッダーの使用が有効で、接続元の制限がないか接続元が信頼できる場合 true
+     */
+    private boolean isTrustedSource(HttpServletRequest request) {
+        if (!headerEnabled) {
+            log.debug("{} ヘッダーの使用が無効のため無視します", USER_ID_HEADER);
+            return false;
+        }
+        if (trustedProxies == null || trustedProxies.isEmpty() || trustedProxies.contains(request.getRemoteAddr())) {
+            return true;
+        }
+        log.debug("信頼できない接続元からの {} ヘッダーを無視します: remoteAddr={}", USER_ID_HEADER, request.getRemoteAddr());
+        return false;
+    }
+
+    /**
+     * ヘッダーのユーザーIDを検証し、正規化する
+     * @param userId ヘッダーの値
+     * @return 小文字の UUID 文字列（UUID 形式でない場合やシステムユーザーIDの場合は null）
+     */
+    private static String normalize(String userId) {
+        String stripped = userId.strip();
+        if (stripped.length() != 36) {
+            return null;
+        }
+        String normalized;
+        try {
+            normalized = UUID.fromString(stripped).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!normalized.equalsIgnoreCase(stripped) || SystemUser.isSystemUser(normalized)) {
+            return null;
+        }
+        return normalized;
+    }
+
+    /**
+     * 不正なユーザーIDのリクエストに 400 を返す
+     * （フィルタは GlobalExceptionHandler の対象外のため、同じ形式のレスポンスをここで書き出す）
+     */
+    private static void rejectInvalidUserId(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"status\":400,\"message\":\"" + USER_ID_HEADER + " ヘッダーのユーザーIDが不正です\"}");
+    }
+}
@@ -0,0 +1,105 @@
+package com.playjava.frameworks.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ロガーごとに1秒あたりの出力件数を制限する Logback の TurboFilter
+ * 上限を超えたログはメッセージの組み立て前に破棄するため、負荷の高い時間帯でもログ出力の処理量が一定に保たれる。
+ * WARN 以上のログ、および対象外のロガー（loggerPrefix に一致しないもの）は制限しない。
+ * 破棄した件数は droppedCount で参照でき、LoggingConfig が Micrometer に出力する。
+ *
+ * logback-spring.xml での設定例:
+ * <pre>{@code
+ * <turboFilter class="com.playjava.frameworks.logging.LogRateSamplingFilter">
+ *   <loggerPrefix>com.playjava</loggerPrefix>
+ *   <maxPerSecond>100</maxPerSecond>
+ * </turboFilter>
+ * }</pre>
+ */
+public class LogRateSamplingFilter extends TurboFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** 制限の対象とするロガー名の接頭辞（空の場合はすべてのロガー） */
+    private String loggerPrefix = "";
+
+    /** ロガーごとの1秒あたりの最大出力件数（0 以下の場合は制限しない） */
+    private int maxPerSecond = 100;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() などの判定のみの呼び出し（format なし）は数えない
+        if (!isStarted() || format == null || maxPerSecond <= 0) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        if (!name.startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(name, key -> new Window());
+        if (window.tryAcquire(System.nanoTime() / NANOS_PER_SECOND, maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * @return 起動してから破棄したログの件数
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public String getLoggerPrefix() {
+        return loggerPrefix;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix == null ? "" : loggerPrefix;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * 1秒単位の固定ウィンドウ
+     * 秒の切り替わりで複数のスレッドが同時にリセットした場合、上限をわずかに超えて出力することがある（サンプリングのため許容する）。
+     */
+    private static final class Window {
+
+        private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
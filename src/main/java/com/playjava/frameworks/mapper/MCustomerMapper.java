@@ -1,11 +1,23 @@
 package com.playjava.frameworks.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 
 import com.playjava.enterprise.entity.MCustomer;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
 @Mapper
 public interface MCustomerMapper extends BaseMapper<MCustomer>{
   
@@ -15,5 +27,63 @@ public interface MCustomerMapper extends BaseMapper<MCustomer>{
      * @return 顧客情報（論理削除済みも含む）
      */
     @Select("SELECT * FROM m_customer WHERE customer_id = #{customerId}")
-    MCustomer selectByIdIncludeDeleted(String customerId);
+    MCustomer selectByIdIncludeDeleted(UUID customerId);
+
+    /**
+     * 検索条件に一致する件数を上限付きで数える（件数取得モード ESTIMATED 用）
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @param limit 数える件数の上限
+     * @return 件数（上限を超える場合は上限値）
+     */
+    @Select({
+        "<script>",
+        "SELECT COUNT(*) FROM (SELECT 1 FROM m_customer WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "LIMIT #{limit}) capped",
+        "</script>"
+    })
+    long countWithLimit(@Param(Constants.WRAPPER) Wrapper<MCustomer> wrapper, @Param("limit") long limit);
+
+    /**
+     * 有効な（論理削除されていない）顧客が存在するかどうかを返す（主キーの索引のみで判定する）
+     * @param customerId 顧客ID
+     * @return 存在する場合true
+     */
+    @Select("SELECT EXISTS (SELECT 1 FROM m_customer WHERE customer_id = #{customerId} AND delete_flag = false)")
+    boolean existsActiveById(@Param("customerId") UUID customerId);
+
+    /**
+     * 有効な顧客の顧客IDを1件ずつ handler に渡す（顧客の存在インデックスの構築用）
+     * @param handler 顧客IDを受け取るハンドラ
+     */
+    @Select("SELECT customer_id FROM m_customer WHERE delete_flag = false")
+    @Options(fetchSize = 1000)
+    @ResultType(UUID.class)
+    void scanActiveCustomerIds(ResultHandler<UUID> handler);
+
+    /**
+     * 指定日時以降に登録された有効な顧客の顧客IDを取得する（顧客の存在インデックスへの差分反映用）
+     * @param since 取得対象とする登録日時の下限（この日時を含む）
+     * @return 顧客ID
+     */
+    @Select("SELECT customer_id FROM m_customer WHERE create_date >= #{since} AND delete_flag = false")
+    List<UUID> selectActiveCustomerIdsCreatedSince(@Param("since") OffsetDateTime since);
+
+    /**
+     * 検索条件に一致する顧客を顧客ID順に1件ずつ読み出す（エクスポート用）
+     * 結果をまとめてメモリに載せず、fetchSize 件ずつ取得する（PostgreSQL ではトランザクション内で呼び出すこと）。
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @return Cursor（呼び出し側で閉じること）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM m_customer WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "ORDER BY customer_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<MCustomer> selectExportCursor(@Param(Constants.WRAPPER) Wrapper<MCustomer> wrapper);
 }
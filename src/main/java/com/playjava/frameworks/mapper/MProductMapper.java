@@ -1,11 +1,24 @@
 package com.playjava.frameworks.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
 import com.playjava.enterprise.entity.MProduct;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 @Mapper
 public interface MProductMapper extends BaseMapper<MProduct>{
-  
+
+    /**
+     * 指定日時以降に更新された商品を取得する（論理削除済みの商品も含む）
+     * 商品カタログのスナップショットに差分を反映するために使用する。
+     * @param since 取得対象とする更新日時の下限（この日時を含む）
+     * @return 更新された商品（更新日時順）
+     */
+    @Select("SELECT * FROM m_product WHERE update_date >= #{since} ORDER BY update_date")
+    List<MProduct> selectUpdatedSince(@Param("since") OffsetDateTime since);
 }
@@ -1,11 +1,216 @@
 package com.playjava.frameworks.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 
 import com.playjava.enterprise.entity.MStock;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.UUID;
+
 @Mapper
 public interface MStockMapper extends BaseMapper<MStock>{
-  
+
+    /**
+     * 在庫数量を条件付きで減算する（1文で判定と更新を行う）
+     * 在庫数量が減算数量以上の場合のみ更新し、減算後に0になった場合はステータスを「在庫なし(1)」にする。
+     * @param productId 商品ID
+     * @param quantity 減算する数量
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数（在庫レコードが存在しない、または数量不足の場合は0）
+     */
+    @Update("UPDATE m_stock SET "
+        + "quantity = quantity - #{quantity}, "
+        + "status = CASE WHEN quantity - #{quantity} = 0 THEN 1 ELSE status END, "
+        + "update_user = #{updateUser}, update_date = #{updateDate} "
+        + "WHERE product_id = #{productId} AND delete_flag = false AND quantity >= #{quantity}")
+    int deductQuantity(@Param("productId") UUID productId,
+                       @Param("quantity") int quantity,
+                       @Param("updateUser") String updateUser,
+                       @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 在庫数量を加算する（1文で更新を行う）
+     * 加算後に0より大きくなり、ステータスが「在庫なし(1)」の場合は「在庫あり(0)」にする。
+     * @param productId 商品ID
+     * @param quantity 加算する数量
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数（在庫レコードが存在しない場合は0）
+     */
+    @Update("UPDATE m_stock SET "
+        + "quantity = quantity + #{quantity}, "
+        + "status = CASE WHEN status = 1 AND quantity + #{quantity} > 0 THEN 0 ELSE status END, "
+        + "update_user = #{updateUser}, update_date = #{updateDate} "
+        + "WHERE product_id = #{productId} AND delete_flag = false")
+    int returnQuantity(@Param("productId") UUID productId,
+                       @Param("quantity") int quantity,
+                       @Param("updateUser") String updateUser,
+                       @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 在庫数量を指定した値に置き換える（在庫管理画面での数量修正用）
+     * 0になった場合はステータスを「在庫なし(1)」、0より大きくなりステータスが「在庫なし(1)」の場合は「在庫あり(0)」にする。
+     * @param productId 商品ID
+     * @param quantity 更新後の数量
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数（在庫レコードが存在しない場合は0）
+     */
+    @Update("UPDATE m_stock SET "
+        + "quantity = #{quantity}, "
+        + "status = CASE WHEN #{quantity} = 0 THEN 1 WHEN status = 1 AND #{quantity} > 0 THEN 0 ELSE status END, "
+        + "update_user = #{updateUser}, update_date = #{updateDate} "
+        + "WHERE product_id = #{productId} AND delete_flag = false")
+    int updateQuantity(@Param("productId") UUID productId,
+                       @Param("quantity") int quantity,
+                       @Param("updateUser") String updateUser,
+                       @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 複数商品の在庫を商品ID順に行ロックして取得する
+     * ロック順序を商品ID順に固定し、複数商品を扱う注文同士のデッドロックを防ぐ。
+     * @param productIds 商品ID
+     * @return 在庫情報（論理削除済みは含まない、商品ID順）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM m_stock WHERE delete_flag = false AND product_id IN",
+        "<foreach collection='productIds' item='productId' open='(' separator=',' close=')'>#{productId}</foreach>",
+        "ORDER BY product_id FOR UPDATE",
+        "</script>"
+    })
+    List<MStock> selectForUpdateByProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * 複数商品の在庫数量を1文で減算する
+     * 減算後に0になった商品はステータスを「在庫なし(1)」にする。
+     * 数量不足の商品は更新しないため、呼び出し側で事前に行ロックと数量確認を行うこと。
+     * @param quantities 商品IDごとの減算数量
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数
+     */
+    @Update({
+        "<script>",
+        "UPDATE m_stock SET",
+        "quantity = quantity - CASE product_id",
+        "<foreach collection='quantities' index='productId' item='quantity'> WHEN #{productId} THEN #{quantity}</foreach>",
+        "END,",
+        "status = CASE WHEN quantity - CASE product_id",
+        "<foreach collection='quantities' index='productId' item='quantity'> WHEN #{productId} THEN #{quantity}</foreach>",
+        "END = 0 THEN 1 ELSE status END,",
+        "update_user = #{updateUser}, update_date = #{updateDate}",
+        "WHERE delete_flag = false AND product_id IN",
+        "<foreach collection='quantities' index='productId' open='(' separator=',' close=')'>#{productId}</foreach>",
+        "AND quantity &gt;= CASE product_id",
+        "<foreach collection='quantities' index='productId' item='quantity'> WHEN #{productId} THEN #{quantity}</foreach>",
+        "END",
+        "</script>"
+    })
+    int deductQuantities(@Param("quantities") SortedMap<UUID, Integer> quantities,
+                         @Param("updateUser") String updateUser,
+                         @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 複数商品の在庫数量を1文で加算する
+     * 加算後に0より大きくなり、ステータスが「在庫なし(1)」の商品は「在庫あり(0)」にする。
+     * @param quantities 商品IDごとの加算数量
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数
+     */
+    @Update({
+        "<script>",
+        "UPDATE m_stock SET",
+        "quantity = quantity + CASE product_id",
+        "<foreach collection='quantities' index='productId' item='quantity'> WHEN #{productId} THEN #{quantity}</foreach>",
+        "END,",
+        "status = CASE WHEN status = 1 AND quantity + CASE product_id",
+        "<foreach collection='quantities' index='productId' item='quantity'> WHEN #{productId} THEN #{quantity}</foreach>",
+        "END &gt; 0 THEN 0 ELSE status END,",
+        "update_user = #{updateUser}, update_date = #{updateDate}",
+        "WHERE delete_flag = false AND product_id IN",
+        "<foreach collection='quantities' index='productId' open='(' separator=',' close=')'>#{productId}</foreach>",
+        "</script>"
+    })
+    int returnQuantities(@Param("quantities") SortedMap<UUID, Integer> quantities,
+                         @Param("updateUser") String updateUser,
+                         @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 複数商品の在庫数量に差分を1文で反映する（在庫台帳のライトビハインド用）
+     * 反映後に0になった商品は「在庫なし(1)」、0より大きくなった「在庫なし(1)」の商品は「在庫あり(0)」にする。
+     * @param deltas 商品IDごとの差分数量（減算はマイナス）
+     * @param updateUser 更新者ID
+     * @param updateDate 更新日時
+     * @return 更新件数
+     */
+    @Update({
+        "<script>",
+        "UPDATE m_stock SET",
+        "quantity = quantity + CASE product_id",
+        "<foreach collection='deltas' index='productId' item='delta'> WHEN #{productId} THEN #{delta}</foreach>",
+        "END,",
+        "status = CASE",
+        "WHEN quantity + CASE product_id",
+        "<foreach collection='deltas' index='productId' item='delta'> WHEN #{productId} THEN #{delta}</foreach>",
+        "END = 0 THEN 1",
+        "WHEN status = 1 AND quantity + CASE product_id",
+        "<foreach collection='deltas' index='productId' item='delta'> WHEN #{productId} THEN #{delta}</foreach>",
+        "END &gt; 0 THEN 0",
+        "ELSE status END,",
+        "update_user = #{updateUser}, update_date = #{updateDate}",
+        "WHERE delete_flag = false AND product_id IN",
+        "<foreach collection='deltas' index='productId' open='(' separator=',' close=')'>#{productId}</foreach>",
+        "</script>"
+    })
+    int applyQuantityDeltas(@Param("deltas") SortedMap<UUID, Integer> deltas,
+                            @Param("updateUser") String updateUser,
+                            @Param("updateDate") OffsetDateTime updateDate);
+
+    /**
+     * 検索条件に一致する件数を上限付きで数える（件数取得モード ESTIMATED 用）
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @param limit 数える件数の上限
+     * @return 件数（上限を超える場合は上限値）
+     */
+    @Select({
+        "<script>",
+        "SELECT COUNT(*) FROM (SELECT 1 FROM m_stock WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "LIMIT #{limit}) capped",
+        "</script>"
+    })
+    long countWithLimit(@Param(Constants.WRAPPER) Wrapper<MStock> wrapper, @Param("limit") long limit);
+
+    /**
+     * 検索条件に一致する在庫を在庫ID順に1件ずつ読み出す（エクスポート用）
+     * 結果をまとめてメモリに載せず、fetchSize 件ずつ取得する（PostgreSQL ではトランザクション内で呼び出すこと）。
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @return Cursor（呼び出し側で閉じること）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM m_stock WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "ORDER BY stock_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<MStock> selectExportCursor(@Param(Constants.WRAPPER) Wrapper<MStock> wrapper);
 }
@@ -1,11 +1,51 @@
 package com.playjava.frameworks.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 
 import com.playjava.enterprise.entity.MUser;
 
 @Mapper
 public interface MUserMapper extends BaseMapper<MUser>{
-  
+
+    /**
+     * 検索条件に一致する件数を上限付きで数える（件数取得モード ESTIMATED 用）
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @param limit 数える件数の上限
+     * @return 件数（上限を超える場合は上限値）
+     */
+    @Select({
+        "<script>",
+        "SELECT COUNT(*) FROM (SELECT 1 FROM m_user WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "LIMIT #{limit}) capped",
+        "</script>"
+    })
+    long countWithLimit(@Param(Constants.WRAPPER) Wrapper<MUser> wrapper, @Param("limit") long limit);
+
+    /**
+     * 検索条件に一致するユーザーをユーザーID順に1件ずつ読み出す（エクスポート用）
+     * 結果をまとめてメモリに載せず、fetchSize 件ずつ取得する（PostgreSQL ではトランザクション内で呼び出すこと）。
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * パスワードは取得しない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @return Cursor（呼び出し側で閉じること）
+     */
+    @Select({
+        "<script>",
+        "SELECT user_id, user_name, role, delete_flag, create_user, create_date, update_user, update_date FROM m_user WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "ORDER BY user_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<MUser> selectExportCursor(@Param(Constants.WRAPPER) Wrapper<MUser> wrapper);
 }
@@ -0,0 +1,41 @@
+package com.playjava.frameworks.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 採番カウンタ（払い出し済みの値の終端）を管理するMapper
+ * 番号をブロック単位で予約するために使用し、予約はカウンタ行を行ロックして進める。
+ */
+@Mapper
+public interface NumberCounterMapper {
+
+    /**
+     * カウンタの次の値を行ロックして取得する
+     * @param counterName カウンタ名
+     * @return 次に払い出す値（未登録の場合はnull）
+     */
+    @Select("SELECT next_value FROM t_number_counter WHERE counter_name = #{counterName} FOR UPDATE")
+    Long selectNextValueForUpdate(@Param("counterName") String counterName);
+
+    /**
+     * カウンタの次の値を更新する
+     * @param counterName カウンタ名
+     * @param nextValue 次に払い出す値
+     * @return 更新件数
+     */
+    @Update("UPDATE t_number_counter SET next_value = #{nextValue}, update_date = CURRENT_TIMESTAMP WHERE counter_name = #{counterName}")
+    int updateNextValue(@Param("counterName") String counterName, @Param("nextValue") long nextValue);
+
+    /**
+     * カウンタを登録する
+     * @param counterName カウンタ名
+     * @param nextValue 次に払い出す値
+     * @return 登録件数
+     */
+    @Insert("INSERT INTO t_number_counter (counter_name, next_value) VALUES (#{counterName}, #{nextValue})")
+    int insertNextValue(@Param("counterName") String counterName, @Param("nextValue") long nextValue);
+}
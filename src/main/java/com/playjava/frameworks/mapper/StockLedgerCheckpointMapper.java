@@ -0,0 +1,40 @@
+package com.playjava.frameworks.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 在庫台帳のチェックポイント（m_stock へ反映済みのジャーナル連番）を管理するMapper
+ */
+@Mapper
+public interface StockLedgerCheckpointMapper {
+
+    /**
+     * 反映済みのジャーナル連番を取得する
+     * @param ledgerId 台帳ID
+     * @return 反映済みのジャーナル連番（未登録の場合はnull）
+     */
+    @Select("SELECT last_sequence FROM t_stock_ledger_checkpoint WHERE ledger_id = #{ledgerId}")
+    Long selectLastSequence(@Param("ledgerId") String ledgerId);
+
+    /**
+     * 反映済みのジャーナル連番を更新する
+     * @param ledgerId 台帳ID
+     * @param lastSequence 反映済みのジャーナル連番
+     * @return 更新件数
+     */
+    @Update("UPDATE t_stock_ledger_checkpoint SET last_sequence = #{lastSequence}, update_date = CURRENT_TIMESTAMP WHERE ledger_id = #{ledgerId}")
+    int updateLastSequence(@Param("ledgerId") String ledgerId, @Param("lastSequence") long lastSequence);
+
+    /**
+     * 反映済みのジャーナル連番を登録する
+     * @param ledgerId 台帳ID
+     * @param lastSequence 反映済みのジャーナル連番
+     * @return 登録件数
+     */
+    @Insert("INSERT INTO t_stock_ledger_checkpoint (ledger_id, last_sequence) VALUES (#{ledgerId}, #{lastSequence})")
+    int insertLastSequence(@Param("ledgerId") String ledgerId, @Param("lastSequence") long lastSequence);
+}
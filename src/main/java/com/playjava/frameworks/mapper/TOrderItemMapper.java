@@ -1,11 +1,30 @@
 package com.playjava.frameworks.mapper;
 
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
 import com.playjava.enterprise.entity.TOrderItem;
 
+import java.util.List;
+
 @Mapper
 public interface TOrderItemMapper extends BaseMapper<TOrderItem>{
-  
+
+    /**
+     * 注文明細を複数行INSERTで一括登録する
+     * 自動設定項目（createDate/updateDate）は呼び出し側で設定しておくこと
+     * @param items 注文明細
+     * @return 登録件数
+     */
+    @Insert({
+        "<script>",
+        "INSERT INTO t_order_item (order_item_id, order_id, product_id, quantity, unit_price, create_date, update_date) VALUES",
+        "<foreach collection='items' item='item' separator=','>",
+        "(#{item.orderItemId}, #{item.orderId}, #{item.productId}, #{item.quantity}, #{item.unitPrice}, #{item.createDate}, #{item.updateDate})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertBatch(@Param("items") List<TOrderItem> items);
 }
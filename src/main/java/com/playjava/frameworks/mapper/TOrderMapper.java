@@ -1,11 +1,82 @@
 package com.playjava.frameworks.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 
 import com.playjava.enterprise.entity.TOrder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Mapper
 public interface TOrderMapper extends BaseMapper<TOrder>{
-  
+
+    /**
+     * 検索条件に一致する注文を注文ID順に1件ずつ読み出す（エクスポート用）
+     * 結果をまとめてメモリに載せず、fetchSize 件ずつ取得する（PostgreSQL ではトランザクション内で呼び出すこと）。
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @return Cursor（呼び出し側で閉じること）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM t_order WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "ORDER BY order_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<TOrder> selectExportCursor(@Param(Constants.WRAPPER) Wrapper<TOrder> wrapper);
+
+    /**
+     * 注文と注文明細を1回のSQLで取得する（注文詳細用）
+     * 注文明細1件につき1行を返し、明細のない注文は明細の列がnullの1行となる。
+     * 論理削除済みの注文は含めない。
+     * @param orderId 注文ID
+     * @return 注文×注文明細の行（注文明細ID順、注文が存在しない場合は空）
+     */
+    @Select({
+        "SELECT o.order_id, o.customer_id, o.order_date, o.status, o.delete_flag,",
+        "    o.create_user, o.create_date, o.update_user, o.update_date,",
+        "    i.order_item_id AS item_order_item_id, i.product_id AS item_product_id,",
+        "    i.quantity AS item_quantity, i.unit_price AS item_unit_price,",
+        "    i.create_date AS item_create_date, i.update_date AS item_update_date",
+        "FROM t_order o",
+        "LEFT JOIN t_order_item i ON i.order_id = o.order_id",
+        "WHERE o.order_id = #{orderId} AND o.delete_flag = false",
+        "ORDER BY i.order_item_id"
+    })
+    List<OrderDetailRow> selectDetailRows(@Param("orderId") UUID orderId);
+
+    /**
+     * selectDetailRows の1行（注文の列と、item_ を付けた注文明細の列）
+     */
+    @Data
+    class OrderDetailRow {
+        private UUID orderId;
+        private UUID customerId;
+        private OffsetDateTime orderDate;
+        private Integer status;
+        private Boolean deleteFlag;
+        private String createUser;
+        private OffsetDateTime createDate;
+        private String updateUser;
+        private OffsetDateTime updateDate;
+
+        private UUID itemOrderItemId;
+        private UUID itemProductId;
+        private Integer itemQuantity;
+        private Integer itemUnitPrice;
+        private OffsetDateTime itemCreateDate;
+        private OffsetDateTime itemUpdateDate;
+    }
 }
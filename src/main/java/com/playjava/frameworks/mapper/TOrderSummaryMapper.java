@@ -0,0 +1,85 @@
+package com.playjava.frameworks.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+
+import com.playjava.enterprise.entity.TOrderSummary;
+
+import java.util.UUID;
+
+/**
+ * 注文一覧の読み取りモデル（t_order_summary）のMapper
+ * 行の登録・更新は OrderSummaryProjector からのみ行う。
+ */
+@Mapper
+public interface TOrderSummaryMapper extends BaseMapper<TOrderSummary> {
+
+    /**
+     * 注文・顧客・注文明細から読み取りモデルの行を作成する（注文と明細の登録後に呼び出すこと）
+     * @param orderId 注文ID
+     * @return 登録件数（注文が存在しない場合は0）
+     */
+    @Insert({
+        "INSERT INTO t_order_summary (order_id, customer_id, customer_number, customer_name, order_date, status,",
+        "    item_count, total_amount, delete_flag, create_date, update_date)",
+        "SELECT o.order_id, o.customer_id, c.customer_number, c.customer_name, o.order_date, o.status,",
+        "    COUNT(i.order_item_id), COALESCE(SUM(CAST(i.quantity AS BIGINT) * i.unit_price), 0),",
+        "    o.delete_flag, o.create_date, CURRENT_TIMESTAMP",
+        "FROM t_order o",
+        "JOIN m_customer c ON c.customer_id = o.customer_id",
+        "LEFT JOIN t_order_item i ON i.order_id = o.order_id",
+        "WHERE o.order_id = #{orderId}",
+        "GROUP BY o.order_id, o.customer_id, c.customer_number, c.customer_name, o.order_date, o.status,",
+        "    o.delete_flag, o.create_date"
+    })
+    int insertFromOrder(@Param("orderId") UUID orderId);
+
+    /**
+     * 注文ステータスを更新する
+     * @param orderId 注文ID
+     * @param status 変更後のステータス
+     * @return 更新件数
+     */
+    @Update("UPDATE t_order_summary SET status = #{status}, update_date = CURRENT_TIMESTAMP WHERE order_id = #{orderId}")
+    int updateStatus(@Param("orderId") UUID orderId, @Param("status") int status);
+
+    /**
+     * 顧客の注文すべての顧客番号・顧客名を更新する（変更がない行は更新しない）
+     * @param customerId 顧客ID
+     * @param customerNumber 顧客番号
+     * @param customerName 顧客名
+     * @return 更新件数
+     */
+    @Update({
+        "UPDATE t_order_summary SET customer_number = #{customerNumber}, customer_name = #{customerName},",
+        "    update_date = CURRENT_TIMESTAMP",
+        "WHERE customer_id = #{customerId}",
+        "AND (customer_number <> #{customerNumber} OR customer_name <> #{customerName})"
+    })
+    int updateCustomer(
+            @Param("customerId") UUID customerId,
+            @Param("customerNumber") String customerNumber,
+            @Param("customerName") String customerName);
+
+    /**
+     * 検索条件に一致する件数を上限付きで数える（件数取得モード ESTIMATED 用）
+     * ページング検索と同じく論理削除済みのレコードは含めない。
+     * @param wrapper 検索条件（ORDER BY を含めないこと）
+     * @param limit 数える件数の上限
+     * @return 件数（上限を超える場合は上限値）
+     */
+    @Select({
+        "<script>",
+        "SELECT COUNT(*) FROM (SELECT 1 FROM t_order_summary WHERE delete_flag = false",
+        "<if test='ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>",
+        "LIMIT #{limit}) capped",
+        "</script>"
+    })
+    long countWithLimit(@Param(Constants.WRAPPER) Wrapper<TOrderSummary> wrapper, @Param("limit") long limit);
+}
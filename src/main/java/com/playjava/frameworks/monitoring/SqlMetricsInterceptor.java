@@ -0,0 +1,137 @@
+package com.playjava.frameworks.monitoring;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * SQLの実行時間・件数を計測する MyBatis インターセプター
+ * JDBCのステートメント実行（StatementHandler）単位で計測するため、ページングの件数取得SQLなども1件として数える。
+ *
+ * Micrometer への出力:
+ * <ul>
+ *   <li>db.statement: 実行時間のヒストグラム（statement: Mapperのステートメント名、command: SELECT/INSERT など、outcome: success/error）</li>
+ *   <li>db.statement.rows: SELECT の取得件数、INSERT/UPDATE/DELETE の更新件数</li>
+ * </ul>
+ * しきい値以上かかったSQLはスロークエリとしてログに出力する（バインド値は個人情報を含むため伏せ字にする）。
+ * HTTPリクエストの処理中に実行した場合は、SqlRequestStatementsFilter のリクエストごとの件数に加算する。
+ * バッチ実行（saveBatch）は addBatch の時点では実行されないため、件数のみ数えて時間は計測しない。
+ */
+@Slf4j
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+    @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+    @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+    @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowQueryThresholdNanos;
+
+    /** ステートメント名・結果ごとの Timer（都度の登録処理を避けるため保持する） */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry 出力先
+     * @param slowQueryThresholdMs スロークエリとしてログに出力する実行時間（ミリ秒）
+     */
+    public SqlMetricsInterceptor(MeterRegistry meterRegistry, long slowQueryThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler handler = PluginUtils.realTarget(invocation.getTarget());
+        PluginUtils.MPStatementHandler statementHandler = PluginUtils.mpStatementHandler(handler);
+        MappedStatement mappedStatement = statementHandler.mappedStatement();
+        SqlRequestStatementsFilter.increment();
+
+        String method = invocation.getMethod().getName();
+        if ("batch".equals(method)) {
+            return invocation.proceed();
+        }
+
+        long startedNanos = System.nanoTime();
+        String outcome = "error";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startedNanos;
+            timer(mappedStatement, outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            long rows = rows(method, invocation.getArgs(), result);
+            if (rows >= 0) {
+                rowSummary(mappedStatement).record(rows);
+            }
+            if (elapsedNanos >= slowQueryThresholdNanos) {
+                logSlowQuery(mappedStatement, statementHandler.boundSql(), elapsedNanos, rows, outcome);
+            }
+        }
+    }
+
+    /**
+     * 取得件数・更新件数（ResultHandler・カーソルで読み込む場合など件数が分からない場合は-1）
+     */
+    private static long rows(String method, Object[] args, Object result) {
+        if ("update".equals(method) && result instanceof Integer affected) {
+            return affected;
+        }
+        if ("query".equals(method) && args[1] == null && result instanceof List<?> list) {
+            return list.size();
+        }
+        return -1;
+    }
+
+    private Timer timer(MappedStatement mappedStatement, String outcome) {
+        return timers.computeIfAbsent(mappedStatement.getId() + "#" + outcome, key -> Timer.builder("db.statement")
+            .description("SQLの実行時間")
+            .tag("statement", mappedStatement.getId())
+            .tag("command", mappedStatement.getSqlCommandType().name())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private DistributionSummary rowSummary(MappedStatement mappedStatement) {
+        return rowSummaries.computeIfAbsent(mappedStatement.getId(), key -> DistributionSummary.builder("db.statement.rows")
+            .description("SQLの取得件数・更新件数")
+            .baseUnit("rows")
+            .tag("statement", mappedStatement.getId())
+            .tag("command", mappedStatement.getSqlCommandType().name())
+            .register(meterRegistry));
+    }
+
+    private void logSlowQuery(MappedStatement mappedStatement, BoundSql boundSql, long elapsedNanos, long rows, String outcome) {
+        // バインド値は出力せず、パラメータ名のみ出力する
+        String parameters = boundSql.getParameterMappings().stream()
+            .map(mapping -> mapping.getProperty() + "=***")
+            .collect(Collectors.joining(", ", "[", "]"));
+        log.warn("スロークエリ: statement={}, elapsedMs={}, rows={}, outcome={}, sql={}, parameters={}",
+            mappedStatement.getId(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, outcome,
+            boundSql.getSql().replaceAll("\\s+", " ").trim(), parameters);
+    }
+}
@@ -0,0 +1,62 @@
+package com.playjava.frameworks.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTPリクエストごとのSQL実行件数を計測するフィルター
+ * SqlMetricsInterceptor がリクエストの処理中に実行したSQLを数え、リクエストの終了時に
+ * http.server.requests.db.statements（method・uri ごと）として Micrometer に出力する。
+ * 1リクエストの件数が明細数などに比例して増える N+1 の検出に使う。
+ */
+@Component
+public class SqlRequestStatementsFilter extends OncePerRequestFilter {
+
+    private static final String COUNTER_ATTRIBUTE = SqlRequestStatementsFilter.class.getName() + ".COUNTER";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AtomicInteger counter = new AtomicInteger();
+        request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // uri はマッピングのパターン（/api/v1/orders/{orderId} など）とし、パスの値ごとにメトリクスを分けない
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.db.statements")
+                .description("HTTPリクエストごとのSQL実行件数")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry)
+                .record(counter.get());
+        }
+    }
+
+    /**
+     * 処理中のHTTPリクエストのSQL実行件数を1件加算する（リクエストの処理中でない場合は何もしない）
+     */
+    static void increment() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(COUNTER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AtomicInteger counter) {
+            counter.incrementAndGet();
+        }
+    }
+}
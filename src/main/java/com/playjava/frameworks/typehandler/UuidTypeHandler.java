@@ -0,0 +1,59 @@
+package com.playjava.frameworks.typehandler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * java.util.UUID 用の TypeHandler
+ * UUIDを文字列に変換せずに setObject でそのまま渡し、PostgreSQL・H2 の uuid 型にバイナリで送受信する。
+ * mybatis-plus.type-handlers-package で登録し、UUID 型のプロパティ・パラメータに自動で適用される。
+ *
+ * エンティティの主キーと、それを参照する外部キーはすべて UUID で保持している。
+ * 作成者・更新者（createUser/updateUser）は UserContext のユーザーIDをそのまま記録するため文字列のまま扱う。
+ */
+@MappedTypes(UUID.class)
+@MappedJdbcTypes(value = {JdbcType.OTHER, JdbcType.BINARY}, includeNullJdbcType = true)
+public class UuidTypeHandler extends BaseTypeHandler<UUID> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, UUID parameter, JdbcType jdbcType) throws SQLException {
+        ps.setObject(i, parameter);
+    }
+
+    @Override
+    public UUID getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toUuid(rs.getObject(columnName));
+    }
+
+    @Override
+    public UUID getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toUuid(rs.getObject(columnIndex));
+    }
+
+    @Override
+    public UUID getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toUuid(cs.getObject(columnIndex));
+    }
+
+    /**
+     * 取得した値をUUIDに変換する（uuid 型の列はそのまま、文字列型の列は解析する）
+     */
+    private static UUID toUuid(Object value) throws SQLException {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("UUIDに変換できない値です: " + value, e);
+        }
+    }
+}
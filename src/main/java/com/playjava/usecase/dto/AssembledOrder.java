@@ -0,0 +1,49 @@
+package com.playjava.usecase.dto;
+
+import lombok.Value;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 注文組み立て結果（1リクエスト分の商品スナップショット）
+ * 同一商品の明細は1行にまとめ、単価は組み立て時点の商品マスタの値で固定する。
+ * 生成後は変更不可。
+ */
+@Value
+public class AssembledOrder {
+
+    /** 組み立て済みの注文明細（リクエスト内の出現順） */
+    List<Line> lines;
+
+    public AssembledOrder(List<Line> lines) {
+        this.lines = List.copyOf(lines);
+    }
+
+    /**
+     * 商品IDごとの数量を返す（明細の順序を維持）
+     * @return 商品IDごとの数量
+     */
+    public Map<UUID, Integer> toQuantityMap() {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (Line line : lines) {
+            quantities.put(line.getProductId(), line.getQuantity());
+        }
+        return Collections.unmodifiableMap(quantities);
+    }
+
+    /**
+     * 組み立て済みの注文明細
+     */
+    @Value
+    public static class Line {
+        /** 商品ID */
+        UUID productId;
+        /** 数量（同一商品の明細を合算した値） */
+        int quantity;
+        /** 単価（組み立て時点の商品マスタの価格） */
+        Integer unitPrice;
+    }
+}
@@ -0,0 +1,32 @@
+package com.playjava.usecase.dto;
+
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+
+/**
+ * ページング検索での総件数の取得方法
+ */
+public enum CountMode {
+    /** COUNT(*) で正確な総件数を取得する */
+    EXACT,
+    /** 総件数を取得しない */
+    NONE,
+    /** 上限付きで件数を数え、上限を超える場合は「上限+」とする */
+    ESTIMATED;
+
+    /**
+     * 検索APIのパラメータ値（exact/none/estimated、大文字小文字は区別しない）から変換する
+     * @param value パラメータ値（未指定の場合は EXACT）
+     * @return 総件数の取得方法
+     */
+    public static CountMode from(String value) {
+        if (value == null || value.isEmpty()) {
+            return EXACT;
+        }
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new InvalidParameterException("件数取得モードは exact、none、estimated のいずれかである必要があります: countMode=" + value);
+    }
+}
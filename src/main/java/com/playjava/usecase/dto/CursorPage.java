@@ -0,0 +1,32 @@
+package com.playjava.usecase.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセット（カーソル）方式の検索結果
+ * 総件数は返さず、次ページがある場合のみ nextCursor を返す。
+ */
+@Data
+public class CursorPage<T> {
+    /** 検索結果 */
+    private List<T> records;
+    /** 1ページあたりの件数 */
+    private int size;
+    /** 次ページ取得用のカーソル（最終ページの場合はnull） */
+    private String nextCursor;
+
+    /**
+     * 検索結果の各行を変換する（件数・カーソルはそのまま）
+     * @param mapper 行の変換関数
+     * @return 変換後の検索結果
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        CursorPage<R> mapped = new CursorPage<>();
+        mapped.setRecords(records.stream().<R>map(mapper).toList());
+        mapped.setSize(size);
+        mapped.setNextCursor(nextCursor);
+        return mapped;
+    }
+}
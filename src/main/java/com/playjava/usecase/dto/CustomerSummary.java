@@ -0,0 +1,43 @@
+package com.playjava.usecase.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.playjava.enterprise.entity.MCustomer;
+import lombok.Value;
+import java.util.UUID;
+
+/**
+ * 顧客一覧の読み取りモデル
+ * 一覧で表示する項目のみを持ち、監査項目（登録者・更新日時など）は含まない。
+ * fields で指定されなかった項目は null となり、JSON には出力しない。
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerSummary {
+    /** 顧客ID */
+    UUID customerId;
+    /** 顧客番号 */
+    String customerNumber;
+    /** 顧客名 */
+    String customerName;
+    /** 住所 */
+    String address;
+    /** 携帯番号 */
+    String mobileNumber;
+    /** メールアドレス */
+    String email;
+
+    /**
+     * @param customer 顧客（一覧で返す項目のカラムのみ SELECT したもの）
+     * @param fields 返す項目
+     * @return 顧客一覧の1行
+     */
+    public static CustomerSummary of(MCustomer customer, SparseFields fields) {
+        return new CustomerSummary(
+                fields.pick("customerId", customer.getCustomerId()),
+                fields.pick("customerNumber", customer.getCustomerNumber()),
+                fields.pick("customerName", customer.getCustomerName()),
+                fields.pick("address", customer.getAddress()),
+                fields.pick("mobileNumber", customer.getMobileNumber()),
+                fields.pick("email", customer.getEmail()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.playjava.usecase.dto;
+
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+
+/**
+ * エクスポートの出力形式
+ */
+public enum ExportFormat {
+    /** 1行に1件の JSON（改行区切り） */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** ヘッダー行付きの CSV（RFC 4180） */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * @return Content-Type（文字コードは UTF-8）
+     */
+    public String getMediaType() {
+        return mediaType + ";charset=UTF-8";
+    }
+
+    /**
+     * @return ダウンロード時のファイルの拡張子
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * エクスポートAPIのパラメータ値（ndjson/csv、大文字小文字は区別しない）から変換する
+     * @param value パラメータ値（未指定の場合は NDJSON）
+     * @return 出力形式
+     */
+    public static ExportFormat from(String value) {
+        if (value == null || value.isEmpty()) {
+            return NDJSON;
+        }
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidParameterException("出力形式は ndjson、csv のいずれかである必要があります: format=" + value);
+    }
+}
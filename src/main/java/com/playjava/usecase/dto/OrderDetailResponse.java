@@ -9,4 +9,13 @@ import java.util.List;
 public class OrderDetailResponse {
     private TOrder order;
     private List<TOrderItem> items;
+
+    /**
+     * 注文詳細の強い ETag（注文ステータスと更新日時から作成する）
+     * 注文明細は注文の作成後に変更されないため含めない。
+     * @return ETag（ダブルクォートを含む）
+     */
+    public String etag() {
+        return "\"" + order.getStatus() + "-" + order.getUpdateDate().toInstant().toEpochMilli() + "\"";
+    }
 }
@@ -3,11 +3,12 @@ package com.playjava.usecase.dto;
 import lombok.Data;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
+import java.util.UUID;
 
 @Data
 public class OrderItemRequest {
     @NotNull(message = "商品IDは必須です")
-    private String productId;
+    private UUID productId;
     
     @NotNull(message = "数量は必須です")
     @Min(value = 1, message = "数量は1以上である必要があります")
@@ -0,0 +1,51 @@
+package com.playjava.usecase.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.playjava.enterprise.entity.TOrderSummary;
+import lombok.Value;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 注文一覧の読み取りモデル
+ * 一覧で表示する項目のみを持ち、監査項目（登録者・更新日時など）は含まない。
+ * 顧客名・明細数・合計金額は t_order_summary に非正規化した値で、一覧の表示に顧客・注文明細の検索を必要としない。
+ * fields で指定されなかった項目は null となり、JSON には出力しない。
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSummary {
+    /** 注文ID */
+    UUID orderId;
+    /** 顧客ID */
+    UUID customerId;
+    /** 顧客番号 */
+    String customerNumber;
+    /** 顧客名 */
+    String customerName;
+    /** 注文日時 */
+    OffsetDateTime orderDate;
+    /** ステータス */
+    Integer status;
+    /** 明細数 */
+    Integer itemCount;
+    /** 合計金額（数量×単価の合計） */
+    Long totalAmount;
+
+    /**
+     * @param summary 注文一覧の読み取りモデル（一覧で返す項目のカラムのみ SELECT したもの）
+     * @param fields 返す項目
+     * @return 注文一覧の1行
+     */
+    public static OrderSummary of(TOrderSummary summary, SparseFields fields) {
+        return new OrderSummary(
+                fields.pick("orderId", summary.getOrderId()),
+                fields.pick("customerId", summary.getCustomerId()),
+                fields.pick("customerNumber", summary.getCustomerNumber()),
+                fields.pick("customerName", summary.getCustomerName()),
+                fields.pick("orderDate", summary.getOrderDate()),
+                fields.pick("status", summary.getStatus()),
+                fields.pick("itemCount", summary.getItemCount()),
+                fields.pick("totalAmount", summary.getTotalAmount()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.playjava.usecase.dto;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 件数取得モード付きのページング検索結果
+ * EXACT の場合は従来どおり PaginationInnerInterceptor が COUNT(*) を実行する。
+ * NONE の場合は件数を取得せず、total は0、totalLabel はnullとなる。
+ * ESTIMATED の場合は、取得結果から総件数が確定できるときは件数を取得せず、
+ * それ以外は上限付きで数えて、上限を超える場合は total を上限値、totalLabel を「上限+」とする。
+ */
+@Getter
+public class SearchPage<T> extends Page<T> {
+
+    /** ESTIMATED で数える件数の上限 */
+    public static final long ESTIMATE_LIMIT = 10_000L;
+
+    /** 件数取得モード */
+    private final CountMode countMode;
+
+    /** 総件数の表示用文字列（例: "123"、"10000+"、NONE の場合はnull） */
+    private String totalLabel;
+
+    public SearchPage(long current, long size, CountMode countMode) {
+        super(current, size, countMode == CountMode.EXACT);
+        this.countMode = countMode;
+    }
+
+    /**
+     * 検索後に総件数を確定する
+     * @param cappedCounter 上限+1件で打ち切って件数を数える関数（ESTIMATED で必要な場合のみ呼び出す）
+     * @return このページ
+     */
+    public SearchPage<T> completeTotal(LongSupplier cappedCounter) {
+        switch (countMode) {
+            case EXACT:
+                totalLabel = String.valueOf(getTotal());
+                break;
+            case NONE:
+                totalLabel = null;
+                break;
+            case ESTIMATED:
+            default:
+                int fetched = getRecords().size();
+                if (fetched > 0 && fetched < getSize() || fetched == 0 && getCurrent() == 1) {
+                    // 最終ページを取得した場合は件数を数えずに総件数が確定する
+                    setTotal(offset() + fetched);
+                    totalLabel = String.valueOf(getTotal());
+                } else {
+                    long counted = cappedCounter.getAsLong();
+                    if (counted > ESTIMATE_LIMIT) {
+                        setTotal(ESTIMATE_LIMIT);
+                        totalLabel = ESTIMATE_LIMIT + "+";
+                    } else {
+                        setTotal(counted);
+                        totalLabel = String.valueOf(counted);
+                    }
+                }
+                break;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,48 @@
+package com.playjava.usecase.dto;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 検索APIの fields パラメータで指定された項目（スパースフィールドセット）
+ * 指定のない場合（ALL）はすべての項目を返す。
+ * 一覧の読み取りモデル（OrderSummary など）は pick で値を絞り込み、指定されていない項目は null として出力しない。
+ */
+public final class SparseFields {
+
+    /** すべての項目を返す（fields の指定なし） */
+    public static final SparseFields ALL = new SparseFields(null);
+
+    /** 指定された項目名（null の場合はすべての項目） */
+    private final Set<String> names;
+
+    private SparseFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * @param names 返す項目名
+     * @return 指定された項目のみを返す SparseFields
+     */
+    public static SparseFields of(Collection<String> names) {
+        return new SparseFields(Set.copyOf(names));
+    }
+
+    /**
+     * @param name 項目名
+     * @return 項目を返す場合はtrue
+     */
+    public boolean has(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * 項目を返す場合のみ値を返す
+     * @param name 項目名
+     * @param value 値
+     * @return 項目を返す場合は value、それ以外はnull
+     */
+    public <V> V pick(String name, V value) {
+        return has(name) ? value : null;
+    }
+}
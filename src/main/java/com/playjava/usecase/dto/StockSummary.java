@@ -0,0 +1,41 @@
+package com.playjava.usecase.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.playjava.enterprise.entity.MStock;
+import lombok.Value;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 在庫一覧の読み取りモデル
+ * 一覧で表示する項目のみを持ち、監査項目は一覧に表示する更新日時のみ含む（登録者・登録日時・更新者は含まない）。
+ * fields で指定されなかった項目は null となり、JSON には出力しない。
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockSummary {
+    /** 在庫ID */
+    UUID stockId;
+    /** 商品ID */
+    UUID productId;
+    /** 在庫数 */
+    Integer quantity;
+    /** ステータス */
+    Integer status;
+    /** 更新日時 */
+    OffsetDateTime updateDate;
+
+    /**
+     * @param stock 在庫（一覧で返す項目のカラムのみ SELECT したもの）
+     * @param fields 返す項目
+     * @return 在庫一覧の1行
+     */
+    public static StockSummary of(MStock stock, SparseFields fields) {
+        return new StockSummary(
+                fields.pick("stockId", stock.getStockId()),
+                fields.pick("productId", stock.getProductId()),
+                fields.pick("quantity", stock.getQuantity()),
+                fields.pick("status", stock.getStatus()),
+                fields.pick("updateDate", stock.getUpdateDate()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.playjava.usecase.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.playjava.enterprise.entity.MUser;
+import lombok.Value;
+import java.util.UUID;
+
+/**
+ * ユーザー一覧の読み取りモデル
+ * パスワード・監査項目は含まない（SELECT もしない）。
+ * fields で指定されなかった項目は null となり、JSON には出力しない。
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSummary {
+    /** ユーザーID */
+    UUID userId;
+    /** ユーザー名 */
+    String userName;
+    /** ロール（0:一般, 1:管理者） */
+    Integer role;
+
+    /**
+     * @param user ユーザー（一覧で返す項目のカラムのみ SELECT したもの）
+     * @param fields 返す項目
+     * @return ユーザー一覧の1行
+     */
+    public static UserSummary of(MUser user, SparseFields fields) {
+        return new UserSummary(
+                fields.pick("userId", user.getUserId()),
+                fields.pick("userName", user.getUserName()),
+                fields.pick("role", user.getRole()));
+    }
+}
@@ -0,0 +1,183 @@
+package com.playjava.usecase.handler;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.Getter;
+
+import com.playjava.frameworks.mapper.NumberCounterMapper;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 顧客番号の採番処理（hi-lo 方式）
+ * 採番カウンタ（t_number_counter）から連番をブロック単位で予約し、予約済みのブロックからメモリ上でロックなしに払い出す。
+ * 払い出す番号はインスタンス間で重複しないため、顧客登録時に顧客番号の重複チェックを行う必要がない。
+ * ブロックの予約は呼び出し元とは別のトランザクションでコミットするため、呼び出し元がロールバックしても番号は再利用されない
+ * （ロールバックやプロセス停止で使われなかった番号は欠番になる）。
+ * 以前の方式（ランダム生成）で登録済みの顧客番号がある環境では、sql/migrate_t_number_counter.sql で
+ * 採番カウンタを登録済みの最大の顧客番号より後に設定してから運用すること。
+ */
+@Component
+public class CustomerNumberAllocator implements InitializingBean {
+
+    /** 採番カウンタ名 */
+    static final String COUNTER_NAME = "customer_number";
+
+    /** 最初に払い出す連番（AAAA000001） */
+    private static final long FIRST_VALUE = 1L;
+
+    @Autowired
+    private NumberCounterMapper numberCounterMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${playjava.customer.number.block-size:100}")
+    private int blockSize;
+
+    private TransactionTemplate reserveTransaction;
+
+    /** 払い出し中のブロック */
+    private volatile Block current = new Block(0, 0);
+
+    @Override
+    public void afterPropertiesSet() {
+        reserveTransaction = new TransactionTemplate(transactionManager);
+        reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 顧客番号を1件払い出す
+     * @return 顧客番号（AAAA999999 形式）
+     */
+    public String next() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return CustomerNumberGenerator.format(value);
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * 一括登録用に連続した顧客番号をまとめて予約する
+     * 予約した範囲はこのインスタンスのブロックとは別に確保され、他の払い出しと重複しない。
+     * @param count 予約する件数
+     * @return 予約した顧客番号の範囲
+     */
+    public Range reserve(long count) {
+        if (count <= 0) {
+            throw new RuntimeException("予約する顧客番号の件数は1以上である必要があります: count=" + count);
+        }
+        return new Range(reserveBlock(count), count);
+    }
+
+    /**
+     * 払い出し中のブロックを使い切った場合に次のブロックを予約する（同時に1スレッドのみ予約する）
+     */
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            // 他のスレッドが予約済み
+            return;
+        }
+        long start = reserveBlock(blockSize);
+        current = new Block(start, start + blockSize);
+    }
+
+    /**
+     * 採番カウンタを行ロックして size 件分進め、予約した範囲の先頭を返す
+     */
+    private long reserveBlock(long size) {
+        try {
+            return reserveTransaction.execute(status -> advanceCounter(size));
+        } catch (DuplicateKeyException e) {
+            // カウンタの初回登録が他のインスタンスと競合した場合は、登録済みのカウンタから予約し直す
+            return reserveTransaction.execute(status -> advanceCounter(size));
+        }
+    }
+
+    private long advanceCounter(long size) {
+        Long next = numberCounterMapper.selectNextValueForUpdate(COUNTER_NAME);
+        long start = next != null ? next : FIRST_VALUE;
+        if (start + size > CustomerNumberGenerator.CAPACITY) {
+            throw new RuntimeException("顧客番号の採番範囲を超えました: next=" + start + ", count=" + size);
+        }
+        if (next == null) {
+            numberCounterMapper.insertNextValue(COUNTER_NAME, start + size);
+        } else {
+            numberCounterMapper.updateNextValue(COUNTER_NAME, start + size);
+        }
+        return start;
+    }
+
+    /**
+     * 予約済みのブロック（next から end の手前までを払い出す）
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    /**
+     * 一括登録用に予約した顧客番号の範囲
+     */
+    @Getter
+    public static final class Range implements Iterable<String> {
+        /** 先頭の連番 */
+        private final long first;
+        /** 件数 */
+        private final long count;
+
+        private Range(long first, long count) {
+            this.first = first;
+            this.count = count;
+        }
+
+        /**
+         * 範囲内の顧客番号を取得する
+         * @param index 範囲内の位置（0から count-1）
+         * @return 顧客番号
+         */
+        public String get(long index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("予約範囲外です: index=" + index + ", count=" + count);
+            }
+            return CustomerNumberGenerator.format(first + index);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private long index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < count;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(index++);
+                }
+            };
+        }
+    }
+}
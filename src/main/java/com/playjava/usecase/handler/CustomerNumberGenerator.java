@@ -1,36 +1,37 @@
 package com.playjava.usecase.handler;
 
-import java.util.Random;
-
 /**
  * 顧客番号生成ユーティリティ
+ * 採番カウンタの連番を顧客番号の形式に変換する（採番自体は CustomerNumberAllocator が行う）。
  */
 public class CustomerNumberGenerator {
     
-    private static final Random random = new Random();
     private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final String DIGITS = "0123456789";
+    private static final int LETTER_COUNT = 4;
+    private static final long DIGITS_RANGE = 1_000_000L;
+
+    /** 表現できる連番の上限（この値は含まない） */
+    public static final long CAPACITY = (long) Math.pow(LETTERS.length(), LETTER_COUNT) * DIGITS_RANGE;
     
     /**
-     * 顧客番号を生成する
-     * 形式: 4文字のランダム英字（大文字） + 6桁のランダム数字
-     * 例: ABCD123456, WXYZ789012
+     * 連番から顧客番号を生成する
+     * 形式: 4文字の英字（大文字） + 6桁の数字
+     * 連番の下6桁を数字部分に、それより上の桁を26進数として英字部分に割り当てる。
+     * 例: 0 → AAAA000000, 1000001 → AAAB000001
      * 
+     * @param sequence 連番（0以上 CAPACITY 未満）
      * @return 顧客番号（10文字）
      */
-    public static String generate() {
-        StringBuilder sb = new StringBuilder();
-        
-        // 先頭4文字: ランダムな英字（A-Z、大文字のみ）
-        for (int i = 0; i < 4; i++) {
-            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+    public static String format(long sequence) {
+        if (sequence < 0 || sequence >= CAPACITY) {
+            throw new RuntimeException("顧客番号の採番範囲を超えました: sequence=" + sequence);
         }
-        
-        // 後ろ6桁: ランダムな数字（0-9）
-        for (int i = 0; i < 6; i++) {
-            sb.append(DIGITS.charAt(random.nextInt(DIGITS.length())));
+        char[] chars = new char[LETTER_COUNT];
+        long letters = sequence / DIGITS_RANGE;
+        for (int i = LETTER_COUNT - 1; i >= 0; i--) {
+            chars[i] = LETTERS.charAt((int) (letters % LETTERS.length()));
+            letters /= LETTERS.length();
         }
-        
-        return sb.toString();
+        return new String(chars) + String.format("%06d", sequence % DIGITS_RANGE);
     }
 }
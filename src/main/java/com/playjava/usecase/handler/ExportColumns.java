@@ -0,0 +1,86 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.usecase.dto.ExportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * エクスポートする列の定義
+ * NDJSON・CSV のどちらも同じ列（名前・順序）で出力するため、エンティティのフィールドをそのまま出力せず、
+ * 出力する列をここで明示する（パスワードなど出力してはならない項目を誤って含めないため）。
+ *
+ * <pre>{@code
+ * new ExportColumns<MStock>()
+ *     .column("stockId", MStock::getStockId)
+ *     .column("quantity", MStock::getQuantity);
+ * }</pre>
+ */
+public class ExportColumns<T> {
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Function<T, ?>> extractors = new ArrayList<>();
+
+    /**
+     * 列を追加する
+     * @param name 列名（CSV のヘッダー、NDJSON のキー）
+     * @param extractor 行から値を取得する関数（null の場合は CSV では空、NDJSON では null になる）
+     * @return this
+     */
+    public ExportColumns<T> column(String name, Function<T, ?> extractor) {
+        names.add(name);
+        extractors.add(extractor);
+        return this;
+    }
+
+    /**
+     * @return 列名（定義順）
+     */
+    public List<String> names() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * 行を列名と値の Map に変換する（NDJSON の1行、または入れ子の配列の要素）
+     * @param row 行
+     * @return 列名と値（定義順）
+     */
+    public Map<String, Object> toMap(T row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            values.put(names.get(i), extractors.get(i).apply(row));
+        }
+        return values;
+    }
+
+    /**
+     * 行の値を定義順に取得する（CSV の1行）
+     * @param row 行
+     * @return 値（定義順）
+     */
+    List<Object> values(T row) {
+        List<Object> values = new ArrayList<>(extractors.size());
+        for (Function<T, ?> extractor : extractors) {
+            values.add(extractor.apply(row));
+        }
+        return values;
+    }
+
+    /**
+     * 出力先に書き込む ExportWriter を作成する
+     * @param format 出力形式
+     * @param out 出力先（ExportWriter を閉じても閉じない）
+     * @param jsonMapper NDJSON の出力に使用する JsonMapper（API のレスポンスと同じ設定のもの）
+     * @return ExportWriter
+     */
+    public ExportWriter<T> open(ExportFormat format, OutputStream out, JsonMapper jsonMapper) {
+        return new ExportWriter<>(this, format, out, jsonMapper);
+    }
+}
@@ -0,0 +1,117 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.usecase.dto.ExportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * エクスポートの行を NDJSON または CSV で1行ずつ書き出す
+ * 行を溜めずに書き出すため、件数によらずメモリ使用量は一定になる（バッファは固定サイズ）。
+ * 出力先への書き込みに失敗した場合（クライアントの切断など）は IOException をそのまま送出し、
+ * 呼び出し側で検索（Cursor）を打ち切れるようにする。
+ */
+public class ExportWriter<T> implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final String CSV_LINE_SEPARATOR = "\r\n";
+
+    private final ExportColumns<T> columns;
+
+    private final ExportFormat format;
+
+    private final Writer writer;
+
+    private final JsonMapper jsonMapper;
+
+    private boolean headerWritten;
+
+    private long rowCount;
+
+    ExportWriter(ExportColumns<T> columns, ExportFormat format, OutputStream out, JsonMapper jsonMapper) {
+        this.columns = columns;
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * 1行書き出す（CSV の場合は最初の行の前にヘッダー行を書き出す）
+     * @param row 行
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    public void write(T row) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeHeaderIfNeeded();
+            writeCsvLine(columns.values(row));
+        } else {
+            writer.write(jsonMapper.writeValueAsString(columns.toMap(row)));
+            writer.write('\n');
+        }
+        rowCount++;
+    }
+
+    /**
+     * @return 書き出した行数（ヘッダー行を除く）
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * バッファに残っている行を書き出す（0件の CSV はヘッダー行のみを書き出す）
+     * 出力先のストリームは閉じない。
+     */
+    @Override
+    public void close() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeHeaderIfNeeded();
+        }
+        writer.flush();
+    }
+
+    private void writeHeaderIfNeeded() throws IOException {
+        if (!headerWritten) {
+            writeCsvLine(columns.names());
+            headerWritten = true;
+        }
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write(CSV_LINE_SEPARATOR);
+    }
+
+    /**
+     * カンマ・ダブルクォート・改行を含む値をダブルクォートで囲む（値の中のダブルクォートは2つ重ねる）
+     */
+    static String escapeCsv(String value) {
+        boolean needsQuote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                needsQuote = true;
+                break;
+            }
+        }
+        if (!needsQuote) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
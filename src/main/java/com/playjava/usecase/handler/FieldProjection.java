@@ -0,0 +1,104 @@
+package com.playjava.usecase.handler;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.playjava.usecase.dto.SparseFields;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一覧検索で SELECT するカラムの定義
+ * エンティティの全カラム（パスワード・監査項目を含む）を読まず、一覧で返す項目のカラムのみを SELECT する。
+ * fields パラメータ（カンマ区切り）が指定された場合は、さらにその項目のみに絞り込む。
+ *
+ * <pre>{@code
+ * new FieldProjection<MStock>()
+ *     .field("stockId", MStock::getStockId)
+ *     .field("quantity", MStock::getQuantity)
+ *     .key("updateDate", MStock::getUpdateDate);
+ * }</pre>
+ */
+public class FieldProjection<T> {
+
+    /** 一覧で返す項目（定義順） */
+    private final Map<String, SFunction<T, ?>> fields = new LinkedHashMap<>();
+
+    /** 一覧では返さないが、カーソルの組み立てに必要な場合のみ SELECT するソートキー */
+    private final Map<String, SFunction<T, ?>> keys = new HashMap<>();
+
+    /**
+     * 一覧で返す項目を追加する
+     * @param name 項目名（fields パラメータ・レスポンスのキー）
+     * @param column カラム
+     * @return this
+     */
+    public FieldProjection<T> field(String name, SFunction<T, ?> column) {
+        fields.put(name, column);
+        return this;
+    }
+
+    /**
+     * 一覧では返さないソートキーを追加する
+     * @param name ソート対象名（検索APIの sortBy の値）
+     * @param column カラム
+     * @return this
+     */
+    public FieldProjection<T> key(String name, SFunction<T, ?> column) {
+        keys.put(name, column);
+        return this;
+    }
+
+    /**
+     * fields パラメータを解析する
+     * @param fieldsParam カンマ区切りの項目名（null・空の場合はすべての項目）
+     * @return 返す項目
+     */
+    public SparseFields resolve(String fieldsParam) {
+        if (fieldsParam == null || fieldsParam.isBlank()) {
+            return SparseFields.ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fieldsParam.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(trimmed)) {
+                throw new InvalidParameterException("指定できない項目です: fields=" + trimmed
+                        + "（指定できる項目: " + String.join(", ", fields.keySet()) + "）");
+            }
+            names.add(trimmed);
+        }
+        return names.isEmpty() ? SparseFields.ALL : SparseFields.of(names);
+    }
+
+    /**
+     * 検索条件に SELECT するカラムを設定する
+     * @param wrapper 検索条件
+     * @param selected 返す項目
+     * @param required 返す項目に含まれなくても SELECT する項目・ソートキー（ID、カーソルに使用するソートキーなど）
+     */
+    public void select(LambdaQueryWrapper<T> wrapper, SparseFields selected, String... required) {
+        Map<String, SFunction<T, ?>> columns = new LinkedHashMap<>();
+        fields.forEach((name, column) -> {
+            if (selected.has(name)) {
+                columns.put(name, column);
+            }
+        });
+        for (String name : required) {
+            SFunction<T, ?> column = fields.containsKey(name) ? fields.get(name) : keys.get(name);
+            if (column != null) {
+                columns.putIfAbsent(name, column);
+            }
+        }
+        List<SFunction<T, ?>> list = new ArrayList<>(columns.values());
+        wrapper.select(true, list);
+    }
+}
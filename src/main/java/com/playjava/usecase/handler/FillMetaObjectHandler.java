@@ -15,11 +15,10 @@ public class FillMetaObjectHandler implements MetaObjectHandler{
     @Override
     public void insertFill(MetaObject metaObject) {
         // 新規登録時の自動設定
-        log.info("新規登録 メタオブジェクト設定開始");
-        
         // UserContextから現在のユーザーIDを取得
         String currentUserId = UserContext.getCurrentUserId();
-        log.info("現在のユーザーID: {}", currentUserId);
+        // INSERT・UPDATE のたびに呼ばれるため DEBUG で出力する
+        log.debug("新規登録 メタオブジェクト設定: userId={}", currentUserId);
         
         this.strictInsertFill(metaObject, "createDate", OffsetDateTime.class, OffsetDateTime.now());
         this.strictInsertFill(metaObject, "createUser", String.class, currentUserId);
@@ -31,11 +30,9 @@ public class FillMetaObjectHandler implements MetaObjectHandler{
     @Override
     public void updateFill(MetaObject metaObject) {
         // 更新時の自動設定
-        log.info("更新 メタオブジェクト設定開始");
-        
         // UserContextから現在のユーザーIDを取得
         String currentUserId = UserContext.getCurrentUserId();
-        log.info("現在のユーザーID: {}", currentUserId);
+        log.debug("更新 メタオブジェクト設定: userId={}", currentUserId);
         
         this.strictUpdateFill(metaObject, "updateDate", OffsetDateTime.class, OffsetDateTime.now());
         this.strictUpdateFill(metaObject, "updateUser", String.class, currentUserId);
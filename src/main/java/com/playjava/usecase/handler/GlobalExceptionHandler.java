@@ -1,21 +1,29 @@
 package com.playjava.usecase.handler;
 
+import org.mybatis.spring.MyBatisSystemException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * グローバル例外ハンドラー
  */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -34,11 +42,11 @@ public class GlobalExceptionHandler {
         
         @Getter
         public static class StockInsufficientItem {
-            private final String productId;
+            private final UUID productId;
             private final Integer availableQuantity;
             private final Integer requestedQuantity;
             
-            public StockInsufficientItem(String productId, Integer availableQuantity, Integer requestedQuantity) {
+            public StockInsufficientItem(UUID productId, Integer availableQuantity, Integer requestedQuantity) {
                 this.productId = productId;
                 this.availableQuantity = availableQuantity;
                 this.requestedQuantity = requestedQuantity;
@@ -46,6 +54,16 @@ public class GlobalExceptionHandler {
         }
     }
 
+    /**
+     * リクエストパラメータ不正例外
+     * 検索・出力APIのパラメータ（countMode、format、fields、カーソルなど）が解釈できない場合に使用する
+     */
+    public static class InvalidParameterException extends RuntimeException {
+        public InvalidParameterException(String message) {
+            super(message);
+        }
+    }
+
     /**
      * バリデーションエラーのハンドリング
      * @param ex MethodArgumentNotValidException
@@ -93,4 +111,78 @@ public class GlobalExceptionHandler {
         
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    /**
+     * リクエストパラメータ不正例外のハンドリング
+     * @param ex InvalidParameterException
+     * @return エラーレスポンス
+     */
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidParameterException(InvalidParameterException ex) {
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * DB接続を取得できなかった場合のハンドリング
+     * （DB接続のバルクヘッドやコネクションプールの待機が上限時間を超えた場合。一時的な過負荷のため再試行を促す）
+     * @param ex CannotGetJdbcConnectionException / CannotCreateTransactionException
+     * @return エラーレスポンス
+     */
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<Map<String, Object>> handleConnectionUnavailable(RuntimeException ex) {
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("message", "混雑のため処理できませんでした。しばらくしてから再度お試しください");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(response);
+    }
+
+    /**
+     * MyBatis の例外のハンドリング
+     * （トランザクション外の Mapper 呼び出しでは、接続の取得失敗が MyBatisSystemException に包まれて送出されるため、
+     * 原因を辿って接続の取得失敗であれば 503 として扱う。それ以外は内部エラーとして 500 を返す）
+     * @param ex MyBatisSystemException
+     * @return エラーレスポンス
+     */
+    @ExceptionHandler(MyBatisSystemException.class)
+    public ResponseEntity<Map<String, Object>> handleMyBatisSystemException(MyBatisSystemException ex) {
+        if (isConnectionUnavailable(ex)) {
+            return handleConnectionUnavailable(ex);
+        }
+        log.error("DBアクセスでエラーが発生しました", ex);
+
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.put("message", "内部エラーが発生しました");
+
+        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * 原因の連鎖に接続の取得失敗が含まれるか
+     * @param ex 例外
+     * @return 接続の取得失敗が含まれる場合 true
+     */
+    private static boolean isConnectionUnavailable(Throwable ex) {
+        Throwable cause = ex.getCause();
+        while (cause != null) {
+            if (cause instanceof CannotGetJdbcConnectionException || cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
 }
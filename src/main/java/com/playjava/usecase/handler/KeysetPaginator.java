@@ -0,0 +1,223 @@
+package com.playjava.usecase.handler;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * キーセット（カーソル）方式のページング
+ * OFFSET と COUNT(*) を使わず、前ページ末尾の (ソートキー, ID) より後ろの行を
+ * 行値比較 (sort_column, id_column) &gt; (?, ?) で読み進める。深いページでも読み飛ばしが発生しない。
+ * カーソルはソート条件・末尾行のソートキー・IDをエンコードした不透明な文字列とする。
+ *
+ * ソートキーに指定するカラムは NOT NULL であること（NULL を含むと行値比較で行が欠落する）。
+ */
+public class KeysetPaginator<T> {
+
+    /** 1ページの最大件数（PaginationInnerInterceptor の上限と揃える） */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String CURSOR_VERSION = "v1";
+
+    private final String idColumn;
+    private final Function<T, UUID> idExtractor;
+    private final String defaultSortBy;
+    private final Map<String, SortKey<T>> sortKeys = new HashMap<>();
+
+    /**
+     * @param idColumn 同値の並びを確定させるIDカラム名
+     * @param idExtractor エンティティからIDを取得する関数
+     * @param defaultSortBy ホワイトリストにないソート対象が指定された場合に使用するソート対象
+     */
+    public KeysetPaginator(String idColumn, Function<T, UUID> idExtractor, String defaultSortBy) {
+        this.idColumn = idColumn;
+        this.idExtractor = idExtractor;
+        this.defaultSortBy = defaultSortBy;
+    }
+
+    /**
+     * ソートキーの定義
+     */
+    private static final class SortKey<T> {
+        private final String column;
+        private final Function<T, ?> extractor;
+        private final Function<String, ?> parser;
+
+        private SortKey(String column, Function<T, ?> extractor, Function<String, ?> parser) {
+            this.column = column;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+    }
+
+    /**
+     * 文字列のソートキーを登録する
+     * @param sortBy ソート対象名（検索APIの sortBy の値）
+     * @param column カラム名
+     * @param extractor エンティティからソートキーを取得する関数
+     */
+    public KeysetPaginator<T> stringKey(String sortBy, String column, Function<T, String> extractor) {
+        sortKeys.put(sortBy, new SortKey<>(column, extractor, Function.identity()));
+        return this;
+    }
+
+    /**
+     * UUID のソートキーを登録する
+     */
+    public KeysetPaginator<T> uuidKey(String sortBy, String column, Function<T, UUID> extractor) {
+        sortKeys.put(sortBy, new SortKey<>(column, extractor, UUID::fromString));
+        return this;
+    }
+
+    /**
+     * 整数のソートキーを登録する
+     */
+    public KeysetPaginator<T> integerKey(String sortBy, String column, Function<T, Integer> extractor) {
+        sortKeys.put(sortBy, new SortKey<>(column, extractor, Integer::valueOf));
+        return this;
+    }
+
+    /**
+     * 整数（long）のソートキーを登録する
+     */
+    public KeysetPaginator<T> longKey(String sortBy, String column, Function<T, Long> extractor) {
+        sortKeys.put(sortBy, new SortKey<>(column, extractor, Long::valueOf));
+        return this;
+    }
+
+    /**
+     * 日時のソートキーを登録する
+     */
+    public KeysetPaginator<T> dateTimeKey(String sortBy, String column, Function<T, OffsetDateTime> extractor) {
+        sortKeys.put(sortBy, new SortKey<>(column, extractor, OffsetDateTime::parse));
+        return this;
+    }
+
+    /**
+     * カーソル位置から1ページ分を検索する
+     * @param wrapper 検索条件（ORDER BY・LIMIT はこのメソッドで付与するため指定しないこと）
+     * @param query 検索条件を受け取り一覧を返す関数（ServiceImpl::list など）
+     * @param cursor 前ページの nextCursor（先頭ページの場合はnull）
+     * @param pageSize 1ページあたりの件数
+     * @param sortBy ソート対象
+     * @param sortOrder ソート順（asc/desc）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<T> page(
+            LambdaQueryWrapper<T> wrapper,
+            Function<Wrapper<T>, List<T>> query,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder) {
+
+        if (pageSize < 1) {
+            throw new InvalidParameterException("1ページあたりの件数は1以上である必要があります: pageSize=" + pageSize);
+        }
+        int limit = Math.min(pageSize, MAX_PAGE_SIZE);
+        String resolvedSortBy = sortKeys.containsKey(sortBy) ? sortBy : defaultSortBy;
+        SortKey<T> sortKey = sortKeys.get(resolvedSortBy);
+        boolean asc = "asc".equalsIgnoreCase(sortOrder);
+        String direction = asc ? "asc" : "desc";
+
+        // 1. カーソル位置より後ろの行に絞り込む（行値比較）
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decode(cursor, resolvedSortBy, direction);
+            String comparator = asc ? ">" : "<";
+            UUID id = parseId(position[1]);
+            if (sortKey.column.equals(idColumn)) {
+                wrapper.apply(idColumn + " " + comparator + " {0}", id);
+            } else {
+                Object value = parse(sortKey, position[0]);
+                wrapper.apply("(" + sortKey.column + ", " + idColumn + ") " + comparator + " ({0}, {1})", value, id);
+            }
+        }
+
+        // 2. ソートキー＋IDで並べ、次ページの有無を判定するため1件多く取得する
+        String order = asc ? "ASC" : "DESC";
+        String orderBy = sortKey.column.equals(idColumn)
+            ? idColumn + " " + order
+            : sortKey.column + " " + order + ", " + idColumn + " " + order;
+        wrapper.last("ORDER BY " + orderBy + " LIMIT " + (limit + 1));
+        List<T> records = query.apply(wrapper);
+
+        CursorPage<T> page = new CursorPage<>();
+        page.setSize(limit);
+        if (records.size() > limit) {
+            records = records.subList(0, limit);
+            T last = records.get(limit - 1);
+            page.setNextCursor(encode(resolvedSortBy, direction,
+                String.valueOf(sortKey.extractor.apply(last)), idExtractor.apply(last).toString()));
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    private String encode(String sortBy, String direction, String value, String id) {
+        String raw = String.join(":",
+            CURSOR_VERSION,
+            URLEncoder.encode(sortBy, StandardCharsets.UTF_8),
+            direction,
+            URLEncoder.encode(value, StandardCharsets.UTF_8),
+            URLEncoder.encode(id, StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * カーソルを復元する
+     * @return [ソートキーの値, ID]
+     * @throws InvalidParameterException カーソルが不正、またはソート条件がカーソル発行時と異なる場合
+     */
+    private String[] decode(String cursor, String sortBy, String direction) {
+        String[] parts;
+        String cursorSortBy;
+        String[] position;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 5 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new InvalidParameterException("カーソルが不正です: cursor=" + cursor);
+            }
+            cursorSortBy = URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
+            position = new String[] {
+                URLDecoder.decode(parts[3], StandardCharsets.UTF_8),
+                URLDecoder.decode(parts[4], StandardCharsets.UTF_8)
+            };
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("カーソルが不正です: cursor=" + cursor);
+        }
+        if (!cursorSortBy.equals(sortBy) || !parts[2].equals(direction)) {
+            throw new InvalidParameterException("カーソルのソート条件が一致しません: カーソル=" + cursorSortBy + " " + parts[2]
+                + ", 指定=" + sortBy + " " + direction);
+        }
+        return position;
+    }
+
+    private Object parse(SortKey<T> sortKey, String value) {
+        try {
+            return sortKey.parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidParameterException("カーソルが不正です: value=" + value);
+        }
+    }
+
+    private UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("カーソルが不正です: id=" + id);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.playjava.usecase.handler;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.playjava.usecase.port.product.ProductManagementPort;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.usecase.dto.AssembledOrder;
+import com.playjava.usecase.dto.OrderItemRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.vavr.control.Option;
+
+/**
+ * 注文組み立て処理
+ * 注文明細リクエストを商品ごとにまとめ、商品マスタを Port 経由でまとめて取得して
+ * 単価・有効性のスナップショットを作成する（商品カタログのスナップショットにない商品のみ1回のクエリで取得する）。
+ */
+@Component
+public class OrderAssembler {
+
+    @Autowired
+    private ProductManagementPort productManagementPort;
+
+    /**
+     * 注文明細リクエストを組み立てる
+     * @param items 注文明細リクエスト
+     * @return 組み立て済みの注文
+     * @throws RuntimeException 商品が存在しない、または論理削除済みの場合
+     */
+    public AssembledOrder assemble(List<OrderItemRequest> items) {
+        // 1. 同一商品の明細を合算（リクエスト内の出現順を維持）
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest itemRequest : items) {
+            if (itemRequest.getProductId() == null) {
+                throw new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId());
+            }
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+
+        // 2. 商品マスタをまとめて取得
+        Map<UUID, MProduct> products = productManagementPort.selectByIds(quantities.keySet()).stream()
+            .collect(Collectors.toMap(MProduct::getProductId, Function.identity()));
+
+        // 3. 商品の存在確認と単価のスナップショット作成
+        List<AssembledOrder.Line> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            MProduct product = Option.of(products.get(productId))
+                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
+                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + productId));
+            lines.add(new AssembledOrder.Line(productId, quantity, product.getPrice()));
+        });
+
+        return new AssembledOrder(lines);
+    }
+}
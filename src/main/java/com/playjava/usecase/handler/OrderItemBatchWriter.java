@@ -0,0 +1,65 @@
+package com.playjava.usecase.handler;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.playjava.frameworks.mapper.TOrderItemMapper;
+import com.playjava.enterprise.entity.TOrderItem;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 注文明細の一括登録処理
+ * 注文明細を指定件数ごとのチャンクに分け、チャンクごとに1回の複数行INSERTで登録する。
+ */
+@Component
+public class OrderItemBatchWriter {
+
+    /** PostgreSQLのバインド変数上限（32767）を超えないためのチャンクサイズ上限（1行7項目） */
+    private static final int MAX_CHUNK_SIZE = 4000;
+
+    @Autowired
+    private TOrderItemMapper tOrderItemMapper;
+
+    @Value("${playjava.order.item-batch-size:500}")
+    private int chunkSize;
+
+    /**
+     * 注文明細を設定されたチャンクサイズで一括登録する
+     * @param orderItems 注文明細
+     * @return 登録件数
+     */
+    public int insert(List<TOrderItem> orderItems) {
+        return insert(orderItems, chunkSize);
+    }
+
+    /**
+     * 注文明細を指定したチャンクサイズで一括登録する
+     * @param orderItems 注文明細
+     * @param chunkSize 1回のINSERTで登録する最大件数
+     * @return 登録件数
+     */
+    public int insert(List<TOrderItem> orderItems, int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("チャンクサイズは1以上" + MAX_CHUNK_SIZE + "以下である必要があります: chunkSize=" + chunkSize);
+        }
+
+        // 複数行INSERTではメタオブジェクトの自動設定が行われないため、ここで日時を設定する
+        OffsetDateTime now = OffsetDateTime.now();
+        for (TOrderItem orderItem : orderItems) {
+            if (orderItem.getCreateDate() == null) {
+                orderItem.setCreateDate(now);
+            }
+            orderItem.setUpdateDate(now);
+        }
+
+        int inserted = 0;
+        for (int from = 0; from < orderItems.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, orderItems.size());
+            inserted += tOrderItemMapper.insertBatch(orderItems.subList(from, to));
+        }
+        return inserted;
+    }
+}
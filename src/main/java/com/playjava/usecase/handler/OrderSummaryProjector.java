@@ -0,0 +1,51 @@
+package com.playjava.usecase.handler;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.playjava.frameworks.mapper.TOrderSummaryMapper;
+import com.playjava.enterprise.entity.MCustomer;
+
+import java.util.UUID;
+
+/**
+ * 注文一覧の読み取りモデル（t_order_summary）の更新処理
+ * 注文の作成・ステータス変更・顧客の更新を行うサービスから、同じトランザクション内で呼び出す
+ * （呼び出し元がロールバックした場合は読み取りモデルの更新もロールバックされる）。
+ * 注文一覧の検索は t_order を参照せず、この読み取りモデルのみを参照する。
+ */
+@Component
+public class OrderSummaryProjector {
+
+    @Autowired
+    private TOrderSummaryMapper tOrderSummaryMapper;
+
+    /**
+     * 注文の作成を反映する（注文と注文明細の登録後に呼び出す）
+     * @param orderId 作成した注文の注文ID
+     */
+    public void orderCreated(UUID orderId) {
+        if (tOrderSummaryMapper.insertFromOrder(orderId) != 1) {
+            throw new RuntimeException("注文一覧の読み取りモデルを作成できません: orderId=" + orderId);
+        }
+    }
+
+    /**
+     * 注文ステータスの変更を反映する
+     * @param orderId 注文ID
+     * @param status 変更後のステータス
+     */
+    public void statusChanged(UUID orderId, int status) {
+        if (tOrderSummaryMapper.updateStatus(orderId, status) != 1) {
+            throw new RuntimeException("注文一覧の読み取りモデルが存在しません: orderId=" + orderId);
+        }
+    }
+
+    /**
+     * 顧客番号・顧客名の変更を、その顧客の注文すべてに反映する
+     * @param customer 更新後の顧客
+     */
+    public void customerChanged(MCustomer customer) {
+        tOrderSummaryMapper.updateCustomer(customer.getCustomerId(), customer.getCustomerNumber(), customer.getCustomerName());
+    }
+}
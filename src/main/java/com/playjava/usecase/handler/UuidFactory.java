@@ -1,21 +1,30 @@
 package com.playjava.usecase.handler;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 
-import com.fasterxml.uuid.Generators;
-import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
-
 public final class UuidFactory {
     
     // UUIDv7を生成するためのGeneratorインスタンスの生成
-    private static final TimeBasedEpochGenerator GENERATOR = 
-        Generators.timeBasedEpochGenerator();
+    // ノード識別子が設定されるまではランダムなノード識別子を使う（下位の乱数ビットと合わせて衝突は実質起きない）
+    private static volatile UuidV7Generator generator =
+        new UuidV7Generator(new SecureRandom().nextInt(UuidV7Generator.MAX_NODE_ID + 1));
     
     // コンストラクタ
     private UuidFactory() {}
 
     // UUID生成
     public static UUID newUuid() {
-        return GENERATOR.generate();
+        return generator.generate();
+    }
+
+    // UUIDの一括生成（採番状態の更新は1回で済む）
+    public static UUID[] newUuids(int count) {
+        return generator.generate(count);
+    }
+
+    // ノード識別子の設定（インスタンス間で重複しないよう、起動時に設定値から呼び出す）
+    public static void configure(int nodeId) {
+        generator = new UuidV7Generator(nodeId);
     }
 }
@@ -0,0 +1,113 @@
+package com.playjava.usecase.handler;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * UUIDv7 生成器（ロックなし）
+ * 生成状態（ミリ秒＋ミリ秒内カウンタ）をスレッドIDで振り分けた複数のストライプに分けて持ち、CASで更新する。
+ * 共有のロックを取らないため、多数のスレッドから同時に呼び出しても互いに待たされない。
+ *
+ * ビット配置（RFC 9562 の UUIDv7）:
+ * <pre>
+ *  unix_ts_ms(48) | ver=7(4) | カウンタ上位(12)
+ *  var=10(2) | カウンタ下位(14) | ノード(10) | ストライプ(6) | 乱数(32)
+ * </pre>
+ * (ミリ秒, ストライプ, カウンタ) はプロセス内で一意、ノード識別子でインスタンス間の重複を防ぐ。
+ * 同じストライプ内では単調増加し、1ミリ秒内にカウンタを使い切った場合や時計が戻った場合は、次のミリ秒を前借りして単調性を保つ。
+ */
+public final class UuidV7Generator {
+
+    /** ノード識別子のビット数（0〜1023） */
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int COUNTER_HIGH_BITS = 12;
+    private static final int COUNTER_LOW_BITS = 14;
+    private static final int COUNTER_BITS = COUNTER_HIGH_BITS + COUNTER_LOW_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int RANDOM_BITS = 32;
+
+    /** ストライプごとの状態（ミリ秒 << COUNTER_BITS | カウンタ）。キャッシュラインの共有を避けるため8要素おきに使う */
+    private static final int PADDING = 8;
+    private final AtomicLongArray states = new AtomicLongArray(STRIPES * PADDING);
+
+    private final long nodeBits;
+
+    /**
+     * @param nodeId ノード識別子（0〜1023、インスタンスごとに異なる値を設定する）
+     */
+    public UuidV7Generator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ノード識別子は0〜" + MAX_NODE_ID + "の範囲で指定してください: nodeId=" + nodeId);
+        }
+        this.nodeBits = (long) nodeId << (STRIPE_BITS + RANDOM_BITS);
+    }
+
+    /**
+     * UUIDv7 を1件生成する
+     */
+    public UUID generate() {
+        int stripe = currentStripe();
+        return toUuid(reserve(stripe, 1), stripe);
+    }
+
+    /**
+     * UUIDv7 をまとめて生成する（カウンタを1回のCASで件数分予約する）
+     * @param count 生成する件数
+     * @return 生成したUUID（生成順＝時刻順）
+     */
+    public UUID[] generate(int count) {
+        if (count <= 0) {
+            return new UUID[0];
+        }
+        int stripe = currentStripe();
+        long first = reserve(stripe, count);
+        UUID[] uuids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = toUuid(first + i, stripe);
+        }
+        return uuids;
+    }
+
+    /**
+     * ストライプの状態を count 件分進め、予約した先頭の状態値を返す
+     */
+    private long reserve(int stripe, int count) {
+        int slot = stripe * PADDING;
+        while (true) {
+            long current = states.get(slot);
+            long now = System.currentTimeMillis() << COUNTER_BITS;
+            // 現在時刻のカウンタ0と、前回の続きのうち大きい方から払い出す（時計が戻っても単調増加を保つ）
+            long first = Math.max(current + 1, now);
+            if (states.compareAndSet(slot, current, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    private UUID toUuid(long state, int stripe) {
+        long millis = state >>> COUNTER_BITS;
+        long counter = state & COUNTER_MASK;
+        long msb = (millis << 16)
+            | (0x7L << 12)
+            | (counter >>> COUNTER_LOW_BITS);
+        long lsb = (0x2L << 62)
+            | ((counter & ((1L << COUNTER_LOW_BITS) - 1)) << (NODE_BITS + STRIPE_BITS + RANDOM_BITS))
+            | nodeBits
+            | ((long) stripe << RANDOM_BITS)
+            | (ThreadLocalRandom.current().nextInt() & 0xFFFFFFFFL);
+        return new UUID(msb, lsb);
+    }
+
+    private static int currentStripe() {
+        long id = Thread.currentThread().threadId();
+        // スレッドIDを攪拌してストライプに振り分ける
+        id ^= id >>> 17;
+        id *= 0x9e3779b97f4a7c15L;
+        return (int) (id >>> (64 - STRIPE_BITS));
+    }
+}
@@ -1,5 +1,7 @@
 package com.playjava.usecase.port.customer;
 
+import java.util.UUID;
+
 /**
  * 顧客の存在・有効性を問い合わせる Port（他文脈への窓口）。
  * 注文サービスは MCustomerMapper に直接依存せず、この Port 経由でのみ顧客の存在確認を行う。
@@ -12,5 +14,5 @@ public interface CustomerExistencePort {
      * @param customerId 顧客ID
      * @return 存在し有効な場合 true、それ以外は false
      */
-    boolean existsActiveCustomer(String customerId);
+    boolean existsActiveCustomer(UUID customerId);
 }
@@ -1,5 +1,8 @@
 package com.playjava.usecase.port.inventory;
 
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * 在庫の照会・減算・戻しを行う Port（他文脈への窓口）。
  * 注文サービスは MStockMapper に直接依存せず、この Port 経由でのみ在庫チェック・在庫操作を行う。
@@ -14,18 +17,19 @@ public interface StockOperationPort {
      * @return 在庫数量（0以上）
      * @throws RuntimeException 在庫レコードが存在しない場合
      */
-    int getStockQuantity(String productId);
+    int getStockQuantity(UUID productId);
 
     /**
      * 指定した商品の在庫を減算する。
-     * 在庫レコードが存在しない、数量が不足している場合は RuntimeException をスローする。
+     * 在庫レコードが存在しない場合は RuntimeException、数量が不足している場合は
+     * StockInsufficientException をスローする。判定と減算は不可分に行う。
      * 減算後に在庫が0になった場合はステータスを「在庫なし(1)」に更新する。
      *
      * @param productId 商品ID
      * @param quantity  減算する数量
      * @throws RuntimeException 在庫レコードが存在しない、または数量不足の場合
      */
-    void deductStock(String productId, int quantity);
+    void deductStock(UUID productId, int quantity);
 
     /**
      * 指定した商品の在庫を戻す（加算する）。
@@ -36,5 +40,44 @@ public interface StockOperationPort {
      * @param quantity  戻す数量
      * @throws RuntimeException 在庫レコードが存在しない場合
      */
-    void returnStock(String productId, int quantity);
+    void returnStock(UUID productId, int quantity);
+
+    /**
+     * 複数商品の在庫をまとめて減算する。
+     * 在庫レコードの行ロックは商品ID順に取得し、全商品の減算が成功するか、1件も減算しないかのいずれかとなる。
+     * 数量が不足している商品がある場合は、不足している全商品を含む StockInsufficientException をスローする。
+     *
+     * @param quantities 商品IDごとの減算数量
+     * @throws RuntimeException 在庫レコードが存在しない、または数量不足の場合
+     */
+    void deductStockBatch(Map<UUID, Integer> quantities);
+
+    /**
+     * 複数商品の在庫をまとめて戻す（加算する）。
+     * 在庫レコードの行ロックは商品ID順に取得し、全商品の戻しが成功するか、1件も戻さないかのいずれかとなる。
+     *
+     * @param quantities 商品IDごとの戻す数量
+     * @throws RuntimeException 在庫レコードが存在しない場合
+     */
+    void returnStockBatch(Map<UUID, Integer> quantities);
+
+    /**
+     * 指定した商品の在庫数量を指定した値に置き換える（在庫管理画面での数量修正など）。
+     * 減算・戻しと同じ経路で更新するため、在庫数量を自前で保持する実装でも m_stock との食い違いが生じない。
+     * 在庫レコードが存在しない場合は RuntimeException をスローする。
+     *
+     * @param productId 商品ID
+     * @param quantity  更新後の数量（0以上）
+     * @throws RuntimeException 在庫レコードが存在しない場合
+     */
+    void setStockQuantity(UUID productId, int quantity);
+
+    /**
+     * 在庫レコードの論理削除や商品の付け替えなど、この Port を経由せずに m_stock を書き換えた後に呼び出す。
+     * 在庫数量を自前で保持する実装は、対象商品について保持している数量を破棄し、次回の操作時に m_stock から読み直す。
+     * トランザクション内で呼び出した場合は、コミット後に破棄する。
+     *
+     * @param productId 商品ID
+     */
+    void reloadStock(UUID productId);
 }
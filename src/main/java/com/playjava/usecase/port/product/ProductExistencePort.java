@@ -1,5 +1,7 @@
 package com.playjava.usecase.port.product;
 
+import java.util.UUID;
+
 /**
  * 商品の存在を問い合わせる Port（他文脈への窓口）。
  * 在庫サービスは MProductMapper に直接依存せず、この Port 経由でのみ商品存在を確認する。
@@ -12,5 +14,5 @@ public interface ProductExistencePort {
      * @param productId 商品ID
      * @return 存在する場合 true、それ以外は false
      */
-    boolean existsByProductId(String productId);
+    boolean existsByProductId(UUID productId);
 }
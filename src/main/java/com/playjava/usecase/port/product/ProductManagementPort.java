@@ -2,6 +2,10 @@ package com.playjava.usecase.port.product;
 
 import com.playjava.enterprise.entity.MProduct;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * 商品情報・価格の問い合わせ窓口(port)
  * 在庫サービスは、MProductMapperに直接依存せず、このPort経由でのみ商品情報・価格を問い合わせる。
@@ -13,5 +17,12 @@ public interface ProductManagementPort {
      * @param productId 商品ID
      * @return 商品情報
      */
-    MProduct selectById(String productId);
+    MProduct selectById(UUID productId);
+
+    /**
+     * 指定した商品IDの商品情報をまとめて取得する。
+     * @param productIds 商品ID
+     * @return 商品情報（存在しない商品IDの分は含まれない、順序は不定）
+     */
+    List<MProduct> selectByIds(Collection<UUID> productIds);
 }
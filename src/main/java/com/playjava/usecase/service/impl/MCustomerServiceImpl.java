@@ -3,22 +3,81 @@ package com.playjava.usecase.service.impl;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.playjava.frameworks.mapper.MCustomerMapper;
+import com.playjava.frameworks.adapter.customer.CustomerExistenceIndex;
 import com.playjava.enterprise.entity.MCustomer;
 import com.playjava.usecase.service.contract.MCustomerService;
 import com.playjava.usecase.handler.UuidFactory;
-import com.playjava.usecase.handler.CustomerNumberGenerator;
+import com.playjava.usecase.handler.CustomerNumberAllocator;
+import com.playjava.usecase.handler.OrderSummaryProjector;
+import com.playjava.usecase.handler.KeysetPaginator;
+import com.playjava.usecase.handler.FieldProjection;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.SparseFields;
+import com.playjava.usecase.dto.CustomerSummary;
+import com.playjava.usecase.dto.SearchPage;
+import com.playjava.usecase.dto.ExportFormat;
+import com.playjava.usecase.handler.ExportColumns;
+import com.playjava.usecase.handler.ExportWriter;
+import org.apache.ibatis.cursor.Cursor;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @Service
 public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer> implements MCustomerService {
 
-    private static final int MAX_RETRY_COUNT = 10;
+    /** カーソル方式の顧客検索で使用できるソートキー（searchCustomerImpl のソート対象と同じ） */
+    private static final KeysetPaginator<MCustomer> CUSTOMER_KEYSET = new KeysetPaginator<MCustomer>("customer_id", MCustomer::getCustomerId, "updateDate")
+        .stringKey("customerNumber", "customer_number", MCustomer::getCustomerNumber)
+        .stringKey("customerName", "customer_name", MCustomer::getCustomerName)
+        .dateTimeKey("createDate", "create_date", MCustomer::getCreateDate)
+        .dateTimeKey("updateDate", "update_date", MCustomer::getUpdateDate);
+
+    /** 顧客一覧で返す項目（fields で絞り込める）と、一覧では返さないソートキー */
+    private static final FieldProjection<MCustomer> CUSTOMER_SUMMARY_FIELDS = new FieldProjection<MCustomer>()
+        .field("customerId", MCustomer::getCustomerId)
+        .field("customerNumber", MCustomer::getCustomerNumber)
+        .field("customerName", MCustomer::getCustomerName)
+        .field("address", MCustomer::getAddress)
+        .field("mobileNumber", MCustomer::getMobileNumber)
+        .field("email", MCustomer::getEmail)
+        .key("createDate", MCustomer::getCreateDate)
+        .key("updateDate", MCustomer::getUpdateDate);
+
+    /** エクスポートする列 */
+    private static final ExportColumns<MCustomer> CUSTOMER_EXPORT_COLUMNS = new ExportColumns<MCustomer>()
+        .column("customerId", MCustomer::getCustomerId)
+        .column("customerNumber", MCustomer::getCustomerNumber)
+        .column("customerName", MCustomer::getCustomerName)
+        .column("address", MCustomer::getAddress)
+        .column("mobileNumber", MCustomer::getMobileNumber)
+        .column("email", MCustomer::getEmail)
+        .column("createUser", MCustomer::getCreateUser)
+        .column("createDate", MCustomer::getCreateDate)
+        .column("updateUser", MCustomer::getUpdateUser)
+        .column("updateDate", MCustomer::getUpdateDate);
+
+    @Autowired
+    private CustomerExistenceIndex customerExistenceIndex;
+
+    @Autowired
+    private CustomerNumberAllocator customerNumberAllocator;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
 
     /**
      * 顧客作成処理
@@ -28,20 +87,48 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
     public boolean createCustomerImpl(MCustomer customer) {
         // UUIDv7を生成して顧客IDを設定
         UUID customerId = UuidFactory.newUuid();
-        customer.setCustomerId(customerId.toString());
-
-        // 顧客番号を自動生成（重複チェック付き）
-        String customerNumber = generateUniqueCustomerNumber();
-        customer.setCustomerNumber(customerNumber);
+        customer.setCustomerId(customerId);
 
         customer.setDeleteFlag(false);
 
-        // 顧客を保存（UserContextからログインユーザーIDを取得してcreateUser/updateUserに設定される）
+        // 顧客番号を採番して保存（採番した番号は他と重複しないため、重複チェックは行わない）
+        // 以前の方式で登録済みの顧客番号とは、移行時に採番カウンタを既存の最大値より後に設定することで重ならない
+        // UserContextからログインユーザーIDを取得してcreateUser/updateUserに設定される
+        customer.setCustomerNumber(customerNumberAllocator.next());
         boolean result = this.save(customer);
+
+        // 顧客の存在インデックスに追加（注文時の存在確認で使用）
+        customerExistenceIndex.add(customer.getCustomerId());
         
         return result;
     }
 
+    /**
+     * 顧客一括登録処理（データ移行・一括取り込み用）
+     * 件数分の顧客番号をまとめて予約し、1トランザクションで登録する。
+     * @param customers 登録する顧客情報（顧客ID・顧客番号はこの処理で設定する）
+     * @return 登録成功の場合true
+     */
+    @Transactional
+    public boolean createCustomersImpl(List<MCustomer> customers) {
+        if (customers.isEmpty()) {
+            return true;
+        }
+        CustomerNumberAllocator.Range numbers = customerNumberAllocator.reserve(customers.size());
+        UUID[] customerIds = UuidFactory.newUuids(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            MCustomer customer = customers.get(i);
+            customer.setCustomerId(customerIds[i]);
+            customer.setCustomerNumber(numbers.get(i));
+            customer.setDeleteFlag(false);
+        }
+
+        boolean result = this.saveBatch(customers);
+
+        customers.forEach(customer -> customerExistenceIndex.add(customer.getCustomerId()));
+        return result;
+    }
+
     /**
      * 顧客検索処理（簡易版・一覧）
      */
@@ -85,9 +172,54 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
             String sortBy,
             String sortOrder) {
 
-        Page<MCustomer> page = new Page<>(pageNum, pageSize);
+        return searchCustomerImpl(customerNumber, customerName, address, mobileNumber, email, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, CountMode.EXACT);
+    }
+
+    /**
+     * 顧客検索処理（ページング・ソート・件数取得モード対応）
+     * @param countMode 件数取得モード（EXACT: COUNT(*)、NONE: 取得しない、ESTIMATED: 上限付きで数える）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<MCustomer> searchCustomerImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode) {
+
+        return searchCustomerImpl(customerNumber, customerName, address, mobileNumber, email, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, countMode, wrapper -> { });
+    }
+
+    /**
+     * 顧客検索処理（ページング・ソート・件数取得モード・SELECT するカラムの指定に対応）
+     * @param projection SELECT するカラムの設定（全カラムの場合は何もしない）
+     */
+    private IPage<MCustomer> searchCustomerImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode,
+            Consumer<LambdaQueryWrapper<MCustomer>> projection) {
+
+        SearchPage<MCustomer> page = new SearchPage<>(pageNum, pageSize, countMode);
         LambdaQueryWrapper<MCustomer> wrapper = buildSearchWrapper(
                 customerNumber, customerName, address, mobileNumber, email, deleteFlag);
+        projection.accept(wrapper);
 
         // ソート設定
         boolean asc = "asc".equalsIgnoreCase(sortOrder);
@@ -125,13 +257,128 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
             }
         }
 
-        return this.page(page, wrapper);
+        this.page(page, wrapper);
+        return page.completeTotal(() -> this.getBaseMapper().countWithLimit(
+                buildSearchWrapper(customerNumber, customerName, address, mobileNumber, email, deleteFlag),
+                SearchPage.ESTIMATE_LIMIT + 1));
+    }
+
+    /**
+     * 顧客検索処理（カーソル方式）
+     * OFFSET・件数取得を行わず、前ページ末尾の (ソートキー, 顧客ID) の続きから取得する。
+     * @param cursor 前ページの nextCursor（先頭ページの場合はnull）
+     * @param pageSize 1ページあたりの件数
+     * @param sortBy ソート対象カラム（customerNumber, customerName, createDate, updateDate）
+     * @param sortOrder ソート順（asc/desc）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<MCustomer> searchCustomerByCursorImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder) {
+
+        LambdaQueryWrapper<MCustomer> wrapper = buildSearchWrapper(
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag);
+        return CUSTOMER_KEYSET.page(wrapper, this::list, cursor, pageSize, sortBy, sortOrder);
+    }
+
+    /**
+     * 顧客一覧検索処理（ページング・ソート・件数取得モード対応）
+     * 一覧で返す項目のカラムのみ SELECT し、監査項目を含まない CustomerSummary に詰めて返す。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は CustomerSummary のすべての項目）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<CustomerSummary> searchCustomerSummaryImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode,
+            String fields) {
+
+        SparseFields selected = CUSTOMER_SUMMARY_FIELDS.resolve(fields);
+        return searchCustomerImpl(customerNumber, customerName, address, mobileNumber, email, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, countMode,
+                wrapper -> CUSTOMER_SUMMARY_FIELDS.select(wrapper, selected, "customerId"))
+            .convert(row -> CustomerSummary.of(row, selected));
+    }
+
+    /**
+     * 顧客一覧検索処理（カーソル方式）
+     * 一覧で返す項目のカラムに加え、カーソルの組み立てに必要な ID・ソートキーのカラムのみ SELECT する。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は CustomerSummary のすべての項目）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<CustomerSummary> searchCustomerSummaryByCursorImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            String fields) {
+
+        SparseFields selected = CUSTOMER_SUMMARY_FIELDS.resolve(fields);
+        LambdaQueryWrapper<MCustomer> wrapper = buildSearchWrapper(
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag);
+        CUSTOMER_SUMMARY_FIELDS.select(wrapper, selected, "customerId", sortBy, "updateDate");
+        return CUSTOMER_KEYSET.page(wrapper, this::list, cursor, pageSize, sortBy, sortOrder)
+            .map(row -> CustomerSummary.of(row, selected));
+    }
+
+    /**
+     * 顧客エクスポート処理（顧客ID順）
+     * 検索条件に一致する顧客を Cursor で読み出しながら出力先へ書き出すため、件数によらずメモリ使用量は一定になる。
+     * 出力先への書き込みに失敗した場合（クライアントの切断など）は Cursor を閉じて検索を打ち切る。
+     * @param format 出力形式
+     * @param out 出力先
+     * @return 書き出した行数
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public long exportCustomersImpl(
+            String customerNumber,
+            String customerName,
+            String address,
+            String mobileNumber,
+            String email,
+            Boolean deleteFlag,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        LambdaQueryWrapper<MCustomer> wrapper = buildSearchWrapper(
+                customerNumber, customerName, address, mobileNumber, email, deleteFlag);
+        try (ExportWriter<MCustomer> writer = CUSTOMER_EXPORT_COLUMNS.open(format, out, jsonMapper);
+             Cursor<MCustomer> cursor = this.getBaseMapper().selectExportCursor(wrapper)) {
+            for (MCustomer row : cursor) {
+                writer.write(row);
+            }
+            return writer.getRowCount();
+        }
     }
 
     /**
      * 顧客検索条件の共通Wrapper生成
      */
-    private LambdaQueryWrapper<MCustomer> buildSearchWrapper(
+    // visible for benchmark
+    LambdaQueryWrapper<MCustomer> buildSearchWrapper(
             String customerNumber,
             String customerName,
             String address,
@@ -181,6 +428,7 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
      * @param customer UIから@RequestBodyで受け取った顧客情報
      * @return 更新成功の場合true
      */
+    @Transactional
     public boolean updateCustomerImpl(MCustomer customer) {
         // 存在チェック
         MCustomer existingCustomer = this.getById(customer.getCustomerId());
@@ -193,7 +441,12 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
 
         // 顧客を更新（UserContextからログインユーザーIDを取得してupdateUserに設定される）
         boolean result = this.updateById(customer);
-        
+
+        // 顧客名の変更を注文一覧の読み取りモデルへ反映（同じトランザクション）
+        if (result && customer.getCustomerName() != null) {
+            orderSummaryProjector.customerChanged(customer);
+        }
+
         return result;
     }
 
@@ -202,7 +455,7 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
      * @param customerId 削除対象の顧客ID
      * @return 削除成功の場合true
      */
-    public boolean deleteCustomerImpl(String customerId) {
+    public boolean deleteCustomerImpl(UUID customerId) {
         // 存在チェック（論理削除を含めて取得）
         MCustomer existingCustomer = this.getBaseMapper().selectByIdIncludeDeleted(customerId);
         
@@ -218,38 +471,10 @@ public class MCustomerServiceImpl extends ServiceImpl<MCustomerMapper, MCustomer
         // MyBatis Plusの論理削除機能を使用
         // removeByIdを使うと、@TableLogicの設定に従って自動的にdeleteFlag=trueに更新される
         boolean result = this.removeById(customerId);
-        
-        return result;
-    }
 
-    /**
-     * 顧客番号の存在チェック
-     * @param customerNumber チェックする顧客番号
-     * @return 存在する場合true
-     */
-    private boolean existsByCustomerNumber(String customerNumber) {
-        LambdaQueryWrapper<MCustomer> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(MCustomer::getCustomerNumber, customerNumber);
-        return this.count(wrapper) > 0;
-    }
-
-    /**
-     * 一意な顧客番号を生成する（重複チェック付き）
-     * @return 一意な顧客番号
-     */
-    private String generateUniqueCustomerNumber() {
-        int retryCount = 0;
-        String customerNumber;
+        // 顧客の存在インデックスに削除を記録（削除が増えた場合はインデックスが再構築される）
+        customerExistenceIndex.remove(customerId);
         
-        do {
-            customerNumber = CustomerNumberGenerator.generate();
-            retryCount++;
-            
-            if (retryCount > MAX_RETRY_COUNT) {
-                throw new RuntimeException("顧客番号の生成に失敗しました（最大試行回数を超えました）");
-            }
-        } while (existsByCustomerNumber(customerNumber));
-        
-        return customerNumber;
+        return result;
     }
 }
@@ -3,18 +3,35 @@ package com.playjava.usecase.service.impl;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.playjava.frameworks.mapper.MStockMapper;
 import com.playjava.enterprise.entity.MStock;
 import com.playjava.usecase.service.contract.MStockService;
 import com.playjava.usecase.handler.UuidFactory;
+import com.playjava.usecase.handler.KeysetPaginator;
+import com.playjava.usecase.handler.FieldProjection;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.SparseFields;
+import com.playjava.usecase.dto.StockSummary;
+import com.playjava.usecase.dto.SearchPage;
+import com.playjava.usecase.dto.ExportFormat;
+import com.playjava.usecase.handler.ExportColumns;
+import com.playjava.usecase.handler.ExportWriter;
+import org.apache.ibatis.cursor.Cursor;
+import tools.jackson.databind.json.JsonMapper;
 import com.playjava.usecase.port.product.ProductExistencePort;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.frameworks.cache.StockCache;
 import com.playjava.frameworks.context.UserContext;
 
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
 
 import io.vavr.control.Option;
@@ -22,9 +39,47 @@ import io.vavr.control.Option;
 @Service
 public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> implements MStockService {
 
+    /** カーソル方式の在庫検索で使用できるソートキー */
+    private static final KeysetPaginator<MStock> STOCK_KEYSET = new KeysetPaginator<MStock>("stock_id", MStock::getStockId, "updateDate")
+        .uuidKey("stockId", "stock_id", MStock::getStockId)
+        .uuidKey("productId", "product_id", MStock::getProductId)
+        .integerKey("quantity", "quantity", MStock::getQuantity)
+        .integerKey("status", "status", MStock::getStatus)
+        .dateTimeKey("createDate", "create_date", MStock::getCreateDate)
+        .dateTimeKey("updateDate", "update_date", MStock::getUpdateDate);
+
+    /** 在庫一覧で返す項目（fields で絞り込める）と、一覧では返さないソートキー */
+    private static final FieldProjection<MStock> STOCK_SUMMARY_FIELDS = new FieldProjection<MStock>()
+        .field("stockId", MStock::getStockId)
+        .field("productId", MStock::getProductId)
+        .field("quantity", MStock::getQuantity)
+        .field("status", MStock::getStatus)
+        .field("updateDate", MStock::getUpdateDate)
+        .key("createDate", MStock::getCreateDate);
+
+    /** エクスポートする列 */
+    private static final ExportColumns<MStock> STOCK_EXPORT_COLUMNS = new ExportColumns<MStock>()
+        .column("stockId", MStock::getStockId)
+        .column("productId", MStock::getProductId)
+        .column("quantity", MStock::getQuantity)
+        .column("status", MStock::getStatus)
+        .column("createUser", MStock::getCreateUser)
+        .column("createDate", MStock::getCreateDate)
+        .column("updateUser", MStock::getUpdateUser)
+        .column("updateDate", MStock::getUpdateDate);
+
     @Autowired
     private ProductExistencePort productExistencePort;
 
+    @Autowired
+    private StockOperationPort stockOperationPort;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
     /**
      * 在庫登録処理
      * @param stock UIから@RequestBodyで受け取った在庫情報
@@ -49,7 +104,7 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
         
         // 業務ロジック: UUID生成と設定
         UUID stockId = UuidFactory.newUuid();
-        stock.setStockId(stockId.toString());
+        stock.setStockId(stockId);
 
         // 業務ロジック: quantityのバリデーション（Option使用）
         Integer quantity = Option.of(stock.getQuantity())
@@ -89,7 +144,7 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
      * @return ページング情報を含む検索結果
      */
     public IPage<MStock> searchStockImpl(
-            String productId,
+            UUID productId,
             String productName,
             Integer quantityMin,
             Integer quantityMax,
@@ -100,9 +155,54 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
             String sortBy,
             String sortOrder) {
 
-        Page<MStock> page = new Page<>(pageNum, pageSize);
+        return searchStockImpl(productId, productName, quantityMin, quantityMax, status, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, CountMode.EXACT);
+    }
+
+    /**
+     * 在庫検索処理（ページング・ソート・件数取得モード対応）
+     * @param countMode 件数取得モード（EXACT: COUNT(*)、NONE: 取得しない、ESTIMATED: 上限付きで数える）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<MStock> searchStockImpl(
+            UUID productId,
+            String productName,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode) {
+
+        return searchStockImpl(productId, productName, quantityMin, quantityMax, status, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, countMode, wrapper -> { });
+    }
+
+    /**
+     * 在庫検索処理（ページング・ソート・件数取得モード・SELECT するカラムの指定に対応）
+     * @param projection SELECT するカラムの設定（全カラムの場合は何もしない）
+     */
+    private IPage<MStock> searchStockImpl(
+            UUID productId,
+            String productName,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode,
+            Consumer<LambdaQueryWrapper<MStock>> projection) {
+
+        SearchPage<MStock> page = new SearchPage<>(pageNum, pageSize, countMode);
         LambdaQueryWrapper<MStock> wrapper = buildSearchWrapper(
                 productId, productName, quantityMin, quantityMax, status, deleteFlag);
+        projection.accept(wrapper);
 
         // ソート設定
         boolean asc = "asc".equalsIgnoreCase(sortOrder);
@@ -138,7 +238,119 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
             }
         }
 
-        return this.page(page, wrapper);
+        this.page(page, wrapper);
+        return page.completeTotal(() -> this.getBaseMapper().countWithLimit(
+                buildSearchWrapper(productId, productName, quantityMin, quantityMax, status, deleteFlag),
+                SearchPage.ESTIMATE_LIMIT + 1));
+    }
+
+    /**
+     * 在庫検索処理（カーソル方式）
+     * OFFSET・件数取得を行わず、前ページ末尾の (ソートキー, 在庫ID) の続きから取得する。
+     * @param cursor 前ページの nextCursor（先頭ページの場合はnull）
+     * @param pageSize 1ページあたりの件数
+     * @param sortBy ソート対象カラム（stockId, productId, quantity, status, createDate, updateDate）
+     * @param sortOrder ソート順（asc/desc）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<MStock> searchStockByCursorImpl(
+            UUID productId,
+            String productName,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder) {
+
+        LambdaQueryWrapper<MStock> wrapper = buildSearchWrapper(
+                productId, productName, quantityMin, quantityMax, status, deleteFlag);
+        return STOCK_KEYSET.page(wrapper, this::list, cursor, pageSize, sortBy, sortOrder);
+    }
+
+    /**
+     * 在庫一覧検索処理（ページング・ソート・件数取得モード対応）
+     * 一覧で返す項目のカラムのみ SELECT し、登録者などの監査項目を含まない StockSummary に詰めて返す。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は StockSummary のすべての項目）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<StockSummary> searchStockSummaryImpl(
+            UUID productId,
+            String productName,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            int pageNum,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            CountMode countMode,
+            String fields) {
+
+        SparseFields selected = STOCK_SUMMARY_FIELDS.resolve(fields);
+        return searchStockImpl(productId, productName, quantityMin, quantityMax, status, deleteFlag,
+                pageNum, pageSize, sortBy, sortOrder, countMode,
+                wrapper -> STOCK_SUMMARY_FIELDS.select(wrapper, selected, "stockId"))
+            .convert(row -> StockSummary.of(row, selected));
+    }
+
+    /**
+     * 在庫一覧検索処理（カーソル方式）
+     * 一覧で返す項目のカラムに加え、カーソルの組み立てに必要な ID・ソートキーのカラムのみ SELECT する。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は StockSummary のすべての項目）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<StockSummary> searchStockSummaryByCursorImpl(
+            UUID productId,
+            String productName,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            String fields) {
+
+        SparseFields selected = STOCK_SUMMARY_FIELDS.resolve(fields);
+        LambdaQueryWrapper<MStock> wrapper = buildSearchWrapper(
+                productId, productName, quantityMin, quantityMax, status, deleteFlag);
+        STOCK_SUMMARY_FIELDS.select(wrapper, selected, "stockId", sortBy, "updateDate");
+        return STOCK_KEYSET.page(wrapper, this::list, cursor, pageSize, sortBy, sortOrder)
+            .map(row -> StockSummary.of(row, selected));
+    }
+
+    /**
+     * 在庫エクスポート処理（在庫ID順）
+     * 検索条件に一致する在庫を Cursor で読み出しながら出力先へ書き出すため、件数によらずメモリ使用量は一定になる。
+     * 出力先への書き込みに失敗した場合（クライアントの切断など）は Cursor を閉じて検索を打ち切る。
+     * @param format 出力形式
+     * @param out 出力先
+     * @return 書き出した行数
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public long exportStocksImpl(
+            UUID productId,
+            Integer quantityMin,
+            Integer quantityMax,
+            Integer status,
+            Boolean deleteFlag,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        LambdaQueryWrapper<MStock> wrapper = buildSearchWrapper(productId, null, quantityMin, quantityMax, status, deleteFlag);
+        try (ExportWriter<MStock> writer = STOCK_EXPORT_COLUMNS.open(format, out, jsonMapper);
+             Cursor<MStock> cursor = this.getBaseMapper().selectExportCursor(wrapper)) {
+            for (MStock row : cursor) {
+                writer.write(row);
+            }
+            return writer.getRowCount();
+        }
     }
 
     /**
@@ -146,8 +358,9 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
      * 注意: 商品名による検索はJOINが必要なため、現時点ではproductIdのみで検索する
      * TODO: 商品マスタとJOINして商品名での検索を実装する
      */
-    private LambdaQueryWrapper<MStock> buildSearchWrapper(
-            String productId,
+    // visible for benchmark
+    LambdaQueryWrapper<MStock> buildSearchWrapper(
+            UUID productId,
             String productName,
             Integer quantityMin,
             Integer quantityMax,
@@ -157,7 +370,7 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
         LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
 
         // 商品ID（完全一致）
-        if (productId != null && !productId.isEmpty()) {
+        if (productId != null) {
             wrapper.eq(MStock::getProductId, productId);
         }
 
@@ -195,25 +408,27 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
 
     /**
      * 在庫照会処理（商品ID指定）
+     * 照会結果は StockCache にキャッシュし、在庫の更新・削除・減算・戻しの際に無効化される。
      * @param productId 商品ID
      * @return 在庫情報
      */
-    public MStock getStockByProductIdImpl(String productId) {
+    public MStock getStockByProductIdImpl(UUID productId) {
         // 業務ロジック: バリデーションをVavrで処理
-        
-        // 商品マスタの存在チェック（Port 経由で他文脈に問い合わせ）
-        if (!productExistencePort.existsByProductId(productId)) {
-            throw new RuntimeException("商品が存在しません: productId=" + productId);
-        }
 
-        // 商品IDで在庫を検索（MyBatis呼び出し - 副作用あり、一括処理）
-        LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(MStock::getProductId, productId);
-        // 削除済みも含めて取得（在庫照会のため）
-        // 論理削除フラグは@TableLogicにより自動的に除外されるため、明示的に指定しない
-        
-        MStock stock = this.getOne(wrapper);
-        
+        MStock stock = stockCache.get(productId, id -> {
+            // 商品マスタの存在チェック（Port 経由で他文脈に問い合わせ）
+            if (!productExistencePort.existsByProductId(id)) {
+                throw new RuntimeException("商品が存在しません: productId=" + id);
+            }
+
+            // 商品IDで在庫を検索（MyBatis呼び出し - 副作用あり、一括処理）
+            LambdaQueryWrapper<MStock> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(MStock::getProductId, id);
+            // 削除済みも含めて取得（在庫照会のため）
+            // 論理削除フラグは@TableLogicにより自動的に除外されるため、明示的に指定しない
+            return this.getOne(wrapper);
+        });
+
         // 在庫レコードの存在チェック（Option使用）
         return Option.of(stock)
             .getOrElseThrow(() -> new RuntimeException("在庫レコードが存在しません。在庫登録を行ってください: productId=" + productId));
@@ -224,66 +439,83 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
      * @param stock UIから@RequestBodyで受け取った在庫情報
      * @return 更新成功の場合true
      */
+    @Transactional
     public boolean updateStockImpl(MStock stock) {
-        try {
-            // 業務ロジック: バリデーションをVavrで処理
-            String updateUser = UserContext.getCurrentUserId();
-
-            // 在庫IDのバリデーション（Option使用）
-            String stockId = Option.of(stock.getStockId())
-                .filter(id -> !id.isEmpty())
-                .getOrElseThrow(() -> new RuntimeException("在庫IDは必須です: stockId=" + stock.getStockId()));
-
-            // 既存の在庫レコードを取得（MyBatis呼び出し - 副作用あり、一括処理）
-            MStock existingStock = this.getById(stockId);
-            
-            // 在庫レコードの存在チェック（Option使用）
-            Option.of(existingStock)
-                .getOrElseThrow(() -> new RuntimeException("在庫レコードが存在しません: stockId=" + stockId));
-            
-            // 商品マスタの存在チェック（productIdが変更される場合、Port 経由で他文脈に問い合わせ）
-            Option.of(stock.getProductId())
-                .filter(productId -> !productId.equals(existingStock.getProductId()))
-                .forEach(productId -> {
-                    if (!productExistencePort.existsByProductId(productId)) {
-                        throw new RuntimeException("商品が存在しません: productId=" + productId);
-                    }
-                });
-            
-            // 業務ロジック: quantityのバリデーション（Option使用）
-            Option.of(stock.getQuantity())
-                .filter(q -> q < 0)
-                .forEach(q -> {
-                    throw new RuntimeException("在庫数量は0以上の整数である必要があります: quantity=" + q);
-                });
-            
-            // 業務ロジック: statusの自動設定（Option使用）
-            Integer status = Option.of(stock.getStatus())
-                .map(s -> {
-                    // statusのバリデーション（0-2の範囲）
-                    if (s < 0 || s > 2) {
-                        throw new RuntimeException("在庫ステータスは0（在庫あり）、1（在庫なし）、2（発注済み）のいずれかである必要があります: status=" + s);
-                    }
-                    return s;
-                })
-                .getOrElse(() -> {
-                    Integer quantity = stock.getQuantity();
-                    return quantity != null && quantity > 0 ? 0 : 1; // 在庫あり: 0, 在庫なし: 1
-                });
-            
-            stock.setStatus(status);
-
-            // 更新内容を設定
-            stock.setUpdateUser(updateUser);
-            stock.setUpdateDate(OffsetDateTime.now());
-
-            // MyBatis呼び出し - 副作用あり（一括処理）
-            return this.updateById(stock);
-        } catch (Exception e) {
-            // エラー時はコンテキストをクリア
-            UserContext.clear();
-            throw e;
+        // 業務ロジック: バリデーションをVavrで処理
+        String updateUser = UserContext.getCurrentUserId();
+
+        // 在庫IDのバリデーション（Option使用）
+        UUID stockId = Option.of(stock.getStockId())
+            .getOrElseThrow(() -> new RuntimeException("在庫IDは必須です: stockId=" + stock.getStockId()));
+
+        // 既存の在庫レコードを取得（MyBatis呼び出し - 副作用あり、一括処理）
+        MStock existingStock = this.getById(stockId);
+        
+        // 在庫レコードの存在チェック（Option使用）
+        Option.of(existingStock)
+            .getOrElseThrow(() -> new RuntimeException("在庫レコードが存在しません: stockId=" + stockId));
+        
+        // 商品マスタの存在チェック（productIdが変更される場合、Port 経由で他文脈に問い合わせ）
+        Option.of(stock.getProductId())
+            .filter(productId -> !productId.equals(existingStock.getProductId()))
+            .forEach(productId -> {
+                if (!productExistencePort.existsByProductId(productId)) {
+                    throw new RuntimeException("商品が存在しません: productId=" + productId);
+                }
+            });
+        
+        // 業務ロジック: quantityのバリデーション（Option使用）
+        Option.of(stock.getQuantity())
+            .filter(q -> q < 0)
+            .forEach(q -> {
+                throw new RuntimeException("在庫数量は0以上の整数である必要があります: quantity=" + q);
+            });
+        
+        // 業務ロジック: statusの自動設定（Option使用）
+        Integer status = Option.of(stock.getStatus())
+            .map(s -> {
+                // statusのバリデーション（0-2の範囲）
+                if (s < 0 || s > 2) {
+                    throw new RuntimeException("在庫ステータスは0（在庫あり）、1（在庫なし）、2（発注済み）のいずれかである必要があります: status=" + s);
+                }
+                return s;
+            })
+            .getOrElse(() -> {
+                Integer quantity = stock.getQuantity();
+                return quantity != null && quantity > 0 ? 0 : 1; // 在庫あり: 0, 在庫なし: 1
+            });
+        
+        stock.setStatus(status);
+
+        // 更新内容を設定
+        stock.setUpdateUser(updateUser);
+        stock.setUpdateDate(OffsetDateTime.now());
+
+        UUID productId = Option.of(stock.getProductId()).getOrElse(existingStock.getProductId());
+        boolean productChanged = !productId.equals(existingStock.getProductId());
+        Integer quantity = stock.getQuantity();
+        if (!productChanged && quantity != null) {
+            // 在庫数量は在庫操作 Port 経由で更新する（在庫台帳が保持している数量と食い違わないようにする）
+            // ステータスは画面で指定された値を優先するため、在庫マスタの更新より先に行う
+            stockOperationPort.setStockQuantity(productId, quantity);
+            // null の項目は updateById の更新対象にならない
+            stock.setQuantity(null);
+        }
+
+        // MyBatis呼び出し - 副作用あり（一括処理）
+        boolean updated = this.updateById(stock);
+        stock.setQuantity(quantity);
+
+        if (productChanged) {
+            // 商品の付け替え: 変更前・変更後の商品について在庫操作側が保持している数量を破棄する
+            stockOperationPort.reloadStock(existingStock.getProductId());
+            stockOperationPort.reloadStock(productId);
         }
+
+        // 変更前・変更後の商品IDのキャッシュを無効化
+        stockCache.invalidate(existingStock.getProductId());
+        stockCache.invalidate(productId);
+        return updated;
     }
 
     /**
@@ -291,16 +523,19 @@ public class MStockServiceImpl extends ServiceImpl<MStockMapper, MStock> impleme
      * @param stockId 削除対象の在庫ID
      * @return 削除成功の場合true
      */
-    public boolean deleteStockImpl(String stockId) {
-        try {
-            // MyBatis呼び出し - 副作用あり（一括処理）
-            // MyBatis Plusの論理削除機能を使用
-            // removeByIdを使うと、@TableLogicの設定に従って自動的にdeleteFlag=trueに更新される
-            return this.removeById(stockId);
-        } catch (Exception e) {
-            // エラー時はコンテキストをクリア
-            UserContext.clear();
-            throw e;
-        }
+    @Transactional
+    public boolean deleteStockImpl(UUID stockId) {
+        // MyBatis呼び出し - 副作用あり（一括処理）
+        // MyBatis Plusの論理削除機能を使用
+        // removeByIdを使うと、@TableLogicの設定に従って自動的にdeleteFlag=trueに更新される
+        // キャッシュ無効化のため、削除前に対象の商品IDを取得する
+        MStock existingStock = this.getById(stockId);
+        boolean removed = this.removeById(stockId);
+        Option.of(existingStock).forEach(existing -> {
+            // 在庫操作側が保持している数量を破棄する（削除後の減算を受け付けないようにする）
+            stockOperationPort.reloadStock(existing.getProductId());
+            stockCache.invalidate(existing.getProductId());
+        });
+        return removed;
     }
 }
@@ -3,20 +3,35 @@ package com.playjava.usecase.service.impl;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.playjava.frameworks.mapper.MUserMapper;
 import com.playjava.enterprise.entity.MUser;
 import com.playjava.usecase.service.contract.MUserService;
 import com.playjava.usecase.handler.UuidFactory;
+import com.playjava.usecase.handler.KeysetPaginator;
+import com.playjava.usecase.handler.FieldProjection;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.SparseFields;
+import com.playjava.usecase.dto.UserSummary;
+import com.playjava.usecase.dto.SearchPage;
+import com.playjava.usecase.dto.ExportFormat;
+import com.playjava.usecase.handler.ExportColumns;
+import com.playjava.usecase.handler.ExportWriter;
+import org.apache.ibatis.cursor.Cursor;
+import tools.jackson.databind.json.JsonMapper;
 import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.valueobject.SystemUser;
 import com.playjava.enterprise.valueobject.UserRole;
 
 import java.util.UUID;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Consumer;
 import java.time.OffsetDateTime;
 
 import io.vavr.control.Option;
@@ -27,6 +42,33 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
     
     private final MUserMapper mUserMapper;
 
+    private final JsonMapper jsonMapper;
+
+    /** カーソル方式のユーザー検索で使用できるソートキー（searchUserImpl のソート対象と同じ） */
+    private static final KeysetPaginator<MUser> USER_KEYSET = new KeysetPaginator<MUser>("user_id", MUser::getUserId, "createDate")
+        .stringKey("userName", "user_name", MUser::getUserName)
+        .integerKey("role", "role", MUser::getRole)
+        .dateTimeKey("createDate", "create_date", MUser::getCreateDate)
+        .dateTimeKey("updateDate", "update_date", MUser::getUpdateDate);
+
+    /** ユーザー一覧で返す項目（fields で絞り込める）と、一覧では返さないソートキー（パスワードは含めない） */
+    private static final FieldProjection<MUser> USER_SUMMARY_FIELDS = new FieldProjection<MUser>()
+        .field("userId", MUser::getUserId)
+        .field("userName", MUser::getUserName)
+        .field("role", MUser::getRole)
+        .key("createDate", MUser::getCreateDate)
+        .key("updateDate", MUser::getUpdateDate);
+
+    /** エクスポートする列（パスワードは出力しない） */
+    private static final ExportColumns<MUser> USER_EXPORT_COLUMNS = new ExportColumns<MUser>()
+        .column("userId", MUser::getUserId)
+        .column("userName", MUser::getUserName)
+        .column("role", MUser::getRole)
+        .column("createUser", MUser::getCreateUser)
+        .column("createDate", MUser::getCreateDate)
+        .column("updateUser", MUser::getUpdateUser)
+        .column("updateDate", MUser::getUpdateDate);
+
     /**
      * ユーザー作成処理
      * @param user UIから@RequestBodyで受け取ったユーザー情報
@@ -34,12 +76,10 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
      */
     public boolean createUserImpl(MUser user) {
         // 初期登録として実行（BOOTSTRAPユーザーとして処理）
-        UserContext.setCurrentUserId(SystemUser.BOOTSTRAP);
-        
-        try {
+        return UserContext.callAs(SystemUser.BOOTSTRAP, () -> {
             // UUIDv7を生成してユーザーIDを設定
             UUID userId = UuidFactory.newUuid();
-            user.setUserId(userId.toString());
+            user.setUserId(userId);
 
             // ロールを一般ユーザーに設定
             user.setRole(UserRole.GENERAL_USER);
@@ -47,19 +87,8 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
             user.setDeleteFlag(false);
 
             // ユーザーを保存
-            boolean result = this.save(user);
-            
-            // 保存成功後、作成したユーザーIDをコンテキストに設定
-            if (result) {
-                UserContext.setCurrentUserId(user.getUserId());
-            }
-            
-            return result;
-        } catch (Exception e) {
-            // エラー時はコンテキストをクリア
-            UserContext.clear();
-            throw e;
-        }
+            return this.save(user);
+        });
     }
 
     /**
@@ -68,23 +97,15 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
      * @return 更新成功の場合true
      */
     public boolean updateUserImpl(MUser user) {
-        try {
-            // 更新者をコンテキストから取得
-            String updateUser = UserContext.getCurrentUserId();
-
-            // 更新内容: ユーザー名、パスワード
-            user.setUpdateUser(updateUser);
-            user.setUpdateDate(OffsetDateTime.now());
-
-            // 更新処理
-            boolean result = this.updateById(user);
-
-            return result;
-        } catch (Exception e) {
-            // エラー時はコンテキストをクリア
-            UserContext.clear();
-            throw e;
-        }
+        // 更新者をコンテキストから取得
+        String updateUser = UserContext.getCurrentUserId();
+
+        // 更新内容: ユーザー名、パスワード
+        user.setUpdateUser(updateUser);
+        user.setUpdateDate(OffsetDateTime.now());
+
+        // 更新処理
+        return this.updateById(user);
     }
 
     /**
@@ -92,18 +113,10 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
      * @param userId 削除対象のユーザーID
      * @return 削除成功の場合true
      */
-    public boolean deleteUserImpl(String userId) {
-        try {
-            // MyBatis Plusの論理削除機能を使用
-            // removeByIdを使うと、@TableLogicの設定に従って自動的にdeleteFlag=trueに更新される
-            boolean result = this.removeById(userId);
-            
-            return result;
-        } catch (Exception e) {
-            // エラー時はコンテキストをクリア
-            UserContext.clear();
-            throw e;
-        }
+    public boolean deleteUserImpl(UUID userId) {
+        // MyBatis Plusの論理削除機能を使用
+        // removeByIdを使うと、@TableLogicの設定に従って自動的にdeleteFlag=trueに更新される
+        return this.removeById(userId);
     }
 
     /**
@@ -116,16 +129,35 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
      * @return ページング情報を含む検索結果
      */
     public IPage<MUser> searchUserImpl(String userName, int pageNum, int pageSize, String sortBy, String sortOrder) {
+        return searchUserImpl(userName, pageNum, pageSize, sortBy, sortOrder, CountMode.EXACT);
+    }
+
+    /**
+     * ユーザー検索処理（ページング・ソート・件数取得モード対応）
+     * @param userName 検索するユーザー名（部分一致）
+     * @param pageNum ページ番号（1から開始）
+     * @param pageSize ページサイズ
+     * @param sortBy ソート対象カラム
+     * @param sortOrder ソート順（asc/desc）
+     * @param countMode 件数取得モード（EXACT: COUNT(*)、NONE: 取得しない、ESTIMATED: 上限付きで数える）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<MUser> searchUserImpl(String userName, int pageNum, int pageSize, String sortBy, String sortOrder, CountMode countMode) {
+        return searchUserImpl(userName, pageNum, pageSize, sortBy, sortOrder, countMode, wrapper -> { });
+    }
+
+    /**
+     * ユーザー検索処理（ページング・ソート・件数取得モード・SELECT するカラムの指定に対応）
+     * @param projection SELECT するカラムの設定（全カラムの場合は何もしない）
+     */
+    private IPage<MUser> searchUserImpl(String userName, int pageNum, int pageSize, String sortBy, String sortOrder, CountMode countMode,
+            Consumer<LambdaQueryWrapper<MUser>> projection) {
         // ページング設定
-        Page<MUser> page = new Page<>(pageNum, pageSize);
+        SearchPage<MUser> page = new SearchPage<>(pageNum, pageSize, countMode);
         
         // LambdaQueryWrapperで検索条件を組み立て
-        LambdaQueryWrapper<MUser> wrapper = new LambdaQueryWrapper<>();
-        
-        // ユーザー名が指定されている場合、LIKE検索（部分一致）
-        if (userName != null && !userName.isEmpty()) {
-            wrapper.like(MUser::getUserName, userName);
-        }
+        LambdaQueryWrapper<MUser> wrapper = buildSearchWrapper(userName);
+        projection.accept(wrapper);
         
         // ソート設定
         if ("asc".equalsIgnoreCase(sortOrder)) {
@@ -164,7 +196,93 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
             }
         }
         
-        return this.page(page, wrapper);
+        this.page(page, wrapper);
+        return page.completeTotal(() -> mUserMapper.countWithLimit(
+            buildSearchWrapper(userName), SearchPage.ESTIMATE_LIMIT + 1));
+    }
+
+    /**
+     * ユーザー検索処理（カーソル方式）
+     * OFFSET・件数取得を行わず、前ページ末尾の (ソートキー, ユーザーID) の続きから取得する。
+     * @param userName 検索するユーザー名（部分一致）
+     * @param cursor 前ページの nextCursor（先頭ページの場合はnull）
+     * @param pageSize 1ページあたりの件数
+     * @param sortBy ソート対象カラム（userName, role, createDate, updateDate）
+     * @param sortOrder ソート順（asc/desc）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<MUser> searchUserByCursorImpl(String userName, String cursor, int pageSize, String sortBy, String sortOrder) {
+        return USER_KEYSET.page(buildSearchWrapper(userName), this::list, cursor, pageSize, sortBy, sortOrder);
+    }
+
+    /**
+     * ユーザー一覧検索処理（ページング・ソート・件数取得モード対応）
+     * パスワード・監査項目のカラムは SELECT せず、UserSummary に詰めて返す。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は UserSummary のすべての項目）
+     * @return ページング情報を含む検索結果
+     */
+    public IPage<UserSummary> searchUserSummaryImpl(String userName, int pageNum, int pageSize, String sortBy, String sortOrder,
+            CountMode countMode, String fields) {
+        SparseFields selected = USER_SUMMARY_FIELDS.resolve(fields);
+        return searchUserImpl(userName, pageNum, pageSize, sortBy, sortOrder, countMode,
+                wrapper -> USER_SUMMARY_FIELDS.select(wrapper, selected, "userId"))
+            .convert(user -> UserSummary.of(user, selected));
+    }
+
+    /**
+     * ユーザー一覧検索処理（カーソル方式）
+     * 一覧で返す項目のカラムに加え、カーソルの組み立てに必要な ID・ソートキーのカラムのみ SELECT する。
+     * @param fields 返す項目（カンマ区切り、未指定の場合は UserSummary のすべての項目）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<UserSummary> searchUserSummaryByCursorImpl(String userName, String cursor, int pageSize, String sortBy, String sortOrder,
+            String fields) {
+        SparseFields selected = USER_SUMMARY_FIELDS.resolve(fields);
+        LambdaQueryWrapper<MUser> wrapper = buildSearchWrapper(userName);
+        USER_SUMMARY_FIELDS.select(wrapper, selected, "userId", sortBy, "createDate");
+        return USER_KEYSET.page(wrapper, this::list, cursor, pageSize, sortBy, sortOrder)
+            .map(user -> UserSummary.of(user, selected));
+    }
+
+    /**
+     * ユーザーエクスポート処理（ユーザーID順）
+     * 検索条件に一致するユーザーを Cursor で読み出しながら出力先へ書き出すため、件数によらずメモリ使用量は一定になる。
+     * 出力先への書き込みに失敗した場合（クライアントの切断など）は Cursor を閉じて検索を打ち切る。
+     * パスワードは取得・出力しない。
+     * @param format 出力形式
+     * @param out 出力先
+     * @return 書き出した行数
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public long exportUsersImpl(
+            String userName,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        LambdaQueryWrapper<MUser> wrapper = buildSearchWrapper(userName);
+        try (ExportWriter<MUser> writer = USER_EXPORT_COLUMNS.open(format, out, jsonMapper);
+             Cursor<MUser> cursor = this.getBaseMapper().selectExportCursor(wrapper)) {
+            for (MUser row : cursor) {
+                writer.write(row);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * ユーザー検索条件の共通Wrapper生成
+     */
+    // visible for benchmark
+    LambdaQueryWrapper<MUser> buildSearchWrapper(String userName) {
+        LambdaQueryWrapper<MUser> wrapper = new LambdaQueryWrapper<>();
+
+        // ユーザー名が指定されている場合、LIKE検索（部分一致）
+        if (userName != null && !userName.isEmpty()) {
+            wrapper.like(MUser::getUserName, userName);
+        }
+
+        return wrapper;
     }
 
     /**
@@ -184,19 +302,34 @@ public class MUserServiceImpl extends ServiceImpl<MUserMapper, MUser> implements
         return this.list(wrapper);
     }
 
+    /**
+     * ユーザー一覧検索処理（シンプル版）
+     * パスワード・監査項目のカラムは SELECT せず、UserSummary に詰めて返す。
+     * @param user 検索条件（ユーザー名による部分一致検索）
+     * @param fields 返す項目（カンマ区切り、未指定の場合は UserSummary のすべての項目）
+     * @return 検索結果
+     */
+    public List<UserSummary> searchUserSummaryImpl(MUser user, String fields) {
+        SparseFields selected = USER_SUMMARY_FIELDS.resolve(fields);
+        LambdaQueryWrapper<MUser> wrapper = buildSearchWrapper(user.getUserName());
+        USER_SUMMARY_FIELDS.select(wrapper, selected, "userId");
+        return this.list(wrapper).stream()
+            .map(row -> UserSummary.of(row, selected))
+            .toList();
+    }
+
     /**
      * ユーザー名の存在チェック
      * @param userName チェックするユーザー名
      * @param excludeUserId 除外するユーザーID（更新時に自分自身を除外）
      * @return 存在する場合true
      */
-    public boolean existsByUserName(String userName, String excludeUserId) {
+    public boolean existsByUserName(String userName, UUID excludeUserId) {
         LambdaQueryWrapper<MUser> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(MUser::getUserName, userName);
         
         // 業務ロジック: 更新時は自分自身を除外（Option使用）
         Option.of(excludeUserId)
-            .filter(id -> !id.isEmpty())
             .forEach(id -> wrapper.ne(MUser::getUserId, id));
         
         // MyBatis呼び出し - 副作用あり（一括処理）
@@ -3,36 +3,137 @@ package com.playjava.usecase.service.impl;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.playjava.frameworks.mapper.TOrderMapper;
 import com.playjava.frameworks.mapper.TOrderItemMapper;
-import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.TOrderSummaryMapper;
+import com.playjava.frameworks.cache.OrderDetailCache;
 import com.playjava.enterprise.entity.TOrder;
 import com.playjava.enterprise.entity.TOrderItem;
-import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.TOrderSummary;
 import com.playjava.usecase.port.customer.CustomerExistencePort;
 import com.playjava.usecase.port.inventory.StockOperationPort;
 import com.playjava.usecase.service.contract.OrderService;
 import com.playjava.usecase.dto.CreateOrderRequest;
-import com.playjava.usecase.dto.OrderItemRequest;
+import com.playjava.usecase.dto.AssembledOrder;
 import com.playjava.usecase.dto.OrderDetailResponse;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.SparseFields;
+import com.playjava.usecase.dto.OrderSummary;
+import com.playjava.usecase.dto.SearchPage;
+import com.playjava.usecase.dto.ExportFormat;
 import com.playjava.usecase.handler.UuidFactory;
-import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.usecase.handler.OrderAssembler;
+import com.playjava.usecase.handler.OrderItemBatchWriter;
+import com.playjava.usecase.handler.OrderSummaryProjector;
+import com.playjava.usecase.handler.KeysetPaginator;
+import com.playjava.usecase.handler.FieldProjection;
+import com.playjava.usecase.handler.ExportColumns;
+import com.playjava.usecase.handler.ExportWriter;
+import org.apache.ibatis.cursor.Cursor;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.UUID;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import io.vavr.control.Option;
 
 @Service
 public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implements OrderService {
 
+    /** 注文一覧（読み取りモデル）のカーソル方式の検索で使用できるソートキー */
+    private static final KeysetPaginator<TOrderSummary> ORDER_SUMMARY_KEYSET = new KeysetPaginator<TOrderSummary>("order_id", TOrderSummary::getOrderId, "updateDate")
+        .uuidKey("orderId", "order_id", TOrderSummary::getOrderId)
+        .uuidKey("customerId", "customer_id", TOrderSummary::getCustomerId)
+        .stringKey("customerNumber", "customer_number", TOrderSummary::getCustomerNumber)
+        .stringKey("customerName", "customer_name", TOrderSummary::getCustomerName)
+        .dateTimeKey("orderDate", "order_date", TOrderSummary::getOrderDate)
+        .integerKey("status", "status", TOrderSummary::getStatus)
+        .integerKey("itemCount", "item_count", TOrderSummary::getItemCount)
+        .longKey("totalAmount", "total_amount", TOrderSummary::getTotalAmount)
+        .dateTimeKey("createDate", "create_date", TOrderSummary::getCreateDate)
+        .dateTimeKey("updateDate", "update_date", TOrderSummary::getUpdateDate);
+
+    /** 注文一覧（読み取りモデル）のページング方式の検索で使用できるソート対象（ORDER_SUMMARY_KEYSET と同じ） */
+    private static final Map<String, SFunction<TOrderSummary, ?>> ORDER_SUMMARY_SORT_COLUMNS = Map.of(
+        "orderId", TOrderSummary::getOrderId,
+        "customerId", TOrderSummary::getCustomerId,
+        "customerNumber", TOrderSummary::getCustomerNumber,
+        "customerName", TOrderSummary::getCustomerName,
+        "orderDate", TOrderSummary::getOrderDate,
+        "status", TOrderSummary::getStatus,
+        "itemCount", TOrderSummary::getItemCount,
+        "totalAmount", TOrderSummary::getTotalAmount,
+        "createDate", TOrderSummary::getCreateDate,
+        "updateDate", TOrderSummary::getUpdateDate);
+
+    /** 注文一覧で返す項目（fields で絞り込める）と、一覧では返さないソートキー */
+    private static final FieldProjection<TOrderSummary> ORDER_SUMMARY_FIELDS = new FieldProjection<TOrderSummary>()
+        .field("orderId", TOrderSummary::getOrderId)
+        .field("customerId", TOrderSummary::getCustomerId)
+        .field("customerNumber", TOrderSummary::getCustomerNumber)
+        .field("customerName", TOrderSummary::getCustomerName)
+        .field("orderDate", TOrderSummary::getOrderDate)
+        .field("status", TOrderSummary::getStatus)
+        .field("itemCount", TOrderSummary::getItemCount)
+        .field("totalAmount", TOrderSummary::getTotalAmount)
+        .key("createDate", TOrderSummary::getCreateDate)
+        .key("updateDate", TOrderSummary::getUpdateDate);
+
+    /** エクスポートで注文明細をまとめて取得する注文の件数（1回の IN 検索に含める注文ID数） */
+    private static final int EXPORT_ITEM_BATCH_SIZE = 500;
+
+    /** エクスポートする注文明細の列（NDJSON の items の要素） */
+    private static final ExportColumns<TOrderItem> ORDER_ITEM_EXPORT_COLUMNS = new ExportColumns<TOrderItem>()
+        .column("orderItemId", TOrderItem::getOrderItemId)
+        .column("productId", TOrderItem::getProductId)
+        .column("quantity", TOrderItem::getQuantity)
+        .column("unitPrice", TOrderItem::getUnitPrice);
+
+    /** エクスポートする列（NDJSON: 1行に注文1件、明細は items に入れ子にする） */
+    private static final ExportColumns<OrderDetailResponse> ORDER_EXPORT_COLUMNS = new ExportColumns<OrderDetailResponse>()
+        .column("orderId", detail -> detail.getOrder().getOrderId())
+        .column("customerId", detail -> detail.getOrder().getCustomerId())
+        .column("orderDate", detail -> detail.getOrder().getOrderDate())
+        .column("status", detail -> detail.getOrder().getStatus())
+        .column("createUser", detail -> detail.getOrder().getCreateUser())
+        .column("createDate", detail -> detail.getOrder().getCreateDate())
+        .column("updateUser", detail -> detail.getOrder().getUpdateUser())
+        .column("updateDate", detail -> detail.getOrder().getUpdateDate())
+        .column("items", detail -> detail.getItems().stream().map(ORDER_ITEM_EXPORT_COLUMNS::toMap).toList());
+
+    /** エクスポートする列（CSV: 1行に明細1件、注文の列を繰り返す。明細のない注文は明細の列を空にした1行） */
+    private static final ExportColumns<OrderItemLine> ORDER_ITEM_LINE_EXPORT_COLUMNS = new ExportColumns<OrderItemLine>()
+        .column("orderId", line -> line.order().getOrderId())
+        .column("customerId", line -> line.order().getCustomerId())
+        .column("orderDate", line -> line.order().getOrderDate())
+        .column("status", line -> line.order().getStatus())
+        .column("createUser", line -> line.order().getCreateUser())
+        .column("createDate", line -> line.order().getCreateDate())
+        .column("updateUser", line -> line.order().getUpdateUser())
+        .column("updateDate", line -> line.order().getUpdateDate())
+        .column("orderItemId", line -> line.item() == null ? null : line.item().getOrderItemId())
+        .column("productId", line -> line.item() == null ? null : line.item().getProductId())
+        .column("quantity", line -> line.item() == null ? null : line.item().getQuantity())
+        .column("unitPrice", line -> line.item() == null ? null : line.item().getUnitPrice());
+
+    /**
+     * CSV エクスポートの1行（注文と明細1件）
+     */
+    private record OrderItemLine(TOrder order, TOrderItem item) {}
+
     @Autowired
     private TOrderItemMapper tOrderItemMapper;
     
@@ -43,7 +144,22 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
     private StockOperationPort stockOperationPort;
     
     @Autowired
-    private MProductMapper mProductMapper;
+    private OrderAssembler orderAssembler;
+
+    @Autowired
+    private OrderItemBatchWriter orderItemBatchWriter;
+
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Autowired
+    private TOrderSummaryMapper tOrderSummaryMapper;
+
+    @Autowired
+    private OrderDetailCache orderDetailCache;
+
+    @Autowired
+    private JsonMapper jsonMapper;
 
     /**
      * 店舗購入の注文作成処理
@@ -51,42 +167,25 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return 作成された注文ID
      */
     @Transactional
-    public String createStorePurchaseOrderImpl(CreateOrderRequest request) {
+    public UUID createStorePurchaseOrderImpl(CreateOrderRequest request) {
         // 1. 顧客の存在確認（Port 経由）
         if (!customerExistencePort.existsActiveCustomer(request.getCustomerId())) {
             throw new RuntimeException("顧客が存在しません: customerId=" + request.getCustomerId());
         }
 
-        // 2. 在庫チェック（在庫不足の商品を収集、Port 経由）
-        List<StockInsufficientException.StockInsufficientItem> insufficientItems = new ArrayList<>();
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // 商品の存在確認
-            MProduct product = mProductMapper.selectById(itemRequest.getProductId());
-            Option.of(product)
-                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
-                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId()));
-            
-            int available = stockOperationPort.getStockQuantity(itemRequest.getProductId());
-            if (available < itemRequest.getQuantity()) {
-                insufficientItems.add(new StockInsufficientException.StockInsufficientItem(
-                    itemRequest.getProductId(),
-                    available,
-                    itemRequest.getQuantity()
-                ));
-            }
-        }
-        
-        // 3. 在庫不足がある場合は例外を投げる（フロントエンドで取り寄せ/キャンセルを選択させる）
-        if (!insufficientItems.isEmpty()) {
-            throw new StockInsufficientException("在庫不足の商品があります", insufficientItems);
-        }
+        // 2. 注文の組み立て（商品マスタを一括取得し、同一商品の明細を合算）
+        AssembledOrder assembledOrder = orderAssembler.assemble(request.getItems());
+
+        // 3. 在庫の一括減算（Port 経由）
+        // 在庫不足の商品がある場合は全商品分をまとめて例外を投げる（フロントエンドで取り寄せ/キャンセルを選択させる）
+        stockOperationPort.deductStockBatch(assembledOrder.toQuantityMap());
         
         // 4. 注文IDを生成
         UUID orderId = UuidFactory.newUuid();
         
         // 5. 注文トランザクションを作成
         TOrder order = new TOrder();
-        order.setOrderId(orderId.toString());
+        order.setOrderId(orderId);
         order.setCustomerId(request.getCustomerId());
         order.setOrderDate(OffsetDateTime.now());
         order.setStatus(1); // 1: 注文確定（店舗購入は即時確定）
@@ -95,29 +194,13 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
         // 6. 注文を先に保存（外部キー制約のため）
         this.save(order);
         
-        // 7. 注文明細の作成と在庫減算
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // 7-1. 商品の存在確認と単価取得
-            MProduct product = mProductMapper.selectById(itemRequest.getProductId());
-            Option.of(product)
-                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
-                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId()));
-            
-            // 7-2. 在庫減算（Port 経由）
-            stockOperationPort.deductStock(itemRequest.getProductId(), itemRequest.getQuantity());
-            
-            // 7-3. 注文明細の作成
-            TOrderItem orderItem = new TOrderItem();
-            orderItem.setOrderItemId(UuidFactory.newUuid().toString());
-            orderItem.setOrderId(orderId.toString());
-            orderItem.setProductId(itemRequest.getProductId());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            
-            tOrderItemMapper.insert(orderItem);
-        }
+        // 7. 注文明細の作成（一括登録）
+        orderItemBatchWriter.insert(buildOrderItems(orderId, assembledOrder));
+        
+        // 8. 注文一覧の読み取りモデルを作成（同じトランザクション）
+        orderSummaryProjector.orderCreated(orderId);
         
-        return orderId.toString();
+        return orderId;
     }
 
     /**
@@ -127,46 +210,36 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return 作成された注文ID（キャンセル済み）
      */
     @Transactional
-    public String createCancelledOrderImpl(CreateOrderRequest request) {
+    public UUID createCancelledOrderImpl(CreateOrderRequest request) {
         // 1. 顧客の存在確認（Port 経由）
         if (!customerExistencePort.existsActiveCustomer(request.getCustomerId())) {
             throw new RuntimeException("顧客が存在しません: customerId=" + request.getCustomerId());
         }
 
-        // 2. 注文IDを生成
+        // 2. 注文の組み立て（商品マスタを一括取得し、同一商品の明細を合算）
+        AssembledOrder assembledOrder = orderAssembler.assemble(request.getItems());
+
+        // 3. 注文IDを生成
         UUID orderId = UuidFactory.newUuid();
         
-        // 3. 注文トランザクションを作成（キャンセル済み）
+        // 4. 注文トランザクションを作成（キャンセル済み）
         TOrder order = new TOrder();
-        order.setOrderId(orderId.toString());
+        order.setOrderId(orderId);
         order.setCustomerId(request.getCustomerId());
         order.setOrderDate(OffsetDateTime.now());
         order.setStatus(6); // 6: キャンセル済み
         order.setDeleteFlag(false);
         
-        // 4. 注文を先に保存（外部キー制約のため）
+        // 5. 注文を先に保存（外部キー制約のため）
         this.save(order);
         
-        // 5. 注文明細の作成（在庫は減算しない）
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // 5-1. 商品の存在確認と単価取得
-            MProduct product = mProductMapper.selectById(itemRequest.getProductId());
-            Option.of(product)
-                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
-                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId()));
-            
-            // 5-2. 注文明細の作成
-            TOrderItem orderItem = new TOrderItem();
-            orderItem.setOrderItemId(UuidFactory.newUuid().toString());
-            orderItem.setOrderId(orderId.toString());
-            orderItem.setProductId(itemRequest.getProductId());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            
-            tOrderItemMapper.insert(orderItem);
-        }
+        // 6. 注文明細の作成（一括登録、在庫は減算しない）
+        orderItemBatchWriter.insert(buildOrderItems(orderId, assembledOrder));
         
-        return orderId.toString();
+        // 7. 注文一覧の読み取りモデルを作成（同じトランザクション）
+        orderSummaryProjector.orderCreated(orderId);
+        
+        return orderId;
     }
 
     /**
@@ -175,46 +248,36 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return 作成された注文ID
      */
     @Transactional
-    public String createSpecialOrderImpl(CreateOrderRequest request) {
+    public UUID createSpecialOrderImpl(CreateOrderRequest request) {
         // 1. 顧客の存在確認（Port 経由）
         if (!customerExistencePort.existsActiveCustomer(request.getCustomerId())) {
             throw new RuntimeException("顧客が存在しません: customerId=" + request.getCustomerId());
         }
 
-        // 2. 注文IDを生成
+        // 2. 注文の組み立て（商品マスタを一括取得し、同一商品の明細を合算）
+        AssembledOrder assembledOrder = orderAssembler.assemble(request.getItems());
+
+        // 3. 注文IDを生成
         UUID orderId = UuidFactory.newUuid();
         
-        // 3. 注文トランザクションを作成（取り寄せ中）
+        // 4. 注文トランザクションを作成（取り寄せ中）
         TOrder order = new TOrder();
-        order.setOrderId(orderId.toString());
+        order.setOrderId(orderId);
         order.setCustomerId(request.getCustomerId());
         order.setOrderDate(OffsetDateTime.now());
         order.setStatus(2); // 2: 取り寄せ中
         order.setDeleteFlag(false);
         
-        // 4. 注文を先に保存（外部キー制約のため）
+        // 5. 注文を先に保存（外部キー制約のため）
         this.save(order);
         
-        // 5. 注文明細の作成（在庫は減算しない）
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // 5-1. 商品の存在確認と単価取得
-            MProduct product = mProductMapper.selectById(itemRequest.getProductId());
-            Option.of(product)
-                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
-                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId()));
-            
-            // 5-2. 注文明細の作成
-            TOrderItem orderItem = new TOrderItem();
-            orderItem.setOrderItemId(UuidFactory.newUuid().toString());
-            orderItem.setOrderId(orderId.toString());
-            orderItem.setProductId(itemRequest.getProductId());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            
-            tOrderItemMapper.insert(orderItem);
-        }
+        // 6. 注文明細の作成（一括登録、在庫は減算しない）
+        orderItemBatchWriter.insert(buildOrderItems(orderId, assembledOrder));
         
-        return orderId.toString();
+        // 7. 注文一覧の読み取りモデルを作成（同じトランザクション）
+        orderSummaryProjector.orderCreated(orderId);
+        
+        return orderId;
     }
 
     /**
@@ -223,46 +286,70 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return 作成された注文ID
      */
     @Transactional
-    public String createCustomOrderImpl(CreateOrderRequest request) {
+    public UUID createCustomOrderImpl(CreateOrderRequest request) {
         // 1. 顧客の存在確認（Port 経由）
         if (!customerExistencePort.existsActiveCustomer(request.getCustomerId())) {
             throw new RuntimeException("顧客が存在しません: customerId=" + request.getCustomerId());
         }
 
-        // 2. 注文IDを生成
+        // 2. 注文の組み立て（商品マスタを一括取得し、同一商品の明細を合算）
+        AssembledOrder assembledOrder = orderAssembler.assemble(request.getItems());
+
+        // 3. 注文IDを生成
         UUID orderId = UuidFactory.newUuid();
         
-        // 3. 注文トランザクションを作成（カスタマイズ中）
+        // 4. 注文トランザクションを作成（カスタマイズ中）
         TOrder order = new TOrder();
-        order.setOrderId(orderId.toString());
+        order.setOrderId(orderId);
         order.setCustomerId(request.getCustomerId());
         order.setOrderDate(OffsetDateTime.now());
         order.setStatus(3); // 3: カスタマイズ中
         order.setDeleteFlag(false);
         
-        // 4. 注文を先に保存（外部キー制約のため）
+        // 5. 注文を先に保存（外部キー制約のため）
         this.save(order);
         
-        // 5. 注文明細の作成（在庫は減算しない）
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // 5-1. 商品の存在確認と単価取得
-            MProduct product = mProductMapper.selectById(itemRequest.getProductId());
-            Option.of(product)
-                .filter(p -> !Boolean.TRUE.equals(p.getDeleteFlag()))
-                .getOrElseThrow(() -> new RuntimeException("商品が存在しません: productId=" + itemRequest.getProductId()));
-            
-            // 5-2. 注文明細の作成
+        // 6. 注文明細の作成（一括登録、在庫は減算しない）
+        orderItemBatchWriter.insert(buildOrderItems(orderId, assembledOrder));
+        
+        // 7. 注文一覧の読み取りモデルを作成（同じトランザクション）
+        orderSummaryProjector.orderCreated(orderId);
+        
+        return orderId;
+    }
+
+    /**
+     * 組み立て済みの注文から注文明細を作成する
+     * @param orderId 注文ID
+     * @param assembledOrder 組み立て済みの注文
+     * @return 注文明細
+     */
+    private List<TOrderItem> buildOrderItems(UUID orderId, AssembledOrder assembledOrder) {
+        List<AssembledOrder.Line> lines = assembledOrder.getLines();
+        // 明細分の注文明細IDをまとめて採番する
+        UUID[] orderItemIds = UuidFactory.newUuids(lines.size());
+        List<TOrderItem> orderItems = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            AssembledOrder.Line line = lines.get(i);
             TOrderItem orderItem = new TOrderItem();
-            orderItem.setOrderItemId(UuidFactory.newUuid().toString());
-            orderItem.setOrderId(orderId.toString());
-            orderItem.setProductId(itemRequest.getProductId());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            
-            tOrderItemMapper.insert(orderItem);
+            orderItem.setOrderItemId(orderItemIds[i]);
+            orderItem.setOrderId(orderId);
+            orderItem.setProductId(line.getProductId());
+            orderItem.setQuantity(line.getQuantity());
+            orderItem.setUnitPrice(line.getUnitPrice());
+            orderItems.add(orderItem);
         }
-        
-        return orderId.toString();
+        return orderItems;
+    }
+
+    /**
+     * 注文明細を商品IDごとの数量にまとめる
+     * @param orderItems 注文明細
+     * @return 商品IDごとの数量
+     */
+    private Map<UUID, Integer> toQuantityMap(List<TOrderItem> orderItems) {
+        return orderItems.stream()
+            .collect(Collectors.toMap(TOrderItem::getProductId, TOrderItem::getQuantity, Integer::sum, LinkedHashMap::new));
     }
 
     /**
@@ -272,7 +359,7 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return 確定成功の場合true
      */
     @Transactional
-    public boolean confirmOrderImpl(String orderId) {
+    public boolean confirmOrderImpl(UUID orderId) {
         // 1. 注文の存在確認
         TOrder order = this.getById(orderId);
         Option.of(order)
@@ -309,24 +396,33 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
             throw new RuntimeException("注文明細が存在しません: orderId=" + orderId);
         }
         
-        // 4. 在庫チェックと減算（Port 経由）
-        for (TOrderItem orderItem : orderItems) {
-            stockOperationPort.deductStock(orderItem.getProductId(), orderItem.getQuantity());
-        }
+        // 4. 在庫チェックと一括減算（Port 経由）
+        stockOperationPort.deductStockBatch(toQuantityMap(orderItems));
         
         // 5. 注文ステータスを「注文確定（1）」に更新
         order.setStatus(1);
         this.updateById(order);
+        orderSummaryProjector.statusChanged(orderId, 1);
+        orderDetailCache.invalidate(orderId);
         
         return true;
     }
 
     /**
-     * 注文検索処理（ページング・ソート対応）
+     * 注文一覧検索処理（ページング・ソート・件数取得モード対応）
+     * t_order ではなく読み取りモデル（t_order_summary）を検索し、顧客名・明細数・合計金額を含む OrderSummary を返す。
+     * 一覧で返す項目のカラムのみ SELECT する。
+     * @param customerNumber 顧客番号（完全一致）
+     * @param customerName 顧客名（部分一致）
+     * @param sortBy ソート対象（orderId, customerId, customerNumber, customerName, orderDate, status, itemCount, totalAmount, createDate, updateDate）
+     * @param fields 返す項目（カンマ区切り、未指定の場合は OrderSummary のすべての項目）
+     * @return ページング情報を含む検索結果
      */
-    public IPage<TOrder> searchOrderImpl(
-            String orderId,
-            String customerId,
+    public IPage<OrderSummary> searchOrderSummaryImpl(
+            UUID orderId,
+            UUID customerId,
+            String customerNumber,
+            String customerName,
             OffsetDateTime orderDateFrom,
             OffsetDateTime orderDateTo,
             Integer status,
@@ -334,69 +430,147 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
             int pageNum,
             int pageSize,
             String sortBy,
-            String sortOrder) {
+            String sortOrder,
+            CountMode countMode,
+            String fields) {
 
-        Page<TOrder> page = new Page<>(pageNum, pageSize);
-        LambdaQueryWrapper<TOrder> wrapper = buildSearchWrapper(
-                orderId, customerId, orderDateFrom, orderDateTo, status, deleteFlag);
+        SparseFields selected = ORDER_SUMMARY_FIELDS.resolve(fields);
+        SearchPage<TOrderSummary> page = new SearchPage<>(pageNum, pageSize, countMode);
+        LambdaQueryWrapper<TOrderSummary> wrapper = buildSummarySearchWrapper(
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag);
+        ORDER_SUMMARY_FIELDS.select(wrapper, selected, "orderId");
 
-        // ソート設定
+        // ソート設定（同値の並びは注文IDで確定させる）
         boolean asc = "asc".equalsIgnoreCase(sortOrder);
-        if (asc) {
-            switch (sortBy) {
-                case "orderId":
-                    wrapper.orderByAsc(TOrder::getOrderId);
-                    break;
-                case "customerId":
-                    wrapper.orderByAsc(TOrder::getCustomerId);
-                    break;
-                case "orderDate":
-                    wrapper.orderByAsc(TOrder::getOrderDate);
-                    break;
-                case "status":
-                    wrapper.orderByAsc(TOrder::getStatus);
-                    break;
-                case "createDate":
-                    wrapper.orderByAsc(TOrder::getCreateDate);
-                    break;
-                case "updateDate":
-                default:
-                    wrapper.orderByAsc(TOrder::getUpdateDate);
-                    break;
-            }
-        } else {
-            switch (sortBy) {
-                case "orderId":
-                    wrapper.orderByDesc(TOrder::getOrderId);
-                    break;
-                case "customerId":
-                    wrapper.orderByDesc(TOrder::getCustomerId);
-                    break;
-                case "orderDate":
-                    wrapper.orderByDesc(TOrder::getOrderDate);
-                    break;
-                case "status":
-                    wrapper.orderByDesc(TOrder::getStatus);
-                    break;
-                case "createDate":
-                    wrapper.orderByDesc(TOrder::getCreateDate);
-                    break;
-                case "updateDate":
-                default:
-                    wrapper.orderByDesc(TOrder::getUpdateDate);
-                    break;
+        wrapper.orderBy(true, asc, ORDER_SUMMARY_SORT_COLUMNS.getOrDefault(sortBy, TOrderSummary::getUpdateDate));
+        wrapper.orderBy(true, asc, TOrderSummary::getOrderId);
+
+        tOrderSummaryMapper.selectPage(page, wrapper);
+        page.completeTotal(() -> tOrderSummaryMapper.countWithLimit(
+                buildSummarySearchWrapper(orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag),
+                SearchPage.ESTIMATE_LIMIT + 1));
+        return page.convert(row -> OrderSummary.of(row, selected));
+    }
+
+    /**
+     * 注文一覧検索処理（カーソル方式）
+     * 読み取りモデル（t_order_summary）を検索する。一覧で返す項目のカラムに加え、カーソルの組み立てに必要な
+     * 注文ID・ソートキーのカラムのみ SELECT する。
+     * @param cursor 前ページの nextCursor（先頭ページの場合はnull）
+     * @param pageSize 1ページあたりの件数
+     * @param sortBy ソート対象（searchOrderSummaryImpl と同じ）
+     * @param sortOrder ソート順（asc/desc）
+     * @param fields 返す項目（カンマ区切り、未指定の場合は OrderSummary のすべての項目）
+     * @return 検索結果と次ページのカーソル
+     */
+    public CursorPage<OrderSummary> searchOrderSummaryByCursorImpl(
+            UUID orderId,
+            UUID customerId,
+            String customerNumber,
+            String customerName,
+            OffsetDateTime orderDateFrom,
+            OffsetDateTime orderDateTo,
+            Integer status,
+            Boolean deleteFlag,
+            String cursor,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            String fields) {
+
+        SparseFields selected = ORDER_SUMMARY_FIELDS.resolve(fields);
+        LambdaQueryWrapper<TOrderSummary> wrapper = buildSummarySearchWrapper(
+                orderId, customerId, customerNumber, customerName, orderDateFrom, orderDateTo, status, deleteFlag);
+        ORDER_SUMMARY_FIELDS.select(wrapper, selected, "orderId", sortBy, "updateDate");
+        return ORDER_SUMMARY_KEYSET.page(wrapper, tOrderSummaryMapper::selectList, cursor, pageSize, sortBy, sortOrder)
+            .map(row -> OrderSummary.of(row, selected));
+    }
+
+    /**
+     * 注文エクスポート処理（明細を含む、注文ID順）
+     * 検索条件に一致する注文を Cursor で読み出しながら出力先へ書き出すため、件数によらずメモリ使用量は一定になる。
+     * 明細は EXPORT_ITEM_BATCH_SIZE 件の注文ごとにまとめて取得する。
+     * 出力先への書き込みに失敗した場合（クライアントの切断など）は Cursor を閉じて検索を打ち切る。
+     * @param format 出力形式（NDJSON: 1行に注文1件、CSV: 1行に明細1件）
+     * @param out 出力先
+     * @return 書き出した行数
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public long exportOrdersImpl(
+            UUID customerId,
+            OffsetDateTime orderDateFrom,
+            OffsetDateTime orderDateTo,
+            Integer status,
+            Boolean deleteFlag,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        LambdaQueryWrapper<TOrder> wrapper = buildSearchWrapper(
+                null, customerId, orderDateFrom, orderDateTo, status, deleteFlag);
+        ExportWriter<OrderDetailResponse> orderWriter = ORDER_EXPORT_COLUMNS.open(format, out, jsonMapper);
+        ExportWriter<OrderItemLine> lineWriter = ORDER_ITEM_LINE_EXPORT_COLUMNS.open(format, out, jsonMapper);
+        try (Cursor<TOrder> cursor = this.getBaseMapper().selectExportCursor(wrapper)) {
+            List<TOrder> batch = new ArrayList<>(EXPORT_ITEM_BATCH_SIZE);
+            for (TOrder order : cursor) {
+                batch.add(order);
+                if (batch.size() == EXPORT_ITEM_BATCH_SIZE) {
+                    writeOrderBatch(batch, format, orderWriter, lineWriter);
+                    batch.clear();
+                }
             }
+            writeOrderBatch(batch, format, orderWriter, lineWriter);
+        }
+        if (format == ExportFormat.CSV) {
+            lineWriter.close();
+            return lineWriter.getRowCount();
+        }
+        orderWriter.close();
+        return orderWriter.getRowCount();
+    }
+
+    /**
+     * 注文の明細をまとめて取得し、注文ID順に書き出す
+     */
+    private void writeOrderBatch(
+            List<TOrder> orders,
+            ExportFormat format,
+            ExportWriter<OrderDetailResponse> orderWriter,
+            ExportWriter<OrderItemLine> lineWriter) throws IOException {
+
+        if (orders.isEmpty()) {
+            return;
         }
+        LambdaQueryWrapper<TOrderItem> itemWrapper = new LambdaQueryWrapper<>();
+        itemWrapper.in(TOrderItem::getOrderId, orders.stream().map(TOrder::getOrderId).toList());
+        Map<UUID, List<TOrderItem>> itemsByOrderId = tOrderItemMapper.selectList(itemWrapper).stream()
+            .collect(Collectors.groupingBy(TOrderItem::getOrderId));
 
-        return this.page(page, wrapper);
+        for (TOrder order : orders) {
+            List<TOrderItem> items = itemsByOrderId.getOrDefault(order.getOrderId(), List.of());
+            if (format == ExportFormat.CSV) {
+                if (items.isEmpty()) {
+                    lineWriter.write(new OrderItemLine(order, null));
+                }
+                for (TOrderItem item : items) {
+                    lineWriter.write(new OrderItemLine(order, item));
+                }
+            } else {
+                OrderDetailResponse detail = new OrderDetailResponse();
+                detail.setOrder(order);
+                detail.setItems(items);
+                orderWriter.write(detail);
+            }
+        }
     }
 
     /**
      * 注文検索条件の共通Wrapper生成
      */
-    private LambdaQueryWrapper<TOrder> buildSearchWrapper(
-            String orderId,
-            String customerId,
+    // visible for benchmark
+    LambdaQueryWrapper<TOrder> buildSearchWrapper(
+            UUID orderId,
+            UUID customerId,
             OffsetDateTime orderDateFrom,
             OffsetDateTime orderDateTo,
             Integer status,
@@ -405,12 +579,12 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
         LambdaQueryWrapper<TOrder> wrapper = new LambdaQueryWrapper<>();
 
         // 注文ID（完全一致）
-        if (orderId != null && !orderId.isEmpty()) {
+        if (orderId != null) {
             wrapper.eq(TOrder::getOrderId, orderId);
         }
 
         // 顧客ID（完全一致）
-        if (customerId != null && !customerId.isEmpty()) {
+        if (customerId != null) {
             wrapper.eq(TOrder::getCustomerId, customerId);
         }
 
@@ -437,28 +611,127 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
         return wrapper;
     }
 
+    /**
+     * 注文一覧（読み取りモデル）の検索条件の共通Wrapper生成
+     * 条件は buildSearchWrapper と同じで、顧客番号・顧客名で絞り込める。
+     */
+    LambdaQueryWrapper<TOrderSummary> buildSummarySearchWrapper(
+            UUID orderId,
+            UUID customerId,
+            String customerNumber,
+            String customerName,
+            OffsetDateTime orderDateFrom,
+            OffsetDateTime orderDateTo,
+            Integer status,
+            Boolean deleteFlag) {
+
+        LambdaQueryWrapper<TOrderSummary> wrapper = new LambdaQueryWrapper<>();
+
+        // 注文ID（完全一致）
+        if (orderId != null) {
+            wrapper.eq(TOrderSummary::getOrderId, orderId);
+        }
+
+        // 顧客ID（完全一致）
+        if (customerId != null) {
+            wrapper.eq(TOrderSummary::getCustomerId, customerId);
+        }
+
+        // 顧客番号（完全一致）
+        if (customerNumber != null && !customerNumber.isEmpty()) {
+            wrapper.eq(TOrderSummary::getCustomerNumber, customerNumber);
+        }
+
+        // 顧客名（部分一致）
+        if (customerName != null && !customerName.isEmpty()) {
+            wrapper.like(TOrderSummary::getCustomerName, customerName);
+        }
+
+        // 注文日時（範囲指定）
+        if (orderDateFrom != null) {
+            wrapper.ge(TOrderSummary::getOrderDate, orderDateFrom);
+        }
+        if (orderDateTo != null) {
+            wrapper.le(TOrderSummary::getOrderDate, orderDateTo);
+        }
+
+        // ステータス（完全一致）
+        if (status != null) {
+            wrapper.eq(TOrderSummary::getStatus, status);
+        }
+
+        // 削除フラグ（未指定時はfalseのみ、明示的に指定した場合のみ削除済みも含める）
+        if (deleteFlag != null) {
+            wrapper.eq(TOrderSummary::getDeleteFlag, deleteFlag);
+        } else {
+            wrapper.eq(TOrderSummary::getDeleteFlag, false);
+        }
+
+        return wrapper;
+    }
+
     /**
      * 注文詳細取得処理
+     * 完了状態（配送完了・キャンセル済み）の注文は OrderDetailCache から返す。
      * @param orderId 注文ID
      * @return 注文詳細情報
      */
-    public OrderDetailResponse getOrderDetailImpl(String orderId) {
-        // 1. 注文の存在確認
-        TOrder order = this.getById(orderId);
-        Option.of(order)
-            .filter(o -> !Boolean.TRUE.equals(o.getDeleteFlag()))
+    public OrderDetailResponse getOrderDetailImpl(UUID orderId) {
+        return orderDetailCache.get(orderId, this::loadOrderDetail);
+    }
+
+    /**
+     * 注文詳細の ETag 取得処理（DBは参照しない）
+     * @param orderId 注文ID
+     * @return 最後に読み込んだ時点の ETag（不明な場合はnull）
+     */
+    public String getOrderDetailETagImpl(UUID orderId) {
+        return orderDetailCache.etag(orderId);
+    }
+
+    /**
+     * 注文と注文明細を1回のSQLで読み込み、注文詳細を作成する
+     */
+    private OrderDetailResponse loadOrderDetail(UUID orderId) {
+        // 1. 注文と注文明細を取得（注文の存在確認を兼ねる）
+        List<TOrderMapper.OrderDetailRow> rows = this.getBaseMapper().selectDetailRows(orderId);
+        TOrderMapper.OrderDetailRow head = Option.ofOptional(rows.stream().findFirst())
             .getOrElseThrow(() -> new RuntimeException("注文が存在しません: orderId=" + orderId));
-        
-        // 2. 注文明細を取得
-        LambdaQueryWrapper<TOrderItem> itemWrapper = new LambdaQueryWrapper<>();
-        itemWrapper.eq(TOrderItem::getOrderId, orderId);
-        List<TOrderItem> orderItems = tOrderItemMapper.selectList(itemWrapper);
-        
-        // 3. レスポンスを作成
+
+        // 2. 注文（各行に同じ値が入っているため先頭行から作成）
+        TOrder order = new TOrder();
+        order.setOrderId(head.getOrderId());
+        order.setCustomerId(head.getCustomerId());
+        order.setOrderDate(head.getOrderDate());
+        order.setStatus(head.getStatus());
+        order.setDeleteFlag(head.getDeleteFlag());
+        order.setCreateUser(head.getCreateUser());
+        order.setCreateDate(head.getCreateDate());
+        order.setUpdateUser(head.getUpdateUser());
+        order.setUpdateDate(head.getUpdateDate());
+
+        // 3. 注文明細（明細のない注文は明細の列がnullの1行のみ）
+        List<TOrderItem> orderItems = new ArrayList<>(rows.size());
+        for (TOrderMapper.OrderDetailRow row : rows) {
+            if (row.getItemOrderItemId() == null) {
+                continue;
+            }
+            TOrderItem item = new TOrderItem();
+            item.setOrderItemId(row.getItemOrderItemId());
+            item.setOrderId(row.getOrderId());
+            item.setProductId(row.getItemProductId());
+            item.setQuantity(row.getItemQuantity());
+            item.setUnitPrice(row.getItemUnitPrice());
+            item.setCreateDate(row.getItemCreateDate());
+            item.setUpdateDate(row.getItemUpdateDate());
+            orderItems.add(item);
+        }
+
+        // 4. レスポンスを作成
         OrderDetailResponse response = new OrderDetailResponse();
         response.setOrder(order);
         response.setItems(orderItems);
-        
+
         return response;
     }
 
@@ -468,7 +741,7 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
      * @return キャンセル成功の場合true
      */
     @Transactional
-    public boolean cancelOrderImpl(String orderId) {
+    public boolean cancelOrderImpl(UUID orderId) {
         // 1. 注文の存在確認
         TOrder order = this.getById(orderId);
         Option.of(order)
@@ -497,14 +770,14 @@ public class OrderServiceImpl extends ServiceImpl<TOrderMapper, TOrder> implemen
             LambdaQueryWrapper<TOrderItem> itemWrapper = new LambdaQueryWrapper<>();
             itemWrapper.eq(TOrderItem::getOrderId, orderId);
             List<TOrderItem> orderItems = tOrderItemMapper.selectList(itemWrapper);
-            for (TOrderItem orderItem : orderItems) {
-                stockOperationPort.returnStock(orderItem.getProductId(), orderItem.getQuantity());
-            }
+            stockOperationPort.returnStockBatch(toQuantityMap(orderItems));
         }
         
         // 4. 注文ステータスを「キャンセル済み（6）」に更新
         order.setStatus(6);
         this.updateById(order);
+        orderSummaryProjector.statusChanged(orderId, 6);
+        orderDetailCache.invalidate(orderId);
         
         return true;
     }
@@ -1,13 +1,14 @@
 package com.playjava.application.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.usecase.dto.CustomerSummary;
 import com.playjava.usecase.service.impl.MCustomerServiceImpl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,16 +23,6 @@ class MCustomerControllerTest {
     @Autowired
     private MCustomerServiceImpl mCustomerService;
 
-    @BeforeEach
-    void setUp() {
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("POST /api/v1/customers - 顧客作成が成功すること")
     void testCreateCustomer_Success() {
@@ -51,7 +42,7 @@ class MCustomerControllerTest {
         customer.setMobileNumber("09011112222");
         mCustomerController.createCustomer(customer);
 
-        String customerId = customer.getCustomerId();
+        UUID customerId = customer.getCustomerId();
         customer.setCustomerName("after_update");
 
         assertDoesNotThrow(() -> mCustomerController.updateCustomer(customer));
@@ -68,7 +59,7 @@ class MCustomerControllerTest {
         customer.setMobileNumber("09033334444");
         mCustomerController.createCustomer(customer);
 
-        String customerId = customer.getCustomerId();
+        UUID customerId = customer.getCustomerId();
 
         assertDoesNotThrow(() -> mCustomerController.deleteCustomer(customerId));
         assertNull(mCustomerService.getById(customerId), "論理削除後は取得できないこと");
@@ -84,9 +75,9 @@ class MCustomerControllerTest {
             mCustomerController.createCustomer(c);
         }
 
-        IPage<MCustomer> page1 = mCustomerController.searchCustomer(
+        IPage<CustomerSummary> page1 = mCustomerController.searchCustomer(
                 null, "paging_customer_", null, null, null, null,
-                1, 10, "updateDate", "desc");
+                1, 10, "updateDate", "desc", "exact", null);
 
         assertNotNull(page1, "ページング結果が取得できること");
         assertEquals(1, page1.getCurrent(), "現在のページ番号が1であること");
@@ -2,11 +2,11 @@ package com.playjava.application.controller;
 
 import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.entity.MUser;
+import com.playjava.usecase.dto.UserSummary;
 import com.playjava.usecase.service.impl.MUserServiceImpl;
 import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.usecase.handler.UuidFactory;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,18 +29,6 @@ class MUserControllerTest {
     @Autowired
     private MUserServiceImpl mUserService;
 
-    @BeforeEach
-    void setUp() {
-        // 各テストの前にUserContextをクリア
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        // 各テストの後にUserContextをクリア
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("POST /api/v1/users/createUser - ユーザー作成が成功すること")
     void testCreateUser_Success() {
@@ -138,7 +127,7 @@ class MUserControllerTest {
         user.setPassword("updatepass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         
         // 更新内容を設定
         user.setUserName("updated");
@@ -183,7 +172,7 @@ class MUserControllerTest {
         user.setPassword("dbpass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         String originalUserName = user.getUserName();
         
         // 更新内容を設定
@@ -211,7 +200,7 @@ class MUserControllerTest {
         user.setPassword("updatepass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         
         // 更新内容を設定
         user.setUserName("infoupdated");
@@ -223,7 +212,7 @@ class MUserControllerTest {
         MUser updatedUser = mUserService.getById(userId);
         assertNotNull(updatedUser.getUpdateUser(), "updateUserが設定されていること");
         assertNotNull(updatedUser.getUpdateDate(), "updateDateが設定されていること");
-        assertEquals(userId, updatedUser.getUpdateUser(), 
+        assertEquals(userId.toString(), updatedUser.getUpdateUser(), 
             "updateUserが設定されていること（自分自身で更新）");
     }
 
@@ -235,13 +224,13 @@ class MUserControllerTest {
         user1.setUserName("multiupdate1");
         user1.setPassword("pass1");
         mUserController.createUser(user1);
-        String userId1 = user1.getUserId();
+        UUID userId1 = user1.getUserId();
 
         MUser user2 = new MUser();
         user2.setUserName("multiupdate2");
         user2.setPassword("pass2");
         mUserController.createUser(user2);
-        String userId2 = user2.getUserId();
+        UUID userId2 = user2.getUserId();
         
         // 更新内容を設定
         user1.setUserName("updated1");
@@ -262,8 +251,9 @@ class MUserControllerTest {
     @DisplayName("存在しないユーザーの更新は失敗すること")
     void testUpdateUser_NonExistentUser() {
         // Given: 存在しないユーザーID
+        UUID nonExistentId = UuidFactory.newUuid();
         MUser user = new MUser();
-        user.setUserId("non-existent-id");
+        user.setUserId(nonExistentId);
         user.setUserName("nonexistent");
         user.setPassword("pass");
 
@@ -271,7 +261,7 @@ class MUserControllerTest {
         mUserController.updateUser(user);
         
         // Then: データベースには存在しないこと
-        MUser result = mUserService.getById("non-existent-id");
+        MUser result = mUserService.getById(nonExistentId);
         assertNull(result, "存在しないユーザーは更新されないこと");
     }
 
@@ -284,7 +274,7 @@ class MUserControllerTest {
         user.setPassword("deletepass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
 
         // When: コントローラーを呼び出し
         assertDoesNotThrow(() -> mUserController.deleteUser(userId), 
@@ -304,7 +294,7 @@ class MUserControllerTest {
         user.setPassword("contextpass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
 
         // When: 削除コントローラーを呼び出す
         mUserController.deleteUser(userId);
@@ -324,7 +314,7 @@ class MUserControllerTest {
         user.setPassword("deletepass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         
         // 削除前は取得できることを確認
         MUser beforeDelete = mUserService.getById(userId);
@@ -346,13 +336,13 @@ class MUserControllerTest {
         user1.setUserName("multidelete1");
         user1.setPassword("pass1");
         mUserController.createUser(user1);
-        String userId1 = user1.getUserId();
+        UUID userId1 = user1.getUserId();
 
         MUser user2 = new MUser();
         user2.setUserName("multidelete2");
         user2.setPassword("pass2");
         mUserController.createUser(user2);
-        String userId2 = user2.getUserId();
+        UUID userId2 = user2.getUserId();
 
         // When: 複数のリクエストを連続で処理
         mUserController.deleteUser(userId1);
@@ -374,7 +364,7 @@ class MUserControllerTest {
         user.setPassword("workflowpass");
         mUserController.createUser(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         
         // 作成されたことを確認
         MUser createdUser = mUserService.getById(userId);
@@ -402,7 +392,7 @@ class MUserControllerTest {
     @DisplayName("存在しないユーザーIDでの削除は例外をスローしないこと")
     void testDeleteUser_NonExistentUser() {
         // Given: 存在しないユーザーID
-        String nonExistentId = "non-existent-id-123";
+        UUID nonExistentId = UuidFactory.newUuid();
 
         // When & Then: コントローラーを呼び出しても例外が発生しないこと
         assertDoesNotThrow(() -> mUserController.deleteUser(nonExistentId), 
@@ -431,7 +421,7 @@ class MUserControllerTest {
         // When: "alice"で検索
         MUser searchCondition = new MUser();
         searchCondition.setUserName("alice");
-        List<MUser> results = mUserController.searchUserSimple(searchCondition);
+        List<UserSummary> results = mUserController.searchUserSimple(searchCondition, null);
 
         // Then: aliceを含むユーザーが取得できること
         assertNotNull(results, "検索結果が取得できること");
@@ -456,7 +446,7 @@ class MUserControllerTest {
 
         // When: 検索条件なしで検索
         MUser searchCondition = new MUser();
-        List<MUser> results = mUserController.searchUserSimple(searchCondition);
+        List<UserSummary> results = mUserController.searchUserSimple(searchCondition, null);
 
         // Then: 全ユーザーが取得できること
         assertNotNull(results, "検索結果が取得できること");
@@ -471,7 +461,7 @@ class MUserControllerTest {
         user1.setUserName("exclude_api_1");
         user1.setPassword("pass1");
         mUserController.createUser(user1);
-        String userId1 = user1.getUserId();
+        UUID userId1 = user1.getUserId();
 
         MUser user2 = new MUser();
         user2.setUserName("exclude_api_2");
@@ -484,7 +474,7 @@ class MUserControllerTest {
         // When: "exclude_api"で検索
         MUser searchCondition = new MUser();
         searchCondition.setUserName("exclude_api");
-        List<MUser> results = mUserController.searchUserSimple(searchCondition);
+        List<UserSummary> results = mUserController.searchUserSimple(searchCondition, null);
 
         // Then: 削除されていないuser2のみが取得できること
         assertNotNull(results, "検索結果が取得できること");
@@ -512,7 +502,7 @@ class MUserControllerTest {
         // When: "partial"で検索
         MUser searchCondition = new MUser();
         searchCondition.setUserName("partial");
-        List<MUser> results = mUserController.searchUserSimple(searchCondition);
+        List<UserSummary> results = mUserController.searchUserSimple(searchCondition, null);
 
         // Then: partialを含むユーザーが取得できること
         assertNotNull(results, "検索結果が取得できること");
@@ -529,7 +519,7 @@ class MUserControllerTest {
         // When: 存在しないユーザー名で検索
         MUser searchCondition = new MUser();
         searchCondition.setUserName("nonexistent_api_xyz_99999");
-        List<MUser> results = mUserController.searchUserSimple(searchCondition);
+        List<UserSummary> results = mUserController.searchUserSimple(searchCondition, null);
 
         // Then: 空のリストが返ること
         assertNotNull(results, "検索結果がnullではないこと");
@@ -545,13 +535,10 @@ class MUserControllerTest {
         user.setPassword("pass");
         mUserController.createUser(user);
 
-        // UserContextをクリア
-        UserContext.clear();
-
         // When: 検索を実行
         MUser searchCondition = new MUser();
         searchCondition.setUserName("sideeffect");
-        mUserController.searchUserSimple(searchCondition);
+        mUserController.searchUserSimple(searchCondition, null);
 
         // Then: UserContextが変更されていないこと
         String currentUserId = UserContext.getCurrentUserId();
@@ -567,12 +554,12 @@ class MUserControllerTest {
         user.setUserName("workflow_search");
         user.setPassword("pass");
         mUserController.createUser(user);
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
 
         // 検索して存在を確認
         MUser searchCondition1 = new MUser();
         searchCondition1.setUserName("workflow_search");
-        List<MUser> results1 = mUserController.searchUserSimple(searchCondition1);
+        List<UserSummary> results1 = mUserController.searchUserSimple(searchCondition1, null);
         assertEquals(1, results1.size(), "作成後に検索で取得できること");
 
         // ユーザー名を更新
@@ -582,18 +569,18 @@ class MUserControllerTest {
         // 更新後の名前で検索
         MUser searchCondition2 = new MUser();
         searchCondition2.setUserName("workflow_updated");
-        List<MUser> results2 = mUserController.searchUserSimple(searchCondition2);
+        List<UserSummary> results2 = mUserController.searchUserSimple(searchCondition2, null);
         assertEquals(1, results2.size(), "更新後の名前で検索できること");
 
         // 元の名前では検索できないことを確認
-        List<MUser> results3 = mUserController.searchUserSimple(searchCondition1);
+        List<UserSummary> results3 = mUserController.searchUserSimple(searchCondition1, null);
         assertTrue(results3.isEmpty(), "元の名前では検索できないこと");
 
         // ユーザーを削除
         mUserController.deleteUser(userId);
 
         // 削除後は検索できないことを確認
-        List<MUser> results4 = mUserController.searchUserSimple(searchCondition2);
+        List<UserSummary> results4 = mUserController.searchUserSimple(searchCondition2, null);
         assertTrue(results4.isEmpty(), "削除後は検索できないこと");
     }
 
@@ -609,7 +596,7 @@ class MUserControllerTest {
         }
 
         // When: 1ページ目を取得（10件）
-        IPage<MUser> page1 = mUserController.searchUser("paging_api", 1, 10, "createDate", "asc");
+        IPage<UserSummary> page1 = mUserController.searchUser("paging_api", 1, 10, "createDate", "asc", "exact", null);
 
         // Then: ページング情報が正しいこと
         assertNotNull(page1, "ページング結果が取得できること");
@@ -620,7 +607,7 @@ class MUserControllerTest {
         assertEquals(10, page1.getRecords().size(), "1ページ目のレコード数が10件であること");
 
         // When: 2ページ目を取得
-        IPage<MUser> page2 = mUserController.searchUser("paging_api", 2, 10, "createDate", "asc");
+        IPage<UserSummary> page2 = mUserController.searchUser("paging_api", 2, 10, "createDate", "asc", "exact", null);
 
         // Then: 2ページ目の情報が正しいこと
         assertEquals(2, page2.getCurrent(), "現在のページ番号が2であること");
@@ -647,10 +634,10 @@ class MUserControllerTest {
         mUserController.createUser(user3);
 
         // When: ユーザー名で昇順ソート
-        IPage<MUser> result = mUserController.searchUser("sort_api", 1, 10, "userName", "asc");
+        IPage<UserSummary> result = mUserController.searchUser("sort_api", 1, 10, "userName", "asc", "exact", null);
 
         // Then: ユーザー名が昇順で並んでいること
-        List<MUser> records = result.getRecords();
+        List<UserSummary> records = result.getRecords();
         assertEquals(3, records.size(), "検索結果が3件であること");
         assertEquals("sort_api_a", records.get(0).getUserName(), "1番目がsort_api_aであること");
         assertEquals("sort_api_b", records.get(1).getUserName(), "2番目がsort_api_bであること");
@@ -672,10 +659,10 @@ class MUserControllerTest {
         mUserController.createUser(user2);
 
         // When: ユーザー名で降順ソート
-        IPage<MUser> result = mUserController.searchUser("desc_api", 1, 10, "userName", "desc");
+        IPage<UserSummary> result = mUserController.searchUser("desc_api", 1, 10, "userName", "desc", "exact", null);
 
         // Then: ユーザー名が降順で並んでいること
-        List<MUser> records = result.getRecords();
+        List<UserSummary> records = result.getRecords();
         assertEquals(2, records.size(), "検索結果が2件であること");
         assertEquals("desc_api_2", records.get(0).getUserName(), "1番目がdesc_api_2であること");
         assertEquals("desc_api_1", records.get(1).getUserName(), "2番目がdesc_api_1であること");
@@ -693,7 +680,7 @@ class MUserControllerTest {
         }
 
         // When: パラメータなしで検索（デフォルト値使用）
-        IPage<MUser> result = mUserController.searchUser(null, 1, 10, "createDate", "desc");
+        IPage<UserSummary> result = mUserController.searchUser(null, 1, 10, "createDate", "desc", "exact", null);
 
         // Then: デフォルト値が適用されていること
         assertNotNull(result, "検索結果が取得できること");
@@ -713,7 +700,7 @@ class MUserControllerTest {
         }
 
         // When: ページサイズ20で取得
-        IPage<MUser> result = mUserController.searchUser("pagesize_api", 1, 20, "createDate", "asc");
+        IPage<UserSummary> result = mUserController.searchUser("pagesize_api", 1, 20, "createDate", "asc", "exact", null);
 
         // Then: ページング情報が正しいこと
         assertEquals(20, result.getSize(), "ページサイズが20であること");
@@ -758,7 +745,7 @@ class MUserControllerTest {
         user.setUserName("exclude_api_test");
         user.setPassword("password123");
         mUserController.createUser(user);
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
 
         // When: 自分自身のIDを除外してチェック
         boolean exists = mUserController.existsByUserName("exclude_api_test", userId);
@@ -796,7 +783,7 @@ class MUserControllerTest {
         user2.setUserName("update_check_2");
         user2.setPassword("password456");
         mUserController.createUser(user2);
-        String userId2 = user2.getUserId();
+        UUID userId2 = user2.getUserId();
 
         // When: user2がuser1の名前に変更しようとしてチェック
         boolean exists = mUserController.existsByUserName("update_check_1", userId2);
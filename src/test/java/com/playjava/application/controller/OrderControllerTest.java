@@ -1,28 +1,34 @@
 package com.playjava.application.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.frameworks.context.UserContext;
+import com.playjava.testsupport.RunAsUser;
 import com.playjava.usecase.dto.CreateOrderRequest;
 import com.playjava.usecase.dto.OrderDetailResponse;
 import com.playjava.usecase.dto.OrderItemRequest;
+import com.playjava.usecase.dto.OrderSummary;
 import com.playjava.enterprise.entity.*;
 import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
 import com.playjava.frameworks.mapper.*;
 import com.playjava.usecase.service.impl.MCustomerServiceImpl;
 import com.playjava.usecase.service.impl.MStockServiceImpl;
 import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.usecase.handler.UuidFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@RunAsUser("test-user-id")
 @DisplayName("OrderController テスト")
 class OrderControllerTest {
 
@@ -49,9 +55,6 @@ class OrderControllerTest {
 
     @BeforeEach
     void setUp() {
-        UserContext.clear();
-        UserContext.setCurrentUserId("test-user-id");
-
         // テスト用顧客を作成
         testCustomer = new MCustomer();
         testCustomer.setCustomerName("テスト顧客");
@@ -62,6 +65,7 @@ class OrderControllerTest {
         // テスト用商品を作成
         long timestamp = System.currentTimeMillis() % 1000000; // 6桁に制限
         testProduct1 = new MProduct();
+        testProduct1.setProductId(UuidFactory.newUuid());
         testProduct1.setProductNumber(String.format("P%06d1", timestamp));
         testProduct1.setProductName("テスト商品1");
         testProduct1.setPrice(1000);
@@ -69,6 +73,7 @@ class OrderControllerTest {
         productMapper.insert(testProduct1);
 
         testProduct2 = new MProduct();
+        testProduct2.setProductId(UuidFactory.newUuid());
         testProduct2.setProductNumber(String.format("P%06d2", timestamp));
         testProduct2.setProductName("テスト商品2");
         testProduct2.setPrice(2000);
@@ -89,11 +94,6 @@ class OrderControllerTest {
         stockService.createStockImpl(testStock2);
     }
 
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("POST /api/v1/orders/store-purchase - 店舗購入の注文作成が成功すること")
     void testCreateStorePurchaseOrder_Success() {
@@ -106,7 +106,7 @@ class OrderControllerTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderController.createStorePurchaseOrder(request);
+        UUID orderId = UUID.fromString(orderController.createStorePurchaseOrder(request));
 
         assertNotNull(orderId, "注文IDが返されること");
         
@@ -150,7 +150,7 @@ class OrderControllerTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderController.createSpecialOrder(request);
+        UUID orderId = UUID.fromString(orderController.createSpecialOrder(request));
 
         assertNotNull(orderId, "注文IDが返されること");
         
@@ -172,7 +172,7 @@ class OrderControllerTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderController.createCustomOrder(request);
+        UUID orderId = UUID.fromString(orderController.createCustomOrder(request));
 
         assertNotNull(orderId, "注文IDが返されること");
         
@@ -194,7 +194,7 @@ class OrderControllerTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderController.createCancelledOrder(request);
+        UUID orderId = UUID.fromString(orderController.createCancelledOrder(request));
 
         assertNotNull(orderId, "注文IDが返されること");
         
@@ -216,7 +216,7 @@ class OrderControllerTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderController.createSpecialOrder(request);
+        UUID orderId = UUID.fromString(orderController.createSpecialOrder(request));
 
         // 注文確定
         assertDoesNotThrow(() -> orderController.confirmOrder(orderId), "注文確定が成功すること");
@@ -251,9 +251,9 @@ class OrderControllerTest {
         orderController.createSpecialOrder(request2);
 
         // 注文一覧を検索
-        IPage<TOrder> result = orderController.searchOrder(
-            null, testCustomer.getCustomerId(), null, null, null, false,
-            1, 10, "orderDate", "desc"
+        IPage<OrderSummary> result = orderController.searchOrder(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            1, 10, "orderDate", "desc", "exact", null
         );
 
         assertNotNull(result, "検索結果が取得できること");
@@ -272,10 +272,10 @@ class OrderControllerTest {
         item1.setQuantity(2);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderController.createStorePurchaseOrder(request);
+        UUID orderId = UUID.fromString(orderController.createStorePurchaseOrder(request));
 
         // 注文詳細を取得
-        OrderDetailResponse response = orderController.getOrderDetail(orderId);
+        OrderDetailResponse response = orderController.getOrderDetail(orderId, null).getBody();
 
         assertNotNull(response, "注文詳細が取得できること");
         assertNotNull(response.getOrder(), "注文情報が含まれること");
@@ -284,6 +284,37 @@ class OrderControllerTest {
         assertEquals(1, response.getItems().size(), "注文明細が1件であること");
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders/{orderId} - ETag が一致する場合は304を返し、注文確定後は新しい注文詳細を返すこと")
+    void testGetOrderDetail_NotModified() {
+        // Given: 取り寄せ注文を作成し、注文詳細の ETag を取得
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        List<OrderItemRequest> items = new ArrayList<>();
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(testProduct1.getProductId());
+        item.setQuantity(1);
+        items.add(item);
+        request.setItems(items);
+        UUID orderId = UUID.fromString(orderController.createSpecialOrder(request));
+        ResponseEntity<OrderDetailResponse> first = orderController.getOrderDetail(orderId, null);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag, "ETag が返ること");
+        assertFalse(etag.startsWith("W/"), "強い ETag であること");
+
+        // When/Then: 同じ ETag を指定すると304が返ること
+        ResponseEntity<OrderDetailResponse> notModified = orderController.getOrderDetail(orderId, etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode(), "304が返ること");
+        assertNull(notModified.getBody(), "本文は返らないこと");
+
+        // When/Then: 注文確定後は同じ ETag を指定しても新しい注文詳細が返ること
+        orderController.confirmOrder(orderId);
+        ResponseEntity<OrderDetailResponse> confirmed = orderController.getOrderDetail(orderId, etag);
+        assertEquals(HttpStatus.OK, confirmed.getStatusCode(), "200が返ること");
+        assertEquals(1, confirmed.getBody().getOrder().getStatus(), "確定後の注文詳細が返ること");
+        assertNotEquals(etag, confirmed.getHeaders().getETag(), "ETag が変わること");
+    }
+
     @Test
     @DisplayName("PUT /api/v1/orders/{orderId}/cancel - 注文キャンセルが成功すること")
     void testCancelOrder_Success() {
@@ -296,7 +327,7 @@ class OrderControllerTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderController.createStorePurchaseOrder(request);
+        UUID orderId = UUID.fromString(orderController.createStorePurchaseOrder(request));
 
         // 注文をキャンセル
         assertDoesNotThrow(() -> orderController.cancelOrder(orderId), "注文キャンセルが成功すること");
@@ -0,0 +1,57 @@
+package com.playjava.frameworks.adapter.customer;
+
+import com.playjava.usecase.handler.UuidFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CustomerBloomFilter テスト")
+class CustomerBloomFilterTest {
+
+    @Test
+    @DisplayName("登録した顧客IDは必ず含まれると判定されること（偽陰性なし）")
+    void testMightContain_NoFalseNegatives() {
+        // Given: 容量いっぱいまで顧客IDを登録
+        CustomerBloomFilter filter = new CustomerBloomFilter(10_000, 0.01);
+        List<UUID> customerIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID customerId = UuidFactory.newUuid();
+            customerIds.add(customerId);
+            filter.put(customerId);
+        }
+
+        // When/Then: 全て含まれると判定されること
+        assertTrue(customerIds.stream().allMatch(filter::mightContain), "登録した顧客IDが全て含まれること");
+        assertEquals(10_000, filter.insertions(), "登録件数が記録されていること");
+    }
+
+    @Test
+    @DisplayName("偽陽性率が想定の範囲に収まり、推定値も近い値になること")
+    void testMightContain_FalsePositiveRate() {
+        // Given: 容量いっぱいまで顧客IDを登録
+        CustomerBloomFilter filter = new CustomerBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UuidFactory.newUuid());
+        }
+
+        // When: 登録していない顧客IDを判定
+        int falsePositives = 0;
+        int trials = 100_000;
+        for (int i = 0; i < trials; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        // Then: 偽陽性率が想定（1%）の2倍未満であること
+        double rate = (double) falsePositives / trials;
+        assertTrue(rate < 0.02, "偽陽性率が想定の範囲内であること: rate=" + rate);
+        assertTrue(filter.expectedFpp() < 0.02, "推定偽陽性率が想定の範囲内であること: expected=" + filter.expectedFpp());
+        assertTrue(filter.memoryBytes() > 0, "メモリ使用量が取得できること");
+    }
+}
@@ -0,0 +1,103 @@
+package com.playjava.frameworks.adapter.customer;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.usecase.handler.UuidFactory;
+import com.playjava.usecase.port.customer.CustomerExistencePort;
+import com.playjava.usecase.service.impl.MCustomerServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional // テスト後にロールバック
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("CustomerExistenceAdapter テスト")
+class CustomerExistenceAdapterTest {
+
+    @Autowired
+    private CustomerExistencePort customerExistencePort;
+
+    @Autowired
+    private MCustomerServiceImpl customerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * テスト用の顧客を作成するヘルパーメソッド
+     */
+    private MCustomer createTestCustomer() {
+        MCustomer customer = new MCustomer();
+        customer.setCustomerName("存在確認テスト顧客");
+        customer.setAddress("東京都");
+        customer.setMobileNumber("09012345678");
+        customerService.createCustomerImpl(customer);
+        return customer;
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("customer.existence.index.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("登録した顧客はDBで確認したうえで存在すると判定されること")
+    void testExistsActiveCustomer_Created() {
+        // Given
+        MCustomer customer = createTestCustomer();
+        double confirmedBefore = lookups("confirmed");
+
+        // When/Then
+        assertTrue(customerExistencePort.existsActiveCustomer(customer.getCustomerId()), "登録した顧客が存在すること");
+        assertEquals(confirmedBefore + 1, lookups("confirmed"), "DBでの確認件数が記録されること");
+    }
+
+    @Test
+    @DisplayName("削除した顧客は存在しないと判定されること")
+    void testExistsActiveCustomer_Deleted() {
+        // Given
+        MCustomer customer = createTestCustomer();
+        customerService.deleteCustomerImpl(customer.getCustomerId());
+
+        // When/Then
+        assertFalse(customerExistencePort.existsActiveCustomer(customer.getCustomerId()), "削除した顧客は存在しないこと");
+    }
+
+    @Test
+    @DisplayName("インデックスにない顧客IDはDBに問い合わせずに否定されること")
+    void testExistsActiveCustomer_DefiniteNegative() {
+        // Given: 本アプリケーションでは採番しない形式（UUIDv4）の顧客ID
+        double negativeBefore = lookups("negative");
+
+        // When/Then
+        assertFalse(customerExistencePort.existsActiveCustomer(UUID.randomUUID()), "存在しないと判定されること");
+        assertEquals(negativeBefore + 1, lookups("negative"), "DBに問い合わせずに否定した件数が記録されること");
+    }
+
+    @Test
+    @DisplayName("取り込み前の可能性がある新しいUUIDv7の顧客IDはDBで確認されること")
+    void testExistsActiveCustomer_RecentIdConfirmedByDatabase() {
+        // Given: 直前に採番した（どのインスタンスでも登録されていない）顧客ID
+        UUID customerId = UuidFactory.newUuid();
+        double falsePositiveBefore = lookups("false_positive");
+
+        // When/Then
+        assertFalse(customerExistencePort.existsActiveCustomer(customerId), "存在しないと判定されること");
+        assertEquals(falsePositiveBefore + 1, lookups("false_positive"), "DBで否定した件数が記録されること");
+    }
+
+    @Test
+    @DisplayName("メモリ使用量と推定偽陽性率がメトリクスに出力されること")
+    void testMetrics() {
+        assertTrue(meterRegistry.get("customer.existence.index.memory").gauge().value() > 0, "メモリ使用量が出力されること");
+        assertTrue(meterRegistry.get("customer.existence.index.expected.fpp").gauge().value() < 0.01, "推定偽陽性率が出力されること");
+    }
+}
@@ -0,0 +1,383 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.testsupport.StockFixture;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.frameworks.mapper.StockLedgerCheckpointMapper;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.usecase.service.impl.MStockServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockLedgerAdapter のテスト。
+ * 台帳の反映タイミングをテスト側で制御するため、自動反映の間隔は十分に長く設定し、flush() を明示的に呼び出す。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "playjava.inventory.engine=ledger",
+    "playjava.inventory.ledger.journal-dir=${java.io.tmpdir}/playjava-stock-ledger-${random.uuid}",
+    "playjava.inventory.ledger.flush-interval-ms=600000",
+    "playjava.inventory.ledger.journal-fsync=false"
+})
+@Import(StockFixture.class)
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("StockLedgerAdapter テスト")
+class StockLedgerAdapterTest {
+
+    @Autowired
+    private StockLedgerAdapter stockLedgerAdapter;
+
+    @Autowired
+    private StockFixture stockFixture;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private StockLedgerCheckpointMapper stockLedgerCheckpointMapper;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MStockServiceImpl mStockService;
+
+    private MProduct testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = stockFixture.createProduct("SLA0001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockLedgerAdapter.flush();
+        stockFixture.deleteAll();
+    }
+
+    @Test
+    @DisplayName("減算結果が台帳に即時反映され、反映後に m_stock に書き込まれること")
+    void testDeductStock_WriteBehind() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 10);
+
+        // When
+        stockLedgerAdapter.deductStock(testProduct.getProductId(), 3);
+
+        // Then
+        assertEquals(7, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "台帳の数量が即時に減算されていること");
+        assertEquals(10, mStockMapper.selectById(stock.getStockId()).getQuantity(), "反映前は m_stock が更新されていないこと");
+
+        stockLedgerAdapter.flush();
+        assertEquals(7, mStockMapper.selectById(stock.getStockId()).getQuantity(), "反映後は m_stock に書き込まれていること");
+    }
+
+    @Test
+    @DisplayName("在庫が0になるまで減算した場合、反映後にステータスが在庫なしになること")
+    void testDeductStock_ToZero() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 5);
+
+        // When
+        stockLedgerAdapter.deductStock(testProduct.getProductId(), 5);
+        stockLedgerAdapter.flush();
+
+        // Then
+        MStock updated = mStockMapper.selectById(stock.getStockId());
+        assertEquals(0, updated.getQuantity());
+        assertEquals(1, updated.getStatus(), "ステータスが1（在庫なし）になっていること");
+    }
+
+    @Test
+    @DisplayName("在庫不足の場合は例外が発生し、台帳が変更されないこと")
+    void testDeductStock_Insufficient() {
+        // Given
+        stockFixture.createStock(testProduct, 2);
+
+        // When
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockLedgerAdapter.deductStock(testProduct.getProductId(), 3));
+
+        // Then
+        assertEquals(1, exception.getInsufficientItems().size());
+        assertEquals(2, exception.getInsufficientItems().get(0).getAvailableQuantity());
+        assertEquals(3, exception.getInsufficientItems().get(0).getRequestedQuantity());
+        assertEquals(2, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "台帳の数量が変わっていないこと");
+    }
+
+    @Test
+    @DisplayName("在庫レコードが存在しない場合は例外が発生すること")
+    void testDeductStock_NotFound() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockLedgerAdapter.deductStock(testProduct.getProductId(), 1));
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"));
+    }
+
+    @Test
+    @DisplayName("一括減算で1件でも不足があれば、不足商品をすべて報告し何も減算しないこと")
+    void testDeductStockBatch_Insufficient() {
+        // Given
+        MProduct product2 = stockFixture.createProduct("SLA0002");
+        MProduct product3 = stockFixture.createProduct("SLA0003");
+        stockFixture.createStock(testProduct, 10);
+        stockFixture.createStock(product2, 1);
+        stockFixture.createStock(product3, 0);
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 5);
+        quantities.put(product2.getProductId(), 2);
+        quantities.put(product3.getProductId(), 1);
+
+        // When
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockLedgerAdapter.deductStockBatch(quantities));
+
+        // Then
+        assertEquals(2, exception.getInsufficientItems().size(), "不足している2商品が報告されること");
+        assertEquals(10, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "不足のない商品も減算されないこと");
+    }
+
+    @Test
+    @DisplayName("一括減算・一括戻しが反映後に m_stock に書き込まれること")
+    void testDeductAndReturnStockBatch() {
+        // Given
+        MProduct product2 = stockFixture.createProduct("SLA0002");
+        MStock stock1 = stockFixture.createStock(testProduct, 10);
+        MStock stock2 = stockFixture.createStock(product2, 4);
+
+        // When
+        stockLedgerAdapter.deductStockBatch(Map.of(testProduct.getProductId(), 6, product2.getProductId(), 4));
+        stockLedgerAdapter.returnStockBatch(Map.of(testProduct.getProductId(), 1, product2.getProductId(), 2));
+        stockLedgerAdapter.flush();
+
+        // Then
+        MStock updated1 = mStockMapper.selectById(stock1.getStockId());
+        MStock updated2 = mStockMapper.selectById(stock2.getStockId());
+        assertEquals(5, updated1.getQuantity());
+        assertEquals(2, updated2.getQuantity());
+        assertEquals(0, updated2.getStatus(), "一度0になった商品も戻し後は在庫あり(0)になっていること");
+    }
+
+    @Test
+    @DisplayName("減算後に呼び出し元のトランザクションがロールバックされた場合、台帳の数量が元に戻ること")
+    void testDeductStockBatch_RollbackCompensated() {
+        // Given
+        MProduct product2 = stockFixture.createProduct("SLA0003");
+        MStock stock1 = stockFixture.createStock(testProduct, 10);
+        MStock stock2 = stockFixture.createStock(product2, 4);
+
+        // When: 減算後に注文の登録が失敗したものとしてトランザクションをロールバック
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            stockLedgerAdapter.deductStockBatch(Map.of(testProduct.getProductId(), 6, product2.getProductId(), 4));
+            assertEquals(4, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "トランザクション中は減算されていること");
+            throw new IllegalStateException("注文の登録に失敗");
+        }));
+
+        // Then: 台帳・m_stock ともに減算前の数量であること
+        assertEquals(10, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "台帳の数量が元に戻ること");
+        assertEquals(4, stockLedgerAdapter.getStockQuantity(product2.getProductId()), "台帳の数量が元に戻ること");
+        stockLedgerAdapter.flush();
+        assertEquals(10, mStockMapper.selectById(stock1.getStockId()).getQuantity());
+        assertEquals(4, mStockMapper.selectById(stock2.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("呼び出し元のトランザクションがコミットされた場合、減算がそのまま残ること")
+    void testDeductStock_CommittedNotCompensated() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 10);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> stockLedgerAdapter.deductStock(testProduct.getProductId(), 3));
+        stockLedgerAdapter.flush();
+
+        // Then
+        assertEquals(7, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()));
+        assertEquals(7, mStockMapper.selectById(stock.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("在庫管理画面で数量を修正した場合、台帳の数量が修正後の値になり、反映後の m_stock と一致すること")
+    void testUpdateStock_RoutedThroughLedger() {
+        // Given: 台帳に読み込み済みで、未反映の減算がある在庫
+        MStock stock = stockFixture.createStock(testProduct, 10);
+        stockLedgerAdapter.deductStock(testProduct.getProductId(), 3);
+
+        // When: 在庫管理画面から数量を20に修正
+        MStock update = new MStock();
+        update.setStockId(stock.getStockId());
+        update.setQuantity(20);
+        mStockService.updateStockImpl(update);
+        stockLedgerAdapter.deductStock(testProduct.getProductId(), 5);
+        stockLedgerAdapter.flush();
+
+        // Then
+        assertEquals(15, stockLedgerAdapter.getStockQuantity(testProduct.getProductId()), "修正後の数量から減算されていること");
+        assertEquals(15, mStockMapper.selectById(stock.getStockId()).getQuantity(), "m_stock と台帳が一致すること");
+    }
+
+    @Test
+    @DisplayName("在庫を論理削除した場合、台帳の数量が破棄され、以降の減算が在庫レコードなしになること")
+    void testDeleteStock_DiscardsCounter() {
+        // Given: 台帳に読み込み済みの在庫
+        MStock stock = stockFixture.createStock(testProduct, 10);
+        stockLedgerAdapter.deductStock(testProduct.getProductId(), 3);
+
+        // When
+        mStockService.deleteStockImpl(stock.getStockId());
+
+        // Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockLedgerAdapter.deductStock(testProduct.getProductId(), 1));
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"));
+    }
+
+    @Test
+    @DisplayName("並行して減算しても在庫数を超えて減算されないこと")
+    void testDeductStock_Concurrent() throws Exception {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 500);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    stockLedgerAdapter.deductStock(testProduct.getProductId(), 1);
+                    succeeded.incrementAndGet();
+                } catch (StockInsufficientException e) {
+                    insufficient.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        stockLedgerAdapter.flush();
+
+        // Then
+        assertEquals(500, succeeded.get(), "在庫数分だけ減算に成功すること");
+        assertEquals(1500, insufficient.get(), "残りは在庫不足になること");
+        assertEquals(0, mStockMapper.selectById(stock.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("起動時に m_stock へ未反映のジャーナルが再適用されること")
+    void testRecoverFromJournal(@TempDir Path journalDir) {
+        // Given: 反映前に停止した台帳のジャーナル
+        MStock stock = stockFixture.createStock(testProduct, 10);
+        StockLedgerJournal journal = new StockLedgerJournal(journalDir, false);
+        journal.open(0L);
+        journal.append(Map.of(testProduct.getProductId(), -4));
+        journal.append(Map.of(testProduct.getProductId(), 1));
+        journal.close();
+
+        // When
+        StockLedgerAdapter recovered = newLedger("recovery-test", journalDir);
+        try {
+            // Then
+            assertEquals(7, mStockMapper.selectById(stock.getStockId()).getQuantity(), "未反映の差分が m_stock に書き込まれていること");
+            assertEquals(2L, stockLedgerCheckpointMapper.selectLastSequence("recovery-test"), "反映済みの連番が記録されていること");
+            assertEquals(7, recovered.getStockQuantity(testProduct.getProductId()));
+        } finally {
+            recovered.destroy();
+            jdbcTemplate.update("DELETE FROM t_stock_ledger_checkpoint WHERE ledger_id = ?", "recovery-test");
+        }
+    }
+
+    @Test
+    @DisplayName("トランザクション内の減算はコミット前に停止した場合、起動時に再適用されないこと")
+    void testRecover_UncommittedDeductionNotReplayed(@TempDir Path journalDir) throws Exception {
+        // Given: 在庫10の商品と、ジャーナルを一時ディレクトリに書き込む台帳
+        MStock stock = stockFixture.createStock(testProduct, 10);
+        StockLedgerAdapter crashed = newLedger("crash-test", journalDir);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When: 注文のトランザクション内で減算し、コミット前にプロセスが停止したものとして別の台帳で復旧する
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                crashed.deductStock(testProduct.getProductId(), 4);
+                assertEquals(6, crashed.getStockQuantity(testProduct.getProductId()), "トランザクション中は引き当てられていること");
+                simulateCrash(crashed);
+
+                // 停止後の起動はトランザクション外（別スレッド）で行う
+                Future<Integer> recoveredQuantity = executor.submit(() -> {
+                    StockLedgerAdapter recovered = newLedger("crash-test", journalDir);
+                    try {
+                        return recovered.getStockQuantity(testProduct.getProductId());
+                    } finally {
+                        recovered.destroy();
+                    }
+                });
+                try {
+                    // Then: 復旧後の台帳・m_stock ともに減算前の数量であること
+                    assertEquals(10, recoveredQuantity.get(10, TimeUnit.SECONDS), "コミットされていない減算が再適用されないこと");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                throw new IllegalStateException("停止したためコミットされない");
+            }));
+            assertEquals(10, mStockMapper.selectById(stock.getStockId()).getQuantity(), "m_stock が減算されていないこと");
+        } finally {
+            executor.shutdown();
+            jdbcTemplate.update("DELETE FROM t_stock_ledger_checkpoint WHERE ledger_id = ?", "crash-test");
+        }
+    }
+
+    /**
+     * ジャーナルの保存先と台帳IDを指定して台帳を起動する
+     */
+    private StockLedgerAdapter newLedger(String ledgerId, Path journalDir) {
+        StockLedgerAdapter ledger = new StockLedgerAdapter();
+        beanFactory.autowireBean(ledger);
+        ReflectionTestUtils.setField(ledger, "ledgerId", ledgerId);
+        ReflectionTestUtils.setField(ledger, "journalDir", journalDir.toString());
+        ledger.afterPropertiesSet();
+        return ledger;
+    }
+
+    /**
+     * プロセスの停止を模擬する（未反映の差分を反映せず、ジャーナルを閉じるだけ）
+     */
+    private static void simulateCrash(StockLedgerAdapter ledger) {
+        ((ScheduledExecutorService) ReflectionTestUtils.getField(ledger, "flushExecutor")).shutdownNow();
+        ((StockLedgerJournal) ReflectionTestUtils.getField(ledger, "journal")).close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockLedgerJournal のテスト
+ */
+@DisplayName("StockLedgerJournal テスト")
+class StockLedgerJournalTest {
+
+    private static final UUID PRODUCT_A = UUID.fromString("0190a4b2-3c4d-7e5f-8a9b-0c1d2e3f4a01");
+    private static final UUID PRODUCT_B = UUID.fromString("0190a4b2-3c4d-7e5f-8a9b-0c1d2e3f4a02");
+
+    @TempDir
+    Path directory;
+
+    private StockLedgerJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = new StockLedgerJournal(directory, false);
+        journal.open(0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("追記した差分が連番順に読み込めること")
+    void testAppendAndReadAll() {
+        // Given
+        Map<UUID, Integer> deltas = new LinkedHashMap<>();
+        deltas.put(PRODUCT_A, -3);
+        deltas.put(PRODUCT_B, 5);
+
+        // When
+        long first = journal.append(deltas);
+        long second = journal.append(Map.of(PRODUCT_A, 2));
+
+        // Then
+        assertEquals(2L, first, "1回目の追記で連番2まで採番されること");
+        assertEquals(3L, second, "2回目の追記で連番3が採番されること");
+        List<StockLedgerJournal.Entry> entries = journal.readAll();
+        assertEquals(List.of(
+            new StockLedgerJournal.Entry(1L, PRODUCT_A, -3),
+            new StockLedgerJournal.Entry(2L, PRODUCT_B, 5),
+            new StockLedgerJournal.Entry(3L, PRODUCT_A, 2)), entries);
+    }
+
+    @Test
+    @DisplayName("切り替え後に閉じたセグメントのみが削除されること")
+    void testRotateAndDeleteClosedSegments() {
+        // Given
+        journal.append(Map.of(PRODUCT_A, -1));
+        long rotated = journal.rotate();
+        journal.append(Map.of(PRODUCT_A, -2));
+
+        // When
+        journal.deleteClosedSegments();
+
+        // Then
+        assertEquals(1L, rotated, "閉じたセグメントの最後の連番が返されること");
+        assertEquals(List.of(new StockLedgerJournal.Entry(2L, PRODUCT_A, -2)), journal.readAll(),
+            "切り替え後の記録のみが残ること");
+    }
+
+    @Test
+    @DisplayName("追記がない場合は切り替えてもセグメントが増えないこと")
+    void testRotate_NoAppend() throws IOException {
+        // Given
+        journal.append(Map.of(PRODUCT_A, -1));
+        journal.rotate();
+
+        // When
+        long rotated = journal.rotate();
+
+        // Then
+        assertEquals(1L, rotated, "連番が変わらないこと");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2L, files.count(), "閉じたセグメントと書き込み中のセグメントのみが存在すること");
+        }
+    }
+
+    @Test
+    @DisplayName("書き込み途中の不完全な行は無視されること")
+    void testReadAll_IgnoresPartialLine() throws IOException {
+        // Given
+        journal.append(Map.of(PRODUCT_A, -1));
+        journal.close();
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        Files.writeString(segment, "2," + PRODUCT_A, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // When
+        List<StockLedgerJournal.Entry> entries = journal.readAll();
+
+        // Then
+        assertEquals(List.of(new StockLedgerJournal.Entry(1L, PRODUCT_A, -1)), entries);
+    }
+
+    @Test
+    @DisplayName("開始時に既存のセグメントが削除され、指定した連番の続きから採番されること")
+    void testOpen_ContinuesSequence() {
+        // Given
+        journal.append(Map.of(PRODUCT_A, -1));
+        journal.close();
+
+        // When
+        journal.open(10L);
+        long sequence = journal.append(Map.of(PRODUCT_B, 4));
+
+        // Then
+        assertEquals(11L, sequence, "指定した連番の次から採番されること");
+        assertEquals(List.of(new StockLedgerJournal.Entry(11L, PRODUCT_B, 4)), journal.readAll());
+    }
+}
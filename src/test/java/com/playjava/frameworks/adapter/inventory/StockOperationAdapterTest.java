@@ -0,0 +1,321 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.testsupport.StockFixture;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockOperationAdapter のテスト。
+ * 並行実行の検証のため、テストメソッドはトランザクションで囲まず、後処理で作成データを物理削除する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Import(StockFixture.class)
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("StockOperationAdapter テスト")
+class StockOperationAdapterTest {
+
+    @Autowired
+    private StockOperationAdapter stockOperationAdapter;
+
+    @Autowired
+    private StockFixture stockFixture;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    private MProduct testProduct;
+    private MStock testStock;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = stockFixture.createProduct("SOA0001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockFixture.deleteAll();
+    }
+
+    private void createTestStock(int quantity) {
+        testStock = stockFixture.createStock(testProduct, quantity);
+    }
+
+    @Test
+    @DisplayName("在庫が減算されること")
+    void testDeductStock_Success() {
+        createTestStock(10);
+
+        stockOperationAdapter.deductStock(testProduct.getProductId(), 3);
+
+        MStock stock = mStockMapper.selectById(testStock.getStockId());
+        assertEquals(7, stock.getQuantity(), "在庫が3減算されて7になっていること");
+        assertEquals(0, stock.getStatus(), "ステータスが0（在庫あり）のままであること");
+    }
+
+    @Test
+    @DisplayName("在庫が0になった場合はステータスが在庫なしになること")
+    void testDeductStock_ToZero() {
+        createTestStock(5);
+
+        stockOperationAdapter.deductStock(testProduct.getProductId(), 5);
+
+        MStock stock = mStockMapper.selectById(testStock.getStockId());
+        assertEquals(0, stock.getQuantity(), "在庫が0になっていること");
+        assertEquals(1, stock.getStatus(), "ステータスが1（在庫なし）になっていること");
+    }
+
+    @Test
+    @DisplayName("在庫不足の場合はStockInsufficientExceptionが投げられ、在庫が変わらないこと")
+    void testDeductStock_Insufficient() {
+        createTestStock(2);
+
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockOperationAdapter.deductStock(testProduct.getProductId(), 3),
+            "在庫不足時に例外が投げられること");
+
+        assertTrue(exception.getMessage().contains("在庫不足"), "エラーメッセージが適切であること");
+        assertEquals(1, exception.getInsufficientItems().size(), "在庫不足商品が1件であること");
+        assertEquals(2, exception.getInsufficientItems().get(0).getAvailableQuantity(), "在庫数量が2であること");
+        assertEquals(3, exception.getInsufficientItems().get(0).getRequestedQuantity(), "要求数量が3であること");
+        assertEquals(2, mStockMapper.selectById(testStock.getStockId()).getQuantity(), "在庫が変わっていないこと");
+    }
+
+    @Test
+    @DisplayName("在庫レコードが存在しない場合はエラーになること")
+    void testDeductStock_NotFound() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockOperationAdapter.deductStock(testProduct.getProductId(), 1),
+            "在庫レコードが存在しない場合は例外が投げられること");
+
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"), "エラーメッセージが適切であること");
+    }
+
+    @Test
+    @DisplayName("在庫を戻すとステータスが在庫ありに戻ること")
+    void testReturnStock_Success() {
+        createTestStock(0);
+
+        stockOperationAdapter.returnStock(testProduct.getProductId(), 4);
+
+        MStock stock = mStockMapper.selectById(testStock.getStockId());
+        assertEquals(4, stock.getQuantity(), "在庫が4戻っていること");
+        assertEquals(0, stock.getStatus(), "ステータスが0（在庫あり）に戻っていること");
+    }
+
+    @Test
+    @DisplayName("在庫レコードが存在しない場合は戻しがエラーになること")
+    void testReturnStock_NotFound() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockOperationAdapter.returnStock(testProduct.getProductId(), 1),
+            "在庫レコードが存在しない場合は例外が投げられること");
+
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"), "エラーメッセージが適切であること");
+    }
+
+    @Test
+    @DisplayName("並行して減算しても在庫数量を超えて減算されないこと")
+    void testDeductStock_ConcurrentNeverOversells() throws Exception {
+        // Given: 在庫500に対して2000件の減算要求
+        int initialQuantity = 500;
+        int requests = 2000;
+        createTestStock(initialQuantity);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When: 並行して1個ずつ減算
+        try {
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockOperationAdapter.deductStock(testProduct.getProductId(), 1);
+                        succeeded.incrementAndGet();
+                    } catch (StockInsufficientException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then: 成功件数は在庫数量と一致し、在庫はマイナスにならないこと
+        MStock stock = mStockMapper.selectById(testStock.getStockId());
+        assertEquals(initialQuantity, succeeded.get(), "成功件数が在庫数量と一致すること");
+        assertEquals(requests - initialQuantity, rejected.get(), "残りの要求は在庫不足になること");
+        assertEquals(0, stock.getQuantity(), "在庫が0になっていること");
+        assertEquals(1, stock.getStatus(), "ステータスが1（在庫なし）になっていること");
+    }
+
+    @Test
+    @DisplayName("複数商品の在庫がまとめて減算されること")
+    void testDeductStockBatch_Success() {
+        createTestStock(10);
+        MProduct product2 = stockFixture.createProduct("SOA0002");
+        MStock stock2 = stockFixture.createStock(product2, 3);
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 4);
+        quantities.put(product2.getProductId(), 3);
+        stockOperationAdapter.deductStockBatch(quantities);
+
+        MStock stock1After = mStockMapper.selectById(testStock.getStockId());
+        MStock stock2After = mStockMapper.selectById(stock2.getStockId());
+        assertEquals(6, stock1After.getQuantity(), "商品1の在庫が4減算されて6になっていること");
+        assertEquals(0, stock1After.getStatus(), "商品1のステータスが0（在庫あり）のままであること");
+        assertEquals(0, stock2After.getQuantity(), "商品2の在庫が0になっていること");
+        assertEquals(1, stock2After.getStatus(), "商品2のステータスが1（在庫なし）になっていること");
+    }
+
+    @Test
+    @DisplayName("在庫不足の商品が全件報告され、どの在庫も減算されないこと")
+    void testDeductStockBatch_ReportsAllInsufficient() {
+        createTestStock(10);
+        MProduct product2 = stockFixture.createProduct("SOA0002");
+        MStock stock2 = stockFixture.createStock(product2, 1);
+        MProduct product3 = stockFixture.createProduct("SOA0003");
+        MStock stock3 = stockFixture.createStock(product3, 2);
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 5);
+        quantities.put(product2.getProductId(), 2);
+        quantities.put(product3.getProductId(), 5);
+
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockOperationAdapter.deductStockBatch(quantities),
+            "在庫不足時に例外が投げられること");
+
+        assertEquals(2, exception.getInsufficientItems().size(), "在庫不足商品が2件報告されること");
+        assertTrue(exception.getInsufficientItems().stream()
+                .anyMatch(item -> item.getProductId().equals(product2.getProductId())
+                    && item.getAvailableQuantity() == 1 && item.getRequestedQuantity() == 2),
+            "商品2の在庫不足が報告されること");
+        assertTrue(exception.getInsufficientItems().stream()
+                .anyMatch(item -> item.getProductId().equals(product3.getProductId())
+                    && item.getAvailableQuantity() == 2 && item.getRequestedQuantity() == 5),
+            "商品3の在庫不足が報告されること");
+
+        assertEquals(10, mStockMapper.selectById(testStock.getStockId()).getQuantity(), "商品1の在庫が減算されていないこと");
+        assertEquals(1, mStockMapper.selectById(stock2.getStockId()).getQuantity(), "商品2の在庫が減算されていないこと");
+        assertEquals(2, mStockMapper.selectById(stock3.getStockId()).getQuantity(), "商品3の在庫が減算されていないこと");
+    }
+
+    @Test
+    @DisplayName("在庫レコードが存在しない商品を含む場合はどの在庫も減算されないこと")
+    void testDeductStockBatch_NotFound() {
+        createTestStock(10);
+        MProduct product2 = stockFixture.createProduct("SOA0002");
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 1);
+        quantities.put(product2.getProductId(), 1);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockOperationAdapter.deductStockBatch(quantities),
+            "在庫レコードが存在しない場合は例外が投げられること");
+
+        assertTrue(exception.getMessage().contains(product2.getProductId().toString()), "エラーメッセージに商品IDが含まれること");
+        assertEquals(10, mStockMapper.selectById(testStock.getStockId()).getQuantity(), "商品1の在庫が減算されていないこと");
+    }
+
+    @Test
+    @DisplayName("複数商品の在庫がまとめて戻されること")
+    void testReturnStockBatch_Success() {
+        createTestStock(0);
+        MProduct product2 = stockFixture.createProduct("SOA0002");
+        MStock stock2 = stockFixture.createStock(product2, 5);
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 2);
+        quantities.put(product2.getProductId(), 3);
+        stockOperationAdapter.returnStockBatch(quantities);
+
+        MStock stock1After = mStockMapper.selectById(testStock.getStockId());
+        assertEquals(2, stock1After.getQuantity(), "商品1の在庫が2戻っていること");
+        assertEquals(0, stock1After.getStatus(), "商品1のステータスが0（在庫あり）に戻っていること");
+        assertEquals(8, mStockMapper.selectById(stock2.getStockId()).getQuantity(), "商品2の在庫が3戻っていること");
+    }
+
+    @Test
+    @DisplayName("商品の並びが逆の一括減算を並行しても、デッドロックせず在庫数量を超えないこと")
+    void testDeductStockBatch_ConcurrentOppositeOrder() throws Exception {
+        // Given: 2商品それぞれ在庫200
+        createTestStock(200);
+        MProduct product2 = stockFixture.createProduct("SOA0002");
+        MStock stock2 = stockFixture.createStock(product2, 200);
+
+        Map<UUID, Integer> forward = new LinkedHashMap<>();
+        forward.put(testProduct.getProductId(), 1);
+        forward.put(product2.getProductId(), 1);
+        Map<UUID, Integer> backward = new LinkedHashMap<>();
+        backward.put(product2.getProductId(), 1);
+        backward.put(testProduct.getProductId(), 1);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When: 逆順の一括減算を並行して300件ずつ実行
+        try {
+            for (int i = 0; i < 600; i++) {
+                Map<UUID, Integer> quantities = i % 2 == 0 ? forward : backward;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockOperationAdapter.deductStockBatch(quantities);
+                        succeeded.incrementAndGet();
+                    } catch (StockInsufficientException e) {
+                        // 在庫切れは想定内
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then: 成功件数は在庫数量と一致し、両商品とも0になること
+        assertEquals(200, succeeded.get(), "成功件数が在庫数量と一致すること");
+        assertEquals(0, mStockMapper.selectById(testStock.getStockId()).getQuantity(), "商品1の在庫が0になっていること");
+        assertEquals(0, mStockMapper.selectById(stock2.getStockId()).getQuantity(), "商品2の在庫が0になっていること");
+    }
+}
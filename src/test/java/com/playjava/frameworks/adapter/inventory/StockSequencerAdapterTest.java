@@ -0,0 +1,266 @@
+package com.playjava.frameworks.adapter.inventory;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.testsupport.StockFixture;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.concurrent.BulkheadDataSource;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockSequencerAdapter のテスト。
+ * レーンは別スレッドで書き込むため、テストメソッドはトランザクションで囲まず、後処理で作成データを物理削除する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "playjava.inventory.engine=sequencer",
+    "playjava.inventory.sequencer.lanes=4"
+})
+@Import(StockFixture.class)
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("StockSequencerAdapter テスト")
+class StockSequencerAdapterTest {
+
+    @Autowired
+    private StockSequencerAdapter stockSequencerAdapter;
+
+    @Autowired
+    private StockFixture stockFixture;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private MProduct testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = stockFixture.createProduct("SSA0001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockFixture.deleteAll();
+    }
+
+    /**
+     * testProduct と異なるレーンに振り分けられる商品を作成するヘルパーメソッド
+     */
+    private MProduct createProductOnOtherLane() {
+        int testLane = stockSequencerAdapter.laneIndex(testProduct.getProductId());
+        for (int i = 2; i < 100; i++) {
+            MProduct product = stockFixture.createProduct(String.format("SSA%04d", i));
+            if (stockSequencerAdapter.laneIndex(product.getProductId()) != testLane) {
+                return product;
+            }
+        }
+        throw new IllegalStateException("別レーンの商品を作成できませんでした");
+    }
+
+    @Test
+    @DisplayName("減算がコミットされてから呼び出し元に戻ること")
+    void testDeductStock_Success() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 10);
+
+        // When
+        stockSequencerAdapter.deductStock(testProduct.getProductId(), 3);
+
+        // Then
+        MStock updated = mStockMapper.selectById(stock.getStockId());
+        assertEquals(7, updated.getQuantity(), "在庫が3減算されて7になっていること");
+        assertEquals(0, updated.getStatus(), "ステータスが0（在庫あり）のままであること");
+    }
+
+    @Test
+    @DisplayName("在庫が0になった場合はステータスが在庫なしになり、戻すと在庫ありに戻ること")
+    void testDeductAndReturnStock_Status() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 5);
+
+        // When & Then
+        stockSequencerAdapter.deductStock(testProduct.getProductId(), 5);
+        assertEquals(1, mStockMapper.selectById(stock.getStockId()).getStatus(), "ステータスが1（在庫なし）になっていること");
+
+        stockSequencerAdapter.returnStock(testProduct.getProductId(), 2);
+        MStock returned = mStockMapper.selectById(stock.getStockId());
+        assertEquals(2, returned.getQuantity());
+        assertEquals(0, returned.getStatus(), "ステータスが0（在庫あり）に戻っていること");
+    }
+
+    @Test
+    @DisplayName("在庫不足の場合は例外が発生し、在庫が変更されないこと")
+    void testDeductStock_Insufficient() {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 2);
+
+        // When
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockSequencerAdapter.deductStock(testProduct.getProductId(), 3));
+
+        // Then
+        assertEquals(1, exception.getInsufficientItems().size());
+        assertEquals(2, exception.getInsufficientItems().get(0).getAvailableQuantity());
+        assertEquals(3, exception.getInsufficientItems().get(0).getRequestedQuantity());
+        assertEquals(2, mStockMapper.selectById(stock.getStockId()).getQuantity(), "在庫が変わっていないこと");
+    }
+
+    @Test
+    @DisplayName("在庫レコードが存在しない場合は例外が発生すること")
+    void testDeductStock_NotFound() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> stockSequencerAdapter.deductStock(testProduct.getProductId(), 1));
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"));
+    }
+
+    @Test
+    @DisplayName("複数レーンにまたがる一括減算が全件反映されること")
+    void testDeductStockBatch_AcrossLanes() {
+        // Given
+        MProduct other = createProductOnOtherLane();
+        MStock stock1 = stockFixture.createStock(testProduct, 10);
+        MStock stock2 = stockFixture.createStock(other, 10);
+
+        // When
+        stockSequencerAdapter.deductStockBatch(Map.of(testProduct.getProductId(), 4, other.getProductId(), 6));
+
+        // Then
+        assertEquals(6, mStockMapper.selectById(stock1.getStockId()).getQuantity());
+        assertEquals(4, mStockMapper.selectById(stock2.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("複数レーンにまたがる一括減算で不足があれば、成功したレーンの減算が戻されること")
+    void testDeductStockBatch_AcrossLanes_Insufficient() {
+        // Given
+        MProduct other = createProductOnOtherLane();
+        MStock stock1 = stockFixture.createStock(testProduct, 10);
+        MStock stock2 = stockFixture.createStock(other, 1);
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(testProduct.getProductId(), 5);
+        quantities.put(other.getProductId(), 2);
+
+        // When
+        StockInsufficientException exception = assertThrows(StockInsufficientException.class,
+            () -> stockSequencerAdapter.deductStockBatch(quantities));
+
+        // Then
+        assertEquals(1, exception.getInsufficientItems().size(), "不足している商品のみが報告されること");
+        assertEquals(other.getProductId(), exception.getInsufficientItems().get(0).getProductId());
+        assertEquals(10, mStockMapper.selectById(stock1.getStockId()).getQuantity(), "不足のない商品の減算が戻されていること");
+        assertEquals(1, mStockMapper.selectById(stock2.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("並行して減算しても在庫数を超えて減算されないこと")
+    void testDeductStock_Concurrent() throws Exception {
+        // Given
+        MStock stock = stockFixture.createStock(testProduct, 500);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    stockSequencerAdapter.deductStock(testProduct.getProductId(), 1);
+                    succeeded.incrementAndGet();
+                } catch (StockInsufficientException e) {
+                    insufficient.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(500, succeeded.get(), "在庫数分だけ減算に成功すること");
+        assertEquals(1500, insufficient.get(), "残りは在庫不足になること");
+        assertEquals(0, mStockMapper.selectById(stock.getStockId()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("減算後に呼び出し元のトランザクションがロールバックされた場合、減算が打ち消されること")
+    void testDeductStockBatch_RollbackCompensated() {
+        // Given
+        MProduct otherProduct = createProductOnOtherLane();
+        MStock stock1 = stockFixture.createStock(testProduct, 10);
+        MStock stock2 = stockFixture.createStock(otherProduct, 4);
+
+        // When: 減算後に注文の登録が失敗したものとしてトランザクションをロールバック
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            stockSequencerAdapter.deductStockBatch(Map.of(testProduct.getProductId(), 6, otherProduct.getProductId(), 4));
+            throw new IllegalStateException("注文の登録に失敗");
+        }));
+
+        // Then: 打ち消しはトランザクションの終了時にコミットまで待機しているため、戻った時点で反映済み
+        assertEquals(10, mStockMapper.selectById(stock1.getStockId()).getQuantity(), "減算が打ち消されていること");
+        assertEquals(4, mStockMapper.selectById(stock2.getStockId()).getQuantity(), "減算が打ち消されていること");
+    }
+
+    @Test
+    @DisplayName("レーン用の接続が予約されており、注文側が接続を使い切っていても減算が完了すること")
+    void testDeductStock_ConnectionsSaturated() throws Exception {
+        // Given: 予約枠を除いた接続数より多くのトランザクションが、接続を保持したまま減算を待つ
+        BulkheadDataSource bulkhead = assertInstanceOf(BulkheadDataSource.class, dataSource);
+        assertEquals(4, bulkhead.getReservedConcurrent(), "レーン数分の接続が予約されていること");
+        MStock stock = stockFixture.createStock(testProduct, 100);
+        int transactions = (bulkhead.getMaxConcurrent() - bulkhead.getReservedConcurrent()) * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(transactions);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < transactions; i++) {
+            futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                stockSequencerAdapter.deductStock(testProduct.getProductId(), 1);
+            })));
+        }
+
+        // Then: 接続の取得待ちで詰まらずに全件完了すること
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100 - transactions, mStockMapper.selectById(stock.getStockId()).getQuantity());
+    }
+}
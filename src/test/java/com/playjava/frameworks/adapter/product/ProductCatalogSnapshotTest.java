@@ -0,0 +1,165 @@
+package com.playjava.frameworks.adapter.product;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.usecase.port.product.ProductExistencePort;
+import com.playjava.usecase.port.product.ProductManagementPort;
+import com.playjava.usecase.handler.UuidFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductCatalogSnapshot と商品系 Adapter のテスト。
+ * スナップショットはコミット済みの商品のみ取り込むため、テストメソッドはトランザクションで囲まず、後処理で作成データを物理削除する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("ProductCatalogSnapshot テスト")
+class ProductCatalogSnapshotTest {
+
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Autowired
+    private ProductExistencePort productExistencePort;
+
+    @Autowired
+    private ProductManagementPort productManagementPort;
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (UUID productId : createdProductIds) {
+            jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", productId);
+        }
+        createdProductIds.clear();
+        productCatalogSnapshot.reload();
+    }
+
+    /**
+     * テスト用の商品を作成するヘルパーメソッド
+     */
+    private MProduct createTestProduct(String productNumber, int price) {
+        MProduct product = new MProduct();
+        product.setProductId(UuidFactory.newUuid());
+        product.setProductNumber(productNumber);
+        product.setProductName("カタログテスト商品");
+        product.setPrice(price);
+        product.setCategory(1);
+        product.setDeleteFlag(false);
+        mProductMapper.insert(product);
+        createdProductIds.add(product.getProductId());
+        return product;
+    }
+
+    /**
+     * スナップショットを経由せずに商品を物理削除する（メモリから応答していることの確認用）
+     */
+    private void deleteDirectly(UUID productId) {
+        jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", productId);
+    }
+
+    @Test
+    @DisplayName("取り込み済みの商品はDBに問い合わせずにメモリから応答すること")
+    void testFind_AnsweredFromSnapshot() {
+        // Given: 商品を登録してスナップショットに取り込む
+        MProduct product = createTestProduct("CAT0001", 1200);
+        productCatalogSnapshot.refresh();
+
+        // When: DBから直接削除する
+        deleteDirectly(product.getProductId());
+
+        // Then: スナップショットから応答されること
+        assertTrue(productExistencePort.existsByProductId(product.getProductId()), "スナップショットから存在を確認できること");
+        MProduct found = productManagementPort.selectById(product.getProductId());
+        assertNotNull(found, "スナップショットから商品を取得できること");
+        assertEquals(1200, found.getPrice(), "価格が正しいこと");
+    }
+
+    @Test
+    @DisplayName("スナップショットにない商品はDBに問い合わせること")
+    void testFind_FallbackToDatabase() {
+        // Given: 商品を登録する（スナップショットには取り込まない）
+        MProduct product = createTestProduct("CAT0002", 800);
+
+        // When/Then: DBから応答されること
+        assertTrue(productExistencePort.existsByProductId(product.getProductId()), "DBから存在を確認できること");
+        assertEquals(800, productManagementPort.selectById(product.getProductId()).getPrice(), "DBから商品を取得できること");
+        assertFalse(productExistencePort.existsByProductId(UuidFactory.newUuid()), "存在しない商品はfalseであること");
+    }
+
+    @Test
+    @DisplayName("更新・論理削除が差分の取り込みで反映されること")
+    void testRefresh_AppliesDeltas() {
+        // Given: 商品を登録してスナップショットに取り込む
+        MProduct product = createTestProduct("CAT0003", 1000);
+        MProduct removed = createTestProduct("CAT0004", 500);
+        productCatalogSnapshot.refresh();
+
+        // When: 価格を更新し、もう一方を論理削除して差分を取り込む
+        MProduct update = new MProduct();
+        update.setProductId(UuidFactory.newUuid());
+        update.setProductId(product.getProductId());
+        update.setPrice(1500);
+        mProductMapper.updateById(update);
+        jdbcTemplate.update("UPDATE m_product SET delete_flag = true, update_date = CURRENT_TIMESTAMP WHERE product_id = ?",
+            removed.getProductId());
+        productCatalogSnapshot.refresh();
+
+        // Then: 更新後の価格が返され、論理削除した商品は存在しない扱いになること
+        assertEquals(1500, productCatalogSnapshot.find(product.getProductId()).get().getPrice(), "更新後の価格が返されること");
+        assertTrue(productCatalogSnapshot.find(removed.getProductId()).isEmpty(), "論理削除した商品がスナップショットから除かれること");
+        assertFalse(productExistencePort.existsByProductId(removed.getProductId()), "論理削除した商品は存在しない扱いになること");
+    }
+
+    @Test
+    @DisplayName("まとめて取得した場合、スナップショットにある商品とない商品の両方が返されること")
+    void testSelectByIds_MergesSnapshotAndDatabase() {
+        // Given: 1件だけスナップショットに取り込む
+        MProduct cached = createTestProduct("CAT0005", 100);
+        productCatalogSnapshot.refresh();
+        MProduct uncached = createTestProduct("CAT0006", 200);
+
+        // When: まとめて取得
+        List<MProduct> products = productManagementPort.selectByIds(
+            List.of(cached.getProductId(), uncached.getProductId(), UuidFactory.newUuid()));
+
+        // Then: 存在する2件が返されること
+        assertEquals(2, products.size(), "存在する商品のみ返されること");
+        assertTrue(products.stream().anyMatch(p -> p.getProductId().equals(cached.getProductId())));
+        assertTrue(products.stream().anyMatch(p -> p.getProductId().equals(uncached.getProductId())));
+    }
+
+    @Test
+    @DisplayName("返された商品を変更してもスナップショットには影響しないこと")
+    void testFind_ReturnsCopy() {
+        // Given: 商品を登録してスナップショットに取り込む
+        MProduct product = createTestProduct("CAT0007", 300);
+        productCatalogSnapshot.refresh();
+
+        // When: 取得した商品を書き換える
+        productCatalogSnapshot.find(product.getProductId()).get().setPrice(0);
+
+        // Then: スナップショットの値は変わっていないこと
+        assertEquals(300, productCatalogSnapshot.find(product.getProductId()).get().getPrice(), "スナップショットの価格が変わっていないこと");
+    }
+}
@@ -0,0 +1,205 @@
+package com.playjava.frameworks.cache;
+
+import com.playjava.testsupport.QueryCountConfig;
+import com.playjava.testsupport.QueryCounter;
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.usecase.dto.CreateOrderRequest;
+import com.playjava.usecase.dto.OrderDetailResponse;
+import com.playjava.usecase.dto.OrderItemRequest;
+import com.playjava.usecase.service.impl.MCustomerServiceImpl;
+import com.playjava.usecase.service.impl.OrderServiceImpl;
+import com.playjava.usecase.handler.UuidFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderDetailCache のテスト。
+ * トランザクション外での照会のみキャッシュされるため、テストメソッドはトランザクションで囲まず、後処理で作成データを物理削除する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Import(QueryCountConfig.class)
+@RunAsUser("test-user-id")
+@DisplayName("OrderDetailCache テスト")
+class OrderDetailCacheTest {
+
+    @Autowired
+    private OrderDetailCache orderDetailCache;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private MCustomerServiceImpl customerService;
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private final List<UUID> createdOrderIds = new ArrayList<>();
+    private MCustomer testCustomer;
+    private MProduct testProduct;
+
+    @BeforeEach
+    void setUp() {
+        orderDetailCache.invalidateAll();
+
+        testCustomer = new MCustomer();
+        testCustomer.setCustomerName("注文詳細キャッシュテスト顧客");
+        testCustomer.setAddress("東京都");
+        testCustomer.setMobileNumber("09012345678");
+        customerService.createCustomerImpl(testCustomer);
+
+        testProduct = new MProduct();
+        testProduct.setProductId(UuidFactory.newUuid());
+        testProduct.setProductNumber("ODC0001");
+        testProduct.setProductName("注文詳細キャッシュテスト商品");
+        testProduct.setPrice(1000);
+        testProduct.setCategory(1);
+        mProductMapper.insert(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID orderId : createdOrderIds) {
+            jdbcTemplate.update("DELETE FROM t_order_summary WHERE order_id = ?", orderId);
+            jdbcTemplate.update("DELETE FROM t_order_item WHERE order_id = ?", orderId);
+            jdbcTemplate.update("DELETE FROM t_order WHERE order_id = ?", orderId);
+        }
+        createdOrderIds.clear();
+        jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", testProduct.getProductId());
+        jdbcTemplate.update("DELETE FROM m_customer WHERE customer_id = ?", testCustomer.getCustomerId());
+        orderDetailCache.invalidateAll();
+    }
+
+    /**
+     * 取り寄せ注文（在庫を減算しない）を作成する
+     */
+    private UUID createSpecialOrder() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(testProduct.getProductId());
+        item.setQuantity(2);
+        request.setItems(List.of(item));
+        UUID orderId = orderService.createSpecialOrderImpl(request);
+        createdOrderIds.add(orderId);
+        return orderId;
+    }
+
+    @Test
+    @DisplayName("キャンセル済みの注文詳細はキャッシュから返され、SQLを実行しないこと")
+    void testGetOrderDetail_TerminalOrderCached() {
+        // Given: キャンセル済みの注文を1回表示する
+        UUID orderId = createSpecialOrder();
+        orderService.cancelOrderImpl(orderId);
+        OrderDetailResponse loaded = queryCounter.assertAtMost(1, () -> orderService.getOrderDetailImpl(orderId));
+
+        // When: 再度表示
+        OrderDetailResponse cached = queryCounter.assertAtMost(0, () -> orderService.getOrderDetailImpl(orderId));
+
+        // Then: キャッシュから同じ注文詳細が返り、ETag もDBを参照せずに取得できること
+        assertEquals(6, cached.getOrder().getStatus(), "キャンセル済みであること");
+        assertEquals(1, cached.getItems().size(), "注文明細が含まれること");
+        assertEquals(2, cached.getItems().get(0).getQuantity(), "注文明細の数量が含まれること");
+        assertEquals(loaded.etag(), queryCounter.assertAtMost(0, () -> orderService.getOrderDetailETagImpl(orderId)));
+    }
+
+    @Test
+    @DisplayName("変更されうる注文は ETag のみ保持し、ステータスの更新で無効化されること")
+    void testGetOrderDetail_MutableOrderETag() {
+        // Given: 取り寄せ中の注文を表示する
+        UUID orderId = createSpecialOrder();
+        OrderDetailResponse first = orderService.getOrderDetailImpl(orderId);
+
+        // Then: ETag は保持されるが、注文詳細は毎回DBから読み込むこと
+        assertEquals(first.etag(), orderService.getOrderDetailETagImpl(orderId), "表示時点の ETag が保持されること");
+        assertEquals(1, queryCounter.record(() -> orderService.getOrderDetailImpl(orderId)).size(), "注文詳細はDBから読み込むこと");
+
+        // When: 注文をキャンセル
+        orderService.cancelOrderImpl(orderId);
+
+        // Then: 保持していた ETag が無効化され、次の表示では新しい ETag になること
+        assertNull(orderService.getOrderDetailETagImpl(orderId), "ETag が無効化されること");
+        OrderDetailResponse cancelled = orderService.getOrderDetailImpl(orderId);
+        assertEquals(6, cancelled.getOrder().getStatus(), "キャンセル後の注文詳細が返ること");
+        assertNotEquals(first.etag(), cancelled.etag(), "ETag が変わること");
+    }
+
+    @Test
+    @DisplayName("返された注文詳細を変更してもキャッシュには影響しないこと")
+    void testGetOrderDetail_ReturnsCopy() {
+        // Given: キャンセル済みの注文詳細をキャッシュに載せ、キャッシュから返された値を書き換える
+        UUID orderId = createSpecialOrder();
+        orderService.cancelOrderImpl(orderId);
+        orderService.getOrderDetailImpl(orderId);
+        OrderDetailResponse first = orderService.getOrderDetailImpl(orderId);
+        first.getOrder().setStatus(0);
+        first.getItems().clear();
+
+        // When: 再度取得
+        OrderDetailResponse second = orderService.getOrderDetailImpl(orderId);
+
+        // Then: キャッシュの値は変わっていないこと
+        assertEquals(6, second.getOrder().getStatus(), "ステータスが変わっていないこと");
+        assertEquals(1, second.getItems().size(), "注文明細が変わっていないこと");
+    }
+
+    @Test
+    @DisplayName("読み込み中に無効化された場合は、読み込んだ ETag をキャッシュしないこと")
+    void testGet_InvalidatedWhileLoadingNotCached() {
+        // Given: 取り寄せ中の注文の、更新前に読み込んだ注文詳細
+        UUID orderId = createSpecialOrder();
+        OrderDetailResponse stale = orderService.getOrderDetailImpl(orderId);
+        orderDetailCache.invalidate(orderId);
+
+        // When: 読み込みの途中で他の処理が注文を更新し、エントリを無効化する
+        OrderDetailResponse returned = orderDetailCache.get(orderId, id -> {
+            orderDetailCache.invalidate(id);
+            return stale;
+        });
+
+        // Then: 読み込んだ値は返すが、更新前の ETag はキャッシュに残らないこと
+        assertEquals(stale.etag(), returned.etag(), "読み込んだ注文詳細が返ること");
+        assertNull(orderService.getOrderDetailETagImpl(orderId), "更新前の ETag がキャッシュされないこと");
+    }
+
+    @Test
+    @DisplayName("読み込み中に全エントリが無効化された場合は、完了状態の注文詳細をキャッシュしないこと")
+    void testGet_InvalidatedAllWhileLoadingNotCached() {
+        // Given: キャンセル済みの注文詳細
+        UUID orderId = createSpecialOrder();
+        orderService.cancelOrderImpl(orderId);
+        OrderDetailResponse loaded = orderService.getOrderDetailImpl(orderId);
+        orderDetailCache.invalidateAll();
+
+        // When: 読み込みの途中で全エントリを無効化する
+        orderDetailCache.get(orderId, id -> {
+            orderDetailCache.invalidateAll();
+            return loaded;
+        });
+
+        // Then: キャッシュされず、次の表示ではDBから読み込むこと
+        assertNull(orderService.getOrderDetailETagImpl(orderId), "注文詳細がキャッシュされないこと");
+        assertEquals(1, queryCounter.record(() -> orderService.getOrderDetailImpl(orderId)).size(), "DBから読み込むこと");
+    }
+}
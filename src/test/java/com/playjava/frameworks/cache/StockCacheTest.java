@@ -0,0 +1,207 @@
+package com.playjava.frameworks.cache;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.handler.UuidFactory;
+import com.playjava.usecase.port.inventory.StockOperationPort;
+import com.playjava.usecase.service.impl.MStockServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockCache のテスト。
+ * トランザクション外での照会のみキャッシュされるため、テストメソッドはトランザクションで囲まず、後処理で作成データを物理削除する。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("StockCache テスト")
+class StockCacheTest {
+
+    @Autowired
+    private StockCache stockCache;
+
+    @Autowired
+    private MStockServiceImpl mStockService;
+
+    @Autowired
+    private StockOperationPort stockOperationPort;
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<UUID> createdProductIds = new ArrayList<>();
+    private MProduct testProduct;
+    private MStock testStock;
+
+    @BeforeEach
+    void setUp() {
+        stockCache.invalidateAll();
+
+        testProduct = new MProduct();
+        testProduct.setProductId(UuidFactory.newUuid());
+        testProduct.setProductNumber("SCT0001");
+        testProduct.setProductName("在庫キャッシュテスト商品");
+        testProduct.setPrice(1000);
+        testProduct.setCategory(1);
+        mProductMapper.insert(testProduct);
+        createdProductIds.add(testProduct.getProductId());
+
+        testStock = new MStock();
+        testStock.setStockId(UuidFactory.newUuid());
+        testStock.setProductId(testProduct.getProductId());
+        testStock.setQuantity(10);
+        testStock.setStatus(0);
+        testStock.setDeleteFlag(false);
+        mStockMapper.insert(testStock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID productId : createdProductIds) {
+            jdbcTemplate.update("DELETE FROM m_stock WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", productId);
+        }
+        createdProductIds.clear();
+        stockCache.invalidateAll();
+    }
+
+    /**
+     * キャッシュを経由せずに m_stock の数量を書き換える（キャッシュされていることの確認用）
+     */
+    private void updateQuantityDirectly(int quantity) {
+        jdbcTemplate.update("UPDATE m_stock SET quantity = ? WHERE stock_id = ?", quantity, testStock.getStockId());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+            .tag("cache", StockCache.CACHE_NAME)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+
+    @Test
+    @DisplayName("2回目以降の在庫照会はキャッシュから返され、ヒット・ミスがメトリクスに記録されること")
+    void testGetStockByProductId_ServedFromCache() {
+        // Given: 初回の照会でキャッシュに載せる
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+        mStockService.getStockByProductIdImpl(testProduct.getProductId());
+
+        // When: DBを直接書き換えてから再度照会
+        updateQuantityDirectly(99);
+        MStock cached = mStockService.getStockByProductIdImpl(testProduct.getProductId());
+
+        // Then: キャッシュの値が返され、メトリクスにミス1件・ヒット1件が記録されること
+        assertEquals(10, cached.getQuantity(), "キャッシュされた数量が返されること");
+        assertEquals(10, stockOperationPort.getStockQuantity(testProduct.getProductId()), "Port の照会もキャッシュを共有すること");
+        assertEquals(missesBefore + 1, cacheGets("miss"), "ミスが1件記録されること");
+        assertEquals(hitsBefore + 2, cacheGets("hit"), "ヒットが2件記録されること");
+    }
+
+    @Test
+    @DisplayName("返された在庫情報を変更してもキャッシュには影響しないこと")
+    void testGetStockByProductId_ReturnsCopy() {
+        // Given: 照会結果を書き換える
+        MStock first = mStockService.getStockByProductIdImpl(testProduct.getProductId());
+        first.setQuantity(0);
+
+        // When: 再度照会
+        MStock second = mStockService.getStockByProductIdImpl(testProduct.getProductId());
+
+        // Then: キャッシュの値は変わっていないこと
+        assertEquals(10, second.getQuantity(), "キャッシュの数量が変わっていないこと");
+    }
+
+    @Test
+    @DisplayName("在庫更新でキャッシュが無効化されること")
+    void testUpdateStock_Invalidates() {
+        // Given: キャッシュに載せる
+        mStockService.getStockByProductIdImpl(testProduct.getProductId());
+
+        // When: 在庫を更新
+        MStock update = new MStock();
+        update.setStockId(testStock.getStockId());
+        update.setQuantity(25);
+        mStockService.updateStockImpl(update);
+
+        // Then: 更新後の数量が返されること
+        assertEquals(25, mStockService.getStockByProductIdImpl(testProduct.getProductId()).getQuantity(), "更新後の数量が返されること");
+    }
+
+    @Test
+    @DisplayName("在庫削除でキャッシュが無効化されること")
+    void testDeleteStock_Invalidates() {
+        // Given: キャッシュに載せる
+        mStockService.getStockByProductIdImpl(testProduct.getProductId());
+
+        // When: 在庫を論理削除
+        mStockService.deleteStockImpl(testStock.getStockId());
+
+        // Then: 在庫レコードが存在しない扱いになること
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> mStockService.getStockByProductIdImpl(testProduct.getProductId()));
+        assertTrue(exception.getMessage().contains("在庫レコードが存在しません"),
+            "エラーメッセージに「在庫レコードが存在しません」が含まれること");
+    }
+
+    @Test
+    @DisplayName("在庫の減算・戻しでキャッシュが無効化されること")
+    void testDeductAndReturn_Invalidates() {
+        // Given: キャッシュに載せる
+        assertEquals(10, stockOperationPort.getStockQuantity(testProduct.getProductId()));
+
+        // When/Then: 減算・一括戻しのたびに最新の数量が返されること
+        stockOperationPort.deductStock(testProduct.getProductId(), 4);
+        assertEquals(6, mStockService.getStockByProductIdImpl(testProduct.getProductId()).getQuantity(), "減算後の数量が返されること");
+
+        stockOperationPort.returnStockBatch(Map.of(testProduct.getProductId(), 2));
+        assertEquals(8, stockOperationPort.getStockQuantity(testProduct.getProductId()), "一括戻し後の数量が返されること");
+    }
+
+    @Test
+    @DisplayName("トランザクション内の照会はキャッシュされず、ロールバックした値が残らないこと")
+    void testGetStock_InsideTransactionNotCached() {
+        // Given: トランザクション内で数量を書き換えて照会し、ロールバックする
+        transactionTemplate.executeWithoutResult(status -> {
+            updateQuantityDirectly(0);
+            assertEquals(0, mStockService.getStockByProductIdImpl(testProduct.getProductId()).getQuantity(),
+                "トランザクション内では未コミットの値が見えること");
+            status.setRollbackOnly();
+        });
+
+        // When/Then: トランザクション外の照会ではコミット済みの値が返されること
+        assertEquals(10, mStockService.getStockByProductIdImpl(testProduct.getProductId()).getQuantity(),
+            "ロールバックされた値がキャッシュされていないこと");
+    }
+}
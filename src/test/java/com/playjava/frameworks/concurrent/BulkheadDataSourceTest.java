@@ -0,0 +1,123 @@
+package com.playjava.frameworks.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BulkheadDataSource テスト")
+class BulkheadDataSourceTest {
+
+    private BulkheadDataSource bulkhead;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource delegate = new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", "");
+        bulkhead = new BulkheadDataSource(delegate, 2, 100);
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead.bindTo(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("上限数まで接続を取得でき、上限を超えると待機後に取得に失敗すること")
+    void testRejectsWhenExhausted() throws Exception {
+        // Given: 上限（2件）まで接続を取得
+        try (Connection first = bulkhead.getConnection(); Connection second = bulkhead.getConnection()) {
+            assertEquals(0, bulkhead.availablePermits());
+
+            // When/Then: 3件目は待機の上限時間を超えて失敗すること
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+            assertEquals(1.0, meterRegistry.get("db.bulkhead.rejected").counter().count());
+        }
+
+        // Then: クローズで許可が戻ること
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    @DisplayName("通常の許可を使い切っていても、予約枠のスレッドは接続を取得できること")
+    void testReservedPermits() throws Exception {
+        // Given: 3件のうち1件を予約枠にしたバルクヘッドで、通常の許可（2件）を使い切る
+        BulkheadDataSource reserving = new BulkheadDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", ""), 3, 1, 100);
+        try (Connection first = reserving.getConnection(); Connection second = reserving.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, reserving::getConnection, "通常のスレッドは取得できないこと");
+
+            // When: 予約枠のスレッドから取得
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                boolean acquired = executor.submit(() -> {
+                    BulkheadDataSource.useReservedPermits();
+                    try (Connection reserved = reserving.getConnection()) {
+                        return reserved.isValid(1);
+                    }
+                }).get(10, TimeUnit.SECONDS);
+
+                // Then
+                assertTrue(acquired, "予約枠から接続を取得できること");
+            } finally {
+                executor.shutdown();
+            }
+        }
+        assertEquals(2, reserving.availablePermits(), "予約枠の許可は通常の許可に加わらないこと");
+    }
+
+    @Test
+    @DisplayName("同じ接続を複数回クローズしても許可は1回だけ戻ること")
+    void testDoubleCloseReleasesOnce() throws Exception {
+        // Given
+        Connection connection = bulkhead.getConnection();
+
+        // When: 2回クローズ
+        connection.close();
+        connection.close();
+
+        // Then: 上限を超えて許可が増えないこと
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    @DisplayName("多数のスレッドから同時に取得しても、同時に保持される接続数が上限を超えないこと")
+    void testLimitsConcurrency() throws Exception {
+        // Given: 待機の上限を十分に長くしたバルクヘッド
+        BulkheadDataSource patient = new BulkheadDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", ""), 2, 10_000);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        int tasks = 50;
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        // When: 仮想スレッドから同時に接続を取得して短時間保持する
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < tasks; i++) {
+                executor.submit(() -> {
+                    try (Connection connection = patient.getConnection()) {
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        inUse.decrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS), "すべての処理が完了すること");
+        }
+
+        // Then
+        assertTrue(maxInUse.get() <= 2, "同時に保持される接続数が上限以内であること: max=" + maxInUse.get());
+        assertEquals(2, patient.availablePermits());
+    }
+}
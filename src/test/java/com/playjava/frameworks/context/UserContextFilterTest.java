@@ -0,0 +1,133 @@
+package com.playjava.frameworks.context;
+
+import com.playjava.enterprise.valueobject.SystemUser;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserContextFilter テスト")
+class UserContextFilterTest {
+
+    private static final String USER_ID = "0192f3a4-5b6c-7d8e-9f01-23456789abcd";
+
+    private final UserContextFilter filter = new UserContextFilter();
+
+    @BeforeEach
+    void setUp() {
+        // ヘッダーの使用を有効にし、接続元は制限しない
+        ReflectionTestUtils.setField(filter, "headerEnabled", true);
+        ReflectionTestUtils.setField(filter, "trustedProxies", List.of());
+    }
+
+    @Test
+    @DisplayName("X-User-Idヘッダーのユーザーがリクエスト処理中だけ束縛されること")
+    void testDoFilter_WithHeader() throws Exception {
+        // Given: X-User-Idヘッダー付きのリクエスト
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(UserContextFilter.USER_ID_HEADER, " 0192F3A4-5B6C-7D8E-9F01-23456789ABCD ");
+        final String[] captured = new String[1];
+
+        // When: フィルタを通して処理
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(capturing(captured)));
+
+        // Then: 処理中はヘッダーのユーザーIDが取得でき、処理後はANONYMOUSに戻ること
+        assertEquals(USER_ID, captured[0], "処理中はヘッダーのユーザーIDが取得できること");
+        assertEquals(SystemUser.ANONYMOUS, UserContext.getCurrentUserId(), "処理後はANONYMOUSに戻ること");
+    }
+
+    @Test
+    @DisplayName("X-User-Idヘッダーがない場合はANONYMOUSとして処理されること")
+    void testDoFilter_WithoutHeader() throws Exception {
+        // Given: ヘッダーなしのリクエスト
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        final String[] captured = new String[1];
+
+        // When: フィルタを通して処理
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(capturing(captured)));
+
+        // Then: ANONYMOUSが取得できること
+        assertEquals(SystemUser.ANONYMOUS, captured[0], "ヘッダーがない場合はANONYMOUSが取得できること");
+    }
+
+    @Test
+    @DisplayName("X-User-IdヘッダーがUUID形式でない場合やシステムユーザーIDの場合は400を返し、処理を実行しないこと")
+    void testDoFilter_InvalidHeader() throws Exception {
+        for (String userId : List.of("user-123", "0192f3a4-5b6c-7d8e-9f01", "1-2-3-4-5", SystemUser.SYSTEM, SystemUser.BOOTSTRAP)) {
+            // Given: 不正なX-User-Idヘッダー付きのリクエスト
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/orders");
+            request.addHeader(UserContextFilter.USER_ID_HEADER, userId);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            final String[] captured = new String[1];
+
+            // When: フィルタを通して処理
+            filter.doFilter(request, response, new MockFilterChain(capturing(captured)));
+
+            // Then: 400が返り、後続の処理は実行されないこと
+            assertEquals(400, response.getStatus(), userId + " は400が返ること");
+            assertTrue(response.getContentAsString().contains("\"status\":400"), "エラーレスポンスが書き出されること");
+            assertNull(captured[0], userId + " では後続の処理が実行されないこと");
+        }
+    }
+
+    @Test
+    @DisplayName("ヘッダーの使用が無効の場合はX-User-Idヘッダーを無視してANONYMOUSとして処理されること")
+    void testDoFilter_HeaderDisabled() throws Exception {
+        // Given: ヘッダーの使用が無効（既定）
+        ReflectionTestUtils.setField(filter, "headerEnabled", false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(UserContextFilter.USER_ID_HEADER, USER_ID);
+        final String[] captured = new String[1];
+
+        // When: フィルタを通して処理
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(capturing(captured)));
+
+        // Then: ヘッダーのユーザーIDは束縛されないこと
+        assertEquals(SystemUser.ANONYMOUS, captured[0], "ANONYMOUSとして処理されること");
+    }
+
+    @Test
+    @DisplayName("信頼できる接続元を指定した場合は、その接続元からのX-User-Idヘッダーのみ使用すること")
+    void testDoFilter_TrustedProxies() throws Exception {
+        // Given: 信頼できる接続元を1件指定
+        ReflectionTestUtils.setField(filter, "trustedProxies", List.of("10.0.0.1"));
+        final String[] captured = new String[1];
+
+        // When: 信頼できない接続元からのリクエスト
+        MockHttpServletRequest untrusted = new MockHttpServletRequest("GET", "/api/v1/orders");
+        untrusted.setRemoteAddr("192.168.0.10");
+        untrusted.addHeader(UserContextFilter.USER_ID_HEADER, USER_ID);
+        filter.doFilter(untrusted, new MockHttpServletResponse(), new MockFilterChain(capturing(captured)));
+
+        // Then: ヘッダーは無視されること
+        assertEquals(SystemUser.ANONYMOUS, captured[0], "信頼できない接続元のヘッダーは無視されること");
+
+        // When: 信頼できる接続元からのリクエスト
+        MockHttpServletRequest trusted = new MockHttpServletRequest("GET", "/api/v1/orders");
+        trusted.setRemoteAddr("10.0.0.1");
+        trusted.addHeader(UserContextFilter.USER_ID_HEADER, USER_ID);
+        filter.doFilter(trusted, new MockHttpServletResponse(), new MockFilterChain(capturing(captured)));
+
+        // Then: ヘッダーのユーザーIDが束縛されること
+        assertEquals(USER_ID, captured[0], "信頼できる接続元のヘッダーは使用されること");
+    }
+
+    private static HttpServlet capturing(String[] captured) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                captured[0] = UserContext.getCurrentUserId();
+            }
+        };
+    }
+}
@@ -1,80 +1,74 @@
 package com.playjava.frameworks.context;
 
 import com.playjava.enterprise.valueobject.SystemUser;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("UserContext テスト")
 class UserContextTest {
 
-    @BeforeEach
-    void setUp() {
-        // 各テストの前にクリア
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        // 各テストの後にクリア
-        UserContext.clear();
-    }
-
     @Test
-    @DisplayName("ユーザーIDを設定して取得できること")
-    void testSetAndGetCurrentUserId() {
+    @DisplayName("束縛したユーザーIDを処理中に取得できること")
+    void testRunAsAndGetCurrentUserId() {
         // Given: テストユーザーID
         String testUserId = "test-user-id-123";
 
-        // When: ユーザーIDを設定
-        UserContext.setCurrentUserId(testUserId);
+        // When: ユーザーIDを束縛して取得
+        String currentUserId = UserContext.callAs(testUserId, UserContext::getCurrentUserId);
 
-        // Then: 設定したユーザーIDが取得できること
-        String currentUserId = UserContext.getCurrentUserId();
-        assertEquals(testUserId, currentUserId, "設定したユーザーIDが取得できること");
+        // Then: 束縛したユーザーIDが取得できること
+        assertEquals(testUserId, currentUserId, "束縛したユーザーIDが取得できること");
     }
 
     @Test
-    @DisplayName("未設定の場合はANONYMOUSが返ること")
+    @DisplayName("未束縛の場合はANONYMOUSが返ること")
     void testGetCurrentUserId_Default() {
-        // Given: ユーザーIDを設定しない（クリア済み）
+        // Given: ユーザーIDを束縛しない
 
         // When: ユーザーIDを取得
         String currentUserId = UserContext.getCurrentUserId();
 
         // Then: ANONYMOUSが返ること
         assertEquals(SystemUser.ANONYMOUS, currentUserId,
-            "未設定の場合はANONYMOUSが返ること");
+            "未束縛の場合はANONYMOUSが返ること");
     }
 
     @Test
-    @DisplayName("ユーザーIDをクリアできること")
-    void testClearCurrentUserId() {
-        // Given: ユーザーIDを設定
-        UserContext.setCurrentUserId("test-user-id");
-
-        // When: クリア
-        UserContext.clear();
+    @DisplayName("処理を抜けると束縛が解除されること（例外で抜けた場合も含む）")
+    void testBindingEndsWithScope() {
+        // Given & When: 束縛した処理を正常終了・例外終了させる
+        UserContext.runAs("test-user-id", () -> {
+            // 処理内容
+        });
+        assertThrows(IllegalStateException.class, () -> UserContext.runAs("test-user-id", () -> {
+            throw new IllegalStateException("処理中の例外");
+        }));
 
         // Then: ANONYMOUSが返ること
-        String currentUserId = UserContext.getCurrentUserId();
-        assertEquals(SystemUser.ANONYMOUS, currentUserId,
-            "クリア後はANONYMOUSが返ること");
+        assertEquals(SystemUser.ANONYMOUS, UserContext.getCurrentUserId(),
+            "処理を抜けた後はANONYMOUSが返ること");
     }
 
     @Test
-    @DisplayName("システムユーザーとして処理を実行できること")
+    @DisplayName("システムユーザーとして処理を実行でき、処理後は元のユーザーIDに戻ること")
     void testRunAsSystemUser() {
-        // Given: 処理の前にユーザーIDを設定
-        UserContext.setCurrentUserId("original-user-id");
-
-        // When: SYSTEMユーザーとして処理を実行
+        // Given: 処理の前にユーザーIDを束縛
         final String[] capturedUserId = new String[1];
-        UserContext.runAsSystemUser(SystemUser.SYSTEM, () -> {
-            capturedUserId[0] = UserContext.getCurrentUserId();
+        String restoredUserId = UserContext.callAs("original-user-id", () -> {
+            // When: SYSTEMユーザーとして処理を実行
+            UserContext.runAsSystemUser(SystemUser.SYSTEM, () -> {
+                capturedUserId[0] = UserContext.getCurrentUserId();
+            });
+            return UserContext.getCurrentUserId();
         });
 
         // Then: 処理中はSYSTEMユーザーIDが使われること
@@ -82,65 +76,97 @@ class UserContextTest {
             "処理中はSYSTEMユーザーIDが使われること");
 
         // Then: 処理後は元のユーザーIDに戻ること
-        String currentUserId = UserContext.getCurrentUserId();
-        assertEquals("original-user-id", currentUserId,
+        assertEquals("original-user-id", restoredUserId,
             "処理後は元のユーザーIDに戻ること");
     }
 
     @Test
-    @DisplayName("runAsSystemUserで元のユーザーIDがnullの場合、処理後はクリアされること")
+    @DisplayName("runAsSystemUserで元のユーザーIDが未束縛の場合、処理後はANONYMOUSに戻ること")
     void testRunAsSystemUser_NullOriginal() {
-        // Given: ユーザーIDを設定しない（クリア済み）
+        // Given: ユーザーIDを束縛しない
 
         // When: BOOTSTRAPユーザーとして処理を実行
         UserContext.runAsSystemUser(SystemUser.BOOTSTRAP, () -> {
             // 処理内容
         });
 
-        // Then: 処理後はANONYMOUSが返ること（クリアされている）
+        // Then: 処理後はANONYMOUSが返ること
         String currentUserId = UserContext.getCurrentUserId();
         assertEquals(SystemUser.ANONYMOUS, currentUserId,
-            "処理後はクリアされてANONYMOUSが返ること");
+            "処理後はANONYMOUSが返ること");
     }
 
     @Test
-    @DisplayName("複数回設定できること")
-    void testSetCurrentUserId_Multiple() {
-        // Given & When: 複数回設定
-        UserContext.setCurrentUserId("user1");
-        assertEquals("user1", UserContext.getCurrentUserId());
-
-        UserContext.setCurrentUserId("user2");
-        assertEquals("user2", UserContext.getCurrentUserId());
-
-        UserContext.setCurrentUserId("user3");
-        assertEquals("user3", UserContext.getCurrentUserId());
+    @DisplayName("入れ子で束縛した場合は内側のユーザーIDが優先されること")
+    void testRunAs_Nested() {
+        // Given & When: 入れ子で束縛
+        List<String> captured = new ArrayList<>();
+        UserContext.runAs("user1", () -> {
+            captured.add(UserContext.getCurrentUserId());
+            UserContext.runAs("user2", () -> {
+                captured.add(UserContext.getCurrentUserId());
+                UserContext.runAs("user3", () -> captured.add(UserContext.getCurrentUserId()));
+            });
+            captured.add(UserContext.getCurrentUserId());
+        });
 
-        // Then: 最後に設定した値が取得できること
-        String currentUserId = UserContext.getCurrentUserId();
-        assertEquals("user3", currentUserId, "最後に設定した値が取得できること");
+        // Then: 内側の束縛が優先され、抜けると外側に戻ること
+        assertEquals(List.of("user1", "user2", "user3", "user1"), captured,
+            "内側の束縛が優先され、抜けると外側に戻ること");
     }
 
     @Test
-    @DisplayName("ThreadLocalなので別スレッドでは独立していること")
-    void testThreadLocal_Independence() throws InterruptedException {
-        // Given: メインスレッドでユーザーIDを設定
-        UserContext.setCurrentUserId("main-thread-user");
-
-        // When: 別スレッドでユーザーIDを取得
+    @DisplayName("束縛は別スレッドに引き継がれないこと")
+    void testBinding_NotInheritedByThreads() throws InterruptedException {
+        // Given: メインスレッドでユーザーIDを束縛
         final String[] otherThreadUserId = new String[1];
-        Thread otherThread = new Thread(() -> {
-            otherThreadUserId[0] = UserContext.getCurrentUserId();
+        UserContext.runAs("main-thread-user", () -> {
+            // When: 束縛の中で開始した別スレッドでユーザーIDを取得
+            Thread otherThread = new Thread(() -> {
+                otherThreadUserId[0] = UserContext.getCurrentUserId();
+            });
+            otherThread.start();
+            try {
+                otherThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Then: メインスレッドでは束縛した値が保持されていること
+            assertEquals("main-thread-user", UserContext.getCurrentUserId(),
+                "メインスレッドでは束縛した値が保持されていること");
         });
-        otherThread.start();
-        otherThread.join();
 
         // Then: 別スレッドではANONYMOUSが返ること（独立している）
         assertEquals(SystemUser.ANONYMOUS, otherThreadUserId[0],
             "別スレッドでは独立してANONYMOUSが返ること");
+    }
 
-        // Then: メインスレッドでは設定した値が保持されていること
-        assertEquals("main-thread-user", UserContext.getCurrentUserId(),
-            "メインスレッドでは設定した値が保持されていること");
+    @Test
+    @DisplayName("仮想スレッドで同時に処理しても、リクエストごとのユーザーIDが混ざらないこと")
+    void testBinding_VirtualThreads() throws Exception {
+        // Given: 全スレッドがユーザーIDを束縛してから取得するよう、束縛後に足並みを揃える
+        int requests = 1000;
+        CountDownLatch allBound = new CountDownLatch(requests);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When: リクエストごとに仮想スレッドでユーザーIDを束縛・取得
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                String userId = "virtual-user-" + i;
+                results.add(executor.submit(() -> UserContext.callAs(userId, () -> {
+                    allBound.countDown();
+                    allBound.await();
+                    return UserContext.getCurrentUserId();
+                })));
+            }
+        }
+
+        // Then: 各スレッドで自身が束縛したユーザーIDが取得できること
+        for (int i = 0; i < requests; i++) {
+            assertEquals("virtual-user-" + i, results.get(i).get(), "他のスレッドのユーザーIDが見えないこと");
+        }
+        // Then: 呼び出し元のスレッドには影響しないこと
+        assertEquals(SystemUser.ANONYMOUS, UserContext.getCurrentUserId());
     }
 }
@@ -0,0 +1,114 @@
+package com.playjava.frameworks.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogRateSamplingFilter テスト")
+class LogRateSamplingFilterTest {
+
+    private LoggerContext context;
+
+    private ListAppender<ILoggingEvent> appender;
+
+    private LogRateSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+
+        filter = new LogRateSamplingFilter();
+        filter.setContext(context);
+        filter.setLoggerPrefix("com.playjava");
+        filter.setMaxPerSecond(10);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    @Test
+    @DisplayName("上限を超えたINFOログが破棄され、破棄した件数が数えられること")
+    void testDecide_DropsOverLimit() {
+        // Given: 対象のロガー
+        Logger logger = context.getLogger("com.playjava.application.controller.OrderController");
+
+        // When: 上限を超えて出力（1秒をまたぐ場合に備えて、上限の3倍を出力する）
+        for (int i = 0; i < 30; i++) {
+            logger.info("createStorePurchaseOrder: index={}", i);
+        }
+
+        // Then: 出力件数が上限の2秒分以下に抑えられ、残りが破棄されていること
+        assertTrue(appender.list.size() <= 20, "出力件数が上限以下に抑えられること: " + appender.list.size());
+        assertEquals(30 - appender.list.size(), filter.droppedCount(), "破棄した件数が数えられること");
+    }
+
+    @Test
+    @DisplayName("WARN以上のログは上限を超えても破棄されないこと")
+    void testDecide_KeepsWarnAndError() {
+        // Given: 対象のロガー
+        Logger logger = context.getLogger("com.playjava.frameworks.monitoring.SqlMetricsInterceptor");
+
+        // When: 上限を超えてWARN・ERRORを出力
+        for (int i = 0; i < 30; i++) {
+            logger.warn("スロークエリ: index={}", i);
+            logger.error("エラー: index={}", i);
+        }
+
+        // Then: すべて出力されること
+        assertEquals(60, appender.list.size(), "WARN以上はすべて出力されること");
+        assertEquals(0, filter.droppedCount(), "破棄されないこと");
+    }
+
+    @Test
+    @DisplayName("対象外のロガーとロガーごとの上限が独立していること")
+    void testDecide_PerLogger() {
+        // Given: 対象外のロガーと、対象の2つのロガー
+        Logger other = context.getLogger("org.springframework.web");
+        Logger first = context.getLogger("com.playjava.first");
+        Logger second = context.getLogger("com.playjava.second");
+
+        // When: それぞれ上限分を出力
+        for (int i = 0; i < 10; i++) {
+            other.info("other: index={}", i);
+            other.info("other: index={}", i);
+            first.info("first: index={}", i);
+            second.info("second: index={}", i);
+        }
+
+        // Then: 対象外のロガーは制限されず、対象のロガーは互いの件数に影響しないこと
+        assertEquals(20, appender.list.stream().filter(e -> e.getLoggerName().equals("org.springframework.web")).count());
+        assertEquals(10, appender.list.stream().filter(e -> e.getLoggerName().equals("com.playjava.first")).count());
+        assertEquals(10, appender.list.stream().filter(e -> e.getLoggerName().equals("com.playjava.second")).count());
+    }
+
+    @Test
+    @DisplayName("無効なレベルのログと判定のみの呼び出しは件数に数えないこと")
+    void testDecide_IgnoresDisabledAndEnabledChecks() {
+        // Given: INFOレベルのロガー
+        Logger logger = context.getLogger("com.playjava.usecase.handler.FillMetaObjectHandler");
+        logger.setLevel(Level.INFO);
+
+        // When: 無効なDEBUGログと判定を繰り返した後にINFOを出力
+        for (int i = 0; i < 30; i++) {
+            logger.debug("新規登録 メタオブジェクト設定: index={}", i);
+            assertTrue(logger.isInfoEnabled());
+        }
+        logger.info("注文作成成功");
+
+        // Then: INFOが出力され、破棄した件数は0であること
+        assertEquals(1, appender.list.size(), "INFOが出力されること");
+        assertEquals(0, filter.droppedCount(), "無効なログは破棄した件数に数えないこと");
+    }
+}
@@ -0,0 +1,118 @@
+package com.playjava.frameworks.monitoring;
+
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.usecase.handler.UuidFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("SqlMetricsInterceptor テスト")
+class SqlMetricsInterceptorTest {
+
+    private static final String INSERT_STATEMENT = MProductMapper.class.getName() + ".insert";
+    private static final String SELECT_STATEMENT = MProductMapper.class.getName() + ".selectList";
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlRequestStatementsFilter sqlRequestStatementsFilter;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private MProduct createTestProduct(String productNumber) {
+        MProduct product = new MProduct();
+        product.setProductId(UuidFactory.newUuid());
+        product.setProductNumber(productNumber);
+        product.setProductName("計測テスト商品");
+        product.setPrice(100);
+        product.setCategory(1);
+        product.setDeleteFlag(false);
+        mProductMapper.insert(product);
+        return product;
+    }
+
+    private long timerCount(String statement) {
+        Timer timer = meterRegistry.find("db.statement").tag("statement", statement).tag("outcome", "success").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    @Test
+    @DisplayName("ステートメント名ごとに実行時間と件数が記録されること")
+    void testIntercept_RecordsTimerAndRows() {
+        // Given
+        long insertsBefore = timerCount(INSERT_STATEMENT);
+        long selectsBefore = timerCount(SELECT_STATEMENT);
+
+        // When: 1件登録して一覧を取得
+        createTestProduct("SQLM0001");
+        int selected = mProductMapper.selectList(null).size();
+
+        // Then
+        assertEquals(insertsBefore + 1, timerCount(INSERT_STATEMENT), "INSERTの実行時間が記録されること");
+        assertEquals(selectsBefore + 1, timerCount(SELECT_STATEMENT), "SELECTの実行時間が記録されること");
+        DistributionSummary selectRows = meterRegistry.find("db.statement.rows").tag("statement", SELECT_STATEMENT).summary();
+        assertNotNull(selectRows, "取得件数が記録されること");
+        assertEquals(selected, selectRows.max(), "取得件数が記録されること");
+        DistributionSummary insertRows = meterRegistry.find("db.statement.rows").tag("statement", INSERT_STATEMENT).summary();
+        assertNotNull(insertRows, "更新件数が記録されること");
+        assertEquals(1, insertRows.max(), "更新件数が記録されること");
+    }
+
+    @Test
+    @DisplayName("HTTPリクエストの処理中に実行したSQLの件数がリクエストごとに記録されること")
+    void testFilter_RecordsStatementsPerRequest() throws Exception {
+        // Given: リクエストの処理中に3件のSQLを実行する
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/test/abc");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        sqlRequestStatementsFilter.doFilter(request, response, (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try {
+                createTestProduct("SQLM0002");
+                mProductMapper.selectList(null);
+                mProductMapper.selectCount(null);
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/test/{id}");
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+
+        // Then: パス変数ではなくパターンごとに記録されること
+        DistributionSummary summary = meterRegistry.find("http.server.requests.db.statements")
+            .tag("method", "GET").tag("uri", "/api/v1/test/{id}").summary();
+        assertNotNull(summary, "リクエストごとのSQL件数が記録されること");
+        assertEquals(1, summary.count(), "1リクエスト分が記録されること");
+        assertEquals(3, summary.totalAmount(), "リクエスト中に実行したSQLが3件であること");
+
+        // リクエストの処理中でないSQLは数えないこと
+        mProductMapper.selectCount(null);
+        assertEquals(3, summary.totalAmount(), "リクエスト外のSQLは数えないこと");
+    }
+}
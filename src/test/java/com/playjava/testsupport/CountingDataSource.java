@@ -0,0 +1,91 @@
+package com.playjava.testsupport;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ステートメントの実行を QueryCounter に通知する DataSource のプロキシ
+ * Connection・Statement を JDK の動的プロキシで包み、execute 系のメソッドの呼び出しを記録する。
+ */
+class CountingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<QueryCounter> queryCounter;
+
+    CountingDataSource(DataSource target, ObjectProvider<QueryCounter> queryCounter) {
+        super(target);
+        this.queryCounter = queryCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (isIdentityMethod(method)) {
+                    return identity(proxy, method, args);
+                }
+                Object result = invoke(connection, method, args);
+                if (result instanceof Statement statement) {
+                    // prepareStatement/prepareCall はSQLを第1引数で受け取る（createStatement は実行時に受け取る）
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return wrapStatement(statement, method.getReturnType(), sql);
+                }
+                return result;
+            });
+    }
+
+    private Statement wrapStatement(Statement statement, Class<?> type, String preparedSql) {
+        Class<?> statementType = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+            : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class
+            : Statement.class;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {statementType},
+            (proxy, method, args) -> {
+                if (isIdentityMethod(method)) {
+                    return identity(proxy, method, args);
+                }
+                String name = method.getName();
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    queryCounter.getObject().onExecute("[batch] " + preparedSql);
+                } else if (name.startsWith("execute")) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    queryCounter.getObject().onExecute(sql);
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+            && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.playjava.testsupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * テスト内で実行されたSQLを数え、処理ごとのSQL実行件数（DBとの往復回数）の上限を検証するユーティリティ
+ * QueryCountConfig で DataSource を CountingDataSource に差し替え、JDBCのステートメント実行を記録する。
+ * 記録するのは計測中の処理を呼び出したスレッドの実行分のみ（バックグラウンドのスレッドの実行分は数えない）。
+ * バッチ実行（executeBatch）は件数によらず1件と数える。
+ *
+ * 使用例:
+ * <pre>
+ * UUID orderId = queryCounter.assertAtMost(6, () -> orderService.createStorePurchaseOrderImpl(request));
+ * </pre>
+ */
+public class QueryCounter {
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    /**
+     * 処理を実行し、実行されたSQLを返す
+     * @param action 計測する処理
+     * @return 実行されたSQL（実行順）
+     */
+    public List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    /**
+     * 処理を実行し、SQLの実行件数が上限以内であることを検証する
+     * @param maxStatements SQL実行件数の上限
+     * @param action 計測する処理
+     * @return 処理の戻り値
+     */
+    public <T> T assertAtMost(int maxStatements, Supplier<T> action) {
+        List<T> result = new ArrayList<>(1);
+        List<String> statements = record(() -> result.add(action.get()));
+        verify(maxStatements, statements);
+        return result.get(0);
+    }
+
+    /**
+     * 処理を実行し、SQLの実行件数が上限以内であることを検証する
+     * @param maxStatements SQL実行件数の上限
+     * @param action 計測する処理
+     */
+    public void assertAtMost(int maxStatements, Runnable action) {
+        verify(maxStatements, record(action));
+    }
+
+    /**
+     * 計測中であれば、実行されたSQLを記録する（CountingDataSource から呼び出される）
+     */
+    void onExecute(String sql) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            statements.add(sql.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    private static void verify(int maxStatements, List<String> statements) {
+        if (statements.size() <= maxStatements) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("SQLの実行件数が上限を超えました: 上限=")
+            .append(maxStatements).append(", 実行件数=").append(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator()).append(i + 1).append(": ").append(statements.get(i));
+        }
+        fail(message.toString());
+    }
+}
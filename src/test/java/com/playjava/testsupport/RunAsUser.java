@@ -0,0 +1,24 @@
+package com.playjava.testsupport;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * テストを UserContext にユーザーIDを束縛した状態で実行する
+ * クラスに付けると @BeforeEach・@Test・@AfterEach のすべてに、メソッドに付けるとそのテストだけに適用される
+ * （メソッドの指定がクラスの指定より優先される）。
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@ExtendWith(UserContextExtension.class)
+public @interface RunAsUser {
+
+    /** 束縛するユーザーID */
+    String value();
+}
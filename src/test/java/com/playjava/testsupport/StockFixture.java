@@ -0,0 +1,78 @@
+package com.playjava.testsupport;
+
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.MStock;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.MStockMapper;
+import com.playjava.usecase.handler.UuidFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 在庫操作のテスト用の商品・在庫の作成と後片付け
+ * テストクラスに {@code @Import(StockFixture.class)} を付けて注入する。
+ * 在庫の実装はレーンやライトビハインドで別スレッド・別トランザクションから書き込むため、
+ * テストメソッドはトランザクションで囲まず、{@link #deleteAll()} で作成したデータを物理削除する。
+ */
+public class StockFixture {
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    @Autowired
+    private MStockMapper mStockMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> createdProductIds = new ArrayList<>();
+
+    /**
+     * テスト用の商品を作成する
+     * @param productNumber 商品番号
+     * @return 作成した商品
+     */
+    public MProduct createProduct(String productNumber) {
+        MProduct product = new MProduct();
+        product.setProductId(UuidFactory.newUuid());
+        product.setProductNumber(productNumber);
+        product.setProductName("在庫テスト商品");
+        product.setPrice(1000);
+        product.setCategory(1);
+        mProductMapper.insert(product);
+        createdProductIds.add(product.getProductId());
+        return product;
+    }
+
+    /**
+     * テスト用の在庫を作成する
+     * @param product 商品
+     * @param quantity 在庫数
+     * @return 作成した在庫
+     */
+    public MStock createStock(MProduct product, int quantity) {
+        MStock stock = new MStock();
+        stock.setStockId(UuidFactory.newUuid());
+        stock.setProductId(product.getProductId());
+        stock.setQuantity(quantity);
+        stock.setStatus(quantity > 0 ? 0 : 1);
+        stock.setDeleteFlag(false);
+        mStockMapper.insert(stock);
+        return stock;
+    }
+
+    /**
+     * 作成した商品と、その在庫を物理削除する
+     */
+    public void deleteAll() {
+        for (UUID productId : createdProductIds) {
+            jdbcTemplate.update("DELETE FROM m_stock WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM m_product WHERE product_id = ?", productId);
+        }
+        createdProductIds.clear();
+    }
+}
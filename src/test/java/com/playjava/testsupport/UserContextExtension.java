@@ -0,0 +1,54 @@
+package com.playjava.testsupport;
+
+import com.playjava.frameworks.context.UserContext;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * {@link RunAsUser} の指定に従い、テストのライフサイクルメソッドとテストメソッドを UserContext の束縛の中で実行する
+ */
+class UserContextExtension implements InvocationInterceptor {
+
+    @Override
+    public void interceptBeforeEachMethod(Invocation<Void> invocation,
+            ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        proceedAs(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+            ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        proceedAs(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+            ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        proceedAs(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(Invocation<Void> invocation,
+            ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        proceedAs(invocation, extensionContext);
+    }
+
+    private static void proceedAs(Invocation<Void> invocation, ExtensionContext context) throws Throwable {
+        Optional<RunAsUser> runAsUser = context.getTestMethod()
+            .flatMap(method -> AnnotationSupport.findAnnotation(method, RunAsUser.class))
+            .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), RunAsUser.class));
+        if (runAsUser.isEmpty()) {
+            invocation.proceed();
+            return;
+        }
+        UserContext.callAs(runAsUser.get().value(), () -> {
+            invocation.proceed();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.playjava.usecase.handler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CustomerNumberAllocator のテスト。
+ * ブロックの予約は呼び出し元とは別トランザクションでコミットされるため、テストメソッドはトランザクションで囲まない。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("CustomerNumberAllocator テスト")
+class CustomerNumberAllocatorTest {
+
+    private static final String CUSTOMER_NUMBER_PATTERN = "^[A-Z]{4}\\d{6}$";
+
+    @Autowired
+    private CustomerNumberAllocator customerNumberAllocator;
+
+    @Test
+    @DisplayName("連番が AAAA999999 形式に変換されること")
+    void testFormat() {
+        assertEquals("AAAA000000", CustomerNumberGenerator.format(0));
+        assertEquals("AAAA999999", CustomerNumberGenerator.format(999_999));
+        assertEquals("AAAB000001", CustomerNumberGenerator.format(1_000_001));
+        assertEquals("ZZZZ999999", CustomerNumberGenerator.format(CustomerNumberGenerator.CAPACITY - 1));
+        assertThrows(RuntimeException.class, () -> CustomerNumberGenerator.format(CustomerNumberGenerator.CAPACITY),
+            "採番範囲を超えた場合は例外がスローされること");
+    }
+
+    @Test
+    @DisplayName("並行して払い出しても顧客番号が重複しないこと")
+    void testNext_ConcurrentUnique() throws Exception {
+        // Given: 8スレッドから同時に払い出す
+        int threads = 8;
+        int perThread = 500;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(customerNumberAllocator.next());
+                    }
+                    return null;
+                }));
+            }
+
+            // When
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then: 全件が一意で、形式が正しいこと
+        assertEquals(threads * perThread, numbers.size(), "顧客番号が重複しないこと");
+        assertTrue(numbers.stream().allMatch(n -> n.matches(CUSTOMER_NUMBER_PATTERN)), "形式が AAAA999999 であること");
+    }
+
+    @Test
+    @DisplayName("一括予約した範囲が連続し、通常の払い出しと重複しないこと")
+    void testReserve_ContiguousRange() {
+        // Given
+        String before = customerNumberAllocator.next();
+
+        // When: 1000件を一括予約
+        CustomerNumberAllocator.Range range = customerNumberAllocator.reserve(1000);
+        List<String> reserved = new ArrayList<>();
+        range.forEach(reserved::add);
+        String after = customerNumberAllocator.next();
+
+        // Then: 連続した1000件で、前後の払い出しと重複しないこと
+        assertEquals(1000, reserved.size(), "予約した件数分の顧客番号が得られること");
+        assertEquals(CustomerNumberGenerator.format(range.getFirst() + 999), reserved.get(999), "範囲が連続していること");
+        assertFalse(reserved.contains(before), "予約前の払い出しと重複しないこと");
+        assertFalse(reserved.contains(after), "予約後の払い出しと重複しないこと");
+        assertThrows(RuntimeException.class, () -> customerNumberAllocator.reserve(0), "0件の予約は例外がスローされること");
+    }
+}
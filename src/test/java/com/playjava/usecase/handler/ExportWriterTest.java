@@ -0,0 +1,88 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.usecase.dto.ExportFormat;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExportWriter テスト")
+class ExportWriterTest {
+
+    private record Row(String name, Integer quantity) {}
+
+    private static final ExportColumns<Row> COLUMNS = new ExportColumns<Row>()
+        .column("name", Row::name)
+        .column("quantity", Row::quantity);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private String write(ExportFormat format, List<Row> rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter<Row> writer = COLUMNS.open(format, out, jsonMapper)) {
+            for (Row row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSVでカンマ・ダブルクォート・改行を含む値がエスケープされること")
+    void testWrite_CsvEscape() throws Exception {
+        // Given: エスケープが必要な値を含む行
+        List<Row> rows = List.of(
+            new Row("商品A", 1),
+            new Row("大型,特価", 2),
+            new Row("\"限定\"品", null),
+            new Row("改行\nあり", 4));
+
+        // When: CSVで出力
+        String csv = write(ExportFormat.CSV, rows);
+
+        // Then: RFC 4180 の形式で出力されること
+        assertEquals("name,quantity\r\n"
+            + "商品A,1\r\n"
+            + "\"大型,特価\",2\r\n"
+            + "\"\"\"限定\"\"品\",\r\n"
+            + "\"改行\nあり\",4\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("0件のCSVはヘッダー行のみが出力されること")
+    void testWrite_CsvEmpty() throws Exception {
+        // When: 0件をCSVで出力
+        String csv = write(ExportFormat.CSV, List.of());
+
+        // Then: ヘッダー行のみが出力されること
+        assertEquals("name,quantity\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("NDJSONで1行に1件のJSONが列の定義順に出力されること")
+    void testWrite_Ndjson() throws Exception {
+        // Given: 2件の行
+        List<Row> rows = List.of(new Row("商品A", 1), new Row("改行\nあり", null));
+
+        // When: NDJSONで出力
+        String ndjson = write(ExportFormat.NDJSON, rows);
+
+        // Then: 改行区切りで出力され、値の中の改行はエスケープされること
+        assertEquals("{\"name\":\"商品A\",\"quantity\":1}\n"
+            + "{\"name\":\"改行\\nあり\",\"quantity\":null}\n", ndjson);
+    }
+
+    @Test
+    @DisplayName("出力形式のパラメータ値を変換できること")
+    void testExportFormat_From() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.from(null), "未指定の場合はNDJSONであること");
+        assertEquals(ExportFormat.CSV, ExportFormat.from("CSV"), "大文字小文字を区別しないこと");
+        assertThrows(InvalidParameterException.class, () -> ExportFormat.from("xml"), "不正な値は例外となること");
+    }
+}
@@ -5,8 +5,6 @@ import com.playjava.enterprise.entity.MUser;
 import com.playjava.enterprise.valueobject.SystemUser;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,26 +26,15 @@ class FillMetaObjectHandlerTest {
     @Autowired
     private FillMetaObjectHandler handler;
 
-    @BeforeEach
-    void setUp() {
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("insertFill - createUserとupdateUserが設定されること")
     void testInsertFill_SetUsers() {
         // Given: テストエンティティとUserContextを準備
         MUser user = new MUser();
         MetaObject metaObject = SystemMetaObject.forObject(user);
-        UserContext.setCurrentUserId(SystemUser.BOOTSTRAP);
 
-        // When: insertFillを実行
-        handler.insertFill(metaObject);
+        // When: BOOTSTRAPユーザーを束縛してinsertFillを実行
+        UserContext.runAs(SystemUser.BOOTSTRAP, () -> handler.insertFill(metaObject));
 
         // Then: createUserとupdateUserが設定されること
         assertEquals(SystemUser.BOOTSTRAP, user.getCreateUser(), 
@@ -62,11 +49,10 @@ class FillMetaObjectHandlerTest {
         // Given: テストエンティティを準備
         MUser user = new MUser();
         MetaObject metaObject = SystemMetaObject.forObject(user);
-        UserContext.setCurrentUserId(SystemUser.SYSTEM);
         OffsetDateTime before = OffsetDateTime.now();
 
-        // When: insertFillを実行
-        handler.insertFill(metaObject);
+        // When: SYSTEMユーザーを束縛してinsertFillを実行
+        UserContext.runAs(SystemUser.SYSTEM, () -> handler.insertFill(metaObject));
         OffsetDateTime after = OffsetDateTime.now();
 
         // Then: createDateとupdateDateが設定されること
@@ -83,7 +69,7 @@ class FillMetaObjectHandlerTest {
     @Test
     @DisplayName("insertFill - UserContextが未設定の場合ANONYMOUSが使われること")
     void testInsertFill_DefaultAnonymous() {
-        // Given: UserContextを設定しない（クリア済み）
+        // Given: UserContextを束縛しない
         MUser user = new MUser();
         MetaObject metaObject = SystemMetaObject.forObject(user);
 
@@ -100,14 +86,13 @@ class FillMetaObjectHandlerTest {
     @Test
     @DisplayName("insertFill - 一般ユーザーIDが使われること")
     void testInsertFill_RegularUserId() {
-        // Given: 一般ユーザーIDを設定
+        // Given: 一般ユーザーID
         String regularUserId = "12345678-1234-1234-1234-123456789abc";
         MUser user = new MUser();
         MetaObject metaObject = SystemMetaObject.forObject(user);
-        UserContext.setCurrentUserId(regularUserId);
 
-        // When: insertFillを実行
-        handler.insertFill(metaObject);
+        // When: 一般ユーザーIDを束縛してinsertFillを実行
+        UserContext.runAs(regularUserId, () -> handler.insertFill(metaObject));
 
         // Then: 設定したユーザーIDが使われること
         assertEquals(regularUserId, user.getCreateUser(), 
@@ -121,18 +106,17 @@ class FillMetaObjectHandlerTest {
     void testUpdateFill_SetUserAndDate() {
         // Given: テストエンティティとUserContextを準備
         MUser user = new MUser();
-        user.setUserId("test-user-id");
+        user.setUserId(UuidFactory.newUuid());
         user.setUserName("testuser");
         user.setCreateUser(SystemUser.BOOTSTRAP);
         user.setCreateDate(OffsetDateTime.now().minusDays(1));
         
         MetaObject metaObject = SystemMetaObject.forObject(user);
         String updateUserId = "updater-user-id";
-        UserContext.setCurrentUserId(updateUserId);
         OffsetDateTime before = OffsetDateTime.now();
 
-        // When: updateFillを実行
-        handler.updateFill(metaObject);
+        // When: 更新者を束縛してupdateFillを実行
+        UserContext.runAs(updateUserId, () -> handler.updateFill(metaObject));
         OffsetDateTime after = OffsetDateTime.now();
 
         // Then: updateUserとupdateDateが設定されること
@@ -154,9 +138,9 @@ class FillMetaObjectHandlerTest {
     @Test
     @DisplayName("updateFill - UserContextが未設定の場合ANONYMOUSが使われること")
     void testUpdateFill_DefaultAnonymous() {
-        // Given: UserContextを設定しない（クリア済み）
+        // Given: UserContextを束縛しない
         MUser user = new MUser();
-        user.setUserId("test-user-id");
+        user.setUserId(UuidFactory.newUuid());
         user.setCreateUser(SystemUser.SYSTEM);
         user.setCreateDate(OffsetDateTime.now().minusDays(1));
         
@@ -178,12 +162,13 @@ class FillMetaObjectHandlerTest {
         MUser user2 = new MUser();
         MetaObject metaObject1 = SystemMetaObject.forObject(user1);
         MetaObject metaObject2 = SystemMetaObject.forObject(user2);
-        
-        UserContext.setCurrentUserId(SystemUser.BOOTSTRAP);
 
-        // When: 複数回insertFillを実行
-        handler.insertFill(metaObject1);
-        handler.insertFill(metaObject2);
+
+        // When: 同じ束縛の中で複数回insertFillを実行
+        UserContext.runAs(SystemUser.BOOTSTRAP, () -> {
+            handler.insertFill(metaObject1);
+            handler.insertFill(metaObject2);
+        });
 
         // Then: 両方とも正常に設定されること
         assertEquals(SystemUser.BOOTSTRAP, user1.getCreateUser(), 
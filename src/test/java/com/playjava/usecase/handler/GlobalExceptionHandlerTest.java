@@ -0,0 +1,101 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.frameworks.concurrent.BulkheadDataSource;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.MyBatisSystemException;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GlobalExceptionHandler テスト")
+class GlobalExceptionHandlerTest {
+
+    /**
+     * 接続の取得だけを確認するための Mapper
+     */
+    interface PingMapper {
+        @Select("SELECT 1")
+        Integer ping();
+    }
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private BulkheadDataSource bulkhead;
+    private SqlSessionTemplate sqlSessionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource delegate = new DriverManagerDataSource("jdbc:h2:mem:handler;DB_CLOSE_DELAY=-1", "sa", "");
+        bulkhead = new BulkheadDataSource(delegate, 1, 100);
+
+        Configuration configuration = new Configuration(
+            new Environment("test", new SpringManagedTransactionFactory(), bulkhead));
+        configuration.addMapper(PingMapper.class);
+        sqlSessionTemplate = new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(configuration));
+    }
+
+    @Test
+    @DisplayName("DB接続のバルクヘッドを使い切った状態の Mapper 呼び出しは 503 と Retry-After を返すこと")
+    void testMyBatisSystemException_ConnectionUnavailable() throws Exception {
+        PingMapper mapper = sqlSessionTemplate.getMapper(PingMapper.class);
+        assertEquals(1, mapper.ping(), "許可が空いていれば実行できること");
+
+        // Given: バルクヘッドの許可を使い切る
+        try (Connection held = bulkhead.getConnection()) {
+            // When: トランザクション外で Mapper を呼び出す
+            MyBatisSystemException ex = assertThrows(MyBatisSystemException.class, mapper::ping);
+            ResponseEntity<Map<String, Object>> response = handler.handleMyBatisSystemException(ex);
+
+            // Then
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(503, response.getBody().get("status"));
+        }
+    }
+
+    @Test
+    @DisplayName("接続の取得失敗以外の MyBatisSystemException は 500 を返し、Retry-After を付けないこと")
+    void testMyBatisSystemException_OtherCause() {
+        // Given
+        MyBatisSystemException ex = new MyBatisSystemException("マッピングエラー", new IllegalStateException("不正な結果"));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = handler.handleMyBatisSystemException(ex);
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(500, response.getBody().get("status"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("リクエストパラメータが不正な場合は 400 とメッセージを返すこと")
+    void testInvalidParameterException() {
+        // Given: 解釈できない件数取得モード
+        InvalidParameterException ex = assertThrows(InvalidParameterException.class, () -> CountMode.from("approx"));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = handler.handleInvalidParameterException(ex);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(400, response.getBody().get("status"));
+        assertEquals(ex.getMessage(), response.getBody().get("message"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.playjava.usecase.handler;
+
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.usecase.dto.AssembledOrder;
+import com.playjava.usecase.dto.OrderItemRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional // テスト後にロールバック
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("OrderAssembler テスト")
+class OrderAssemblerTest {
+
+    @Autowired
+    private OrderAssembler orderAssembler;
+
+    @Autowired
+    private MProductMapper mProductMapper;
+
+    private MProduct testProduct1;
+    private MProduct testProduct2;
+
+    @BeforeEach
+    void setUp() {
+        testProduct1 = createTestProduct("ASM0001", 1000);
+        testProduct2 = createTestProduct("ASM0002", 2500);
+    }
+
+    /**
+     * テスト用の商品を作成するヘルパーメソッド
+     */
+    private MProduct createTestProduct(String productNumber, int price) {
+        MProduct product = new MProduct();
+        product.setProductId(UuidFactory.newUuid());
+        product.setProductNumber(productNumber);
+        product.setProductName("組み立てテスト商品");
+        product.setPrice(price);
+        product.setCategory(1);
+        product.setDeleteFlag(false);
+        mProductMapper.insert(product);
+        return product;
+    }
+
+    private OrderItemRequest item(UUID productId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    @Test
+    @DisplayName("同一商品の明細が出現順を保って合算され、単価が設定されること")
+    void testAssemble_MergeDuplicateLines() {
+        // Given: 商品1が2明細、商品2が1明細
+        List<OrderItemRequest> items = List.of(
+            item(testProduct1.getProductId(), 2),
+            item(testProduct2.getProductId(), 1),
+            item(testProduct1.getProductId(), 3));
+
+        // When: 組み立て
+        AssembledOrder assembledOrder = orderAssembler.assemble(items);
+
+        // Then: 2行にまとめられること
+        assertEquals(2, assembledOrder.getLines().size(), "同一商品の明細が1行にまとめられること");
+        AssembledOrder.Line line1 = assembledOrder.getLines().get(0);
+        assertEquals(testProduct1.getProductId(), line1.getProductId(), "出現順が維持されること");
+        assertEquals(5, line1.getQuantity(), "数量が合算されること");
+        assertEquals(1000, line1.getUnitPrice(), "単価が商品マスタの価格であること");
+        AssembledOrder.Line line2 = assembledOrder.getLines().get(1);
+        assertEquals(testProduct2.getProductId(), line2.getProductId(), "出現順が維持されること");
+        assertEquals(1, line2.getQuantity(), "数量が正しいこと");
+        assertEquals(2500, line2.getUnitPrice(), "単価が商品マスタの価格であること");
+    }
+
+    @Test
+    @DisplayName("組み立て結果の明細は変更できないこと")
+    void testAssemble_Immutable() {
+        AssembledOrder assembledOrder = orderAssembler.assemble(List.of(item(testProduct1.getProductId(), 1)));
+
+        assertThrows(UnsupportedOperationException.class,
+            () -> assembledOrder.getLines().clear(),
+            "明細リストが変更不可であること");
+    }
+
+    @Test
+    @DisplayName("存在しない商品を含む場合はエラーになること")
+    void testAssemble_ProductNotFound() {
+        List<OrderItemRequest> items = List.of(
+            item(testProduct1.getProductId(), 1),
+            item(UUID.fromString("00000000-0000-0000-0000-000000000999"), 1));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderAssembler.assemble(items),
+            "存在しない商品を含む場合はエラーになること");
+
+        assertTrue(exception.getMessage().contains("00000000-0000-0000-0000-000000000999"), "エラーメッセージに商品IDが含まれること");
+    }
+
+    @Test
+    @DisplayName("論理削除済みの商品を含む場合はエラーになること")
+    void testAssemble_DeletedProduct() {
+        mProductMapper.deleteById(testProduct2.getProductId());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderAssembler.assemble(List.of(item(testProduct2.getProductId(), 1))),
+            "論理削除済みの商品を含む場合はエラーになること");
+
+        assertTrue(exception.getMessage().contains("商品が存在しません"), "エラーメッセージが適切であること");
+    }
+}
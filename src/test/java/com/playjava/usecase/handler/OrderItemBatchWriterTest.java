@@ -0,0 +1,153 @@
+package com.playjava.usecase.handler;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.playjava.testsupport.RunAsUser;
+import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.enterprise.entity.MProduct;
+import com.playjava.enterprise.entity.TOrder;
+import com.playjava.enterprise.entity.TOrderItem;
+import com.playjava.enterprise.valueobject.SystemUser;
+import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.frameworks.mapper.TOrderItemMapper;
+import com.playjava.frameworks.mapper.TOrderMapper;
+import com.playjava.usecase.service.impl.MCustomerServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional // テスト後にロールバック
+@RunAsUser(SystemUser.BOOTSTRAP)
+@DisplayName("OrderItemBatchWriter テスト")
+class OrderItemBatchWriterTest {
+
+    @Autowired
+    private OrderItemBatchWriter orderItemBatchWriter;
+
+    @Autowired
+    private MCustomerServiceImpl customerService;
+
+    @Autowired
+    private MProductMapper productMapper;
+
+    @Autowired
+    private TOrderMapper orderMapper;
+
+    @Autowired
+    private TOrderItemMapper orderItemMapper;
+
+    private TOrder testOrder;
+    private MProduct testProduct;
+
+    @BeforeEach
+    void setUp() {
+        MCustomer customer = new MCustomer();
+        customer.setCustomerName("一括登録テスト顧客");
+        customerService.createCustomerImpl(customer);
+
+        testProduct = new MProduct();
+        testProduct.setProductId(UuidFactory.newUuid());
+        testProduct.setProductNumber("BAT0001");
+        testProduct.setProductName("一括登録テスト商品");
+        testProduct.setPrice(500);
+        testProduct.setCategory(1);
+        productMapper.insert(testProduct);
+
+        testOrder = new TOrder();
+        testOrder.setOrderId(UuidFactory.newUuid());
+        testOrder.setCustomerId(customer.getCustomerId());
+        testOrder.setOrderDate(OffsetDateTime.now());
+        testOrder.setStatus(2);
+        testOrder.setDeleteFlag(false);
+        orderMapper.insert(testOrder);
+    }
+
+    private List<TOrderItem> createOrderItems(int count) {
+        List<TOrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TOrderItem orderItem = new TOrderItem();
+            orderItem.setOrderItemId(UuidFactory.newUuid());
+            orderItem.setOrderId(testOrder.getOrderId());
+            orderItem.setProductId(testProduct.getProductId());
+            orderItem.setQuantity(i + 1);
+            orderItem.setUnitPrice(500);
+            orderItems.add(orderItem);
+        }
+        return orderItems;
+    }
+
+    private List<TOrderItem> selectOrderItems() {
+        LambdaQueryWrapper<TOrderItem> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(TOrderItem::getOrderId, testOrder.getOrderId());
+        return orderItemMapper.selectList(wrapper);
+    }
+
+    @Test
+    @DisplayName("チャンクサイズで分割して全件登録されること")
+    void testInsert_Chunked() {
+        // Given: 25件の注文明細
+        List<TOrderItem> orderItems = createOrderItems(25);
+
+        // When: チャンクサイズ10で一括登録
+        int inserted = orderItemBatchWriter.insert(orderItems, 10);
+
+        // Then: 全件登録されること
+        assertEquals(25, inserted, "登録件数が25件であること");
+        List<TOrderItem> saved = selectOrderItems();
+        assertEquals(25, saved.size(), "注文明細が25件登録されていること");
+        assertEquals(325, saved.stream().mapToInt(TOrderItem::getQuantity).sum(), "数量が正しく登録されていること");
+        assertTrue(saved.stream().allMatch(item -> item.getCreateDate() != null && item.getUpdateDate() != null),
+            "作成日時・更新日時が設定されていること");
+    }
+
+    @Test
+    @DisplayName("設定されたチャンクサイズで全件登録されること")
+    void testInsert_DefaultChunkSize() {
+        int inserted = orderItemBatchWriter.insert(createOrderItems(3));
+
+        assertEquals(3, inserted, "登録件数が3件であること");
+        assertEquals(3, selectOrderItems().size(), "注文明細が3件登録されていること");
+    }
+
+    @Test
+    @DisplayName("注文明細IDがUUIDのまま登録・取得されること")
+    void testInsert_UuidRoundTrip() {
+        // Given
+        List<TOrderItem> orderItems = createOrderItems(2);
+
+        // When
+        orderItemBatchWriter.insert(orderItems);
+
+        // Then: 登録したUUIDと取得したUUIDが一致すること
+        assertEquals(
+            orderItems.stream().map(TOrderItem::getOrderItemId).collect(Collectors.toSet()),
+            selectOrderItems().stream().map(TOrderItem::getOrderItemId).collect(Collectors.toSet()),
+            "注文明細IDが一致すること");
+        assertNotNull(orderItemMapper.selectById(orderItems.get(0).getOrderItemId()), "UUIDで主キー検索できること");
+    }
+
+    @Test
+    @DisplayName("空のリストの場合は何も登録されないこと")
+    void testInsert_Empty() {
+        assertEquals(0, orderItemBatchWriter.insert(new ArrayList<>()), "登録件数が0件であること");
+    }
+
+    @Test
+    @DisplayName("不正なチャンクサイズの場合はエラーになること")
+    void testInsert_InvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class,
+            () -> orderItemBatchWriter.insert(createOrderItems(1), 0),
+            "チャンクサイズ0はエラーになること");
+    }
+}
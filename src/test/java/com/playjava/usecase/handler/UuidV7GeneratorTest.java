@@ -0,0 +1,127 @@
+package com.playjava.usecase.handler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UuidV7Generator テスト")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("バージョン7・RFC 9562 のバリアントで、現在時刻が埋め込まれること")
+    void testGenerate_VersionAndTimestamp() {
+        // Given
+        UuidV7Generator generator = new UuidV7Generator(1);
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = generator.generate();
+
+        // Then
+        assertEquals(7, uuid.version(), "バージョンが7であること");
+        assertEquals(2, uuid.variant(), "バリアントが RFC 9562 であること");
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1, "現在時刻が埋め込まれていること");
+    }
+
+    @Test
+    @DisplayName("同じスレッドで生成したUUIDは単調増加すること")
+    void testGenerate_Monotonic() {
+        // Given
+        UuidV7Generator generator = new UuidV7Generator(1);
+
+        // When: 同じミリ秒内に収まる件数を含めて連続生成
+        UUID previous = generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = generator.generate();
+
+            // Then: 文字列表現（＝DBのUUID型の並び順）でも前回より大きいこと
+            assertTrue(current.toString().compareTo(previous.toString()) > 0, "前回より大きいこと: " + previous + " -> " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("並行して生成してもUUIDが重複しないこと")
+    void testGenerate_ConcurrentUnique() throws Exception {
+        // Given: 16スレッドから同時に生成する
+        UuidV7Generator generator = new UuidV7Generator(1);
+        int threads = 16;
+        int perThread = 20_000;
+        Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        uuids.add(generator.generate());
+                    }
+                    return null;
+                }));
+            }
+
+            // When
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(threads * perThread, uuids.size(), "UUIDが重複しないこと");
+    }
+
+    @Test
+    @DisplayName("ノード識別子が埋め込まれ、ノードが異なれば同じ時刻・カウンタでも重複しないこと")
+    void testGenerate_NodeId() {
+        // Given
+        UuidV7Generator node1 = new UuidV7Generator(1);
+        UuidV7Generator node2 = new UuidV7Generator(UuidV7Generator.MAX_NODE_ID);
+
+        // When
+        UUID uuid1 = node1.generate();
+        UUID uuid2 = node2.generate();
+
+        // Then: 下位64ビットのノード識別子部分（乱数32ビット・ストライプ6ビットの上）
+        assertEquals(1, (uuid1.getLeastSignificantBits() >>> 38) & UuidV7Generator.MAX_NODE_ID);
+        assertEquals(UuidV7Generator.MAX_NODE_ID, (uuid2.getLeastSignificantBits() >>> 38) & UuidV7Generator.MAX_NODE_ID);
+        assertThrows(IllegalArgumentException.class, () -> new UuidV7Generator(UuidV7Generator.MAX_NODE_ID + 1),
+            "範囲外のノード識別子は例外がスローされること");
+    }
+
+    @Test
+    @DisplayName("一括生成したUUIDが重複せず生成順に並ぶこと")
+    void testGenerateBatch() {
+        // Given
+        UuidV7Generator generator = new UuidV7Generator(1);
+
+        // When
+        UUID[] uuids = generator.generate(1000);
+        UUID next = generator.generate();
+
+        // Then
+        assertEquals(1000, uuids.length);
+        for (int i = 1; i < uuids.length; i++) {
+            assertTrue(uuids[i].toString().compareTo(uuids[i - 1].toString()) > 0, "生成順に並ぶこと");
+        }
+        assertTrue(next.toString().compareTo(uuids[uuids.length - 1].toString()) > 0, "一括生成の後に生成したUUIDの方が大きいこと");
+        assertEquals(0, generator.generate(0).length);
+    }
+}
@@ -1,34 +1,32 @@
 package com.playjava.usecase.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.entity.MCustomer;
+import com.playjava.testsupport.QueryCountConfig;
+import com.playjava.testsupport.QueryCounter;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@Import(QueryCountConfig.class)
 @DisplayName("MCustomerServiceImpl テスト")
 class MCustomerServiceImplTest {
 
     @Autowired
     private MCustomerServiceImpl mCustomerService;
 
-    @BeforeEach
-    void setUp() {
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
+    @Autowired
+    private QueryCounter queryCounter;
 
     @Test
     @DisplayName("顧客作成が成功すること")
@@ -57,7 +55,7 @@ class MCustomerServiceImplTest {
         customer.setEmail("before@example.com");
         mCustomerService.createCustomerImpl(customer);
 
-        String customerId = customer.getCustomerId();
+        UUID customerId = customer.getCustomerId();
         String originalNumber = customer.getCustomerNumber();
 
         customer.setCustomerName("update_after");
@@ -82,7 +80,7 @@ class MCustomerServiceImplTest {
         customer.setMobileNumber("09055556666");
         mCustomerService.createCustomerImpl(customer);
 
-        String customerId = customer.getCustomerId();
+        UUID customerId = customer.getCustomerId();
 
         boolean result = mCustomerService.deleteCustomerImpl(customerId);
 
@@ -136,4 +134,63 @@ class MCustomerServiceImplTest {
         assertEquals(2, page1.getPages(), "総ページ数が2であること");
         assertEquals(10, page1.getRecords().size(), "1ページ目のレコード数が10件であること");
     }
+
+    @Test
+    @DisplayName("顧客一括登録で連続した顧客番号が採番されること")
+    void testCreateCustomers_Bulk() {
+        List<MCustomer> customers = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            MCustomer c = new MCustomer();
+            c.setCustomerName("bulk_customer_" + i);
+            customers.add(c);
+        }
+
+        boolean result = mCustomerService.createCustomersImpl(customers);
+
+        assertTrue(result, "一括登録が成功すること");
+        assertTrue(customers.stream().allMatch(c -> c.getCustomerId() != null), "customerIdが設定されていること");
+        assertTrue(customers.stream().allMatch(c -> c.getCustomerNumber().matches("^[A-Z]{4}\\d{6}$")),
+                "customerNumberが AAAA999999 形式であること");
+        assertEquals(3, customers.stream().map(MCustomer::getCustomerNumber).distinct().count(), "customerNumberが重複しないこと");
+        assertEquals(3, mCustomerService.searchCustomerImpl(null, "bulk_customer_", null, null, null, false).size(),
+                "登録した顧客が検索できること");
+    }
+
+    @Test
+    @DisplayName("顧客の登録・検索・更新・削除のSQL実行件数が上限以内であること")
+    void testCustomerLifecycle_QueryBudget() {
+        // 顧客番号のブロック予約（行ロック・カウンタ更新）が必要な場合を含めて3件以内
+        MCustomer customer = new MCustomer();
+        customer.setCustomerName("budget_customer");
+        customer.setMobileNumber("09077778888");
+        queryCounter.assertAtMost(3, () -> mCustomerService.createCustomerImpl(customer));
+
+        // 件数取得・1ページ分の取得
+        queryCounter.assertAtMost(2, () -> mCustomerService.searchCustomerImpl(
+                null, "budget_customer", null, null, null, false, 1, 10, "updateDate", "desc"));
+
+        // 存在確認・更新
+        customer.setAddress("Nagoya");
+        queryCounter.assertAtMost(2, () -> mCustomerService.updateCustomerImpl(customer));
+
+        // 存在確認・論理削除
+        queryCounter.assertAtMost(2, () -> mCustomerService.deleteCustomerImpl(customer.getCustomerId()));
+    }
+
+    @Test
+    @DisplayName("顧客一括登録のSQL実行件数が件数によらず3件以内であること")
+    void testCreateCustomers_QueryBudget() {
+        List<MCustomer> customers = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            MCustomer c = new MCustomer();
+            c.setCustomerName("budget_bulk_" + i);
+            customers.add(c);
+        }
+
+        // 顧客番号の範囲予約（行ロック・カウンタ更新）とバッチ登録
+        queryCounter.assertAtMost(3, () -> mCustomerService.createCustomersImpl(customers));
+
+        assertEquals(50, mCustomerService.searchCustomerImpl(null, "budget_bulk_", null, null, null, false).size(),
+                "登録した顧客が検索できること");
+    }
 }
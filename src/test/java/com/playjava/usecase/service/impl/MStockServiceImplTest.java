@@ -1,22 +1,27 @@
 package com.playjava.usecase.service.impl;
 
-import com.playjava.frameworks.context.UserContext;
+import com.playjava.testsupport.RunAsUser;
 import com.playjava.enterprise.entity.MProduct;
 import com.playjava.enterprise.entity.MStock;
 import com.playjava.frameworks.mapper.MProductMapper;
 import com.playjava.enterprise.valueobject.SystemUser;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import com.playjava.testsupport.QueryCountConfig;
+import com.playjava.testsupport.QueryCounter;
+import com.playjava.usecase.handler.UuidFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional // テスト後にロールバック
+@Import(QueryCountConfig.class)
+@RunAsUser(SystemUser.BOOTSTRAP)
 @DisplayName("MStockServiceImpl テスト")
 class MStockServiceImplTest {
 
@@ -26,24 +31,15 @@ class MStockServiceImplTest {
     @Autowired
     private MProductMapper mProductMapper;
 
-    @BeforeEach
-    void setUp() {
-        // 各テストの前にUserContextをクリア
-        UserContext.clear();
-        UserContext.setCurrentUserId(SystemUser.BOOTSTRAP);
-    }
-
-    @AfterEach
-    void tearDown() {
-        // 各テストの後にUserContextをクリア
-        UserContext.clear();
-    }
+    @Autowired
+    private QueryCounter queryCounter;
 
     /**
      * テスト用の商品を作成するヘルパーメソッド
      */
     private MProduct createTestProduct() {
         MProduct product = new MProduct();
+        product.setProductId(UuidFactory.newUuid());
         product.setProductNumber("TEST001");
         product.setProductName("テスト商品");
         product.setDescription("テスト用の商品です");
@@ -122,7 +118,7 @@ class MStockServiceImplTest {
     void testCreateStock_ProductNotFound() {
         // Given: 存在しない商品IDを指定
         MStock stock = new MStock();
-        stock.setProductId("non-existent-product-id");
+        stock.setProductId(UuidFactory.newUuid());
         stock.setQuantity(100);
         stock.setStatus(0);
 
@@ -293,7 +289,7 @@ class MStockServiceImplTest {
     void testUpdateStock_StockNotFound() {
         // Given: 存在しない在庫IDを指定
         MStock stock = new MStock();
-        stock.setStockId("non-existent-stock-id");
+        stock.setStockId(UuidFactory.newUuid());
         stock.setQuantity(100);
 
         // When/Then: 例外がスローされること
@@ -315,7 +311,7 @@ class MStockServiceImplTest {
         stock.setQuantity(100);
         stock.setStatus(0);
         mStockService.createStockImpl(stock);
-        String stockId = stock.getStockId();
+        UUID stockId = stock.getStockId();
 
         // When: 在庫を削除
         boolean result = mStockService.deleteStockImpl(stockId);
@@ -354,7 +350,7 @@ class MStockServiceImplTest {
     void testGetStockByProductId_ProductNotFound() {
         // When/Then: 例外がスローされること
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            mStockService.getStockByProductIdImpl("non-existent-product-id");
+            mStockService.getStockByProductIdImpl(UuidFactory.newUuid());
         }, "商品が存在しない場合、例外がスローされること");
         
         assertTrue(exception.getMessage().contains("商品が存在しません"), 
@@ -375,4 +371,28 @@ class MStockServiceImplTest {
         assertTrue(exception.getMessage().contains("在庫レコードが存在しません"), 
             "エラーメッセージに「在庫レコードが存在しません」が含まれること");
     }
+
+    @Test
+    @DisplayName("在庫の登録・照会・更新・削除のSQL実行件数が上限以内であること")
+    void testStockLifecycle_QueryBudget() {
+        // Given: テスト商品を作成
+        MProduct product = createTestProduct();
+        MStock stock = new MStock();
+        stock.setProductId(product.getProductId());
+        stock.setQuantity(100);
+
+        // When/Then: 商品確認・重複確認・登録
+        queryCounter.assertAtMost(3, () -> mStockService.createStockImpl(stock));
+
+        // 商品確認・在庫取得（トランザクション内のためキャッシュは使用されない）
+        MStock found = queryCounter.assertAtMost(2, () -> mStockService.getStockByProductIdImpl(product.getProductId()));
+        assertEquals(100, found.getQuantity(), "登録した在庫が取得できること");
+
+        // 在庫取得・数量更新（在庫操作 Port 経由）・更新（商品IDを変更しない場合は商品確認を行わない）
+        stock.setQuantity(200);
+        queryCounter.assertAtMost(3, () -> mStockService.updateStockImpl(stock));
+
+        // 在庫取得・論理削除
+        queryCounter.assertAtMost(2, () -> mStockService.deleteStockImpl(stock.getStockId()));
+    }
 }
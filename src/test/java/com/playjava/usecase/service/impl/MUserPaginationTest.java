@@ -1,15 +1,20 @@
 package com.playjava.usecase.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.frameworks.context.UserContext;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.SearchPage;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
 import com.playjava.enterprise.entity.MUser;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -23,11 +28,6 @@ class MUserPaginationTest {
     @Autowired
     private MUserServiceImpl mUserService;
 
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("ページング機能が正しく動作すること")
     void testPagination() {
@@ -36,7 +36,6 @@ class MUserPaginationTest {
             MUser user = new MUser();
             user.setUserName("page_test_" + i);
             user.setPassword("password" + i);
-            UserContext.clear();
             mUserService.createUserImpl(user);
         }
 
@@ -67,19 +66,16 @@ class MUserPaginationTest {
         MUser user1 = new MUser();
         user1.setUserName("sort_c");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
 
         MUser user2 = new MUser();
         user2.setUserName("sort_a");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
 
         MUser user3 = new MUser();
         user3.setUserName("sort_b");
         user3.setPassword("pass3");
-        UserContext.clear();
         mUserService.createUserImpl(user3);
 
         // When: ユーザー名で昇順ソート
@@ -92,4 +88,85 @@ class MUserPaginationTest {
         assertEquals("sort_b", result.getRecords().get(1).getUserName(), "2番目がsort_bであること");
         assertEquals("sort_c", result.getRecords().get(2).getUserName(), "3番目がsort_cであること");
     }
+
+    @Test
+    @DisplayName("カーソル方式で全件を重複なくソート順に読み進められること")
+    void testCursorPagination() {
+        // Given: 15件のテストユーザーを作成
+        for (int i = 1; i <= 15; i++) {
+            MUser user = new MUser();
+            user.setUserName(String.format("cursor_test_%02d", i));
+            user.setPassword("password" + i);
+            mUserService.createUserImpl(user);
+        }
+
+        // When: ユーザー名の降順で10件ずつ読み進める
+        CursorPage<MUser> page1 = mUserService.searchUserByCursorImpl("cursor_test", null, 10, "userName", "desc");
+        CursorPage<MUser> page2 = mUserService.searchUserByCursorImpl("cursor_test", page1.getNextCursor(), 10, "userName", "desc");
+
+        // Then: 2ページで全件が降順に並んでいること
+        assertEquals(10, page1.getRecords().size(), "1ページ目のレコード数が10件であること");
+        assertNotNull(page1.getNextCursor(), "1ページ目には次ページのカーソルがあること");
+        assertEquals(5, page2.getRecords().size(), "2ページ目のレコード数が5件であること");
+        assertNull(page2.getNextCursor(), "最終ページには次ページのカーソルがないこと");
+
+        List<String> userNames = new ArrayList<>();
+        page1.getRecords().forEach(user -> userNames.add(user.getUserName()));
+        page2.getRecords().forEach(user -> userNames.add(user.getUserName()));
+        assertEquals("cursor_test_15", userNames.get(0), "先頭がcursor_test_15であること");
+        assertEquals("cursor_test_01", userNames.get(14), "末尾がcursor_test_01であること");
+        for (int i = 1; i < userNames.size(); i++) {
+            assertTrue(userNames.get(i - 1).compareTo(userNames.get(i)) > 0, "ユーザー名の降順であること");
+        }
+    }
+
+    @Test
+    @DisplayName("不正なカーソルを指定した場合は例外が発生すること")
+    void testCursorPagination_InvalidCursor() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> mUserService.searchUserByCursorImpl(null, "invalid-cursor", 10, "createDate", "desc"));
+        assertTrue(exception.getMessage().contains("カーソルが不正です"));
+    }
+
+    @Test
+    @DisplayName("件数取得モードごとに総件数が返されること")
+    void testCountMode() {
+        // Given: 15件のテストユーザーを作成
+        for (int i = 1; i <= 15; i++) {
+            MUser user = new MUser();
+            user.setUserName("count_test_" + i);
+            user.setPassword("password" + i);
+            mUserService.createUserImpl(user);
+        }
+
+        // When & Then: none は総件数を取得しない
+        SearchPage<MUser> none = (SearchPage<MUser>) mUserService.searchUserImpl("count_test", 1, 10, "createDate", "asc", CountMode.NONE);
+        assertEquals(10, none.getRecords().size(), "1ページ目のレコード数が10件であること");
+        assertEquals(0, none.getTotal(), "総件数が取得されないこと");
+        assertNull(none.getTotalLabel(), "総件数の表示がないこと");
+
+        // When & Then: estimated で1ページ目が埋まる場合は上限付きで数える
+        SearchPage<MUser> estimated = (SearchPage<MUser>) mUserService.searchUserImpl("count_test", 1, 10, "createDate", "asc", CountMode.ESTIMATED);
+        assertEquals(15, estimated.getTotal(), "上限未満のため正確な件数になること");
+        assertEquals("15", estimated.getTotalLabel());
+
+        // When & Then: estimated で最終ページを取得した場合は取得件数から総件数が確定する
+        SearchPage<MUser> lastPage = (SearchPage<MUser>) mUserService.searchUserImpl("count_test", 2, 10, "createDate", "asc", CountMode.ESTIMATED);
+        assertEquals(5, lastPage.getRecords().size(), "2ページ目のレコード数が5件であること");
+        assertEquals(15, lastPage.getTotal(), "前ページまでの件数＋取得件数が総件数になること");
+
+        // When & Then: exact は従来どおり COUNT(*) の結果
+        SearchPage<MUser> exact = (SearchPage<MUser>) mUserService.searchUserImpl("count_test", 1, 10, "createDate", "asc", CountMode.EXACT);
+        assertEquals(15, exact.getTotal(), "全件数が15件であること");
+        assertEquals("15", exact.getTotalLabel());
+    }
+
+    @Test
+    @DisplayName("不正な件数取得モードを指定した場合は例外が発生すること")
+    void testCountMode_Invalid() {
+        assertEquals(CountMode.ESTIMATED, CountMode.from("Estimated"), "大文字小文字を区別しないこと");
+        assertEquals(CountMode.EXACT, CountMode.from(null), "未指定の場合はexactになること");
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class, () -> CountMode.from("approx"));
+        assertTrue(exception.getMessage().contains("件数取得モード"));
+    }
 }
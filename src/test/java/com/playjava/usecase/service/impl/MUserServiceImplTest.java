@@ -4,37 +4,40 @@ import com.playjava.frameworks.context.UserContext;
 import com.playjava.enterprise.entity.MUser;
 import com.playjava.enterprise.valueobject.SystemUser;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.ExportFormat;
+import com.playjava.usecase.dto.UserSummary;
+import com.playjava.usecase.handler.GlobalExceptionHandler.InvalidParameterException;
+import com.playjava.testsupport.QueryCountConfig;
+import com.playjava.testsupport.QueryCounter;
+import com.playjava.usecase.handler.UuidFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional // テスト後にロールバック
+@Import(QueryCountConfig.class)
 @DisplayName("MUserServiceImpl テスト")
 class MUserServiceImplTest {
 
     @Autowired
     private MUserServiceImpl mUserService;
 
-    @BeforeEach
-    void setUp() {
-        // 各テストの前にUserContextをクリア
-        UserContext.clear();
-    }
-
-    @AfterEach
-    void tearDown() {
-        // 各テストの後にUserContextをクリア
-        UserContext.clear();
-    }
+    @Autowired
+    private QueryCounter queryCounter;
 
     @Test
     @DisplayName("ユーザー作成が成功すること")
@@ -111,20 +114,23 @@ class MUserServiceImplTest {
     }
 
     @Test
-    @DisplayName("作成後にUserContextにuserIdが設定されること")
-    void testCreateUser_SetUserContext() {
+    @DisplayName("作成処理の間だけBOOTSTRAPユーザーが束縛され、作成後は呼び出し元のコンテキストに戻ること")
+    void testCreateUser_BindsBootstrapUser() {
         // Given: テストユーザーを準備
         MUser user = new MUser();
         user.setUserName("testuser5");
         user.setPassword("password111");
 
-        // When: ユーザーを作成
-        mUserService.createUserImpl(user);
+        // When: ユーザーIDを束縛した状態でユーザーを作成
+        String callerId = UserContext.callAs("caller-001", () -> {
+            mUserService.createUserImpl(user);
+            return UserContext.getCurrentUserId();
+        });
 
-        // Then: UserContextにuserIdが設定されていること
-        String currentUserId = UserContext.getCurrentUserId();
-        assertEquals(user.getUserId(), currentUserId, 
-            "UserContextに作成したuserIdが設定されていること");
+        // Then: 作成者はBOOTSTRAPで記録され、呼び出し元の束縛は変わらないこと
+        assertEquals(SystemUser.BOOTSTRAP, user.getCreateUser(), "作成者がBOOTSTRAPで記録されていること");
+        assertEquals("caller-001", callerId, "作成後は呼び出し元のユーザーIDに戻ること");
+        assertEquals(SystemUser.ANONYMOUS, UserContext.getCurrentUserId(), "束縛の外ではANONYMOUSが返ること");
     }
 
     @Test
@@ -140,10 +146,8 @@ class MUserServiceImplTest {
         user2.setPassword("pass2");
 
         // When: 複数のユーザーを作成
-        UserContext.clear(); // 最初にクリア
         boolean result1 = mUserService.createUserImpl(user1);
         
-        UserContext.clear(); // 2人目の前にクリア
         boolean result2 = mUserService.createUserImpl(user2);
 
         // Then: 両方とも作成が成功し、異なるuserIdを持つこと
@@ -163,15 +167,12 @@ class MUserServiceImplTest {
         mUserService.createUserImpl(user);
         
         // 更新用に値を変更
-        String originalUserId = user.getUserId();
+        UUID originalUserId = user.getUserId();
         user.setUserName("updateduser");
         user.setPassword("newpassword");
-        
-        // UserContextに更新者を設定
-        UserContext.setCurrentUserId(originalUserId);
 
         // When: ユーザーを更新
-        boolean result = mUserService.updateUserImpl(user);
+        boolean result = UserContext.callAs(originalUserId.toString(), () -> mUserService.updateUserImpl(user));
 
         // Then: 更新が成功すること
         assertTrue(result, "ユーザー更新が成功すること");
@@ -188,17 +189,13 @@ class MUserServiceImplTest {
         user.setPassword("password456");
         mUserService.createUserImpl(user);
         
-        String userId = user.getUserId();
-        
-        // UserContextに別の更新者を設定
-        UserContext.clear();
-        UserContext.setCurrentUserId("updater-001");
-        
+        UUID userId = user.getUserId();
+
         // 値を変更
         user.setUserName("modified");
 
         // When: ユーザーを更新
-        mUserService.updateUserImpl(user);
+        UserContext.runAs("updater-001", () -> mUserService.updateUserImpl(user));
 
         // Then: updateUserとupdateDateが更新されていること
         MUser updatedUser = mUserService.getById(userId);
@@ -217,16 +214,14 @@ class MUserServiceImplTest {
         user.setPassword("password789");
         mUserService.createUserImpl(user);
         
-        // UserContextに更新者を設定
+        // 更新者
         String updaterId = "test-updater-123";
-        UserContext.clear();
-        UserContext.setCurrentUserId(updaterId);
         
         // 値を変更
         user.setUserName("contextmodified");
 
         // When: ユーザーを更新
-        mUserService.updateUserImpl(user);
+        UserContext.runAs(updaterId, () -> mUserService.updateUserImpl(user));
 
         // Then: updateUserがUserContextから取得された値であること
         MUser updatedUser = mUserService.getById(user.getUserId());
@@ -243,20 +238,16 @@ class MUserServiceImplTest {
         user.setPassword("originalpass");
         mUserService.createUserImpl(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         String originalCreateUser = user.getCreateUser();
-        
-        // UserContextに更新者を設定
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId);
-        
+
         // 値を変更
         user.setUserName("updated");
         user.setPassword("updatedpass");
         user.setRole(3);
 
         // When: ユーザーを更新
-        mUserService.updateUserImpl(user);
+        UserContext.runAs(userId.toString(), () -> mUserService.updateUserImpl(user));
 
         // Then: データベースの値が更新されていること
         MUser updatedUser = mUserService.getById(userId);
@@ -274,30 +265,24 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("multiupdate1");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
         
         MUser user2 = new MUser();
         user2.setUserName("multiupdate2");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
         
-        String userId1 = user1.getUserId();
-        String userId2 = user2.getUserId();
+        UUID userId1 = user1.getUserId();
+        UUID userId2 = user2.getUserId();
         
         // 値を変更
         user1.setUserName("modified1");
         user2.setUserName("modified2");
         
         // When: 複数のユーザーを更新
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId1);
-        boolean result1 = mUserService.updateUserImpl(user1);
+        boolean result1 = UserContext.callAs(userId1.toString(), () -> mUserService.updateUserImpl(user1));
         
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId2);
-        boolean result2 = mUserService.updateUserImpl(user2);
+        boolean result2 = UserContext.callAs(userId2.toString(), () -> mUserService.updateUserImpl(user2));
 
         // Then: 両方とも更新が成功すること
         assertTrue(result1, "ユーザー1が更新されること");
@@ -318,14 +303,10 @@ class MUserServiceImplTest {
         user.setPassword("password123");
         mUserService.createUserImpl(user);
         
-        String userId = user.getUserId();
-        
-        // UserContextに削除者を設定
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId);
+        UUID userId = user.getUserId();
 
         // When: ユーザーを論理削除
-        boolean result = mUserService.deleteUserImpl(userId);
+        boolean result = UserContext.callAs(userId.toString(), () -> mUserService.deleteUserImpl(userId));
 
         // Then: 削除が成功すること
         assertTrue(result, "ユーザー論理削除が成功すること");
@@ -344,14 +325,10 @@ class MUserServiceImplTest {
         user.setPassword("password456");
         mUserService.createUserImpl(user);
         
-        String userId = user.getUserId();
-        
-        // UserContextに削除者を設定
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId);
+        UUID userId = user.getUserId();
 
         // When: ユーザーを論理削除
-        mUserService.deleteUserImpl(userId);
+        UserContext.runAs(userId.toString(), () -> mUserService.deleteUserImpl(userId));
 
         // Then: deleteFlagがtrueになっていること（直接SQLで確認する代わりに動作確認）
         MUser result = mUserService.getById(userId);
@@ -362,14 +339,10 @@ class MUserServiceImplTest {
     @DisplayName("存在しないユーザーの削除は失敗すること")
     void testDeleteUser_NonExistentUser() {
         // Given: 存在しないユーザーID
-        String nonExistentId = "non-existent-id";
-        
-        // UserContextに削除者を設定
-        UserContext.clear();
-        UserContext.setCurrentUserId("test-user");
+        UUID nonExistentId = UuidFactory.newUuid();
 
         // When: 存在しないユーザーを削除
-        boolean result = mUserService.deleteUserImpl(nonExistentId);
+        boolean result = UserContext.callAs("test-user", () -> mUserService.deleteUserImpl(nonExistentId));
 
         // Then: 削除が失敗すること（対象が存在しないため）
         assertFalse(result, "存在しないユーザーの削除は失敗すること");
@@ -382,26 +355,20 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("multidelete1");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
         
         MUser user2 = new MUser();
         user2.setUserName("multidelete2");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
         
-        String userId1 = user1.getUserId();
-        String userId2 = user2.getUserId();
+        UUID userId1 = user1.getUserId();
+        UUID userId2 = user2.getUserId();
         
         // When: 複数のユーザーを削除
-        UserContext.clear();
-        UserContext.setCurrentUserId("deleter1");
-        boolean result1 = mUserService.deleteUserImpl(userId1);
+        boolean result1 = UserContext.callAs("deleter1", () -> mUserService.deleteUserImpl(userId1));
         
-        UserContext.clear();
-        UserContext.setCurrentUserId("deleter2");
-        boolean result2 = mUserService.deleteUserImpl(userId2);
+        boolean result2 = UserContext.callAs("deleter2", () -> mUserService.deleteUserImpl(userId2));
 
         // Then: 両方とも削除が成功すること
         assertTrue(result1, "ユーザー1が削除されること");
@@ -421,10 +388,9 @@ class MUserServiceImplTest {
         MUser user = new MUser();
         user.setUserName("lifecycle");
         user.setPassword("password");
-        UserContext.clear();
         mUserService.createUserImpl(user);
         
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
         
         // ユーザーが存在することを確認
         MUser createdUser = mUserService.getById(userId);
@@ -432,9 +398,7 @@ class MUserServiceImplTest {
         
         // ユーザーを更新
         user.setUserName("updated");
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId);
-        mUserService.updateUserImpl(user);
+        UserContext.runAs(userId.toString(), () -> mUserService.updateUserImpl(user));
         
         // 更新されたことを確認
         MUser updatedUser = mUserService.getById(userId);
@@ -442,9 +406,7 @@ class MUserServiceImplTest {
         assertEquals("updated", updatedUser.getUserName(), "ユーザー名が更新されていること");
         
         // When: ユーザーを論理削除
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId);
-        boolean deleteResult = mUserService.deleteUserImpl(userId);
+        boolean deleteResult = UserContext.callAs(userId.toString(), () -> mUserService.deleteUserImpl(userId));
 
         // Then: 削除が成功し、取得できなくなること
         assertTrue(deleteResult, "削除が成功すること");
@@ -459,19 +421,16 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("search_test_alice");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
 
         MUser user2 = new MUser();
         user2.setUserName("search_test_bob");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
 
         MUser user3 = new MUser();
         user3.setUserName("another_alice");
         user3.setPassword("pass3");
-        UserContext.clear();
         mUserService.createUserImpl(user3);
 
         // When: "alice"で検索
@@ -493,13 +452,11 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("all_search_1");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
 
         MUser user2 = new MUser();
         user2.setUserName("all_search_2");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
 
         // When: 検索条件を指定せず検索
@@ -518,20 +475,16 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("exclude_test_1");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
-        String userId1 = user1.getUserId();
+        UUID userId1 = user1.getUserId();
 
         MUser user2 = new MUser();
         user2.setUserName("exclude_test_2");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
 
         // user1を論理削除
-        UserContext.clear();
-        UserContext.setCurrentUserId(userId1);
-        mUserService.deleteUserImpl(userId1);
+        UserContext.runAs(userId1.toString(), () -> mUserService.deleteUserImpl(userId1));
 
         // When: "exclude_test"で検索
         MUser searchCondition = new MUser();
@@ -552,13 +505,11 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("prefix_test_suffix");
         user1.setPassword("pass1");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
 
         MUser user2 = new MUser();
         user2.setUserName("test_middle_part");
         user2.setPassword("pass2");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
 
         // When: "test"で検索
@@ -595,7 +546,6 @@ class MUserServiceImplTest {
         MUser user = new MUser();
         user.setUserName("CaseSensitive");
         user.setPassword("pass");
-        UserContext.clear();
         mUserService.createUserImpl(user);
 
         // When: 小文字で検索
@@ -615,7 +565,6 @@ class MUserServiceImplTest {
         MUser user = new MUser();
         user.setUserName("exists_test");
         user.setPassword("password123");
-        UserContext.clear();
         mUserService.createUserImpl(user);
 
         // When: ユーザー名の存在チェック
@@ -644,9 +593,8 @@ class MUserServiceImplTest {
         MUser user = new MUser();
         user.setUserName("exclude_duplicate");
         user.setPassword("password123");
-        UserContext.clear();
         mUserService.createUserImpl(user);
-        String userId = user.getUserId();
+        UUID userId = user.getUserId();
 
         // When: 自分自身のIDを除外してチェック
         boolean exists = mUserService.existsByUserName("exclude_duplicate", userId);
@@ -662,16 +610,14 @@ class MUserServiceImplTest {
         MUser user1 = new MUser();
         user1.setUserName("duplicate_name");
         user1.setPassword("password123");
-        UserContext.clear();
         mUserService.createUserImpl(user1);
-        String userId1 = user1.getUserId();
+        UUID userId1 = user1.getUserId();
 
         MUser user2 = new MUser();
         user2.setUserName("duplicate_test_other");
         user2.setPassword("password456");
-        UserContext.clear();
         mUserService.createUserImpl(user2);
-        String userId2 = user2.getUserId();
+        UUID userId2 = user2.getUserId();
 
         // When: user2のIDを除外して、user1の名前をチェック
         boolean exists = mUserService.existsByUserName("duplicate_name", userId2);
@@ -687,7 +633,6 @@ class MUserServiceImplTest {
         MUser user = new MUser();
         user.setUserName("lowercase");
         user.setPassword("password123");
-        UserContext.clear();
         mUserService.createUserImpl(user);
 
         // When: 大文字でチェック
@@ -699,4 +644,108 @@ class MUserServiceImplTest {
         // このテストは環境依存のため、コメントのみ
         assertNotNull(existsUpperCase, "チェック結果が返ること");
     }
+
+    @Test
+    @DisplayName("ユーザーのエクスポートでパスワードが出力されないこと")
+    void testExportUsers_WithoutPassword() throws Exception {
+        // Given: ユーザーを2件作成
+        for (String userName : List.of("export_user_a", "export_user_b")) {
+            MUser user = new MUser();
+            user.setUserName(userName);
+            user.setPassword("secret-password");
+            mUserService.createUserImpl(user);
+        }
+
+        // When: NDJSON・CSVでエクスポート
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long ndjsonRows = mUserService.exportUsersImpl("export_user_", ExportFormat.NDJSON, ndjson);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long csvRows = mUserService.exportUsersImpl("export_user_", ExportFormat.CSV, csv);
+
+        // Then: 2件が出力され、パスワードが含まれないこと
+        assertEquals(2, ndjsonRows, "NDJSONで2件出力されること");
+        assertEquals(2, csvRows, "CSVで2件出力されること");
+        String ndjsonText = ndjson.toString(StandardCharsets.UTF_8);
+        String csvText = csv.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjsonText.contains("\"userName\":\"export_user_a\""), "ユーザー名が出力されること");
+        assertFalse(ndjsonText.contains("password") || ndjsonText.contains("secret-password"), "NDJSONにパスワードが含まれないこと");
+        assertTrue(csvText.startsWith("userId,userName,role,"), "CSVのヘッダー行が出力されること");
+        assertFalse(csvText.contains("password") || csvText.contains("secret-password"), "CSVにパスワードが含まれないこと");
+    }
+
+    @Test
+    @DisplayName("ユーザー一覧検索でパスワード・監査項目のカラムをSELECTしないこと")
+    void testSearchUserSummary_WithoutPassword() {
+        // Given: ユーザーを3件作成
+        for (int i = 1; i <= 3; i++) {
+            MUser user = new MUser();
+            user.setUserName("summary_user_" + i);
+            user.setPassword("secret-password");
+            mUserService.createUserImpl(user);
+        }
+
+        // When: ページング・シンプル版で検索
+        List<IPage<UserSummary>> paged = new ArrayList<>();
+        List<String> pagedStatements = queryCounter.record(() -> paged.add(
+            mUserService.searchUserSummaryImpl("summary_user_", 1, 10, "userName", "asc", CountMode.EXACT, null)));
+        MUser condition = new MUser();
+        condition.setUserName("summary_user_");
+        List<List<UserSummary>> simple = new ArrayList<>();
+        List<String> simpleStatements = queryCounter.record(() -> simple.add(
+            mUserService.searchUserSummaryImpl(condition, null)));
+
+        // Then: 一覧の項目が返り、パスワード・監査項目のカラムはSELECTされないこと
+        assertEquals(3, paged.get(0).getTotal(), "総件数が取得できること");
+        UserSummary first = paged.get(0).getRecords().get(0);
+        assertNotNull(first.getUserId(), "ユーザーIDが返ること");
+        assertEquals("summary_user_1", first.getUserName(), "ユーザー名が返ること");
+        assertNotNull(first.getRole(), "ロールが返ること");
+        assertEquals(3, simple.get(0).size(), "シンプル版でも3件取得できること");
+        List<String> selects = new ArrayList<>(pagedStatements);
+        selects.addAll(simpleStatements);
+        selects.removeIf(sql -> !sql.toLowerCase().startsWith("select") || sql.toLowerCase().contains("count("));
+        assertEquals(2, selects.size(), "一覧のSELECTが2件実行されること");
+        for (String select : selects) {
+            for (String column : List.of("password", "create_user", "update_user")) {
+                assertFalse(select.toLowerCase().contains(column), "SELECTしないこと: " + column + " / " + select);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("fields を指定した場合、指定した項目のみ返すこと")
+    void testSearchUserSummary_SparseFields() {
+        // Given: ユーザーを3件作成
+        for (int i = 1; i <= 3; i++) {
+            MUser user = new MUser();
+            user.setUserName("fields_user_" + i);
+            user.setPassword("password" + i);
+            mUserService.createUserImpl(user);
+        }
+
+        // When: ユーザー名のみ指定して、カーソル方式で1件ずつ読み進める
+        List<String> userNames = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserSummary> page = mUserService.searchUserSummaryByCursorImpl(
+                "fields_user_", cursor, 1, "userName", "asc", " userName ");
+            page.getRecords().forEach(user -> {
+                assertNull(user.getUserId(), "指定していないユーザーIDは返らないこと");
+                assertNull(user.getRole(), "指定していないロールは返らないこと");
+                userNames.add(user.getUserName());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then: 全件がユーザー名順に取得できること
+        assertEquals(List.of("fields_user_1", "fields_user_2", "fields_user_3"), userNames);
+    }
+
+    @Test
+    @DisplayName("fields にパスワードを指定した場合は例外が発生すること")
+    void testSearchUserSummary_PasswordNotAllowed() {
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class,
+            () -> mUserService.searchUserSummaryImpl(null, 1, 10, "createDate", "desc", CountMode.EXACT, "userName,password"));
+        assertTrue(exception.getMessage().contains("指定できない項目です: fields=password"));
+    }
 }
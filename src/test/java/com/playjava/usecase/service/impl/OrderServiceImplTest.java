@@ -1,26 +1,50 @@
 package com.playjava.usecase.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.playjava.frameworks.context.UserContext;
+import com.playjava.testsupport.RunAsUser;
 import com.playjava.usecase.dto.CreateOrderRequest;
+import com.playjava.usecase.dto.CountMode;
+import com.playjava.usecase.dto.CursorPage;
+import com.playjava.usecase.dto.ExportFormat;
 import com.playjava.usecase.dto.OrderDetailResponse;
 import com.playjava.usecase.dto.OrderItemRequest;
+import com.playjava.usecase.dto.OrderSummary;
 import com.playjava.enterprise.entity.*;
 import com.playjava.usecase.handler.GlobalExceptionHandler.StockInsufficientException;
+import com.playjava.usecase.handler.OrderSummaryProjector;
 import com.playjava.frameworks.mapper.*;
 import com.playjava.frameworks.mapper.MProductMapper;
+import com.playjava.testsupport.QueryCountConfig;
+import com.playjava.testsupport.QueryCounter;
+import com.playjava.usecase.handler.UuidFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
-
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @Transactional
+@Import(QueryCountConfig.class)
+@RunAsUser("test-user-id")
 @DisplayName("OrderServiceImpl テスト")
 class OrderServiceImplTest {
 
@@ -39,20 +63,29 @@ class OrderServiceImplTest {
     @Autowired
     private TOrderMapper orderMapper;
 
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
+
     @Autowired
     private MStockMapper stockMapper;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
     private MCustomer testCustomer;
     private MProduct testProduct1;
     private MProduct testProduct2;
     private MStock testStock1;
     private MStock testStock2;
 
+    /** createDistinctItemRequest で作成した商品数（商品番号の重複を避けるため） */
+    private int distinctProductCount;
+
     @BeforeEach
     void setUp() {
-        UserContext.clear();
-        UserContext.setCurrentUserId("test-user-id");
-
         // テスト用顧客を作成
         testCustomer = new MCustomer();
         testCustomer.setCustomerName("テスト顧客");
@@ -63,6 +96,7 @@ class OrderServiceImplTest {
         // テスト用商品を作成
         long timestamp = System.currentTimeMillis() % 1000000; // 6桁に制限
         testProduct1 = new MProduct();
+        testProduct1.setProductId(UuidFactory.newUuid());
         testProduct1.setProductNumber(String.format("P%06d1", timestamp));
         testProduct1.setProductName("テスト商品1");
         testProduct1.setPrice(1000);
@@ -70,6 +104,7 @@ class OrderServiceImplTest {
         productMapper.insert(testProduct1);
 
         testProduct2 = new MProduct();
+        testProduct2.setProductId(UuidFactory.newUuid());
         testProduct2.setProductNumber(String.format("P%06d2", timestamp));
         testProduct2.setProductName("テスト商品2");
         testProduct2.setPrice(2000);
@@ -90,11 +125,6 @@ class OrderServiceImplTest {
         stockService.createStockImpl(testStock2);
     }
 
-    @AfterEach
-    void tearDown() {
-        UserContext.clear();
-    }
-
     @Test
     @DisplayName("店舗購入の注文作成が成功し、在庫が減算されること")
     void testCreateStorePurchaseOrder_Success() {
@@ -107,7 +137,7 @@ class OrderServiceImplTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderService.createStorePurchaseOrderImpl(request);
+        UUID orderId = orderService.createStorePurchaseOrderImpl(request);
 
         assertNotNull(orderId, "注文IDが生成されること");
         
@@ -159,7 +189,7 @@ class OrderServiceImplTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderService.createSpecialOrderImpl(request);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
 
         assertNotNull(orderId, "注文IDが生成されること");
         
@@ -185,7 +215,7 @@ class OrderServiceImplTest {
         items.add(item1);
         request.setItems(items);
 
-        String orderId = orderService.createCustomOrderImpl(request);
+        UUID orderId = orderService.createCustomOrderImpl(request);
 
         assertNotNull(orderId, "注文IDが生成されること");
         
@@ -211,7 +241,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createSpecialOrderImpl(request);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
 
         // 在庫が減算されていないことを確認
         MStock stockBefore = stockMapper.selectById(testStock1.getStockId());
@@ -243,7 +273,7 @@ class OrderServiceImplTest {
         item1.setQuantity(2);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createCustomOrderImpl(request);
+        UUID orderId = orderService.createCustomOrderImpl(request);
 
         // 注文確定
         boolean result = orderService.confirmOrderImpl(orderId);
@@ -267,7 +297,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createStorePurchaseOrderImpl(request);
+        UUID orderId = orderService.createStorePurchaseOrderImpl(request);
 
         // 既に確定済みの注文を確定しようとする
         RuntimeException exception = assertThrows(
@@ -304,9 +334,9 @@ class OrderServiceImplTest {
         orderService.createSpecialOrderImpl(request2);
 
         // 顧客IDで検索
-        IPage<TOrder> result = orderService.searchOrderImpl(
-            null, testCustomer.getCustomerId(), null, null, null, false,
-            1, 10, "orderDate", "desc"
+        IPage<OrderSummary> result = orderService.searchOrderSummaryImpl(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            1, 10, "orderDate", "desc", CountMode.EXACT, null
         );
 
         assertNotNull(result, "検索結果が取得できること");
@@ -329,7 +359,7 @@ class OrderServiceImplTest {
         item2.setQuantity(1);
         items.add(item2);
         request.setItems(items);
-        String orderId = orderService.createStorePurchaseOrderImpl(request);
+        UUID orderId = orderService.createStorePurchaseOrderImpl(request);
 
         // 注文詳細を取得
         OrderDetailResponse response = orderService.getOrderDetailImpl(orderId);
@@ -353,7 +383,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createStorePurchaseOrderImpl(request);
+        UUID orderId = orderService.createStorePurchaseOrderImpl(request);
 
         // 在庫が減算されていることを確認
         MStock stockBefore = stockMapper.selectById(testStock1.getStockId());
@@ -385,7 +415,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createSpecialOrderImpl(request);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
 
         // 在庫が減算されていないことを確認
         MStock stockBefore = stockMapper.selectById(testStock1.getStockId());
@@ -413,7 +443,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createSpecialOrderImpl(request);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
 
         // 一度キャンセル
         orderService.cancelOrderImpl(orderId);
@@ -440,7 +470,7 @@ class OrderServiceImplTest {
         item1.setQuantity(3);
         items.add(item1);
         request.setItems(items);
-        String orderId = orderService.createSpecialOrderImpl(request);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
 
         // 在庫を減らす（他の注文で在庫を使い切る）
         MStock stock = stockMapper.selectById(testStock1.getStockId());
@@ -456,4 +486,534 @@ class OrderServiceImplTest {
 
         assertTrue(exception.getMessage().contains("在庫不足"), "エラーメッセージが適切であること");
     }
+
+    /**
+     * 同一商品を含む注文明細リクエストを作成するヘルパーメソッド
+     */
+    private CreateOrderRequest createRepeatedItemRequest(int lineCount) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(i % 2 == 0 ? testProduct1.getProductId() : testProduct2.getProductId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    /**
+     * 実行されたSQLのうち、指定したテーブルを参照するものの件数
+     */
+    private static long countStatements(List<String> statements, String table) {
+        Pattern pattern = Pattern.compile("\\b" + table + "\\b", Pattern.CASE_INSENSITIVE);
+        return statements.stream().filter(sql -> pattern.matcher(sql).find()).count();
+    }
+
+    @Test
+    @DisplayName("店舗購入の注文作成で商品マスタの取得が1回のクエリで行われること")
+    void testCreateStorePurchaseOrder_SingleProductQuery() {
+        CreateOrderRequest request = createRepeatedItemRequest(8);
+
+        List<UUID> orderIds = new ArrayList<>();
+        List<String> statements = queryCounter.record(() -> orderIds.add(orderService.createStorePurchaseOrderImpl(request)));
+        UUID orderId = orderIds.get(0);
+
+        assertEquals(1, countStatements(statements, "m_product"), "商品マスタへのクエリが1回であること");
+
+        // 同一商品の明細が合算されていること
+        List<TOrderItem> orderItems = orderService.getOrderDetailImpl(orderId).getItems();
+        assertEquals(2, orderItems.size(), "同一商品の明細が1行にまとめられること");
+        for (TOrderItem orderItem : orderItems) {
+            assertEquals(4, orderItem.getQuantity(), "数量が合算されていること");
+        }
+
+        // 在庫が合算した数量で減算されていること
+        assertEquals(6, stockMapper.selectById(testStock1.getStockId()).getQuantity(), "在庫が4減算されて6になっていること");
+        assertEquals(1, stockMapper.selectById(testStock2.getStockId()).getQuantity(), "在庫が4減算されて1になっていること");
+    }
+
+    @Test
+    @DisplayName("取り寄せ・カスタマイズ・キャンセル注文の作成で商品マスタの取得が1回のクエリで行われること")
+    void testCreateOrders_SingleProductQuery() {
+        CreateOrderRequest request = createRepeatedItemRequest(30);
+
+        List<String> special = queryCounter.record(() -> orderService.createSpecialOrderImpl(request));
+        assertEquals(1, countStatements(special, "m_product"), "取り寄せ注文で商品マスタへのクエリが1回であること");
+
+        List<String> custom = queryCounter.record(() -> orderService.createCustomOrderImpl(request));
+        assertEquals(1, countStatements(custom, "m_product"), "カスタマイズオーダーで商品マスタへのクエリが1回であること");
+
+        List<String> cancelled = queryCounter.record(() -> orderService.createCancelledOrderImpl(request));
+        assertEquals(1, countStatements(cancelled, "m_product"), "キャンセル注文で商品マスタへのクエリが1回であること");
+    }
+
+    @Test
+    @DisplayName("同一商品の合算数量が在庫を超える場合にStockInsufficientExceptionが投げられること")
+    void testCreateStorePurchaseOrder_MergedQuantityInsufficient() {
+        // 商品2は在庫5に対して1個ずつ6明細（合計6）
+        CreateOrderRequest request = createRepeatedItemRequest(12);
+
+        StockInsufficientException exception = assertThrows(
+            StockInsufficientException.class,
+            () -> orderService.createStorePurchaseOrderImpl(request),
+            "合算数量が在庫を超える場合に例外が投げられること"
+        );
+
+        assertEquals(1, exception.getInsufficientItems().size(), "在庫不足商品が1件であること");
+        assertEquals(testProduct2.getProductId(), exception.getInsufficientItems().get(0).getProductId(), "商品IDが正しいこと");
+        assertEquals(6, exception.getInsufficientItems().get(0).getRequestedQuantity(), "合算した注文数量が6であること");
+    }
+
+    @Test
+    @DisplayName("注文明細が1回のINSERTで一括登録されること")
+    void testCreateSpecialOrder_BatchedItemInsert() {
+        // 20商品の注文明細を作成
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            MProduct product = new MProduct();
+            product.setProductId(UuidFactory.newUuid());
+            product.setProductNumber(String.format("B%07d", i));
+            product.setProductName("一括登録商品" + i);
+            product.setPrice(100 + i);
+            product.setCategory(1);
+            productMapper.insert(product);
+
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(product.getProductId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+
+        List<UUID> orderIds = new ArrayList<>();
+        List<String> statements = queryCounter.record(() -> orderIds.add(orderService.createSpecialOrderImpl(request)));
+        UUID orderId = orderIds.get(0);
+
+        assertEquals(1, countStatements(statements, "t_order_item"), "注文明細のINSERTが1回であること");
+        assertEquals(20, orderService.getOrderDetailImpl(orderId).getItems().size(), "注文明細が20件登録されていること");
+    }
+
+    @Test
+    @DisplayName("注文確定で複数商品の在庫がまとめて減算されること")
+    void testConfirmOrder_BatchedStockDeduction() {
+        CreateOrderRequest request = createRepeatedItemRequest(4);
+        UUID orderId = orderService.createSpecialOrderImpl(request);
+
+        List<String> statements = queryCounter.record(() -> orderService.confirmOrderImpl(orderId));
+
+        assertEquals(2, countStatements(statements, "m_stock"), "在庫へのクエリが行ロックと一括更新の2回であること");
+        assertEquals(8, stockMapper.selectById(testStock1.getStockId()).getQuantity(), "商品1の在庫が2減算されて8になっていること");
+        assertEquals(3, stockMapper.selectById(testStock2.getStockId()).getQuantity(), "商品2の在庫が2減算されて3になっていること");
+    }
+
+    @Test
+    @DisplayName("店舗購入で複数商品が在庫不足の場合、全商品がまとめて報告されること")
+    void testCreateStorePurchaseOrder_AllInsufficientReported() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        List<OrderItemRequest> items = new ArrayList<>();
+        OrderItemRequest item1 = new OrderItemRequest();
+        item1.setProductId(testProduct1.getProductId());
+        item1.setQuantity(11);
+        items.add(item1);
+        OrderItemRequest item2 = new OrderItemRequest();
+        item2.setProductId(testProduct2.getProductId());
+        item2.setQuantity(6);
+        items.add(item2);
+        request.setItems(items);
+
+        StockInsufficientException exception = assertThrows(
+            StockInsufficientException.class,
+            () -> orderService.createStorePurchaseOrderImpl(request),
+            "在庫不足時に例外が投げられること"
+        );
+
+        assertEquals(2, exception.getInsufficientItems().size(), "在庫不足商品が2件であること");
+    }
+
+    @Test
+    @DisplayName("カーソル方式の注文検索で、同じ注文日時の注文も重複・欠落なく件数取得なしで読み進められること")
+    void testSearchOrderByCursor_SameOrderDate() {
+        // Given: 同じ注文日時の注文を5件作成
+        OffsetDateTime orderDate = OffsetDateTime.now().withNano(0);
+        for (int i = 0; i < 5; i++) {
+            TOrder order = new TOrder();
+            order.setOrderId(UuidFactory.newUuid());
+            order.setCustomerId(testCustomer.getCustomerId());
+            order.setOrderDate(orderDate);
+            order.setStatus(0);
+            order.setDeleteFlag(false);
+            orderMapper.insert(order);
+            orderSummaryProjector.orderCreated(order.getOrderId());
+        }
+
+        // When: 2件ずつ注文日時の降順で読み進める
+        Set<UUID> orderIds = new HashSet<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            String current = cursor;
+            CursorPage<OrderSummary> page = queryCounter.assertAtMost(1, () -> orderService.searchOrderSummaryByCursorImpl(
+                null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+                current, 2, "orderDate", "desc", null));
+            page.getRecords().forEach(order -> orderIds.add(order.getOrderId()));
+            pageSizes.add(page.getRecords().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(List.of(2, 2, 1), pageSizes, "2件・2件・1件の3ページになること");
+        assertEquals(5, orderIds.size(), "全注文が重複なく取得できること");
+    }
+
+    @Test
+    @DisplayName("カーソル発行時と異なるソート条件で検索した場合は例外が発生すること")
+    void testSearchOrderByCursor_SortMismatch() {
+        for (int i = 0; i < 2; i++) {
+            TOrder order = new TOrder();
+            order.setOrderId(UuidFactory.newUuid());
+            order.setCustomerId(testCustomer.getCustomerId());
+            order.setOrderDate(OffsetDateTime.now());
+            order.setStatus(0);
+            order.setDeleteFlag(false);
+            orderMapper.insert(order);
+            orderSummaryProjector.orderCreated(order.getOrderId());
+        }
+        CursorPage<OrderSummary> first = orderService.searchOrderSummaryByCursorImpl(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            null, 1, "orderDate", "desc", null);
+        assertNotNull(first.getNextCursor(), "次ページのカーソルが返されること");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderService.searchOrderSummaryByCursorImpl(
+                null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+                first.getNextCursor(), 1, "orderDate", "asc", null));
+        assertTrue(exception.getMessage().contains("カーソルのソート条件が一致しません"));
+    }
+
+    @Test
+    @DisplayName("注文一覧検索で監査項目のカラムをSELECTせず、一覧の項目のみ返すこと")
+    void testSearchOrderSummary_SelectsListColumnsOnly() {
+        // Given: 明細2件（100円・101円）の注文を3件作成
+        for (int i = 0; i < 3; i++) {
+            orderService.createSpecialOrderImpl(createDistinctItemRequest(2));
+        }
+
+        // When: fields 指定なしで検索
+        List<IPage<OrderSummary>> result = new ArrayList<>();
+        List<String> statements = queryCounter.record(() -> result.add(orderService.searchOrderSummaryImpl(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            1, 10, "orderDate", "desc", CountMode.EXACT, null)));
+
+        // Then: 一覧の項目がすべて返り、監査項目のカラムはSELECTされないこと
+        IPage<OrderSummary> page = result.get(0);
+        assertEquals(3, page.getTotal(), "総件数が取得できること");
+        assertEquals(3, page.getRecords().size(), "3件取得できること");
+        OrderSummary first = page.getRecords().get(0);
+        assertNotNull(first.getOrderId(), "注文IDが返ること");
+        assertEquals(testCustomer.getCustomerId(), first.getCustomerId(), "顧客IDが返ること");
+        assertEquals(testCustomer.getCustomerNumber(), first.getCustomerNumber(), "顧客番号が返ること");
+        assertEquals("テスト顧客", first.getCustomerName(), "顧客名が返ること");
+        assertNotNull(first.getOrderDate(), "注文日時が返ること");
+        assertEquals(2, first.getStatus(), "ステータスが返ること");
+        assertEquals(2, first.getItemCount(), "明細数が返ること");
+        assertEquals(201L, first.getTotalAmount(), "合計金額（数量×単価の合計）が返ること");
+        String select = statements.stream()
+            .filter(sql -> sql.toLowerCase().startsWith("select") && !sql.toLowerCase().contains("count("))
+            .findFirst()
+            .orElseThrow();
+        assertTrue(select.toLowerCase().contains("t_order_summary"), "読み取りモデルを検索すること: " + select);
+        assertFalse(select.toLowerCase().contains("t_order_item"), "注文明細を検索しないこと: " + select);
+        for (String column : List.of("create_date", "update_date")) {
+            assertFalse(select.toLowerCase().contains(column), "監査項目をSELECTしないこと: " + column + " / " + select);
+        }
+    }
+
+    @Test
+    @DisplayName("fields を指定した場合、指定した項目のみ返し、カーソル方式でも読み進められること")
+    void testSearchOrderSummaryByCursor_SparseFields() {
+        // Given: 注文を5件作成
+        for (int i = 0; i < 5; i++) {
+            orderService.createSpecialOrderImpl(createDistinctItemRequest(1));
+        }
+
+        // When: ステータスのみ指定して2件ずつ読み進める
+        int total = 0;
+        String cursor = null;
+        do {
+            CursorPage<OrderSummary> page = orderService.searchOrderSummaryByCursorImpl(
+                null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+                cursor, 2, "orderDate", "desc", "status");
+
+            // Then: ステータスのみ返ること（カーソルに使う注文ID・注文日時は返さない）
+            for (OrderSummary summary : page.getRecords()) {
+                assertNotNull(summary.getStatus(), "ステータスが返ること");
+                assertNull(summary.getOrderId(), "指定していない注文IDは返らないこと");
+                assertNull(summary.getOrderDate(), "指定していない注文日時は返らないこと");
+                assertNull(summary.getCustomerName(), "指定していない顧客名は返らないこと");
+            }
+            total += page.getRecords().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(5, total, "全件を読み進められること");
+    }
+
+    @Test
+    @DisplayName("fields に一覧の項目以外を指定した場合は例外が発生すること")
+    void testSearchOrderSummary_UnknownField() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderService.searchOrderSummaryImpl(
+                null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+                1, 10, "orderDate", "desc", CountMode.EXACT, "orderId,createUser"));
+        assertTrue(exception.getMessage().contains("指定できない項目です: fields=createUser"));
+    }
+
+    @Test
+    @DisplayName("注文の確定・キャンセルで注文一覧のステータスが更新されること")
+    void testSearchOrderSummary_StatusChanged() {
+        // Given: 取り寄せ注文を作成
+        UUID orderId = orderService.createSpecialOrderImpl(createDistinctItemRequest(2));
+
+        // When/Then: 確定・キャンセルのたびに一覧のステータスが変わること
+        orderService.confirmOrderImpl(orderId);
+        assertEquals(1, findSummary(orderId).getStatus(), "確定後は注文確定（1）であること");
+
+        orderService.cancelOrderImpl(orderId);
+        assertEquals(6, findSummary(orderId).getStatus(), "キャンセル後はキャンセル済み（6）であること");
+        assertEquals(2, findSummary(orderId).getItemCount(), "明細数は変わらないこと");
+    }
+
+    @Test
+    @DisplayName("顧客名の変更が、その顧客の注文一覧に反映されること")
+    void testSearchOrderSummary_CustomerRenamed() {
+        // Given: 注文を2件作成
+        orderService.createStorePurchaseOrderImpl(createDistinctItemRequest(1));
+        orderService.createSpecialOrderImpl(createDistinctItemRequest(1));
+
+        // When: 顧客名を変更
+        MCustomer update = new MCustomer();
+        update.setCustomerId(testCustomer.getCustomerId());
+        update.setCustomerName("変更後の顧客");
+        customerService.updateCustomerImpl(update);
+
+        // Then: 変更後の顧客名で検索でき、変更前の顧客名では見つからないこと
+        IPage<OrderSummary> renamed = orderService.searchOrderSummaryImpl(
+            null, null, null, "変更後", null, null, null, false,
+            1, 10, "orderDate", "desc", CountMode.EXACT, null);
+        assertEquals(2, renamed.getTotal(), "変更後の顧客名で2件見つかること");
+        assertTrue(renamed.getRecords().stream().allMatch(summary -> "変更後の顧客".equals(summary.getCustomerName())));
+        IPage<OrderSummary> old = orderService.searchOrderSummaryImpl(
+            null, testCustomer.getCustomerId(), null, "テスト顧客", null, null, null, false,
+            1, 10, "orderDate", "desc", CountMode.EXACT, null);
+        assertEquals(0, old.getTotal(), "変更前の顧客名では見つからないこと");
+    }
+
+    @Test
+    @DisplayName("合計金額でソートでき、カーソル方式でも同じ順序で読み進められること")
+    void testSearchOrderSummary_SortByTotalAmount() {
+        // Given: 明細数の異なる注文を作成（明細数が多いほど合計金額が大きい）
+        for (int count : List.of(2, 4, 1, 3)) {
+            orderService.createSpecialOrderImpl(createDistinctItemRequest(count));
+        }
+
+        // When: 合計金額の降順で検索
+        IPage<OrderSummary> page = orderService.searchOrderSummaryImpl(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            1, 10, "totalAmount", "desc", CountMode.EXACT, "totalAmount,itemCount");
+        List<Long> byPage = page.getRecords().stream().map(OrderSummary::getTotalAmount).toList();
+
+        List<Long> byCursor = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderSummary> cursorPage = orderService.searchOrderSummaryByCursorImpl(
+                null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+                cursor, 3, "totalAmount", "desc", "totalAmount");
+            cursorPage.getRecords().forEach(summary -> byCursor.add(summary.getTotalAmount()));
+            cursor = cursorPage.getNextCursor();
+        } while (cursor != null);
+
+        // Then: 合計金額の降順で返ること
+        assertEquals(List.of(4, 3, 2, 1), page.getRecords().stream().map(OrderSummary::getItemCount).toList(),
+            "明細数の多い順（合計金額の大きい順）であること");
+        List<Long> sorted = new ArrayList<>(byPage);
+        sorted.sort(Comparator.reverseOrder());
+        assertEquals(sorted, byPage, "合計金額の降順であること");
+        assertEquals(byPage, byCursor, "カーソル方式でも同じ順序であること");
+    }
+
+    /**
+     * 注文一覧から注文IDで1件取得するヘルパーメソッド
+     */
+    private OrderSummary findSummary(UUID orderId) {
+        IPage<OrderSummary> page = orderService.searchOrderSummaryImpl(
+            orderId, null, null, null, null, null, null, false,
+            1, 1, "orderDate", "desc", CountMode.EXACT, null);
+        assertEquals(1, page.getRecords().size(), "注文一覧に注文があること: orderId=" + orderId);
+        return page.getRecords().get(0);
+    }
+
+    /**
+     * 在庫付きの商品を指定件数作成し、各商品1個ずつの注文明細リクエストを作成するヘルパーメソッド
+     */
+    private CreateOrderRequest createDistinctItemRequest(int productCount) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(testCustomer.getCustomerId());
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            MProduct product = new MProduct();
+            product.setProductId(UuidFactory.newUuid());
+            product.setProductNumber(String.format("Q%07d", distinctProductCount++));
+            product.setProductName("件数上限テスト商品" + i);
+            product.setPrice(100 + i);
+            product.setCategory(1);
+            productMapper.insert(product);
+
+            MStock stock = new MStock();
+            stock.setProductId(product.getProductId());
+            stock.setQuantity(10);
+            stock.setStatus(0);
+            stockService.createStockImpl(stock);
+
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(product.getProductId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    @Test
+    @DisplayName("店舗購入の注文作成のSQL実行件数が明細数によらず7件以内であること")
+    void testCreateStorePurchaseOrder_QueryBudget() {
+        CreateOrderRequest singleItemRequest = createDistinctItemRequest(1);
+        CreateOrderRequest request = createDistinctItemRequest(20);
+
+        // 顧客確認・商品取得・在庫の行ロック・在庫の一括減算・注文登録・明細の一括登録・注文一覧の読み取りモデルの作成
+        UUID singleItemOrderId = queryCounter.assertAtMost(7, () -> orderService.createStorePurchaseOrderImpl(singleItemRequest));
+        UUID orderId = queryCounter.assertAtMost(7, () -> orderService.createStorePurchaseOrderImpl(request));
+
+        assertNotNull(singleItemOrderId);
+        assertEquals(20, orderService.getOrderDetailImpl(orderId).getItems().size(), "注文明細が20件登録されていること");
+    }
+
+    @Test
+    @DisplayName("取り寄せ注文の作成・確定・キャンセルのSQL実行件数が明細数によらず上限以内であること")
+    void testSpecialOrderFlow_QueryBudget() {
+        CreateOrderRequest request = createDistinctItemRequest(20);
+
+        // 顧客確認・商品取得・注文登録・明細の一括登録・注文一覧の読み取りモデルの作成
+        UUID orderId = queryCounter.assertAtMost(5, () -> orderService.createSpecialOrderImpl(request));
+
+        // 注文取得・明細取得・在庫の行ロック・在庫の一括減算・ステータス更新・注文一覧のステータス更新
+        queryCounter.assertAtMost(6, () -> orderService.confirmOrderImpl(orderId));
+
+        // 注文と明細の結合取得
+        OrderDetailResponse detail = queryCounter.assertAtMost(1, () -> orderService.getOrderDetailImpl(orderId));
+        assertEquals(20, detail.getItems().size(), "注文明細が20件取得できること");
+
+        // 注文取得・明細取得・在庫の行ロック・在庫の一括戻し・ステータス更新・注文一覧のステータス更新
+        queryCounter.assertAtMost(6, () -> orderService.cancelOrderImpl(orderId));
+    }
+
+    /**
+     * エクスポートを実行し、出力された文字列を返す
+     */
+    private String exportOrders(ExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            orderService.exportOrdersImpl(testCustomer.getCustomerId(), null, null, null, null, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("注文をNDJSONでエクスポートすると、1行に注文1件と明細が出力されること")
+    void testExportOrders_Ndjson() {
+        // Given: 明細2件と明細1件の注文
+        CreateOrderRequest request = createDistinctItemRequest(2);
+        UUID orderId1 = orderService.createSpecialOrderImpl(request);
+        UUID orderId2 = orderService.createSpecialOrderImpl(createDistinctItemRequest(1));
+
+        // When: NDJSONでエクスポート
+        String[] lines = exportOrders(ExportFormat.NDJSON).split("\n");
+
+        // Then: 注文ID順に1行1件で出力され、明細が入れ子になっていること
+        assertEquals(2, lines.length, "注文2件が出力されること");
+        List<UUID> expectedOrder = orderId1.toString().compareTo(orderId2.toString()) < 0 ? List.of(orderId1, orderId2) : List.of(orderId2, orderId1);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode node = jsonMapper.readTree(lines[i]);
+            UUID orderId = expectedOrder.get(i);
+            assertEquals(orderId.toString(), node.get("orderId").asString(), "注文ID順に出力されること");
+            assertEquals(orderId.equals(orderId1) ? 2 : 1, node.get("items").size(), "明細が入れ子で出力されること");
+            assertNotNull(node.get("items").get(0).get("productId"), "明細の商品IDが出力されること");
+        }
+    }
+
+    @Test
+    @DisplayName("注文をCSVでエクスポートすると、ヘッダー行と明細ごとの行が出力されること")
+    void testExportOrders_Csv() {
+        // Given: 明細2件の注文
+        UUID orderId = orderService.createSpecialOrderImpl(createDistinctItemRequest(2));
+
+        // When: CSVでエクスポート
+        String[] lines = exportOrders(ExportFormat.CSV).split("\r\n");
+
+        // Then: ヘッダー行と明細2行が出力されること
+        assertEquals(3, lines.length, "ヘッダー行と明細2行が出力されること");
+        assertTrue(lines[0].startsWith("orderId,customerId,orderDate,status,"), "ヘッダー行が出力されること");
+        assertTrue(lines[0].endsWith(",orderItemId,productId,quantity,unitPrice"), "明細の列がヘッダー行に含まれること");
+        assertTrue(lines[1].startsWith(orderId + ","), "注文の列が明細ごとに出力されること");
+        assertTrue(lines[2].startsWith(orderId + ","), "注文の列が明細ごとに出力されること");
+    }
+
+    @Test
+    @DisplayName("注文エクスポートのSQL実行件数が注文数によらず2件であること")
+    void testExportOrders_QueryBudget() {
+        // Given: 明細を含む注文20件
+        for (int i = 0; i < 20; i++) {
+            orderService.createSpecialOrderImpl(createDistinctItemRequest(2));
+        }
+
+        // When & Then: 注文の読み出し・明細の一括取得（500件の注文ごと）
+        String output = queryCounter.assertAtMost(2, () -> exportOrders(ExportFormat.NDJSON));
+        assertEquals(20, output.split("\n").length, "注文20件が出力されること");
+    }
+
+    @Test
+    @DisplayName("出力先への書き込みに失敗した場合、エクスポートが打ち切られること")
+    void testExportOrders_ClientDisconnected() {
+        // Given: 出力先のバッファを超える件数の注文と、書き込むと失敗する出力先（クライアントの切断）
+        for (int i = 0; i < 30; i++) {
+            orderService.createSpecialOrderImpl(createDistinctItemRequest(1));
+        }
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("クライアントが切断しました");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("クライアントが切断しました");
+            }
+        };
+
+        // When & Then: IOExceptionが送出されること
+        assertThrows(IOException.class, () -> orderService.exportOrdersImpl(
+            testCustomer.getCustomerId(), null, null, null, null, ExportFormat.NDJSON, disconnected));
+
+        // Then: 打ち切り後も同じトランザクションで検索できること（Cursor が閉じられていること）
+        IPage<OrderSummary> result = orderService.searchOrderSummaryImpl(
+            null, testCustomer.getCustomerId(), null, null, null, null, null, false,
+            1, 10, "orderDate", "desc", CountMode.EXACT, null);
+        assertEquals(30, result.getTotal(), "注文が検索できること");
+    }
 }
@@ -3,7 +3,7 @@
 
 -- ユーザーマスタ
 CREATE TABLE IF NOT EXISTS m_user (
-    user_id         VARCHAR(36) PRIMARY KEY,
+    user_id         UUID PRIMARY KEY,
     user_name       VARCHAR(50) NOT NULL,
     password        VARCHAR(100) NOT NULL,
     role            SMALLINT NOT NULL,
@@ -22,7 +22,7 @@ CREATE INDEX IF NOT EXISTS idx_user_role ON m_user(role);
 
 -- 顧客マスタ
 CREATE TABLE IF NOT EXISTS m_customer (
-    customer_id     VARCHAR(36) PRIMARY KEY,
+    customer_id     UUID PRIMARY KEY,
     customer_number VARCHAR(10) NOT NULL,
     customer_name   VARCHAR(50) NOT NULL,
     address         VARCHAR(100),
@@ -42,10 +42,11 @@ CREATE INDEX IF NOT EXISTS idx_customer_name ON m_customer(customer_name);
 CREATE INDEX IF NOT EXISTS idx_customer_address ON m_customer(address);
 CREATE INDEX IF NOT EXISTS idx_customer_phone ON m_customer(phone_number);
 CREATE INDEX IF NOT EXISTS idx_customer_email ON m_customer(email);
+CREATE INDEX IF NOT EXISTS idx_customer_create_date ON m_customer(create_date);
 
 -- 商品マスタ
 CREATE TABLE IF NOT EXISTS m_product (
-    product_id      VARCHAR(36) PRIMARY KEY,
+    product_id      UUID PRIMARY KEY,
     product_number  VARCHAR(10) NOT NULL,
     product_name    VARCHAR(50) NOT NULL,
     description     VARCHAR(100),
@@ -63,11 +64,12 @@ CREATE TABLE IF NOT EXISTS m_product (
 -- 商品マスタのインデックス
 CREATE INDEX IF NOT EXISTS idx_product_name ON m_product(product_name);
 CREATE INDEX IF NOT EXISTS idx_product_price ON m_product(price);
+CREATE INDEX IF NOT EXISTS idx_product_update_date ON m_product(update_date);
 
 -- 在庫マスタ
 CREATE TABLE IF NOT EXISTS m_stock (
-    stock_id        VARCHAR(36) PRIMARY KEY,
-    product_id      VARCHAR(36) NOT NULL,
+    stock_id        UUID PRIMARY KEY,
+    product_id      UUID NOT NULL,
     quantity        INT NOT NULL DEFAULT 0,
     status          SMALLINT NOT NULL,
     delete_flag     BOOLEAN NOT NULL DEFAULT FALSE,
@@ -85,8 +87,8 @@ CREATE INDEX IF NOT EXISTS idx_stock_product ON m_stock(product_id);
 
 -- 注文トランザクション
 CREATE TABLE IF NOT EXISTS t_order (
-    order_id        VARCHAR(36) PRIMARY KEY,
-    customer_id     VARCHAR(36) NOT NULL,
+    order_id        UUID PRIMARY KEY,
+    customer_id     UUID NOT NULL,
     order_date      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
     status          SMALLINT NOT NULL,
     delete_flag     BOOLEAN NOT NULL DEFAULT FALSE,
@@ -100,13 +102,14 @@ CREATE TABLE IF NOT EXISTS t_order (
 
 -- 注文トランザクションのインデックス
 CREATE INDEX IF NOT EXISTS idx_order_customer ON t_order(customer_id);
-CREATE INDEX IF NOT EXISTS idx_order_date ON t_order(order_date);
+-- 注文日時の範囲検索とカーソル方式の検索（注文日時＋注文ID順）で使用
+CREATE INDEX IF NOT EXISTS idx_order_date ON t_order(order_date, order_id);
 
 -- 注文明細トランザクション
 CREATE TABLE IF NOT EXISTS t_order_item (
-    order_item_id   VARCHAR(36) PRIMARY KEY,
-    order_id        VARCHAR(36) NOT NULL,
-    product_id      VARCHAR(36) NOT NULL,
+    order_item_id   UUID PRIMARY KEY,
+    order_id        UUID NOT NULL,
+    product_id      UUID NOT NULL,
     quantity        INT NOT NULL,
     unit_price      INT NOT NULL,
     create_date     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -118,3 +121,45 @@ CREATE TABLE IF NOT EXISTS t_order_item (
 
 -- 注文明細トランザクションのインデックス
 CREATE INDEX IF NOT EXISTS idx_order_item_order ON t_order_item(order_id);
+
+-- 注文一覧の読み取りモデル
+CREATE TABLE IF NOT EXISTS t_order_summary (
+    order_id        UUID PRIMARY KEY,
+    customer_id     UUID NOT NULL,
+    customer_number VARCHAR(10) NOT NULL,
+    customer_name   VARCHAR(50) NOT NULL,
+    order_date      TIMESTAMP WITH TIME ZONE NOT NULL,
+    status          SMALLINT NOT NULL,
+    item_count      INT NOT NULL,
+    total_amount    BIGINT NOT NULL,
+    delete_flag     BOOLEAN NOT NULL DEFAULT FALSE,
+    create_date     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_date     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT fk_order_summary_order FOREIGN KEY (order_id) REFERENCES t_order(order_id)
+);
+
+-- 注文一覧の読み取りモデルのインデックス（H2 は INCLUDE 非対応のため、キーのみ）
+CREATE INDEX IF NOT EXISTS idx_order_summary_order_date ON t_order_summary(order_date, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_customer ON t_order_summary(customer_id, order_date, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_customer_number ON t_order_summary(customer_number, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_customer_name ON t_order_summary(customer_name, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_status ON t_order_summary(status, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_item_count ON t_order_summary(item_count, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_total_amount ON t_order_summary(total_amount, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_create_date ON t_order_summary(create_date, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_update_date ON t_order_summary(update_date, order_id);
+
+-- 在庫台帳チェックポイント
+CREATE TABLE IF NOT EXISTS t_stock_ledger_checkpoint (
+    ledger_id       VARCHAR(64) PRIMARY KEY,
+    last_sequence   BIGINT NOT NULL,
+    update_date     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 採番カウンタ
+CREATE TABLE IF NOT EXISTS t_number_counter (
+    counter_name    VARCHAR(64) PRIMARY KEY,
+    next_value      BIGINT NOT NULL,
+    update_date     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);